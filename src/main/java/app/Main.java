@@ -1,6 +1,8 @@
 package app;
 
 import data.database.DataSourceFactory;
+import data.database.JdbcPriceBarStore;
+import data.database.JdbcTradingDataAccess;
 import data.database.JdbcWatchlistRepository;
 import data.database.RegisteredExpenseRepository;
 import data.database.RegisteredUserRepository;
@@ -10,6 +12,8 @@ import data.news.NewsApiDao;
 import data.portfolio.AlphaVantagePriceHistoryRepository;
 import data.portfolio.TradingDataPortfolioRepository;
 import data.stock.AlphaVantage;
+import data.stock.ApiRateLimiter;
+import data.stock.QuoteCache;
 import data.stock.WatchlistRepository;
 import data.trading.JsonTradingDataAccess;
 import interfaceadapters.dashboard.DashboardController;
@@ -25,7 +29,15 @@ import interfaceadapters.trading.TradingController;
 import interfaceadapters.trading.TradingPresenter;
 import interfaceadapters.trends.TrendsController;
 import interfaceadapters.trends.TrendsPresenter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import javax.sql.DataSource;
 import javax.swing.*;
 import ui.dashboard.DashboardView;
@@ -41,6 +53,7 @@ import ui.trends.TrendsViewModel;
 import usecase.add_expense.AddExpenseInteractor;
 import usecase.fetch_news.FetchNewsInteractor;
 import usecase.fetch_news.NewsDataAccessInterface;
+import usecase.import_expenses.ImportExpensesInteractor;
 import usecase.list_expenses.ListExpensesInteractor;
 import usecase.login.LoginInteractor;
 import usecase.portfolio.PortfolioInputBoundary;
@@ -50,6 +63,7 @@ import usecase.portfolio.PriceHistoryRepository;
 import usecase.signup.SignUpInteractor;
 import usecase.stocksearch.StockSearchInputBoundary;
 import usecase.stocksearch.StockSearchInteractor;
+import usecase.trading.MatchingEngine;
 import usecase.trading.TradingDataAccessInterface;
 import usecase.trading.TradingInteractor;
 import usecase.trading.TradingViewModel;
@@ -78,14 +92,25 @@ public class Main {
     private static TrendsViewModel trendsViewModel;
     private static TrendsDataAccess trendsDataAccess;
 
+    /** Command-line flag that recomputes expense rollups and exits. */
+    private static final String REBUILD_ROLLUPS_ARG = "--rebuild-expense-rollups";
+
+    /** Minutes between background quotes for symbols with open orders. */
+    private static final long OPEN_ORDER_POLL_MINUTES = 2;
+
     private static JFrame currentFrame;
     private static String currentUsername;
 
     public static void main(String[] args) {
+        if (args.length > 0 && REBUILD_ROLLUPS_ARG.equals(args[0])) {
+            rebuildExpenseRollups();
+            return;
+        }
         SwingUtilities.invokeLater(() -> {
             // Setup database
             dataSource = DataSourceFactory.sqlite("app.db");
             TableInitializer.ensureSchema(dataSource);
+            AlphaVantage.setDefaultPriceBarStore(new JdbcPriceBarStore(dataSource));
             userRepository = new RegisteredUserRepository(dataSource);
             expenseRepository = new RegisteredExpenseRepository(dataSource);
 
@@ -115,7 +140,9 @@ public class Main {
                     new StockSearchController(stockSearchInteractor, watchlistRepository);
 
             //Trading setup
-            tradingData = new JsonTradingDataAccess(Paths.get("orders.json"));
+            JdbcTradingDataAccess jdbcTradingData = new JdbcTradingDataAccess(dataSource);
+            migrateTradingState(jdbcTradingData, Paths.get("orders.json"));
+            tradingData = jdbcTradingData;
             
 
             // Portfolio repo relies on tradingData
@@ -134,13 +161,43 @@ public class Main {
             signUpController = new SignUpController(signUpInteractor);
             loginController = new LoginController(loginInteractor);
             dashboardController = new DashboardController();
-            trackerController = new TrackerController(listExpensesInteractor, addExpenseInteractor);
+            ImportExpensesInteractor importExpensesInteractor = new ImportExpensesInteractor(expenseRepository);
+            trackerController = new TrackerController(listExpensesInteractor, addExpenseInteractor,
+                    importExpensesInteractor);
             portfolioController = new PortfolioController(portfolioInteractor, portfolioPresenter.getViewModel());
 
 
             tradingViewModel = new TradingViewModel();
             TradingPresenter tradingPresenter = new TradingPresenter(tradingViewModel);
-            TradingInteractor tradingInteractor = new TradingInteractor(tradingData, tradingPresenter);
+            MatchingEngine matchingEngine = new MatchingEngine(tradingData);
+            TradingInteractor tradingInteractor =
+                    new TradingInteractor(tradingData, tradingPresenter, matchingEngine);
+            // Match on one thread of its own, in quote order, so fills never
+            // hold up the quote cache's refresh thread.
+            ExecutorService matchingExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "order-matching");
+                thread.setDaemon(true);
+                return thread;
+            });
+            QuoteCache.shared().addListener((symbol, quote) -> matchingExecutor.execute(
+                    () -> tradingInteractor.fillRestingOrders(symbol, quote.getPrice())));
+            // Nobody may be looking at a symbol with open orders, so keep its
+            // quote fresh in the background; each new quote reaches the
+            // listener above. Cached quotes cost no API call.
+            ScheduledExecutorService openOrderPoller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "open-order-quotes");
+                thread.setDaemon(true);
+                return thread;
+            });
+            openOrderPoller.scheduleWithFixedDelay(() -> {
+                for (String symbol : matchingEngine.getOpenSymbols()) {
+                    try {
+                        api.getQuote(symbol, ApiRateLimiter.Priority.BACKGROUND);
+                    } catch (IOException | RuntimeException e) {
+                        System.err.println("Could not refresh " + symbol + " for open orders: " + e.getMessage());
+                    }
+                }
+            }, OPEN_ORDER_POLL_MINUTES, OPEN_ORDER_POLL_MINUTES, TimeUnit.MINUTES);
             tradingController = new TradingController(tradingInteractor, tradingViewModel);
 
             // Start application on the login screen
@@ -148,6 +205,17 @@ public class Main {
         });
     }
 
+    /**
+     * Recomputes the expense_rollups table from app.db's expenses, e.g.
+     * after rows were imported or edited outside the application.
+     */
+    private static void rebuildExpenseRollups() {
+        DataSource rollupDataSource = DataSourceFactory.sqlite("app.db");
+        TableInitializer.ensureSchema(rollupDataSource);
+        new RegisteredExpenseRepository(rollupDataSource).rebuildRollups();
+        System.out.println("Expense rollups rebuilt.");
+    }
+
     /** Displays the login window */
     private static void showLoginView() {
         if (currentFrame != null) currentFrame.dispose();
@@ -175,6 +243,34 @@ public class Main {
         signUpView.setVisible(true);
     }
 
+    /**
+     * Imports trading state from the old orders.json file into app.db the
+     * first time the database is used for trading, then renames the JSON
+     * files to *.migrated so later launches skip opening them.
+     */
+    private static void migrateTradingState(JdbcTradingDataAccess target, Path jsonFile) {
+        Path journalFile = jsonFile.resolveSibling(jsonFile.getFileName() + ".journal");
+        if (!Files.exists(jsonFile) && !Files.exists(journalFile)) return;
+        if (target.hasTradingData()) return;
+        try (JsonTradingDataAccess source = new JsonTradingDataAccess(
+                jsonFile, JsonTradingDataAccess.PersistenceMode.JOURNAL)) {
+            target.importFrom(source);
+        } catch (IOException e) {
+            System.err.println("Failed to close trading state after migration: " + e.getMessage());
+            return;
+        }
+        try {
+            for (Path file : new Path[] {jsonFile, journalFile}) {
+                if (Files.exists(file)) {
+                    Files.move(file, file.resolveSibling(file.getFileName() + ".migrated"),
+                            StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to rename migrated trading state: " + e.getMessage());
+        }
+    }
+
     private static void showDashboardView(String username) {
         if (currentFrame != null) currentFrame.dispose();
         if (tradingData.getCash(username) == 0.0) {
@@ -34,6 +34,9 @@ public final class DataSourceFactory {
         config.setJdbcUrl("jdbc:sqlite:" + dbPath);
         config.setMaximumPoolSize(DEFAULT_MAX_POOL_SIZE);
         config.setPoolName("sqlite-pool");
+        // Take the write lock when a transaction starts, so two transactions
+        // that read before writing cannot deadlock on the lock upgrade.
+        config.addDataSourceProperty("transaction_mode", "IMMEDIATE");
         return new HikariDataSource(config);
     }
 }
@@ -0,0 +1,286 @@
+package data.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import javax.sql.DataSource;
+
+import data.stock.PriceBarStore;
+import entity.PriceSeries;
+
+/**
+ * JDBC implementation of the price bar store using the `price_bars` and
+ * `price_series_state` tables.
+ *
+ * <p>Expected schema (created in TableInitializer):
+ *
+ * <p>CREATE TABLE IF NOT EXISTS price_bars (
+ *     symbol      TEXT NOT NULL,
+ *     resolution  TEXT NOT NULL,
+ *     date        TEXT NOT NULL,
+ *     open        REAL NOT NULL,
+ *     high        REAL NOT NULL,
+ *     low         REAL NOT NULL,
+ *     close       REAL NOT NULL,
+ *     volume      INTEGER NOT NULL,
+ *     PRIMARY KEY (symbol, resolution, date)
+ * ) WITHOUT ROWID;
+ *
+ * <p>CREATE TABLE IF NOT EXISTS price_series_state (
+ *     symbol      TEXT NOT NULL,
+ *     resolution  TEXT NOT NULL,
+ *     fetched_at  INTEGER NOT NULL,
+ *     PRIMARY KEY (symbol, resolution)
+ * );
+ *
+ * <p>Refused premium requests are kept in `price_series_state` too, under an
+ * empty symbol with the feature as resolution and the refusal time as
+ * fetch time.
+ */
+public final class JdbcPriceBarStore implements PriceBarStore {
+
+    /**
+     * Index for symbol parameter in prepared statements.
+     */
+    private static final int PARAM_INDEX_SYMBOL = 1;
+
+    /**
+     * Index for resolution parameter in prepared statements.
+     */
+    private static final int PARAM_INDEX_RESOLUTION = 2;
+
+    /**
+     * Index for the third parameter (date or fetch time) in prepared statements.
+     */
+    private static final int PARAM_INDEX_THIRD = 3;
+
+    /**
+     * Index for open parameter in prepared statements.
+     */
+    private static final int PARAM_INDEX_OPEN = 4;
+
+    /**
+     * Index for high parameter in prepared statements.
+     */
+    private static final int PARAM_INDEX_HIGH = 5;
+
+    /**
+     * Index for low parameter in prepared statements.
+     */
+    private static final int PARAM_INDEX_LOW = 6;
+
+    /**
+     * Index for close parameter in prepared statements.
+     */
+    private static final int PARAM_INDEX_CLOSE = 7;
+
+    /**
+     * Index for volume parameter in prepared statements.
+     */
+    private static final int PARAM_INDEX_VOLUME = 8;
+
+    /**
+     * Date used when no lower bound is requested.
+     */
+    private static final String EARLIEST_DATE = "0000-00-00";
+
+    /**
+     * Symbol under which refused premium features are recorded.
+     */
+    private static final String REFUSAL_SYMBOL = "";
+
+    /**
+     * String literal for resolution parameter in error messages.
+     */
+    private static final String RESOLUTION_PARAM = " resolution=";
+
+    /**
+     * The data source for database connections.
+     */
+    private final DataSource dataSource;
+
+    /**
+     * Constructs a JdbcPriceBarStore with the given data source.
+     *
+     * @param dataSourceParam the data source for database connections
+     */
+    public JdbcPriceBarStore(final DataSource dataSourceParam) {
+        this.dataSource = dataSourceParam;
+    }
+
+    @Override
+    public PriceSeries findBars(
+            final String symbol,
+            final String resolution,
+            final LocalDate from) {
+        final String sql =
+                "SELECT date, open, high, low, close, volume FROM price_bars "
+                        + "WHERE symbol = ? AND resolution = ? AND date >= ? "
+                        + "ORDER BY date";
+        final PriceSeries.Builder bars = new PriceSeries.Builder(0);
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(PARAM_INDEX_SYMBOL, symbol);
+            ps.setString(PARAM_INDEX_RESOLUTION, resolution);
+            ps.setString(PARAM_INDEX_THIRD, from == null ? EARLIEST_DATE : from.toString());
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    bars.add(
+                            LocalDate.parse(rs.getString("date")).toEpochDay(),
+                            rs.getDouble("open"),
+                            rs.getDouble("high"),
+                            rs.getDouble("low"),
+                            rs.getDouble("close"),
+                            rs.getLong("volume"));
+                }
+            }
+        }
+        catch (SQLException sqlException) {
+            throw new RuntimeException(
+                    "Failed to load price bars for symbol=" + symbol
+                            + RESOLUTION_PARAM + resolution,
+                    sqlException);
+        }
+        return bars.build();
+    }
+
+    @Override
+    public String findLatestDate(final String symbol, final String resolution) {
+        final String sql =
+                "SELECT MAX(date) FROM price_bars WHERE symbol = ? AND resolution = ?";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(PARAM_INDEX_SYMBOL, symbol);
+            ps.setString(PARAM_INDEX_RESOLUTION, resolution);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                String latest = null;
+                if (rs.next()) {
+                    latest = rs.getString(1);
+                }
+                return latest;
+            }
+        }
+        catch (SQLException sqlException) {
+            throw new RuntimeException(
+                    "Failed to find latest price bar for symbol=" + symbol
+                            + RESOLUTION_PARAM + resolution,
+                    sqlException);
+        }
+    }
+
+    @Override
+    public Instant findLastFetched(final String symbol, final String resolution) {
+        final String sql =
+                "SELECT fetched_at FROM price_series_state "
+                        + "WHERE symbol = ? AND resolution = ?";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(PARAM_INDEX_SYMBOL, symbol);
+            ps.setString(PARAM_INDEX_RESOLUTION, resolution);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                Instant fetchedAt = null;
+                if (rs.next()) {
+                    fetchedAt = Instant.ofEpochMilli(rs.getLong(1));
+                }
+                return fetchedAt;
+            }
+        }
+        catch (SQLException sqlException) {
+            throw new RuntimeException(
+                    "Failed to load fetch state for symbol=" + symbol
+                            + RESOLUTION_PARAM + resolution,
+                    sqlException);
+        }
+    }
+
+    @Override
+    public void saveBars(
+            final String symbol,
+            final String resolution,
+            final PriceSeries bars,
+            final Instant fetchedAt) {
+        final String barSql =
+                "INSERT OR REPLACE INTO price_bars "
+                        + "(symbol, resolution, date, open, high, low, close, volume) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+        final String stateSql =
+                "INSERT OR REPLACE INTO price_series_state "
+                        + "(symbol, resolution, fetched_at) VALUES (?, ?, ?)";
+
+        try (Connection conn = dataSource.getConnection()) {
+            final boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement barPs = conn.prepareStatement(barSql);
+                 PreparedStatement statePs = conn.prepareStatement(stateSql)) {
+
+                for (int i = 0; i < bars.size(); i++) {
+                    barPs.setString(PARAM_INDEX_SYMBOL, symbol);
+                    barPs.setString(PARAM_INDEX_RESOLUTION, resolution);
+                    barPs.setString(PARAM_INDEX_THIRD, bars.dateAt(i).toString());
+                    barPs.setDouble(PARAM_INDEX_OPEN, bars.openAt(i));
+                    barPs.setDouble(PARAM_INDEX_HIGH, bars.highAt(i));
+                    barPs.setDouble(PARAM_INDEX_LOW, bars.lowAt(i));
+                    barPs.setDouble(PARAM_INDEX_CLOSE, bars.closeAt(i));
+                    barPs.setLong(PARAM_INDEX_VOLUME, bars.volumeAt(i));
+                    barPs.addBatch();
+                }
+                barPs.executeBatch();
+
+                statePs.setString(PARAM_INDEX_SYMBOL, symbol);
+                statePs.setString(PARAM_INDEX_RESOLUTION, resolution);
+                statePs.setLong(PARAM_INDEX_THIRD, fetchedAt.toEpochMilli());
+                statePs.executeUpdate();
+
+                conn.commit();
+            }
+            catch (SQLException sqlException) {
+                conn.rollback();
+                throw sqlException;
+            }
+            finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+        catch (SQLException sqlException) {
+            throw new RuntimeException(
+                    "Failed to save price bars for symbol=" + symbol
+                            + RESOLUTION_PARAM + resolution,
+                    sqlException);
+        }
+    }
+
+    @Override
+    public Instant findRefusal(final String feature) {
+        return findLastFetched(REFUSAL_SYMBOL, feature);
+    }
+
+    @Override
+    public void saveRefusal(final String feature, final Instant refusedAt) {
+        final String sql =
+                "INSERT OR REPLACE INTO price_series_state "
+                        + "(symbol, resolution, fetched_at) VALUES (?, ?, ?)";
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(PARAM_INDEX_SYMBOL, REFUSAL_SYMBOL);
+            ps.setString(PARAM_INDEX_RESOLUTION, feature);
+            ps.setLong(PARAM_INDEX_THIRD, refusedAt.toEpochMilli());
+            ps.executeUpdate();
+        }
+        catch (SQLException sqlException) {
+            throw new RuntimeException(
+                    "Failed to save refusal of " + feature, sqlException);
+        }
+    }
+}
@@ -0,0 +1,871 @@
+package data.database;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+import data.stock.AlphaVantage;
+import data.trading.JsonTradingDataAccess;
+import data.trading.StripedLocks;
+import entity.Holding;
+import entity.OrderRecord;
+import usecase.trading.OrderCursor;
+import usecase.trading.OrderExecution;
+import usecase.trading.OrderPage;
+import usecase.trading.TradingDataAccessInterface;
+import usecase.trading.TradingInputData;
+
+/**
+ * JDBC implementation of the trading data access using the `trading_cash`,
+ * `trading_holdings` and `trading_orders` tables.
+ *
+ * <p>Each trade inserts one order row instead of rewriting the whole
+ * history, and order lookups use the (username, executed_at) index.
+ *
+ * <p>Expected schema (created in TableInitializer):
+ *
+ * <p>CREATE TABLE IF NOT EXISTS trading_cash (
+ *     username    TEXT PRIMARY KEY,
+ *     cash        REAL NOT NULL
+ * );
+ *
+ * <p>CREATE TABLE IF NOT EXISTS trading_holdings (
+ *     username    TEXT NOT NULL,
+ *     symbol      TEXT NOT NULL,
+ *     shares      INTEGER NOT NULL,
+ *     avg_cost    REAL NOT NULL,
+ *     PRIMARY KEY (username, symbol)
+ * ) WITHOUT ROWID;
+ *
+ * <p>CREATE TABLE IF NOT EXISTS trading_orders (
+ *     id            INTEGER PRIMARY KEY AUTOINCREMENT,
+ *     username      TEXT NOT NULL,
+ *     symbol        TEXT NOT NULL,
+ *     action        TEXT NOT NULL,
+ *     shares        INTEGER NOT NULL,
+ *     price         REAL NOT NULL,
+ *     total_amount  REAL NOT NULL,
+ *     executed_at   INTEGER NOT NULL
+ * );
+ */
+public final class JdbcTradingDataAccess implements TradingDataAccessInterface {
+
+    /**
+     * Index for username parameter in prepared statements.
+     */
+    private static final int PARAM_INDEX_USERNAME = 1;
+
+    /**
+     * Index for the second parameter (symbol or cash) in prepared statements.
+     */
+    private static final int PARAM_INDEX_SECOND = 2;
+
+    /**
+     * Index for shares parameter in holding statements.
+     */
+    private static final int PARAM_INDEX_HOLDING_SHARES = 3;
+
+    /**
+     * Index for average cost parameter in holding statements.
+     */
+    private static final int PARAM_INDEX_AVG_COST = 4;
+
+    /**
+     * Index for action parameter in order statements.
+     */
+    private static final int PARAM_INDEX_ACTION = 3;
+
+    /**
+     * Index for shares parameter in order statements.
+     */
+    private static final int PARAM_INDEX_ORDER_SHARES = 4;
+
+    /**
+     * Index for price parameter in order statements.
+     */
+    private static final int PARAM_INDEX_PRICE = 5;
+
+    /**
+     * Index for total amount parameter in order statements.
+     */
+    private static final int PARAM_INDEX_TOTAL = 6;
+
+    /**
+     * Index for execution time parameter in order statements.
+     */
+    private static final int PARAM_INDEX_EXECUTED_AT = 7;
+
+    /**
+     * Nanoseconds per second, for storing order times as epoch nanos.
+     */
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    /**
+     * String literal for user parameter in error messages.
+     */
+    private static final String USER_PARAM = "user=";
+
+    /**
+     * String literal for symbol parameter in error messages.
+     */
+    private static final String SYMBOL_PARAM = " symbol=";
+
+    private static final String SELECT_CASH_SQL =
+            "SELECT cash FROM trading_cash WHERE username = ?";
+    private static final String UPSERT_CASH_SQL =
+            "INSERT OR REPLACE INTO trading_cash (username, cash) VALUES (?, ?)";
+    private static final String SELECT_HOLDING_SQL =
+            "SELECT symbol, shares, avg_cost FROM trading_holdings "
+                    + "WHERE username = ? AND symbol = ?";
+    private static final String UPSERT_HOLDING_SQL =
+            "INSERT OR REPLACE INTO trading_holdings "
+                    + "(username, symbol, shares, avg_cost) VALUES (?, ?, ?, ?)";
+    private static final String DELETE_HOLDING_SQL =
+            "DELETE FROM trading_holdings WHERE username = ? AND symbol = ?";
+    private static final String INSERT_ORDER_SQL =
+            "INSERT INTO trading_orders "
+                    + "(username, symbol, action, shares, price, total_amount, executed_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * The data source for database connections.
+     */
+    private final DataSource dataSource;
+
+    /**
+     * Names the threads of concurrent quote fetches.
+     */
+    private static final AtomicInteger QUOTE_THREAD_COUNTER = new AtomicInteger();
+
+    /**
+     * Client used for live quotes.
+     */
+    private final AlphaVantage api;
+
+    /**
+     * Per-user locks serializing each user's read-check-write in executeOrder.
+     */
+    private final StripedLocks userLocks = new StripedLocks();
+
+    /**
+     * Constructs a JdbcTradingDataAccess with the given data source.
+     *
+     * @param dataSourceParam the data source for database connections
+     */
+    public JdbcTradingDataAccess(final DataSource dataSourceParam) {
+        this(dataSourceParam, new AlphaVantage());
+    }
+
+    /**
+     * Constructs a JdbcTradingDataAccess with the given data source and
+     * quote client.
+     *
+     * @param dataSourceParam the data source for database connections
+     * @param apiParam the client used for live quotes
+     */
+    public JdbcTradingDataAccess(final DataSource dataSourceParam, final AlphaVantage apiParam) {
+        this.dataSource = dataSourceParam;
+        this.api = apiParam;
+    }
+
+    /**
+     * Gets the cash balance of a user.
+     *
+     * @param username the username
+     * @return the balance, or 0 if the user has none stored
+     */
+    @Override
+    public double getCash(final String username) {
+        try (Connection conn = dataSource.getConnection()) {
+            return selectCash(conn, username);
+        }
+        catch (SQLException sqlException) {
+            throw new RuntimeException(
+                    "Failed to load cash for " + USER_PARAM + username,
+                    sqlException);
+        }
+    }
+
+    /**
+     * Stores the cash balance of a user.
+     *
+     * @param username the username
+     * @param newCash the new balance
+     */
+    @Override
+    public void updateCash(final String username, final double newCash) {
+        try (Connection conn = dataSource.getConnection()) {
+            upsertCash(conn, username, newCash);
+        }
+        catch (SQLException sqlException) {
+            throw new RuntimeException(
+                    "Failed to update cash for " + USER_PARAM + username,
+                    sqlException);
+        }
+    }
+
+    /**
+     * Gets a single holding of a user.
+     *
+     * @param username the username
+     * @param symbol the stock symbol
+     * @return the holding, or null if the user holds no shares of the symbol
+     */
+    @Override
+    public Holding getHolding(final String username, final String symbol) {
+        try (Connection conn = dataSource.getConnection()) {
+            return selectHolding(conn, username, symbol);
+        }
+        catch (SQLException sqlException) {
+            throw new RuntimeException(
+                    "Failed to load holding for " + USER_PARAM + username
+                            + SYMBOL_PARAM + symbol,
+                    sqlException);
+        }
+    }
+
+    /**
+     * Stores a holding, replacing any existing one for the same symbol.
+     *
+     * @param username the username
+     * @param holding the holding to store
+     */
+    @Override
+    public void updateHolding(final String username, final Holding holding) {
+        try (Connection conn = dataSource.getConnection()) {
+            upsertHolding(conn, username, holding);
+        }
+        catch (SQLException sqlException) {
+            throw new RuntimeException(
+                    "Failed to update holding for " + USER_PARAM + username
+                            + SYMBOL_PARAM + holding.getSymbol(),
+                    sqlException);
+        }
+    }
+
+    /**
+     * Removes a holding.
+     *
+     * @param username the username
+     * @param symbol the stock symbol
+     */
+    @Override
+    public void removeHolding(final String username, final String symbol) {
+        try (Connection conn = dataSource.getConnection()) {
+            deleteHolding(conn, username, symbol);
+        }
+        catch (SQLException sqlException) {
+            throw new RuntimeException(
+                    "Failed to remove holding for " + USER_PARAM + username
+                            + SYMBOL_PARAM + symbol,
+                    sqlException);
+        }
+    }
+
+    /**
+     * Gets the current quote for a symbol.
+     *
+     * @param symbol the stock symbol
+     * @return the latest price
+     */
+    @Override
+    public double getStockPrice(final String symbol) {
+        try {
+            return api.getQuote(symbol).getPrice();
+        }
+        catch (IOException ioException) {
+            throw new RuntimeException(
+                    "Failed to fetch stock price for " + symbol, ioException);
+        }
+    }
+
+    /**
+     * Gets current quotes for several symbols, fetching the distinct symbols
+     * concurrently. Concurrent requests for one symbol share a single fetch,
+     * and the rate limiter still paces the requests that reach the API. A
+     * symbol whose quote fails or is rate limited is left out.
+     *
+     * @param symbols the stock symbols; duplicates are allowed
+     * @return price per distinct symbol that could be quoted, in input order
+     */
+    @Override
+    public Map<String, Double> getStockPrices(final Collection<String> symbols) {
+        final List<String> distinct = new ArrayList<>(new LinkedHashSet<>(symbols));
+        final Map<String, Double> prices = new LinkedHashMap<>();
+        final int parallelism = Math.min(api.getMaxConcurrentRequests(), distinct.size());
+        if (parallelism <= 1) {
+            for (final String symbol : distinct) {
+                putQuote(prices, symbol, quoteOrNull(symbol));
+            }
+            return prices;
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            final Thread thread = new Thread(runnable,
+                    "trading-quote-" + QUOTE_THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            final List<Future<Double>> quotes = new ArrayList<>(distinct.size());
+            for (final String symbol : distinct) {
+                quotes.add(executor.submit(() -> quoteOrNull(symbol)));
+            }
+            for (int i = 0; i < distinct.size(); i++) {
+                putQuote(prices, distinct.get(i), quotes.get(i).get());
+            }
+        }
+        catch (InterruptedException interrupted) {
+            // symbols not quoted yet are left out
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException executionException) {
+            // quoteOrNull catches runtime failures; only Errors end up here
+            throw new IllegalStateException("Quote fetch failed", executionException.getCause());
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        return prices;
+    }
+
+    /**
+     * Fetches one quote for a batch.
+     *
+     * @param symbol the stock symbol
+     * @return the latest price, or null if it could not be fetched
+     */
+    private Double quoteOrNull(final String symbol) {
+        try {
+            return api.getQuote(symbol).getPrice();
+        }
+        catch (IOException | RuntimeException failure) {
+            return null;
+        }
+    }
+
+    /**
+     * Adds a fetched quote to a batch result.
+     *
+     * @param prices the batch result
+     * @param symbol the stock symbol
+     * @param price the price, or null if it could not be fetched
+     */
+    private static void putQuote(final Map<String, Double> prices, final String symbol,
+                                 final Double price) {
+        if (price != null) {
+            prices.put(symbol, price);
+        }
+    }
+
+    /**
+     * Gets all holdings of a user.
+     *
+     * @param username the username
+     * @return the holdings ordered by symbol
+     */
+    @Override
+    public List<Holding> getUserHoldings(final String username) {
+        final String sql =
+                "SELECT symbol, shares, avg_cost FROM trading_holdings "
+                        + "WHERE username = ? ORDER BY symbol";
+        final List<Holding> holdings = new ArrayList<>();
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(PARAM_INDEX_USERNAME, username);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    holdings.add(toHolding(rs));
+                }
+            }
+        }
+        catch (SQLException sqlException) {
+            throw new RuntimeException(
+                    "Failed to load holdings for " + USER_PARAM + username,
+                    sqlException);
+        }
+        return holdings;
+    }
+
+    /**
+     * Appends an order to the history. Only one row is written.
+     *
+     * @param orderRecord the order to store
+     */
+    @Override
+    public void saveOrder(final OrderRecord orderRecord) {
+        try (Connection conn = dataSource.getConnection()) {
+            insertOrder(conn, orderRecord);
+        }
+        catch (SQLException sqlException) {
+            throw new RuntimeException(
+                    "Failed to save order for " + USER_PARAM + orderRecord.getUsername(),
+                    sqlException);
+        }
+    }
+
+    /**
+     * Finds the orders of a user through the (username, executed_at) index.
+     *
+     * @param username the username
+     * @return the orders, oldest first
+     */
+    @Override
+    public List<OrderRecord> findOrdersByUser(final String username) {
+        final String sql =
+                "SELECT username, symbol, action, shares, price, total_amount, executed_at "
+                        + "FROM trading_orders WHERE username = ? "
+                        + "ORDER BY executed_at, id";
+        final List<OrderRecord> orders = new ArrayList<>();
+
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+
+            ps.setString(PARAM_INDEX_USERNAME, username);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    orders.add(toOrder(rs));
+                }
+            }
+        }
+        catch (SQLException sqlException) {
+            throw new RuntimeException(
+                    "Failed to load orders for " + USER_PARAM + username,
+                    sqlException);
+        }
+        return orders;
+    }
+
+    /**
+     * Pages through a user's orders with a keyset query on the
+     * (username, executed_at) index. The cursor sequence is the row id.
+     *
+     * @param username the username
+     * @param from earliest order time, inclusive, or null
+     * @param to latest order time, exclusive, or null
+     * @param limit maximum number of orders to return
+     * @param before cursor from the previous page, or null
+     * @return the page, newest first
+     */
+    @Override
+    public OrderPage findOrders(
+            final String username,
+            final Instant from,
+            final Instant to,
+            final int limit,
+            final OrderCursor before) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive.");
+        }
+        final StringBuilder sql = new StringBuilder(
+                "SELECT id, username, symbol, action, shares, price, total_amount, executed_at "
+                        + "FROM trading_orders WHERE username = ?");
+        if (from != null) {
+            sql.append(" AND executed_at >= ?");
+        }
+        if (to != null) {
+            sql.append(" AND executed_at < ?");
+        }
+        if (before != null) {
+            sql.append(" AND (executed_at < ? OR (executed_at = ? AND id < ?))");
+        }
+        // One extra row tells whether another page exists.
+        sql.append(" ORDER BY executed_at DESC, id DESC LIMIT ?");
+
+        final List<OrderRecord> orders = new ArrayList<>();
+        long lastId = 0;
+        boolean more = false;
+        try (Connection conn = dataSource.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+
+            int param = PARAM_INDEX_USERNAME;
+            ps.setString(param++, username);
+            if (from != null) {
+                ps.setLong(param++, toEpochNanos(from));
+            }
+            if (to != null) {
+                ps.setLong(param++, toEpochNanos(to));
+            }
+            if (before != null) {
+                final long cursorTime = toEpochNanos(before.getTimestamp());
+                ps.setLong(param++, cursorTime);
+                ps.setLong(param++, cursorTime);
+                ps.setLong(param++, before.getSequence());
+            }
+            ps.setInt(param, limit + 1);
+
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (orders.size() == limit) {
+                        more = true;
+                        break;
+                    }
+                    orders.add(toOrder(rs));
+                    lastId = rs.getLong("id");
+                }
+            }
+        }
+        catch (SQLException sqlException) {
+            throw new RuntimeException(
+                    "Failed to page orders for " + USER_PARAM + username,
+                    sqlException);
+        }
+        final OrderCursor next = more
+                ? new OrderCursor(orders.get(orders.size() - 1).getTimestamp(), lastId)
+                : null;
+        return new OrderPage(orders, next);
+    }
+
+    /**
+     * Applies an order to the user's cash and holding and records it, all in
+     * one transaction. The user's lock stripe serializes orders for the same
+     * user; other users proceed in parallel. Nothing is written if the user
+     * lacks the cash for a buy or the shares for a sell.
+     *
+     * @param username the username
+     * @param symbol the stock symbol
+     * @param side buy or sell
+     * @param shares number of shares
+     * @param price execution price per share
+     * @return the result, including the state after the order
+     */
+    @Override
+    public OrderExecution executeOrder(
+            final String username,
+            final String symbol,
+            final TradingInputData.Action side,
+            final int shares,
+            final double price) {
+        final ReentrantLock userLock = userLocks.lockFor(username);
+        userLock.lock();
+        try (Connection conn = dataSource.getConnection()) {
+            final boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                final OrderExecution result = OrderExecution.evaluate(
+                        username, symbol, side, shares, price,
+                        selectCash(conn, username), selectHolding(conn, username, symbol));
+                if (!result.isExecuted()) {
+                    conn.rollback();
+                    return result;
+                }
+                upsertCash(conn, username, result.getCashAfter());
+                if (result.getHoldingAfter() == null) {
+                    deleteHolding(conn, username, symbol);
+                }
+                else {
+                    upsertHolding(conn, username, result.getHoldingAfter());
+                }
+                insertOrder(conn, result.getOrder());
+                conn.commit();
+                return result;
+            }
+            catch (SQLException sqlException) {
+                conn.rollback();
+                throw sqlException;
+            }
+            finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+        catch (SQLException sqlException) {
+            throw new RuntimeException(
+                    "Failed to execute order for " + USER_PARAM + username
+                            + SYMBOL_PARAM + symbol,
+                    sqlException);
+        }
+        finally {
+            userLock.unlock();
+        }
+    }
+
+    /**
+     * Applies a batch of one user's orders against a running balance and
+     * stores the outcome in one transaction: the final cash, each touched
+     * holding once, and every executed order as one JDBC batch. Rejected
+     * orders are skipped without affecting the rest.
+     *
+     * @param username the username
+     * @param orders the orders, each with a valid symbol, action and share count
+     * @param prices execution price for every symbol in the batch
+     * @return one result per order, in order
+     */
+    @Override
+    public List<OrderExecution> executeOrders(
+            final String username,
+            final List<TradingInputData> orders,
+            final Map<String, Double> prices) {
+        final ReentrantLock userLock = userLocks.lockFor(username);
+        userLock.lock();
+        try (Connection conn = dataSource.getConnection()) {
+            final boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                final Map<String, Holding> holdings = new HashMap<>();
+                for (TradingInputData order : orders) {
+                    if (!holdings.containsKey(order.getSymbol())) {
+                        holdings.put(order.getSymbol(),
+                                selectHolding(conn, username, order.getSymbol()));
+                    }
+                }
+                final Map<String, Holding> before = new HashMap<>(holdings);
+                final List<OrderExecution> results = OrderExecution.evaluateAll(
+                        username, orders, prices, selectCash(conn, username), holdings);
+                final List<OrderRecord> executed = new ArrayList<>();
+                for (OrderExecution result : results) {
+                    if (result.isExecuted()) {
+                        executed.add(result.getOrder());
+                    }
+                }
+                if (executed.isEmpty()) {
+                    conn.rollback();
+                    return results;
+                }
+                upsertCash(conn, username, results.get(results.size() - 1).getCashAfter());
+                for (Map.Entry<String, Holding> entry : holdings.entrySet()) {
+                    if (entry.getValue() == before.get(entry.getKey())) {
+                        continue;
+                    }
+                    if (entry.getValue() == null) {
+                        deleteHolding(conn, username, entry.getKey());
+                    }
+                    else {
+                        upsertHolding(conn, username, entry.getValue());
+                    }
+                }
+                try (PreparedStatement ps = conn.prepareStatement(INSERT_ORDER_SQL)) {
+                    for (OrderRecord order : executed) {
+                        bindOrder(ps, order);
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                }
+                conn.commit();
+                return results;
+            }
+            catch (SQLException sqlException) {
+                conn.rollback();
+                throw sqlException;
+            }
+            finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+        catch (SQLException sqlException) {
+            throw new RuntimeException(
+                    "Failed to execute orders for " + USER_PARAM + username,
+                    sqlException);
+        }
+        finally {
+            userLock.unlock();
+        }
+    }
+
+    /**
+     * Copies the state of a JSON trading store into the tables, in one
+     * transaction. Does nothing if any trading data is already stored, so
+     * running it on every startup is safe.
+     *
+     * @param source the JSON store to migrate from
+     * @return the number of orders imported
+     */
+    public int importFrom(final JsonTradingDataAccess source) {
+        try (Connection conn = dataSource.getConnection()) {
+            if (hasTradingData(conn)) {
+                return 0;
+            }
+            final boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            int imported = 0;
+            try (PreparedStatement cashPs = conn.prepareStatement(UPSERT_CASH_SQL);
+                 PreparedStatement holdingPs = conn.prepareStatement(UPSERT_HOLDING_SQL);
+                 PreparedStatement orderPs = conn.prepareStatement(INSERT_ORDER_SQL)) {
+
+                for (String username : source.getUsernames()) {
+                    bindCash(cashPs, username, source.getCash(username));
+                    cashPs.addBatch();
+                    for (Holding holding : source.getUserHoldings(username)) {
+                        bindHolding(holdingPs, username, holding);
+                        holdingPs.addBatch();
+                    }
+                    for (OrderRecord order : source.findOrdersByUser(username)) {
+                        bindOrder(orderPs, order);
+                        orderPs.addBatch();
+                        imported++;
+                    }
+                }
+                cashPs.executeBatch();
+                holdingPs.executeBatch();
+                orderPs.executeBatch();
+                conn.commit();
+            }
+            catch (SQLException sqlException) {
+                conn.rollback();
+                throw sqlException;
+            }
+            finally {
+                conn.setAutoCommit(autoCommit);
+            }
+            return imported;
+        }
+        catch (SQLException sqlException) {
+            throw new RuntimeException(
+                    "Failed to import trading state from JSON", sqlException);
+        }
+    }
+
+    /**
+     * Checks whether any trading data is stored, so callers can skip
+     * opening a JSON store that {@link #importFrom} would ignore anyway.
+     *
+     * @return true if any cash, holding or order row exists
+     */
+    public boolean hasTradingData() {
+        try (Connection conn = dataSource.getConnection()) {
+            return hasTradingData(conn);
+        }
+        catch (SQLException sqlException) {
+            throw new RuntimeException(
+                    "Failed to check for stored trading data", sqlException);
+        }
+    }
+
+    private static boolean hasTradingData(final Connection conn) throws SQLException {
+        final String sql =
+                "SELECT EXISTS (SELECT 1 FROM trading_cash) "
+                        + "OR EXISTS (SELECT 1 FROM trading_holdings) "
+                        + "OR EXISTS (SELECT 1 FROM trading_orders)";
+        try (PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private static double selectCash(final Connection conn, final String username)
+            throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SELECT_CASH_SQL)) {
+            ps.setString(PARAM_INDEX_USERNAME, username);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getDouble("cash") : 0.0;
+            }
+        }
+    }
+
+    private static void upsertCash(final Connection conn, final String username,
+                                   final double cash) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(UPSERT_CASH_SQL)) {
+            bindCash(ps, username, cash);
+            ps.executeUpdate();
+        }
+    }
+
+    private static Holding selectHolding(final Connection conn, final String username,
+                                         final String symbol) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(SELECT_HOLDING_SQL)) {
+            ps.setString(PARAM_INDEX_USERNAME, username);
+            ps.setString(PARAM_INDEX_SECOND, symbol);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? toHolding(rs) : null;
+            }
+        }
+    }
+
+    private static void upsertHolding(final Connection conn, final String username,
+                                      final Holding holding) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(UPSERT_HOLDING_SQL)) {
+            bindHolding(ps, username, holding);
+            ps.executeUpdate();
+        }
+    }
+
+    private static void deleteHolding(final Connection conn, final String username,
+                                      final String symbol) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(DELETE_HOLDING_SQL)) {
+            ps.setString(PARAM_INDEX_USERNAME, username);
+            ps.setString(PARAM_INDEX_SECOND, symbol);
+            ps.executeUpdate();
+        }
+    }
+
+    private static void insertOrder(final Connection conn, final OrderRecord order)
+            throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(INSERT_ORDER_SQL)) {
+            bindOrder(ps, order);
+            ps.executeUpdate();
+        }
+    }
+
+    private static void bindCash(final PreparedStatement ps, final String username,
+                                 final double cash) throws SQLException {
+        ps.setString(PARAM_INDEX_USERNAME, username);
+        ps.setDouble(PARAM_INDEX_SECOND, cash);
+    }
+
+    private static void bindHolding(final PreparedStatement ps, final String username,
+                                    final Holding holding) throws SQLException {
+        ps.setString(PARAM_INDEX_USERNAME, username);
+        ps.setString(PARAM_INDEX_SECOND, holding.getSymbol());
+        ps.setInt(PARAM_INDEX_HOLDING_SHARES, holding.getShares());
+        ps.setDouble(PARAM_INDEX_AVG_COST, holding.getAvgCost());
+    }
+
+    private static void bindOrder(final PreparedStatement ps, final OrderRecord order)
+            throws SQLException {
+        ps.setString(PARAM_INDEX_USERNAME, order.getUsername());
+        ps.setString(PARAM_INDEX_SECOND, order.getSymbol());
+        ps.setString(PARAM_INDEX_ACTION, order.getAction());
+        ps.setInt(PARAM_INDEX_ORDER_SHARES, order.getShares());
+        ps.setDouble(PARAM_INDEX_PRICE, order.getPrice());
+        ps.setDouble(PARAM_INDEX_TOTAL, order.getTotalAmount());
+        ps.setLong(PARAM_INDEX_EXECUTED_AT, toEpochNanos(order.getTimestamp()));
+    }
+
+    private static Holding toHolding(final ResultSet rs) throws SQLException {
+        return new Holding(
+                rs.getString("symbol"),
+                rs.getInt("shares"),
+                rs.getDouble("avg_cost"));
+    }
+
+    private static OrderRecord toOrder(final ResultSet rs) throws SQLException {
+        return new OrderRecord(
+                fromEpochNanos(rs.getLong("executed_at")),
+                rs.getString("username"),
+                rs.getString("symbol"),
+                rs.getString("action"),
+                rs.getInt("shares"),
+                rs.getDouble("price"),
+                rs.getDouble("total_amount"));
+    }
+
+    private static long toEpochNanos(final Instant instant) {
+        return Math.addExact(
+                Math.multiplyExact(instant.getEpochSecond(), NANOS_PER_SECOND),
+                instant.getNano());
+    }
+
+    private static Instant fromEpochNanos(final long epochNanos) {
+        return Instant.ofEpochSecond(
+                Math.floorDiv(epochNanos, NANOS_PER_SECOND),
+                Math.floorMod(epochNanos, NANOS_PER_SECOND));
+    }
+}
@@ -4,12 +4,20 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import javax.sql.DataSource;
 
+import data.expense.ExpenseCursor;
+import data.expense.ExpensePage;
 import data.expense.ExpenseRepository;
+import data.expense.ExpenseSortOrder;
 import entity.Expense;
 
 /**
@@ -38,6 +46,92 @@ public final class RegisteredExpenseRepository implements ExpenseRepository {
      */
     private static final int PARAM_INDEX_AMOUNT = 4;
 
+    /**
+     * Length of a DAY rollup period, "yyyy-MM-dd".
+     */
+    private static final int DAY_PERIOD_LENGTH = 10;
+
+    /**
+     * Inserts one expense.
+     */
+    private static final String INSERT_SQL =
+            "INSERT INTO expenses (username, datetime, type, amount) "
+                    + "VALUES (?, ?, ?, ?)";
+
+    /**
+     * Index for the range start parameter in range queries.
+     */
+    private static final int PARAM_INDEX_RANGE_START = 2;
+
+    /**
+     * Index for the range end parameter in range queries.
+     */
+    private static final int PARAM_INDEX_RANGE_END = 3;
+
+    /**
+     * Reads a user's per-day, per-type totals in a date range from the
+     * rollups; one row per bucket however many expenses it holds.
+     */
+    private static final String DAILY_TOTALS_SQL =
+            "SELECT period, type, total FROM expense_rollups "
+                    + "WHERE username = ? AND granularity = 'DAY' AND period >= ? AND period <= ?";
+
+    /**
+     * Reads a user's overall total as the sum of the monthly rollups.
+     */
+    private static final String ROLLUP_TOTAL_SQL =
+            "SELECT COALESCE(SUM(total), 0) AS total FROM expense_rollups "
+                    + "WHERE username = ? AND granularity = 'MONTH'";
+
+    /**
+     * Adds an expense's amount and count to its day and month rollups.
+     * Both rows take the same five parameters: username, datetime, type,
+     * amount delta and count delta.
+     */
+    private static final String ROLLUP_UPSERT_SQL =
+            "INSERT INTO expense_rollups "
+                    + "(username, granularity, period, type, total, expense_count) VALUES "
+                    + "(?, 'DAY', substr(?, 1, 10), ?, ?, ?), "
+                    + "(?, 'MONTH', substr(?, 1, 7), ?, ?, ?) "
+                    + "ON CONFLICT (username, granularity, period, type) DO UPDATE SET "
+                    + "total = total + excluded.total, "
+                    + "expense_count = expense_count + excluded.expense_count";
+
+    /**
+     * Index for the count delta parameter in a rollup upsert row.
+     */
+    private static final int PARAM_INDEX_ROLLUP_COUNT = 5;
+
+    /**
+     * Number of parameters per row in the rollup upsert.
+     */
+    private static final int ROLLUP_PARAMS_PER_ROW = 5;
+
+    /**
+     * Recomputes every rollup row from the expenses table.
+     */
+    static final String REBUILD_ROLLUPS_SQL = """
+        DELETE FROM expense_rollups;
+        INSERT INTO expense_rollups
+            (username, granularity, period, type, total, expense_count)
+        SELECT username, 'DAY', substr(datetime, 1, 10), type, SUM(amount), COUNT(*)
+            FROM expenses GROUP BY username, substr(datetime, 1, 10), type;
+        INSERT INTO expense_rollups
+            (username, granularity, period, type, total, expense_count)
+        SELECT username, 'MONTH', substr(datetime, 1, 7), type, SUM(amount), COUNT(*)
+            FROM expenses GROUP BY username, substr(datetime, 1, 7), type;
+        """;
+
+    /**
+     * Index for the cursor datetime parameter in the page query.
+     */
+    private static final int PARAM_INDEX_CURSOR_DATETIME = 3;
+
+    /**
+     * Index for the cursor id parameter in the page query.
+     */
+    private static final int PARAM_INDEX_CURSOR_ID = 4;
+
     /**
      * The data source for database connections.
      */
@@ -98,17 +192,23 @@ public final class RegisteredExpenseRepository implements ExpenseRepository {
             final String datetime,
             final String type,
             final double amount) {
-        final String query =
-                "INSERT INTO expenses (username, datetime, type, amount) "
-                        + "VALUES (?, ?, ?, ?)";
-        try (Connection connection = dataSource.getConnection();
-             PreparedStatement preparedStatement =
-                     connection.prepareStatement(query)) {
-            preparedStatement.setString(PARAM_INDEX_USERNAME, username);
-            preparedStatement.setString(PARAM_INDEX_DATETIME, datetime);
-            preparedStatement.setString(PARAM_INDEX_TYPE, type);
-            preparedStatement.setDouble(PARAM_INDEX_AMOUNT, amount);
-            preparedStatement.executeUpdate();
+        try (Connection connection = dataSource.getConnection()) {
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement preparedStatement =
+                         connection.prepareStatement(INSERT_SQL)) {
+                bindInsert(preparedStatement, username, datetime, type, amount);
+                preparedStatement.executeUpdate();
+                applyToRollups(connection, username, datetime, type, amount, 1);
+                connection.commit();
+            }
+            catch (SQLException sqlException) {
+                connection.rollback();
+                throw sqlException;
+            }
+            finally {
+                connection.setAutoCommit(autoCommit);
+            }
         }
         catch (SQLException exception) {
             throw new RuntimeException("add expense failed!", exception);
@@ -116,17 +216,186 @@ public final class RegisteredExpenseRepository implements ExpenseRepository {
     }
 
     /**
-     * Gets the total expense amount for a user.
+     * Adds several expenses in one transaction. The rows go in as one JDBC
+     * batch, and their rollup changes are summed per day and type first and
+     * applied as a second batch.
+     *
+     * @param expenses the expenses to add
+     */
+    @Override
+    public void addAll(final List<Expense> expenses) {
+        if (expenses.isEmpty()) {
+            return;
+        }
+        final Map<List<String>, double[]> rollupDeltas = new LinkedHashMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement preparedStatement =
+                         connection.prepareStatement(INSERT_SQL)) {
+                for (Expense expense : expenses) {
+                    bindInsert(preparedStatement, expense.getUsername(), expense.getDatetime(),
+                            expense.getType(), expense.getAmount());
+                    preparedStatement.addBatch();
+                    // Keyed by day: bindRollups derives both periods from it.
+                    final double[] delta = rollupDeltas.computeIfAbsent(
+                            List.of(expense.getUsername(), dayOf(expense.getDatetime()),
+                                    expense.getType()),
+                            key -> new double[2]);
+                    delta[0] += expense.getAmount();
+                    delta[1]++;
+                }
+                preparedStatement.executeBatch();
+                try (PreparedStatement rollupStatement =
+                             connection.prepareStatement(ROLLUP_UPSERT_SQL)) {
+                    for (Map.Entry<List<String>, double[]> entry : rollupDeltas.entrySet()) {
+                        final List<String> key = entry.getKey();
+                        final double[] delta = entry.getValue();
+                        bindRollups(rollupStatement, key.get(0), key.get(1), key.get(2),
+                                delta[0], (int) delta[1]);
+                        rollupStatement.addBatch();
+                    }
+                    rollupStatement.executeBatch();
+                }
+                connection.commit();
+            }
+            catch (SQLException sqlException) {
+                connection.rollback();
+                throw sqlException;
+            }
+            finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        catch (SQLException exception) {
+            throw new RuntimeException("addAll expense failed!", exception);
+        }
+    }
+
+    /**
+     * Binds one expense to the insert statement.
+     *
+     * @param preparedStatement the insert statement
+     * @param username          the username
+     * @param datetime          the expense datetime
+     * @param type              the expense type
+     * @param amount            the expense amount
+     * @throws SQLException if a parameter cannot be bound
+     */
+    private static void bindInsert(
+            final PreparedStatement preparedStatement,
+            final String username,
+            final String datetime,
+            final String type,
+            final double amount) throws SQLException {
+        preparedStatement.setString(PARAM_INDEX_USERNAME, username);
+        preparedStatement.setString(PARAM_INDEX_DATETIME, datetime);
+        preparedStatement.setString(PARAM_INDEX_TYPE, type);
+        preparedStatement.setDouble(PARAM_INDEX_AMOUNT, amount);
+    }
+
+    /**
+     * Gets the "yyyy-MM-dd" day prefix of a datetime, as the DAY rollup
+     * period does.
+     *
+     * @param datetime the expense datetime
+     * @return the day part, or the whole text if it is shorter
+     */
+    private static String dayOf(final String datetime) {
+        return datetime.substring(0, Math.min(DAY_PERIOD_LENGTH, datetime.length()));
+    }
+
+    /**
+     * Adds an expense's amount and count to its day and month rollup rows,
+     * on the caller's connection so it commits with the expense insert.
+     *
+     * @param connection  the connection holding the write's transaction
+     * @param username    the username
+     * @param datetime    the expense datetime
+     * @param type        the expense type
+     * @param amountDelta the amount to add
+     * @param countDelta  the number of expenses to add
+     * @throws SQLException if the rollups cannot be updated
+     */
+    private static void applyToRollups(
+            final Connection connection,
+            final String username,
+            final String datetime,
+            final String type,
+            final double amountDelta,
+            final int countDelta) throws SQLException {
+        try (PreparedStatement preparedStatement =
+                     connection.prepareStatement(ROLLUP_UPSERT_SQL)) {
+            bindRollups(preparedStatement, username, datetime, type, amountDelta, countDelta);
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    /**
+     * Binds one expense's day and month rows to the rollup upsert.
+     *
+     * @param preparedStatement the rollup upsert statement
+     * @param username          the username
+     * @param datetime          the expense datetime, or at least its day
+     * @param type              the expense type
+     * @param amountDelta       the change in amount
+     * @param countDelta        the change in expense count
+     * @throws SQLException if a parameter cannot be bound
+     */
+    private static void bindRollups(
+            final PreparedStatement preparedStatement,
+            final String username,
+            final String datetime,
+            final String type,
+            final double amountDelta,
+            final int countDelta) throws SQLException {
+        for (int row = 0; row < 2; row++) {
+            final int offset = row * ROLLUP_PARAMS_PER_ROW;
+            preparedStatement.setString(offset + PARAM_INDEX_USERNAME, username);
+            preparedStatement.setString(offset + PARAM_INDEX_DATETIME, datetime);
+            preparedStatement.setString(offset + PARAM_INDEX_TYPE, type);
+            preparedStatement.setDouble(offset + PARAM_INDEX_AMOUNT, amountDelta);
+            preparedStatement.setInt(offset + PARAM_INDEX_ROLLUP_COUNT, countDelta);
+        }
+    }
+
+    /**
+     * Recomputes the rollup table from the expenses table in one
+     * transaction, for repairing it after expenses were written outside
+     * this repository.
+     */
+    public void rebuildRollups() {
+        try (Connection connection = dataSource.getConnection()) {
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(REBUILD_ROLLUPS_SQL);
+                connection.commit();
+            }
+            catch (SQLException sqlException) {
+                connection.rollback();
+                throw sqlException;
+            }
+            finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        catch (SQLException exception) {
+            throw new RuntimeException("rebuildRollups expense failed!", exception);
+        }
+    }
+
+    /**
+     * Gets the total expense amount for a user from the monthly rollups.
      *
      * @param username the username
      * @return the total expense amount, or 0.0 if no expenses found
      */
     @Override
     public double getTotalForUser(final String username) {
-        final String query = "SELECT SUM(amount) FROM expenses WHERE username = ?";
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement =
-                     connection.prepareStatement(query)) {
+                     connection.prepareStatement(ROLLUP_TOTAL_SQL)) {
             preparedStatement.setString(PARAM_INDEX_USERNAME, username);
             try (ResultSet resultSet = preparedStatement.executeQuery()) {
                 double total = 0.0;
@@ -140,4 +409,135 @@ public final class RegisteredExpenseRepository implements ExpenseRepository {
             throw new RuntimeException("get totalForUser expense failed!", exception);
         }
     }
+
+    /**
+     * Sums a user's expenses per day and type within a date range, reading
+     * the pre-aggregated daily rollups.
+     *
+     * @param username the username
+     * @param startDate first day to include
+     * @param endDate last day to include
+     * @return totals indexed by date, then type, both in ascending order
+     */
+    public Map<LocalDate, Map<String, Double>> sumByDayAndType(
+            final String username,
+            final LocalDate startDate,
+            final LocalDate endDate) {
+        final Map<LocalDate, Map<String, Double>> totals = new TreeMap<>();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement =
+                     connection.prepareStatement(DAILY_TOTALS_SQL)) {
+            preparedStatement.setString(PARAM_INDEX_USERNAME, username);
+            preparedStatement.setString(PARAM_INDEX_RANGE_START, startDate.toString());
+            preparedStatement.setString(PARAM_INDEX_RANGE_END, endDate.toString());
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    totals.computeIfAbsent(LocalDate.parse(resultSet.getString("period")),
+                                    day -> new TreeMap<>())
+                            .put(resultSet.getString("type"), resultSet.getDouble("total"));
+                }
+            }
+        }
+        catch (SQLException exception) {
+            throw new RuntimeException("sumByDayAndType expense failed!", exception);
+        }
+        return totals;
+    }
+
+    /**
+     * Finds one page of a user's expenses with a keyset query on
+     * (datetime, id), so each page is a range scan of the
+     * (username, datetime) index however deep the user has scrolled.
+     * The user's total, read from the monthly rollups, is joined onto the
+     * page, so both come back in one round trip; an empty page still
+     * returns one row carrying the total.
+     *
+     * @param username the username
+     * @param after    cursor from the previous page, or null for the first page
+     * @param limit    maximum number of expenses to return
+     * @param order    the sort order
+     * @return the page, a cursor for the next one and the user's total
+     */
+    @Override
+    public ExpensePage findPage(
+            final String username,
+            final ExpenseCursor after,
+            final int limit,
+            final ExpenseSortOrder order) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive.");
+        }
+        final String query = pageQuery(order == ExpenseSortOrder.NEWEST_FIRST, after != null);
+        final List<Expense> expenses = new ArrayList<>();
+        double total = 0.0;
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement =
+                     connection.prepareStatement(query)) {
+            // The username is bound twice: once for the total, once for the page.
+            preparedStatement.setString(PARAM_INDEX_USERNAME, username);
+            preparedStatement.setString(PARAM_INDEX_USERNAME + 1, username);
+            int limitIndex = PARAM_INDEX_CURSOR_DATETIME;
+            if (after != null) {
+                preparedStatement.setString(PARAM_INDEX_CURSOR_DATETIME, after.getDatetime());
+                preparedStatement.setLong(PARAM_INDEX_CURSOR_ID, after.getId());
+                limitIndex = PARAM_INDEX_CURSOR_ID + 1;
+            }
+            // One extra row tells whether another page follows.
+            preparedStatement.setInt(limitIndex, limit + 1);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    total = resultSet.getDouble("total");
+                    if (resultSet.getObject("id") != null) {
+                        expenses.add(new Expense(
+                                resultSet.getLong("id"),
+                                resultSet.getString("username"),
+                                resultSet.getString("datetime"),
+                                resultSet.getString("type"),
+                                resultSet.getDouble("amount")));
+                    }
+                }
+            }
+        }
+        catch (SQLException exception) {
+            throw new RuntimeException("findPage expense failed!", exception);
+        }
+
+        ExpenseCursor next = null;
+        if (expenses.size() > limit) {
+            expenses.subList(limit, expenses.size()).clear();
+            next = ExpenseCursor.after(expenses.get(limit - 1));
+        }
+        return new ExpensePage(expenses, next, total);
+    }
+
+    /**
+     * Builds the page query for a sort order, with or without a cursor.
+     *
+     * @param newestFirst true to list the latest datetime first
+     * @param hasCursor   true to start after a cursor
+     * @return the SQL
+     */
+    private static String pageQuery(final boolean newestFirst, final boolean hasCursor) {
+        final String direction;
+        final String comparison;
+        if (newestFirst) {
+            direction = " DESC";
+            comparison = " < ";
+        }
+        else {
+            direction = " ASC";
+            comparison = " > ";
+        }
+        String keyset = "";
+        if (hasCursor) {
+            keyset = "AND (datetime, id)" + comparison + "(?, ?) ";
+        }
+        return "WITH user_total AS (" + ROLLUP_TOTAL_SQL + ") "
+                + "SELECT user_total.total, page.* FROM user_total LEFT JOIN ("
+                + "SELECT id, username, datetime, type, amount FROM expenses "
+                + "WHERE username = ? " + keyset
+                + "ORDER BY datetime" + direction + ", id" + direction + " LIMIT ?) AS page "
+                + "ORDER BY page.datetime" + direction + ", page.id" + direction;
+    }
 }
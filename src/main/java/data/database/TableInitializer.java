@@ -1,6 +1,7 @@
 package data.database;
 
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 
@@ -8,7 +9,8 @@ import javax.sql.DataSource;
 
 /**
  * Utility class for initializing database tables.
- * Creates the necessary schema for users, expenses, and watchlist tables.
+ * Creates the necessary schema for users, expenses, watchlist, price history
+ * and trading tables.
  */
 public final class TableInitializer {
 
@@ -32,7 +34,8 @@ public final class TableInitializer {
             type        TEXT NOT NULL,
             amount      REAL NOT NULL
         );
-        CREATE INDEX IF NOT EXISTS idx_expenses_username ON expenses(username);
+        CREATE INDEX IF NOT EXISTS idx_expenses_user_datetime
+            ON expenses(username, datetime);
         
         /*watchlist table */
         CREATE TABLE IF NOT EXISTS watched_stocks (
@@ -46,6 +49,83 @@ public final class TableInitializer {
         );
         CREATE INDEX IF NOT EXISTS idx_watchlist_username
             ON watched_stocks(username);
+
+        /* price history store */
+        CREATE TABLE IF NOT EXISTS price_bars (
+            symbol      TEXT NOT NULL,
+            resolution  TEXT NOT NULL,
+            date        TEXT NOT NULL,
+            open        REAL NOT NULL,
+            high        REAL NOT NULL,
+            low         REAL NOT NULL,
+            close       REAL NOT NULL,
+            volume      INTEGER NOT NULL,
+            PRIMARY KEY (symbol, resolution, date)
+        ) WITHOUT ROWID;
+
+        CREATE TABLE IF NOT EXISTS price_series_state (
+            symbol      TEXT NOT NULL,
+            resolution  TEXT NOT NULL,
+            fetched_at  INTEGER NOT NULL,   -- epoch millis of last API fetch
+            PRIMARY KEY (symbol, resolution)
+        );
+
+        /* trading state */
+        CREATE TABLE IF NOT EXISTS trading_cash (
+            username    TEXT PRIMARY KEY,
+            cash        REAL NOT NULL
+        );
+
+        CREATE TABLE IF NOT EXISTS trading_holdings (
+            username    TEXT NOT NULL,
+            symbol      TEXT NOT NULL,
+            shares      INTEGER NOT NULL,
+            avg_cost    REAL NOT NULL,
+            PRIMARY KEY (username, symbol)
+        ) WITHOUT ROWID;
+
+        CREATE TABLE IF NOT EXISTS trading_orders (
+            id            INTEGER PRIMARY KEY AUTOINCREMENT,
+            username      TEXT NOT NULL,
+            symbol        TEXT NOT NULL,
+            action        TEXT NOT NULL,
+            shares        INTEGER NOT NULL,
+            price         REAL NOT NULL,
+            total_amount  REAL NOT NULL,
+            executed_at   INTEGER NOT NULL   -- epoch nanos
+        );
+        CREATE INDEX IF NOT EXISTS idx_trading_orders_user_time
+            ON trading_orders(username, executed_at);
+        DROP INDEX IF EXISTS idx_trading_orders_user_symbol;
+        """;
+
+    /**
+     * Drops expense indexes of earlier versions. The (username, datetime)
+     * index serves range scans by user and time, since the datetime text
+     * sorts chronologically; a username-only index is a prefix of it, and
+     * totals are read from the rollups.
+     */
+    private static final String DROP_OLD_EXPENSE_INDEXES = """
+        DROP INDEX IF EXISTS idx_expenses_username;
+        DROP INDEX IF EXISTS idx_expenses_user_epoch;
+        """;
+
+    /**
+     * Per-user expense totals by day and by month, maintained by
+     * RegisteredExpenseRepository alongside every expense write. Periods are
+     * "yyyy-MM-dd" for DAY rows and "yyyy-MM" for MONTH rows, taken from the
+     * expense datetime text.
+     */
+    private static final String EXPENSE_ROLLUPS_DDL = """
+        CREATE TABLE expense_rollups (
+            username      TEXT NOT NULL,
+            granularity   TEXT NOT NULL,   -- DAY or MONTH
+            period        TEXT NOT NULL,
+            type          TEXT NOT NULL,
+            total         REAL NOT NULL,
+            expense_count INTEGER NOT NULL,
+            PRIMARY KEY (username, granularity, period, type)
+        ) WITHOUT ROWID;
         """;
 
     /**
@@ -57,7 +137,8 @@ public final class TableInitializer {
 
     /**
      * Ensures the database schema is initialized.
-     * Creates all necessary tables and indexes if they don't exist.
+     * Creates all necessary tables and indexes if they don't exist, and
+     * migrates tables created by earlier versions.
      *
      * @param dataSource the data source to use for database connections
      * @throws RuntimeException if schema initialization fails
@@ -66,6 +147,11 @@ public final class TableInitializer {
         try (Connection connection = dataSource.getConnection();
                 Statement statement = connection.createStatement()) {
             statement.executeUpdate(DDL);
+            statement.executeUpdate(DROP_OLD_EXPENSE_INDEXES);
+            if (hasColumn(statement, "expenses", "epoch_minutes")) {
+                statement.executeUpdate("ALTER TABLE expenses DROP COLUMN epoch_minutes");
+            }
+            createExpenseRollups(connection, statement);
         }
         catch (SQLException sqlException) {
             throw new RuntimeException(
@@ -73,4 +159,70 @@ public final class TableInitializer {
                     sqlException);
         }
     }
+
+    /**
+     * Creates and backfills the expense_rollups table in one transaction,
+     * so a crash or a concurrent start can never leave an empty rollup
+     * table that later launches would take as already backfilled.
+     *
+     * @param connection the connection to use
+     * @param statement statement on that connection
+     * @throws SQLException if the table cannot be created or filled
+     */
+    private static void createExpenseRollups(final Connection connection,
+                                             final Statement statement) throws SQLException {
+        final boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            if (!hasTable(statement, "expense_rollups")) {
+                statement.executeUpdate(EXPENSE_ROLLUPS_DDL);
+                statement.executeUpdate(RegisteredExpenseRepository.REBUILD_ROLLUPS_SQL);
+            }
+            connection.commit();
+        }
+        catch (SQLException sqlException) {
+            connection.rollback();
+            throw sqlException;
+        }
+        finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Checks whether a table exists.
+     *
+     * @param statement statement on the connection to inspect
+     * @param table the table name
+     * @return true if the table exists
+     * @throws SQLException if the schema cannot be read
+     */
+    private static boolean hasTable(final Statement statement, final String table)
+            throws SQLException {
+        try (ResultSet tables = statement.executeQuery(
+                "SELECT 1 FROM sqlite_master WHERE type = 'table' AND name = '" + table + "'")) {
+            return tables.next();
+        }
+    }
+
+    /**
+     * Checks whether a table has a column.
+     *
+     * @param statement statement on the connection to inspect
+     * @param table the table name
+     * @param column the column name
+     * @return true if the column exists
+     * @throws SQLException if the table info cannot be read
+     */
+    private static boolean hasColumn(final Statement statement, final String table,
+                                     final String column) throws SQLException {
+        try (ResultSet columns = statement.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (columns.next()) {
+                if (column.equalsIgnoreCase(columns.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,56 @@
+package data.expense;
+
+import entity.Expense;
+
+/**
+ * Position in a user's expense list, used to fetch the next page.
+ * Expenses are ordered by datetime, with the id breaking ties between
+ * expenses at the same minute.
+ */
+public final class ExpenseCursor {
+    private final String datetime;
+    private final long id;
+
+    /**
+     * Creates a cursor at the given position.
+     *
+     * @param datetime the datetime of the last expense on the previous page
+     * @param id       the id of the last expense on the previous page
+     */
+    public ExpenseCursor(String datetime, long id) {
+        this.datetime = datetime;
+        this.id = id;
+    }
+
+    /**
+     * Creates a cursor positioned at an expense.
+     *
+     * @param expense the last expense on a page
+     * @return the cursor for the page after it
+     */
+    public static ExpenseCursor after(Expense expense) {
+        return new ExpenseCursor(expense.getDatetime(), expense.getId());
+    }
+
+    public String getDatetime() {
+        return datetime;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Compares an expense's position with this cursor in ascending order.
+     *
+     * @param expense the expense to compare
+     * @return negative, zero or positive as the expense sorts before, at or after the cursor
+     */
+    public int compareTo(Expense expense) {
+        final int cmp = expense.getDatetime().compareTo(datetime);
+        if (cmp != 0) {
+            return cmp;
+        }
+        return Long.compare(expense.getId(), id);
+    }
+}
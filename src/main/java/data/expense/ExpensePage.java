@@ -0,0 +1,48 @@
+package data.expense;
+
+import java.util.List;
+
+import entity.Expense;
+
+/**
+ * One page of a user's expenses, together with the user's total.
+ */
+public final class ExpensePage {
+    private final List<Expense> expenses;
+    private final ExpenseCursor nextCursor;
+    private final double total;
+
+    /**
+     * Creates a page.
+     *
+     * @param expenses   the expenses on this page
+     * @param nextCursor the cursor for the next page, or null if this is the last page
+     * @param total      the total of all of the user's expenses
+     */
+    public ExpensePage(List<Expense> expenses, ExpenseCursor nextCursor, double total) {
+        this.expenses = List.copyOf(expenses);
+        this.nextCursor = nextCursor;
+        this.total = total;
+    }
+
+    public List<Expense> getExpenses() {
+        return expenses;
+    }
+
+    /**
+     * Gets the cursor for the next page.
+     *
+     * @return the cursor, or null if this is the last page
+     */
+    public ExpenseCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+}
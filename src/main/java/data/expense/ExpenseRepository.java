@@ -1,5 +1,7 @@
 package data.expense;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 import entity.Expense;
@@ -28,6 +30,21 @@ public interface ExpenseRepository {
      */
     void add(String username, String datetime, String type, double amount);
 
+    /**
+     * Adds several expenses at once; ids on the given expenses are ignored.
+     *
+     * <p>The default implementation calls {@link #add} for each expense;
+     * database-backed repositories should override it to write them in a
+     * single transaction.
+     *
+     * @param expenses the expenses to add
+     */
+    default void addAll(List<Expense> expenses) {
+        for (Expense expense : expenses) {
+            add(expense.getUsername(), expense.getDatetime(), expense.getType(), expense.getAmount());
+        }
+    }
+
     /**
      * Gets the total expense amount for a user.
      *
@@ -35,4 +52,50 @@ public interface ExpenseRepository {
      * @return the total expense amount
      */
     double getTotalForUser(String username);
+
+    /**
+     * Finds one page of a user's expenses, ordered by datetime and id,
+     * together with the user's total.
+     *
+     * <p>The default implementation sorts {@link #findByUsername} in memory
+     * and calls {@link #getTotalForUser}; database-backed repositories
+     * should override it with a keyset query.
+     *
+     * @param username the username
+     * @param after    cursor from the previous page, or null for the first page
+     * @param limit    maximum number of expenses to return
+     * @param order    the sort order
+     * @return the page, a cursor for the next one and the user's total
+     */
+    default ExpensePage findPage(String username, ExpenseCursor after, int limit,
+                                 ExpenseSortOrder order) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive.");
+        }
+        final boolean newestFirst = order == ExpenseSortOrder.NEWEST_FIRST;
+        Comparator<Expense> comparator = Comparator.comparing(Expense::getDatetime)
+                .thenComparingLong(Expense::getId);
+        if (newestFirst) {
+            comparator = comparator.reversed();
+        }
+        final List<Expense> sorted = new ArrayList<>(findByUsername(username));
+        sorted.sort(comparator);
+
+        final List<Expense> page = new ArrayList<>();
+        ExpenseCursor next = null;
+        for (Expense expense : sorted) {
+            if (after != null) {
+                final int cmp = after.compareTo(expense);
+                if (newestFirst ? cmp >= 0 : cmp <= 0) {
+                    continue;
+                }
+            }
+            if (page.size() == limit) {
+                next = ExpenseCursor.after(page.get(limit - 1));
+                break;
+            }
+            page.add(expense);
+        }
+        return new ExpensePage(page, next, getTotalForUser(username));
+    }
 }
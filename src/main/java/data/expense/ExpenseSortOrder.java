@@ -0,0 +1,11 @@
+package data.expense;
+
+/**
+ * Order in which a page of expenses is listed.
+ */
+public enum ExpenseSortOrder {
+    /** Latest datetime first. */
+    NEWEST_FIRST,
+    /** Earliest datetime first. */
+    OLDEST_FIRST
+}
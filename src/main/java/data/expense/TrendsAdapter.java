@@ -1,6 +1,8 @@
 package data.expense;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import data.database.RegisteredExpenseRepository;
 import entity.Expense;
@@ -33,4 +35,19 @@ public class TrendsAdapter implements TrendsDataAccess {
         // Delegate to the existing repository
         return repo.findByUsername(username);
     }
+
+    /**
+     * Sums expenses per day and type in the database, reading only the
+     * rows inside the date range.
+     *
+     * @param username the username of the logged-in user
+     * @param startDate first day to include
+     * @param endDate last day to include
+     * @return totals indexed by date, then type
+     */
+    @Override
+    public Map<LocalDate, Map<String, Double>> getDailyTotals(
+            final String username, final LocalDate startDate, final LocalDate endDate) {
+        return repo.sumByDayAndType(username, startDate, endDate);
+    }
 }
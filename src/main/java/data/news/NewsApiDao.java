@@ -11,6 +11,7 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
+import data.stock.ApiRateLimiter;
 import entity.News;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
@@ -24,16 +25,23 @@ public class NewsApiDao implements NewsDataAccessInterface {
 
     private final OkHttpClient client;
     private final Gson gson;
+    private final ApiRateLimiter rateLimiter;
 
     // This is for main
     public NewsApiDao() {
-        this(new OkHttpClient());
+        this(new OkHttpClient(), ApiRateLimiter.forKey(API_KEY));
     }
 
     // This is for test purpose only, allowing us to mock when api calls fail.
     public NewsApiDao(OkHttpClient client) {
+        this(client, ApiRateLimiter.unlimited());
+    }
+
+    // News is background traffic, so it yields to interactive requests on the same key.
+    public NewsApiDao(OkHttpClient client, ApiRateLimiter rateLimiter) {
         this.client = client;
         this.gson = new Gson();
+        this.rateLimiter = rateLimiter;
     }
 
     @Override
@@ -44,6 +52,13 @@ public class NewsApiDao implements NewsDataAccessInterface {
                 .url(URL)
                 .build();
 
+        try {
+            rateLimiter.acquire(ApiRateLimiter.Priority.BACKGROUND);
+        }
+        catch (IOException exception) {
+            throw new DataFetchException(exception.getMessage());
+        }
+
         try (Response response = client.newCall(request).execute()) {
             if (!response.isSuccessful()) {
                 throw new IOException("Failed to fetch news: " + response);
@@ -55,6 +70,9 @@ public class NewsApiDao implements NewsDataAccessInterface {
             // test the api limit
             if (json.has("Information")) {
                 final String infoText = json.get("Information").getAsString();
+                if (ApiRateLimiter.reportsRateLimit(infoText)) {
+                    rateLimiter.onLimitReported();
+                }
                 if (infoText.contains("Please subscribe to any of the premium plans")) {
                     throw new NewsDataAccessInterface.DataFetchException(infoText);
                 }
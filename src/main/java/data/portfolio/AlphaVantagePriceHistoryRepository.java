@@ -1,14 +1,14 @@
 package data.portfolio;
 
 import data.stock.AlphaVantage;
+import data.stock.ApiRateLimiter;
 import entity.PricePoint;
+import entity.PriceSeries;
 import usecase.portfolio.PriceHistoryRepository;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.List;
 import java.io.IOException;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 
 /**
  * A real implementation of PriceHistoryRepository using AlphaVantageAPI.
@@ -23,30 +23,28 @@ public class AlphaVantagePriceHistoryRepository implements PriceHistoryRepositor
 
     @Override
     public List<PricePoint> getPriceHistory(String symbol) {
+        return getPriceSeries(symbol).toPricePoints();
+    }
+
+    /**
+     * Returns the last year of daily bars, or of weekly bars for a free key
+     * whose stored daily history is shorter; the interactor resamples them
+     * to the requested snapshot frequency.
+     * @throws RuntimeException if the bars cannot be fetched, so callers can
+     *         tell a failed fetch from a symbol with no history
+     */
+    @Override
+    public PriceSeries getPriceSeries(String symbol) {
         try {
-            List<AlphaVantage.StockPriceData> series = api.getTimeSeries(symbol, "1Y");
-
-            List<PricePoint> result = new ArrayList<>();
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-            for (AlphaVantage.StockPriceData point : series) {
-                // Only use YYYY-MM-DD format dates
-                String dateStr = point.getDate();
-                LocalDate date;
-                try {
-                    date = LocalDate.parse(dateStr, formatter);
-                } catch (Exception e) {
-                    // Skip malformed date (e.g., intraday format)
-                    continue;
-                }
-                result.add(new PricePoint(date, point.getClose()));
-            }
-
-            return result;
+            return api.getDailyHistory(symbol, LocalDate.now().minusYears(1),
+                    ApiRateLimiter.Priority.BACKGROUND);
         } catch (IOException e) {
-            System.err.println("Failed to fetch price history for " + symbol + ": " + e.getMessage());
-            return List.of();    // fallback to empty list
+            throw new RuntimeException("Failed to fetch price history for " + symbol, e);
         }
     }
-}
 
+    @Override
+    public int maxConcurrentRequests() {
+        return api.getMaxConcurrentRequests();
+    }
+}
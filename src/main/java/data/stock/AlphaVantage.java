@@ -3,10 +3,13 @@ package data.stock;
 import java.io.IOException;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 
 import com.google.gson.JsonArray;
@@ -16,6 +19,8 @@ import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 
+import entity.PriceSeries;
+
 /**
  * API client for Alpha Vantage stock data service.
  * Provides methods to search stocks, get quotes, and retrieve time series data.
@@ -72,16 +77,246 @@ public class AlphaVantage {
      */
     private static final String JSON_FIELD_ERROR_MESSAGE = "Error Message";
 
+    /**
+     * JSON field name for informational messages. Alpha Vantage uses it for
+     * rate limits as well as for refusing premium-only requests.
+     */
+    private static final String JSON_FIELD_INFORMATION = "Information";
+
+    /**
+     * HTTP client shared by all instances so they reuse one connection pool.
+     */
+    private static final OkHttpClient SHARED_CLIENT = new OkHttpClient();
+
+    /**
+     * Coalesces concurrent GLOBAL_QUOTE calls for the same symbol.
+     */
+    private static final SingleFlight<String, StockQuote> QUOTE_FLIGHTS =
+            new SingleFlight<>();
+
+    /**
+     * Coalesces concurrent intraday time series calls for the same symbol.
+     */
+    private static final SingleFlight<String, List<StockPriceData>> SERIES_FLIGHTS =
+            new SingleFlight<>();
+
+    /**
+     * Coalesces concurrent daily, weekly or monthly series loads for the
+     * same symbol.
+     */
+    private static final SingleFlight<String, PriceSeries> SERIES_FLIGHTS_STORED =
+            new SingleFlight<>();
+
+    /**
+     * Coalesces concurrent SYMBOL_SEARCH calls for the same keywords.
+     */
+    private static final SingleFlight<String, List<StockSearchResult>> SEARCH_FLIGHTS =
+            new SingleFlight<>();
+
+    /**
+     * Separator used when building single-flight keys.
+     */
+    private static final String KEY_SEPARATOR = "|";
+
+    /**
+     * How long a daily, weekly or monthly series is served from memory or
+     * the bar store without checking the API for newer bars.
+     */
+    private static final Duration STORE_REFRESH_INTERVAL = Duration.ofHours(1);
+
+    /**
+     * Chart interval served from intraday rather than daily bars.
+     */
+    private static final String INTRADAY_INTERVAL = "1D";
+
+    /**
+     * Alpha Vantage function for intraday 5-minute bars.
+     */
+    private static final String INTRADAY_FUNCTION = "TIME_SERIES_INTRADAY&interval=5min";
+
+    /**
+     * Alpha Vantage function for daily bars.
+     */
+    private static final String DAILY_FUNCTION = "TIME_SERIES_DAILY";
+
+    /**
+     * Alpha Vantage function for weekly bars; free keys get the full history.
+     */
+    private static final String WEEKLY_FUNCTION = "TIME_SERIES_WEEKLY";
+
+    /**
+     * Alpha Vantage function for monthly bars; free keys get the full history.
+     */
+    private static final String MONTHLY_FUNCTION = "TIME_SERIES_MONTHLY";
+
+    /**
+     * Parameter requesting the full daily history. Only premium keys are
+     * served it; free keys get an "Information" reply instead.
+     */
+    private static final String OUTPUT_SIZE_FULL = "&outputsize=full";
+
+    /**
+     * Parameter requesting only the latest 100 daily bars.
+     */
+    private static final String OUTPUT_SIZE_COMPACT = "&outputsize=compact";
+
+    /**
+     * Calendar days safely covered by a compact payload of 100 trading days.
+     */
+    private static final int COMPACT_WINDOW_DAYS = 130;
+
+    /**
+     * Name under which the bar store remembers that the key was refused
+     * {@code outputsize=full}.
+     */
+    private static final String FULL_OUTPUT_FEATURE = "OUTPUTSIZE_FULL";
+
+    /**
+     * How long a stored refusal of full output is trusted before the key is
+     * asked again, in case it has been upgraded.
+     */
+    private static final Duration REFUSAL_RECHECK_INTERVAL = Duration.ofDays(30);
+
+    /**
+     * Resolution under which daily histories are kept in the bar store.
+     */
+    private static final String DAILY_RESOLUTION = "DAILY_FULL";
+
+    /**
+     * Resolution under which weekly histories are kept in the bar store.
+     */
+    private static final String WEEKLY_RESOLUTION = "WEEKLY";
+
+    /**
+     * Resolution under which monthly histories are kept in the bar store.
+     */
+    private static final String MONTHLY_RESOLUTION = "MONTHLY";
+
+    /**
+     * Upper bound on requests worth running concurrently against one key.
+     */
+    private static final int MAX_CONCURRENT_REQUESTS = 8;
+
+    /**
+     * Maximum number of (symbol, resolution) series kept in memory.
+     */
+    private static final int MAX_CACHED_SERIES = 128;
+
+    /**
+     * Series shared by all instances, keyed by resolution and symbol, least
+     * recently used evicted first.
+     */
+    private static final Map<String, CachedSeries> CACHED_SERIES =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        final Map.Entry<String, CachedSeries> eldest) {
+                    return size() > MAX_CACHED_SERIES;
+                }
+            };
+
+    /**
+     * Set once the API refuses {@code outputsize=full} for this key, after
+     * which daily downloads only ask for the free compact payload.
+     */
+    private static volatile boolean fullOutputRefused;
+
+    /**
+     * Set once a stored refusal has been looked up, so the bar store is
+     * asked only once per run.
+     */
+    private static volatile boolean storedRefusalLoaded;
+
+    /**
+     * Store picked up by instances created with the default constructors.
+     */
+    private static volatile PriceBarStore defaultPriceBarStore;
+
     /**
      * HTTP client for making API requests.
      */
     private final OkHttpClient client;
 
     /**
-     * Constructs an AlphaVantageAPI instance.
+     * Cache consulted before calling GLOBAL_QUOTE.
+     */
+    private final QuoteCache quoteCache;
+
+    /**
+     * Scheduler enforcing the API key's request budget.
+     */
+    private final ApiRateLimiter rateLimiter;
+
+    /**
+     * Local store of downloaded bars, or {@code null} to always download.
+     */
+    private final PriceBarStore priceBarStore;
+
+    /**
+     * Constructs an AlphaVantageAPI instance backed by the shared quote cache.
      */
     public AlphaVantage() {
-        this.client = new OkHttpClient();
+        this(QuoteCache.shared());
+    }
+
+    /**
+     * Constructs an AlphaVantageAPI instance using the given quote cache.
+     *
+     * @param quoteCacheValue the quote cache to consult
+     */
+    public AlphaVantage(final QuoteCache quoteCacheValue) {
+        this(quoteCacheValue, ApiRateLimiter.forKey(API_KEY));
+    }
+
+    /**
+     * Constructs an AlphaVantageAPI instance using the given quote cache and
+     * rate limiter.
+     *
+     * @param quoteCacheValue the quote cache to consult
+     * @param rateLimiterValue the limiter every request must pass through
+     */
+    public AlphaVantage(
+            final QuoteCache quoteCacheValue,
+            final ApiRateLimiter rateLimiterValue) {
+        this(quoteCacheValue, rateLimiterValue, defaultPriceBarStore);
+    }
+
+    /**
+     * Constructs an AlphaVantageAPI instance using the given quote cache,
+     * rate limiter and price bar store.
+     *
+     * @param quoteCacheValue the quote cache to consult
+     * @param rateLimiterValue the limiter every request must pass through
+     * @param priceBarStoreValue the local bar store, or {@code null} for none
+     */
+    public AlphaVantage(
+            final QuoteCache quoteCacheValue,
+            final ApiRateLimiter rateLimiterValue,
+            final PriceBarStore priceBarStoreValue) {
+        this.client = SHARED_CLIENT;
+        this.quoteCache = quoteCacheValue;
+        this.rateLimiter = rateLimiterValue;
+        this.priceBarStore = priceBarStoreValue;
+    }
+
+    /**
+     * Sets the price bar store used by instances created afterwards with the
+     * default constructors.
+     *
+     * @param store the local bar store, or {@code null} for none
+     */
+    public static void setDefaultPriceBarStore(final PriceBarStore store) {
+        defaultPriceBarStore = store;
+    }
+
+    /**
+     * Gets how many requests callers should run in parallel. More would only
+     * queue inside the rate limiter, so this follows the per-minute budget.
+     *
+     * @return the suggested parallelism, at least one
+     */
+    public int getMaxConcurrentRequests() {
+        return Math.max(1, Math.min(MAX_CONCURRENT_REQUESTS, rateLimiter.getPerMinute()));
     }
 
     /**
@@ -93,6 +328,21 @@ public class AlphaVantage {
      */
     public List<StockSearchResult> searchStocks(final String keywords)
             throws IOException {
+        final List<StockSearchResult> shared = SEARCH_FLIGHTS.execute(
+                "SYMBOL_SEARCH" + KEY_SEPARATOR + keywords.trim().toLowerCase(Locale.ROOT),
+                () -> fetchSearchResults(keywords));
+        return new ArrayList<>(shared);
+    }
+
+    /**
+     * Fetch search results from the SYMBOL_SEARCH endpoint.
+     *
+     * @param keywords the search keywords
+     * @return list of stock search results
+     * @throws IOException if the API call fails or response is invalid
+     */
+    private List<StockSearchResult> fetchSearchResults(final String keywords)
+            throws IOException {
         final String encodedKeywords =
                 URLEncoder.encode(keywords, StandardCharsets.UTF_8);
         final String url = BASE_URL
@@ -105,6 +355,7 @@ public class AlphaVantage {
                 .url(url)
                 .build();
 
+        rateLimiter.acquire(ApiRateLimiter.Priority.INTERACTIVE);
         try (Response response = client.newCall(request).execute()) {
             if (!response.isSuccessful()) {
                 throw new IOException(
@@ -134,13 +385,43 @@ public class AlphaVantage {
     }
 
     /**
-     * Get current stock quote using GLOBAL_QUOTE endpoint.
+     * Get current stock quote, served from the quote cache when possible.
      *
      * @param symbol the stock symbol
      * @return the stock quote
      * @throws IOException if the API call fails or response is invalid
      */
     public StockQuote getQuote(final String symbol) throws IOException {
+        return getQuote(symbol, ApiRateLimiter.Priority.INTERACTIVE);
+    }
+
+    /**
+     * Get current stock quote, served from the quote cache when possible and
+     * otherwise fetched at the given priority.
+     *
+     * @param symbol the stock symbol
+     * @param priority the scheduling priority of a fetch on a cache miss
+     * @return the stock quote
+     * @throws IOException if the API call fails or response is invalid
+     */
+    public StockQuote getQuote(
+            final String symbol,
+            final ApiRateLimiter.Priority priority) throws IOException {
+        return quoteCache.get(symbol, priority, (sym, loadPriority) -> QUOTE_FLIGHTS.execute(
+                "GLOBAL_QUOTE" + KEY_SEPARATOR + sym, () -> fetchQuote(sym, loadPriority)));
+    }
+
+    /**
+     * Fetch the current stock quote using GLOBAL_QUOTE endpoint.
+     *
+     * @param symbol the stock symbol
+     * @param priority the scheduling priority of the request
+     * @return the stock quote
+     * @throws IOException if the API call fails or response is invalid
+     */
+    private StockQuote fetchQuote(
+            final String symbol,
+            final ApiRateLimiter.Priority priority) throws IOException {
         final String url = BASE_URL
                 + "?function=GLOBAL_QUOTE&symbol="
                 + symbol
@@ -151,6 +432,7 @@ public class AlphaVantage {
                 .url(url)
                 .build();
 
+        rateLimiter.acquire(priority);
         try (Response response = client.newCall(request).execute()) {
             if (!response.isSuccessful()) {
                 throw new IOException("Unexpected code " + response);
@@ -160,16 +442,7 @@ public class AlphaVantage {
             final JsonObject json =
                     JsonParser.parseString(responseBody).getAsJsonObject();
 
-            if (json.has(JSON_FIELD_NOTE)) {
-                throw new IOException(
-                        "API call frequency limit reached. "
-                                + json.get(JSON_FIELD_NOTE).getAsString());
-            }
-
-            if (json.has(JSON_FIELD_ERROR_MESSAGE)) {
-                throw new IOException(
-                        "API Error: " + json.get(JSON_FIELD_ERROR_MESSAGE).getAsString());
-            }
+            checkApiResponse(json);
 
             final JsonObject quote = json.getAsJsonObject("Global Quote");
             if (quote == null || quote.size() == 0) {
@@ -199,26 +472,329 @@ public class AlphaVantage {
     public List<StockPriceData> getTimeSeries(
             final String symbol,
             final String interval) throws IOException {
-        final String function;
+        return getTimeSeries(symbol, interval, ApiRateLimiter.Priority.INTERACTIVE);
+    }
+
+    /**
+     * Get time series data, scheduled at the given priority.
+     *
+     * @param symbol the stock symbol
+     * @param interval the time interval (1D, 5D, 1M, 6M, 1Y, 5Y)
+     * @param priority the scheduling priority of the request
+     * @return list of stock price data points
+     * @throws IOException if the API call fails or response is invalid
+     */
+    public List<StockPriceData> getTimeSeries(
+            final String symbol,
+            final String interval,
+            final ApiRateLimiter.Priority priority) throws IOException {
+        if (INTRADAY_INTERVAL.equals(interval)) {
+            final String normalized = symbol.trim().toUpperCase(Locale.ROOT);
+            final List<StockPriceData> shared = SERIES_FLIGHTS.execute(
+                    INTRADAY_FUNCTION + KEY_SEPARATOR + normalized,
+                    () -> downloadSeries(symbol, INTRADAY_FUNCTION, priority, null).toPriceData());
+            return new ArrayList<>(shared);
+        }
+        final PriceSeries series = getPriceSeries(symbol, interval, priority);
+        final List<StockPriceData> bars = new ArrayList<>(series.size());
+        for (int i = 0; i < series.size(); i++) {
+            bars.add(new StockPriceData(
+                    series.dateAt(i).toString(),
+                    series.openAt(i),
+                    series.highAt(i),
+                    series.lowAt(i),
+                    series.closeAt(i),
+                    series.volumeAt(i)));
+        }
+        return bars;
+    }
+
+    /**
+     * Get a daily-based price series for chart or analysis use.
+     *
+     * @param symbol the stock symbol
+     * @param interval the time interval (5D, 1M, 6M, 1Y, 5Y)
+     * @return bars ordered by date (oldest to newest)
+     * @throws IOException if the API call fails or response is invalid
+     */
+    public PriceSeries getPriceSeries(
+            final String symbol,
+            final String interval) throws IOException {
+        return getPriceSeries(symbol, interval, ApiRateLimiter.Priority.INTERACTIVE);
+    }
+
+    /**
+     * Get a daily-based price series, scheduled at the given priority.
+     * 5D and 1M are sliced from the daily series. 6M and 1Y are weekly and
+     * 5Y is monthly: while the key is served the full daily history, those
+     * bars are rolled up from it locally, so switching ranges costs no
+     * download. A free key's daily history is too short, so its weekly and
+     * monthly bars come from their own endpoints, which free keys may call
+     * in full. Daily ranges are views over shared columns.
+     *
+     * @param symbol the stock symbol
+     * @param interval the time interval (5D, 1M, 6M, 1Y, 5Y)
+     * @param priority the scheduling priority of the request
+     * @return bars ordered by date (oldest to newest)
+     * @throws IOException if the API call fails or response is invalid
+     */
+    public PriceSeries getPriceSeries(
+            final String symbol,
+            final String interval,
+            final ApiRateLimiter.Priority priority) throws IOException {
+        if (INTRADAY_INTERVAL.equals(interval)) {
+            throw new IllegalArgumentException(
+                    "Intraday data is not a daily series; use getTimeSeries");
+        }
+        final String normalized = symbol.trim().toUpperCase(Locale.ROOT);
+        final LocalDate cutoff = calculateCutoffDate(interval);
+        final String resolution;
         switch (interval) {
-            case "1D":
-                function = "TIME_SERIES_INTRADAY&interval=5min";
-                break;
-            case "5D":
-            case "1M":
-                function = "TIME_SERIES_DAILY";
-                break;
             case "6M":
             case "1Y":
-                function = "TIME_SERIES_WEEKLY";
+                resolution = WEEKLY_RESOLUTION;
                 break;
             case "5Y":
-                function = "TIME_SERIES_MONTHLY";
+                resolution = MONTHLY_RESOLUTION;
                 break;
             default:
-                function = "TIME_SERIES_DAILY";
+                resolution = DAILY_RESOLUTION;
+        }
+        if (!DAILY_RESOLUTION.equals(resolution) && !isFullOutputRefused()) {
+            final PriceSeries daily = getStoredSeries(normalized, DAILY_RESOLUTION, priority);
+            // The download may just have found out that the key is free.
+            if (!isFullOutputRefused()) {
+                return rollUp(daily, resolution, cutoff);
+            }
         }
+        return getStoredSeries(normalized, resolution, priority).sliceFrom(cutoff);
+    }
+
+    /**
+     * Rolls a complete daily history up into the weekly or monthly bars of
+     * a chart range. The first period starts on its calendar boundary, so
+     * it holds the same days as the bar the coarser endpoint would return.
+     *
+     * @param daily the complete daily history
+     * @param resolution the weekly or monthly resolution
+     * @param cutoff earliest date of the range
+     * @return bars ordered by date (oldest to newest)
+     */
+    private static PriceSeries rollUp(
+            final PriceSeries daily,
+            final String resolution,
+            final LocalDate cutoff) {
+        if (WEEKLY_RESOLUTION.equals(resolution)) {
+            return SeriesResampler.toWeekly(daily.sliceFrom(
+                    cutoff.minusDays(cutoff.getDayOfWeek().getValue() - 1L)));
+        }
+        return SeriesResampler.toMonthly(daily.sliceFrom(cutoff.withDayOfMonth(1)));
+    }
+
+    /**
+     * Gets bars from a date onwards, for valuing a portfolio. A key served
+     * the full daily history gets daily bars. A free key's daily history
+     * only reaches back as far as the compact payloads stored so far; when
+     * that is short of {@code from}, the whole range is valued from weekly
+     * bars instead, so only one series is downloaded.
+     *
+     * @param symbol the stock symbol
+     * @param from earliest date wanted
+     * @param priority the scheduling priority of a download
+     * @return bars ordered by date (oldest to newest)
+     * @throws IOException if the API call fails or response is invalid
+     */
+    public PriceSeries getDailyHistory(
+            final String symbol,
+            final LocalDate from,
+            final ApiRateLimiter.Priority priority) throws IOException {
+        final String normalized = symbol.trim().toUpperCase(Locale.ROOT);
+        final boolean compactCoversRange =
+                !from.isBefore(LocalDate.now().minusDays(COMPACT_WINDOW_DAYS));
+        if (compactCoversRange || !isFullOutputRefused()) {
+            final PriceSeries daily =
+                    getStoredSeries(normalized, DAILY_RESOLUTION, priority).sliceFrom(from);
+            // A full history is complete even if the symbol listed after from.
+            if (!isFullOutputRefused()
+                    || (!daily.isEmpty() && !daily.dateAt(0).isAfter(from))) {
+                return daily;
+            }
+        }
+        return getStoredSeries(normalized, WEEKLY_RESOLUTION, priority).sliceFrom(from);
+    }
+
+    /**
+     * Tells whether the key has been refused the full daily history, in this
+     * run or, according to the bar store, in a recent one.
+     *
+     * @return whether daily downloads are limited to the compact payload
+     */
+    private boolean isFullOutputRefused() {
+        if (fullOutputRefused || storedRefusalLoaded || priceBarStore == null) {
+            return fullOutputRefused;
+        }
+        final Instant refusedAt = priceBarStore.findRefusal(FULL_OUTPUT_FEATURE);
+        if (refusedAt != null
+                && refusedAt.plus(REFUSAL_RECHECK_INTERVAL).isAfter(Instant.now())) {
+            fullOutputRefused = true;
+        }
+        storedRefusalLoaded = true;
+        return fullOutputRefused;
+    }
 
+    /**
+     * Returns a symbol's series at one resolution, from memory while it is
+     * fresh and otherwise from the bar store or the API.
+     *
+     * @param symbol the normalized stock symbol
+     * @param resolution the daily, weekly or monthly resolution
+     * @param priority the scheduling priority of a download
+     * @return bars ordered by date
+     * @throws IOException if the series cannot be loaded
+     */
+    private PriceSeries getStoredSeries(
+            final String symbol,
+            final String resolution,
+            final ApiRateLimiter.Priority priority) throws IOException {
+        final String key = resolution + KEY_SEPARATOR + symbol;
+        synchronized (CACHED_SERIES) {
+            final CachedSeries cached = CACHED_SERIES.get(key);
+            if (cached != null && cached.isFresh(Instant.now())) {
+                return cached.bars;
+            }
+        }
+        return SERIES_FLIGHTS_STORED.execute(key, () -> loadSeries(symbol, resolution, priority));
+    }
+
+    /**
+     * Loads a series and caches it in memory.
+     *
+     * @param symbol the normalized stock symbol
+     * @param resolution the daily, weekly or monthly resolution
+     * @param priority the scheduling priority of a download
+     * @return bars ordered by date
+     * @throws IOException if the series cannot be loaded
+     */
+    private PriceSeries loadSeries(
+            final String symbol,
+            final String resolution,
+            final ApiRateLimiter.Priority priority) throws IOException {
+        final PriceSeries bars;
+        if (priceBarStore == null) {
+            bars = download(symbol, resolution, priority, null, true).toPriceSeries();
+        }
+        else {
+            bars = readThroughStore(symbol, resolution, priority);
+        }
+        synchronized (CACHED_SERIES) {
+            CACHED_SERIES.put(resolution + KEY_SEPARATOR + symbol,
+                    new CachedSeries(bars, Instant.now()));
+        }
+        return bars;
+    }
+
+    /**
+     * Downloads a series at one resolution. Weekly and monthly payloads
+     * always hold the whole history. A daily download asks for the full
+     * history only when it is wanted and the key has not been refused it;
+     * if the API answers that full output is a premium feature, the key is
+     * remembered as free, also in the bar store, and the compact payload is
+     * fetched instead.
+     *
+     * @param symbol the normalized stock symbol
+     * @param resolution the daily, weekly or monthly resolution
+     * @param priority the scheduling priority of the request
+     * @param minDate earliest date key to keep, or {@code null} to keep all
+     * @param wantFull whether a daily download needs more than the compact window
+     * @return the parsed bars sorted by date
+     * @throws IOException if the API call fails or response is invalid
+     */
+    private TimeSeriesParser.ParsedSeries download(
+            final String symbol,
+            final String resolution,
+            final ApiRateLimiter.Priority priority,
+            final String minDate,
+            final boolean wantFull) throws IOException {
+        if (WEEKLY_RESOLUTION.equals(resolution)) {
+            return downloadSeries(symbol, WEEKLY_FUNCTION, priority, minDate);
+        }
+        if (MONTHLY_RESOLUTION.equals(resolution)) {
+            return downloadSeries(symbol, MONTHLY_FUNCTION, priority, minDate);
+        }
+        if (wantFull && !isFullOutputRefused()) {
+            try {
+                return downloadSeries(symbol, DAILY_FUNCTION + OUTPUT_SIZE_FULL, priority, minDate);
+            }
+            catch (PremiumFeatureException premiumException) {
+                fullOutputRefused = true;
+                if (priceBarStore != null) {
+                    priceBarStore.saveRefusal(FULL_OUTPUT_FEATURE, Instant.now());
+                }
+            }
+        }
+        return downloadSeries(symbol, DAILY_FUNCTION + OUTPUT_SIZE_COMPACT, priority, minDate);
+    }
+
+    /**
+     * Serves a series from the local bar store, first topping it up with
+     * bars newer than the last stored one when the store is stale. A daily
+     * top-up only asks for the full history when the gap is wider than the
+     * compact payload. If a top-up fails, previously stored bars are served.
+     *
+     * @param symbol the normalized stock symbol
+     * @param resolution the daily, weekly or monthly resolution
+     * @param priority the scheduling priority of a download
+     * @return bars ordered by date
+     * @throws IOException if nothing is stored and the download fails
+     */
+    private PriceSeries readThroughStore(
+            final String symbol,
+            final String resolution,
+            final ApiRateLimiter.Priority priority) throws IOException {
+        final Instant now = Instant.now();
+        final Instant lastFetched =
+                priceBarStore.findLastFetched(symbol, resolution);
+
+        if (lastFetched == null
+                || lastFetched.plus(STORE_REFRESH_INTERVAL).isBefore(now)) {
+            try {
+                final String latest =
+                        priceBarStore.findLatestDate(symbol, resolution);
+                final boolean compactCoversGap = latest != null
+                        && !LocalDate.parse(latest)
+                                .isBefore(LocalDate.now().minusDays(COMPACT_WINDOW_DAYS));
+                // Bars older than the latest stored one are skipped while
+                // parsing. The latest stored bar is rewritten because the
+                // current period's bar keeps changing until the market closes.
+                final PriceSeries newer = download(
+                        symbol, resolution, priority, latest, !compactCoversGap).toPriceSeries();
+                priceBarStore.saveBars(symbol, resolution, newer, now);
+            }
+            catch (IOException downloadException) {
+                if (lastFetched == null) {
+                    throw downloadException;
+                }
+            }
+        }
+
+        return priceBarStore.findBars(symbol, resolution, null);
+    }
+
+    /**
+     * Downloads the series returned by an Alpha Vantage function.
+     *
+     * @param symbol the stock symbol
+     * @param function the Alpha Vantage function and its extra parameters
+     * @param priority the scheduling priority of the request
+     * @param minDate earliest date key to keep, or {@code null} to keep all
+     * @return the parsed bars sorted by date
+     * @throws IOException if the API call fails or response is invalid
+     */
+    private TimeSeriesParser.ParsedSeries downloadSeries(
+            final String symbol,
+            final String function,
+            final ApiRateLimiter.Priority priority,
+            final String minDate) throws IOException {
         final String url = BASE_URL
                 + "?function="
                 + function
@@ -231,45 +807,92 @@ public class AlphaVantage {
                 .url(url)
                 .build();
 
+        rateLimiter.acquire(priority);
         try (Response response = client.newCall(request).execute()) {
             if (!response.isSuccessful()) {
                 throw new IOException("Unexpected code " + response);
             }
 
-            final String responseBody = response.body().string();
-            final JsonObject json =
-                    JsonParser.parseString(responseBody).getAsJsonObject();
+            // Stream bars straight from the body instead of building a tree.
+            final TimeSeriesParser.ParsedSeries parsed = TimeSeriesParser.parse(
+                    response.body().charStream(), getTimeSeriesKey(function), minDate);
 
-            if (json.has(JSON_FIELD_NOTE)) {
-                throw new IOException(
-                        "API call frequency limit reached. "
-                                + json.get(JSON_FIELD_NOTE).getAsString());
-            }
+            checkApiMessages(
+                    parsed.getNote(), parsed.getInformation(), parsed.getErrorMessage());
 
-            if (json.has(JSON_FIELD_ERROR_MESSAGE)) {
+            if (!parsed.isSeriesFound()) {
                 throw new IOException(
-                        "API Error: " + json.get(JSON_FIELD_ERROR_MESSAGE).getAsString());
+                        "No time series data found for symbol: " + symbol);
             }
 
-            // Extract time series data based on function
-            final String timeSeriesKey = getTimeSeriesKey(function);
-            final JsonObject timeSeries = json.getAsJsonObject(timeSeriesKey);
+            return parsed;
+        }
+    }
 
-            if (timeSeries == null) {
-                throw new IOException(
-                        "No time series data found for symbol: " + symbol);
-            }
+    /**
+     * Checks a quote or time series response for rate-limit and error payloads.
+     * A rate-limit payload drains the limiter so queued callers back off.
+     *
+     * @param json the JSON response object
+     * @throws IOException if the response reports a limit or an error
+     */
+    private void checkApiResponse(final JsonObject json) throws IOException {
+        checkApiMessages(
+                json.has(JSON_FIELD_NOTE)
+                        ? json.get(JSON_FIELD_NOTE).getAsString() : null,
+                json.has(JSON_FIELD_INFORMATION)
+                        ? json.get(JSON_FIELD_INFORMATION).getAsString() : null,
+                json.has(JSON_FIELD_ERROR_MESSAGE)
+                        ? json.get(JSON_FIELD_ERROR_MESSAGE).getAsString() : null);
+    }
 
-            final List<StockPriceData> data = extractTimeSeriesData(timeSeries);
-            filterByInterval(data, interval);
-            data.sort((firstPoint, secondPoint) -> {
-                return firstPoint.getDate().compareTo(secondPoint.getDate());
-            });
+    /**
+     * Fails on rate-limit or error messages returned by the API.
+     * A rate-limit message drains the limiter so queued callers back off;
+     * other "Information" replies, such as a premium-only refusal, fail
+     * only the call that received them.
+     *
+     * @param note the "Note" field, or {@code null}
+     * @param information the "Information" field, or {@code null}
+     * @param errorMessage the "Error Message" field, or {@code null}
+     * @throws IOException if any message is present
+     */
+    private void checkApiMessages(
+            final String note,
+            final String information,
+            final String errorMessage) throws IOException {
+        if (note != null) {
+            rateLimiter.onLimitReported();
+            throw new IOException("API call frequency limit reached. " + note);
+        }
+
+        if (information != null) {
+            throw informationException(information);
+        }
 
-            return data;
+        if (errorMessage != null) {
+            throw new IOException("API Error: " + errorMessage);
         }
     }
 
+    /**
+     * Turns an "Information" reply into the matching exception, draining
+     * the limiter only when the reply reports a rate limit.
+     *
+     * @param information the "Information" field
+     * @return the exception to throw
+     */
+    private IOException informationException(final String information) {
+        if (ApiRateLimiter.reportsRateLimit(information)) {
+            rateLimiter.onLimitReported();
+            return new IOException("API call frequency limit reached. " + information);
+        }
+        if (information.toLowerCase(Locale.ROOT).contains("premium")) {
+            return new PremiumFeatureException(information);
+        }
+        return new IOException("API info: " + information);
+    }
+
     /**
      * Validates the search response JSON for errors.
      *
@@ -281,6 +904,7 @@ public class AlphaVantage {
             final JsonObject json,
             final String responseBody) throws IOException {
         if (json.has(JSON_FIELD_NOTE)) {
+            rateLimiter.onLimitReported();
             throw new IOException(
                     "API note: " + json.get(JSON_FIELD_NOTE).getAsString());
         }
@@ -288,9 +912,8 @@ public class AlphaVantage {
             throw new IOException(
                     "API error: " + json.get(JSON_FIELD_ERROR_MESSAGE).getAsString());
         }
-        if (json.has("Information")) {
-            throw new IOException(
-                    "API info: " + json.get("Information").getAsString());
+        if (json.has(JSON_FIELD_INFORMATION)) {
+            throw informationException(json.get(JSON_FIELD_INFORMATION).getAsString());
         }
         if (!json.has("bestMatches")) {
             throw new IOException(
@@ -331,58 +954,6 @@ public class AlphaVantage {
         return results;
     }
 
-    /**
-     * Extracts time series data from JSON object.
-     *
-     * @param timeSeries the time series JSON object
-     * @return list of stock price data points
-     */
-    private List<StockPriceData> extractTimeSeriesData(
-            final JsonObject timeSeries) {
-        final List<StockPriceData> data = new ArrayList<>();
-        for (Map.Entry<String, com.google.gson.JsonElement> entry
-                : timeSeries.entrySet()) {
-            final String date = entry.getKey();
-            final JsonObject values = entry.getValue().getAsJsonObject();
-
-            final double high =
-                    Double.parseDouble(values.get("2. high").getAsString());
-            final double low =
-                    Double.parseDouble(values.get("3. low").getAsString());
-            final double close =
-                    Double.parseDouble(values.get("4. close").getAsString());
-
-            data.add(new StockPriceData(date, close, high, low));
-        }
-        return data;
-    }
-
-    /**
-     * Filters time series data by interval.
-     *
-     * @param data the list of stock price data to filter
-     * @param interval the time interval
-     */
-    private void filterByInterval(
-            final List<StockPriceData> data,
-            final String interval) {
-        // Filter by interval length (except for intraday 1D which uses
-        // timestamps)
-        if (!"1D".equals(interval)) {
-            final LocalDate cutoff = calculateCutoffDate(interval);
-            if (cutoff != null) {
-                final LocalDate cutoffDate = cutoff;
-                final DateTimeFormatter formatter =
-                        DateTimeFormatter.ofPattern("yyyy-MM-dd");
-                data.removeIf(pricePoint -> {
-                    final LocalDate pointDate =
-                            LocalDate.parse(pricePoint.getDate(), formatter);
-                    return pointDate.isBefore(cutoffDate);
-                });
-            }
-        }
-    }
-
     /**
      * Calculates the cutoff date for the given interval.
      *
@@ -461,6 +1032,60 @@ public class AlphaVantage {
         return exchange;
     }
 
+    /**
+     * Reply refusing a request that only premium keys may make.
+     */
+    private static final class PremiumFeatureException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Constructs the exception.
+         *
+         * @param information the API's explanation
+         */
+        private PremiumFeatureException(final String information) {
+            super("API premium feature: " + information);
+        }
+    }
+
+    /**
+     * A series held in memory and the time it was loaded.
+     */
+    private static final class CachedSeries {
+
+        /**
+         * Bars ordered by date.
+         */
+        private final PriceSeries bars;
+
+        /**
+         * When the bars were loaded.
+         */
+        private final Instant loadedAt;
+
+        /**
+         * Constructs a cached series entry.
+         *
+         * @param barsValue bars ordered by date
+         * @param loadedAtValue when the bars were loaded
+         */
+        private CachedSeries(final PriceSeries barsValue, final Instant loadedAtValue) {
+            this.bars = barsValue;
+            this.loadedAt = loadedAtValue;
+        }
+
+        /**
+         * Checks whether the series may still be served without a refresh.
+         *
+         * @param now the current time
+         * @return whether the series is fresh
+         */
+        private boolean isFresh(final Instant now) {
+            return loadedAt.plus(STORE_REFRESH_INTERVAL).isAfter(now);
+        }
+    }
+
     /**
      * Inner class representing a stock search result.
      */
@@ -683,22 +1308,55 @@ public class AlphaVantage {
         private final double low;
 
         /**
-         * Full constructor using close, high, and low.
+         * The opening price.
+         */
+        private final double open;
+
+        /**
+         * The traded volume.
+         */
+        private final long volume;
+
+        /**
+         * Full OHLC constructor including volume.
          *
          * @param dateValue the date string
-         * @param closeValue the closing price
+         * @param openValue the opening price
          * @param highValue the high price
          * @param lowValue the low price
+         * @param closeValue the closing price
+         * @param volumeValue the traded volume
          */
         public StockPriceData(
                 final String dateValue,
-                final double closeValue,
+                final double openValue,
                 final double highValue,
-                final double lowValue) {
+                final double lowValue,
+                final double closeValue,
+                final long volumeValue) {
             this.date = dateValue;
-            this.close = closeValue;
+            this.open = openValue;
             this.high = highValue;
             this.low = lowValue;
+            this.close = closeValue;
+            this.volume = volumeValue;
+        }
+
+        /**
+         * Constructor using close, high, and low.
+         * Open defaults to the close price and volume to zero.
+         *
+         * @param dateValue the date string
+         * @param closeValue the closing price
+         * @param highValue the high price
+         * @param lowValue the low price
+         */
+        public StockPriceData(
+                final String dateValue,
+                final double closeValue,
+                final double highValue,
+                final double lowValue) {
+            this(dateValue, closeValue, highValue, lowValue, closeValue, 0L);
         }
 
         /**
@@ -758,5 +1416,23 @@ public class AlphaVantage {
         public double getLow() {
             return low;
         }
+
+        /**
+         * Gets the opening price.
+         *
+         * @return the opening price
+         */
+        public double getOpen() {
+            return open;
+        }
+
+        /**
+         * Gets the traded volume.
+         *
+         * @return the traded volume
+         */
+        public long getVolume() {
+            return volume;
+        }
     }
 }
@@ -0,0 +1,402 @@
+package data.stock;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Client-side request scheduler for Alpha Vantage API keys.
+ * Each key has a per-minute token bucket and a per-day budget. Callers queue
+ * for a permit before issuing a request; interactive requests are always
+ * served ahead of background ones. When the estimated wait for a caller
+ * exceeds the configured maximum, the call fails fast with a
+ * {@link RateLimitExceededException} that reports the expected wait instead
+ * of spending a request the API would reject.
+ */
+public final class ApiRateLimiter {
+
+    /**
+     * Requests per minute allowed on the free Alpha Vantage tier.
+     */
+    public static final int FREE_TIER_PER_MINUTE = 5;
+
+    /**
+     * Requests per day allowed on the free Alpha Vantage tier.
+     */
+    public static final int FREE_TIER_PER_DAY = 25;
+
+    /**
+     * Default longest time a caller will queue for a permit.
+     */
+    public static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(30);
+
+    /**
+     * Milliseconds per minute.
+     */
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
+    /**
+     * Shared limiters, one per API key.
+     */
+    private static final ConcurrentMap<String, ApiRateLimiter> BY_KEY =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Scheduling priority of a request.
+     */
+    public enum Priority {
+        /**
+         * A user is waiting on the result, e.g. a trade price.
+         */
+        INTERACTIVE,
+        /**
+         * Prefetching or analysis work, e.g. portfolio history or news.
+         */
+        BACKGROUND
+    }
+
+    /**
+     * Maximum requests per minute.
+     */
+    private final int perMinute;
+
+    /**
+     * Maximum requests per day.
+     */
+    private final long perDay;
+
+    /**
+     * Longest time in milliseconds a caller may queue.
+     */
+    private final long maxWaitMillis;
+
+    /**
+     * Clock used for refills and day boundaries.
+     */
+    private final Clock clock;
+
+    /**
+     * Tokens currently in the per-minute bucket; guarded by {@code this}.
+     */
+    private double minuteTokens;
+
+    /**
+     * Time of the last bucket refill; guarded by {@code this}.
+     */
+    private long lastRefillMillis;
+
+    /**
+     * Day the daily budget applies to; guarded by {@code this}.
+     */
+    private LocalDate budgetDay;
+
+    /**
+     * Requests issued on {@link #budgetDay}; guarded by {@code this}.
+     */
+    private long usedToday;
+
+    /**
+     * Sequence for FIFO ordering within a priority; guarded by {@code this}.
+     */
+    private long nextSequence;
+
+    /**
+     * Callers waiting for a permit, best first; guarded by {@code this}.
+     */
+    private final PriorityQueue<Ticket> waiting = new PriorityQueue<>();
+
+    /**
+     * Constructs a rate limiter.
+     *
+     * @param perMinuteValue maximum requests per minute
+     * @param perDayValue maximum requests per day
+     * @param maxWait longest time a caller may queue
+     * @param clockValue clock for refills and day boundaries
+     */
+    public ApiRateLimiter(
+            final int perMinuteValue,
+            final long perDayValue,
+            final Duration maxWait,
+            final Clock clockValue) {
+        if (perMinuteValue <= 0 || perDayValue <= 0) {
+            throw new IllegalArgumentException("Budgets must be positive.");
+        }
+        this.perMinute = perMinuteValue;
+        this.perDay = perDayValue;
+        this.maxWaitMillis = maxWait.toMillis();
+        this.clock = clockValue;
+        this.minuteTokens = perMinuteValue;
+        this.lastRefillMillis = clockValue.millis();
+        this.budgetDay = LocalDate.now(clockValue.withZone(ZoneOffset.UTC));
+    }
+
+    /**
+     * Returns the shared limiter for an API key, using free-tier budgets.
+     *
+     * @param apiKey the API key
+     * @return the limiter shared by all clients of that key
+     */
+    public static ApiRateLimiter forKey(final String apiKey) {
+        return BY_KEY.computeIfAbsent(apiKey, key -> new ApiRateLimiter(
+                FREE_TIER_PER_MINUTE, FREE_TIER_PER_DAY, DEFAULT_MAX_WAIT, Clock.systemUTC()));
+    }
+
+    /**
+     * Returns a limiter that never blocks, for clients not backed by a real key.
+     *
+     * @return an effectively unlimited limiter
+     */
+    public static ApiRateLimiter unlimited() {
+        return new ApiRateLimiter(Integer.MAX_VALUE, Long.MAX_VALUE, Duration.ZERO, Clock.systemUTC());
+    }
+
+    /**
+     * Waits for a permit to issue one request.
+     *
+     * @param priority the request priority
+     * @throws RateLimitExceededException if the wait would exceed the maximum
+     * @throws IOException if interrupted while waiting
+     */
+    public synchronized void acquire(final Priority priority) throws IOException {
+        final Ticket ticket = new Ticket(priority, nextSequence++);
+        waiting.add(ticket);
+        try {
+            while (true) {
+                refill();
+                final long estimate = estimateMillis(ticket);
+                if (estimate == 0) {
+                    take();
+                    return;
+                }
+                if (estimate > maxWaitMillis) {
+                    throw new RateLimitExceededException(Duration.ofMillis(estimate));
+                }
+                wait(Math.max(1L, estimate));
+            }
+        }
+        catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for API rate limit", interrupted);
+        }
+        finally {
+            waiting.remove(ticket);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Takes a permit only if one is available right now and nobody is queued
+     * ahead of the caller.
+     *
+     * @param priority the request priority
+     * @return whether a permit was taken
+     */
+    public synchronized boolean tryAcquire(final Priority priority) {
+        refill();
+        final Ticket ticket = new Ticket(priority, nextSequence++);
+        if (estimateMillis(ticket) > 0) {
+            return false;
+        }
+        take();
+        return true;
+    }
+
+    /**
+     * Estimates how long a new request of the given priority would queue.
+     *
+     * @param priority the request priority
+     * @return the estimated wait
+     */
+    public synchronized Duration estimateWait(final Priority priority) {
+        refill();
+        return Duration.ofMillis(estimateMillis(new Ticket(priority, nextSequence)));
+    }
+
+    /**
+     * Tells whether an Alpha Vantage "Information" or "Note" message reports
+     * a rate limit, as opposed to a premium-only feature or another notice.
+     *
+     * @param information the message text
+     * @return true if the message reports that a rate limit was hit
+     */
+    public static boolean reportsRateLimit(final String information) {
+        final String lower = information.toLowerCase(Locale.ROOT);
+        return lower.contains("rate limit") || lower.contains("call frequency")
+                || lower.contains("requests per");
+    }
+
+    /**
+     * Drains the per-minute bucket after the API reported that the limit was hit,
+     * so queued callers back off instead of issuing requests that will fail.
+     */
+    public synchronized void onLimitReported() {
+        refill();
+        minuteTokens = 0;
+        notifyAll();
+    }
+
+    /**
+     * Gets the per-minute request budget.
+     *
+     * @return maximum requests per minute
+     */
+    public int getPerMinute() {
+        return perMinute;
+    }
+
+    /**
+     * Gets the number of requests left in today's budget.
+     *
+     * @return remaining daily requests
+     */
+    public synchronized long remainingToday() {
+        refill();
+        return perDay - usedToday;
+    }
+
+    /**
+     * Consumes one minute token and one unit of the daily budget.
+     */
+    private void take() {
+        minuteTokens -= 1;
+        usedToday++;
+    }
+
+    /**
+     * Refills the minute bucket and resets the daily budget at UTC midnight.
+     */
+    private void refill() {
+        final long now = clock.millis();
+        final long elapsed = Math.max(0L, now - lastRefillMillis);
+        minuteTokens = Math.min(perMinute, minuteTokens + elapsed * (double) perMinute / MILLIS_PER_MINUTE);
+        lastRefillMillis = now;
+
+        final LocalDate today = LocalDate.now(clock.withZone(ZoneOffset.UTC));
+        if (!today.equals(budgetDay)) {
+            budgetDay = today;
+            usedToday = 0;
+        }
+    }
+
+    /**
+     * Estimates the wait for a ticket given the callers queued ahead of it.
+     *
+     * @param ticket the caller's ticket
+     * @return the estimated wait in milliseconds
+     */
+    private long estimateMillis(final Ticket ticket) {
+        long ahead = 0;
+        for (Ticket other : waiting) {
+            if (other.compareTo(ticket) < 0) {
+                ahead++;
+            }
+        }
+        final long needed = ahead + 1;
+
+        if (usedToday + needed > perDay) {
+            final long midnight = budgetDay.plusDays(1)
+                    .atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+            return Math.max(1L, midnight - clock.millis());
+        }
+        final double missing = needed - minuteTokens;
+        if (missing <= 0) {
+            return 0;
+        }
+        return (long) Math.ceil(missing * MILLIS_PER_MINUTE / perMinute);
+    }
+
+    /**
+     * A queued caller ordered by priority, then arrival.
+     */
+    private static final class Ticket implements Comparable<Ticket> {
+
+        /**
+         * The request priority.
+         */
+        private final Priority priority;
+
+        /**
+         * Arrival order.
+         */
+        private final long sequence;
+
+        /**
+         * Constructs a ticket.
+         *
+         * @param priorityValue the request priority
+         * @param sequenceValue arrival order
+         */
+        private Ticket(final Priority priorityValue, final long sequenceValue) {
+            this.priority = priorityValue;
+            this.sequence = sequenceValue;
+        }
+
+        @Override
+        public int compareTo(final Ticket other) {
+            final int byPriority = priority.compareTo(other.priority);
+            if (byPriority != 0) {
+                return byPriority;
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Thrown when a request would have to queue longer than allowed.
+     */
+    public static final class RateLimitExceededException extends IOException {
+
+        /**
+         * Serialization version.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Estimated time until the request could be issued.
+         */
+        private final Duration estimatedWait;
+
+        /**
+         * Constructs the exception.
+         *
+         * @param estimatedWaitValue estimated time until a permit is available
+         */
+        public RateLimitExceededException(final Duration estimatedWaitValue) {
+            super("API request budget exhausted; next request possible in about "
+                    + formatWait(estimatedWaitValue));
+            this.estimatedWait = estimatedWaitValue;
+        }
+
+        /**
+         * Gets the estimated time until a permit is available.
+         *
+         * @return the estimated wait
+         */
+        public Duration getEstimatedWait() {
+            return estimatedWait;
+        }
+
+        /**
+         * Formats a wait for display.
+         *
+         * @param wait the wait
+         * @return a human-readable wait
+         */
+        private static String formatWait(final Duration wait) {
+            final long seconds = Math.max(1L, wait.toSeconds());
+            if (seconds < 60) {
+                return seconds + " s";
+            }
+            if (seconds < 3600) {
+                return (seconds + 59) / 60 + " min";
+            }
+            return wait.toHours() + " h " + wait.toMinutesPart() + " min";
+        }
+    }
+}
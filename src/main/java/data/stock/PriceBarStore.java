@@ -0,0 +1,69 @@
+package data.stock;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+import entity.PriceSeries;
+
+/**
+ * Local store of downloaded price bars keyed by symbol, resolution and date.
+ * Lets repeat chart and portfolio loads read history locally and only top up
+ * bars that are newer than the last stored one.
+ */
+public interface PriceBarStore {
+
+    /**
+     * Finds stored bars for a symbol and resolution.
+     *
+     * @param symbol the stock symbol
+     * @param resolution the bar resolution, e.g. the Alpha Vantage function
+     * @param from earliest date to include, or {@code null} for all bars
+     * @return bars ordered by date (oldest to newest)
+     */
+    PriceSeries findBars(String symbol, String resolution, LocalDate from);
+
+    /**
+     * Finds the date of the newest stored bar.
+     *
+     * @param symbol the stock symbol
+     * @param resolution the bar resolution
+     * @return the newest bar date, or {@code null} if nothing is stored
+     */
+    String findLatestDate(String symbol, String resolution);
+
+    /**
+     * Finds when the series was last fetched from the API.
+     *
+     * @param symbol the stock symbol
+     * @param resolution the bar resolution
+     * @return the last fetch time, or {@code null} if never fetched
+     */
+    Instant findLastFetched(String symbol, String resolution);
+
+    /**
+     * Inserts or replaces bars and records the fetch time in one transaction.
+     *
+     * @param symbol the stock symbol
+     * @param resolution the bar resolution
+     * @param bars the bars to store
+     * @param fetchedAt when the bars were fetched
+     */
+    void saveBars(String symbol, String resolution, PriceSeries bars, Instant fetchedAt);
+
+    /**
+     * Finds when the API last refused a premium-only request, so a restart
+     * does not ask again.
+     *
+     * @param feature the refused request, e.g. the full daily history
+     * @return the refusal time, or {@code null} if never refused
+     */
+    Instant findRefusal(String feature);
+
+    /**
+     * Records that the API refused a premium-only request.
+     *
+     * @param feature the refused request
+     * @param refusedAt when it was refused
+     */
+    void saveRefusal(String feature, Instant refusedAt);
+}
@@ -0,0 +1,443 @@
+package data.stock;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide, bounded cache of stock quotes keyed by symbol.
+ * Entries younger than the TTL are served directly. Entries older than the
+ * TTL but still inside the stale window are served immediately while a
+ * background refresh fetches a new quote (stale-while-revalidate). Anything
+ * older is loaded synchronously. The least recently used entry is evicted
+ * once the cache is full. Listeners are told about every quote stored, so
+ * resting orders can be matched against each new price.
+ */
+public final class QuoteCache {
+
+    /**
+     * Default time a quote is considered fresh.
+     */
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(60);
+
+    /**
+     * Default time after expiry during which a stale quote may still be served.
+     */
+    public static final Duration DEFAULT_MAX_STALE = Duration.ofMinutes(10);
+
+    /**
+     * Default maximum number of cached symbols.
+     */
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+
+    /**
+     * Cache shared by every AlphaVantage client in the process.
+     */
+    private static final QuoteCache SHARED = new QuoteCache(
+            DEFAULT_TTL, DEFAULT_MAX_STALE, DEFAULT_MAX_ENTRIES, newRefreshExecutor());
+
+    /**
+     * Loads a quote from the upstream API.
+     */
+    @FunctionalInterface
+    public interface QuoteLoader {
+
+        /**
+         * Fetches the current quote for the symbol.
+         *
+         * @param symbol the stock symbol
+         * @param priority the scheduling priority of the fetch
+         * @return the stock quote
+         * @throws IOException if the quote could not be fetched
+         */
+        AlphaVantage.StockQuote load(String symbol, ApiRateLimiter.Priority priority)
+                throws IOException;
+    }
+
+    /**
+     * Receives each quote as it is stored.
+     */
+    @FunctionalInterface
+    public interface QuoteListener {
+
+        /**
+         * Called after a new quote is cached, on the thread that loaded it.
+         *
+         * @param symbol the normalized stock symbol
+         * @param quote the new quote
+         */
+        void onQuote(String symbol, AlphaVantage.StockQuote quote);
+    }
+
+    /**
+     * Listeners notified of new quotes.
+     */
+    private final List<QuoteListener> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Time in nanoseconds a quote is fresh.
+     */
+    private final long ttlNanos;
+
+    /**
+     * Time in nanoseconds after expiry a quote may be served stale.
+     */
+    private final long maxStaleNanos;
+
+    /**
+     * Maximum number of cached symbols.
+     */
+    private final int maxEntries;
+
+    /**
+     * Executor running background refreshes.
+     */
+    private final Executor refreshExecutor;
+
+    /**
+     * Access-ordered map giving LRU eviction; guarded by {@code this}.
+     */
+    private final LinkedHashMap<String, CachedQuote> entries;
+
+    /**
+     * Number of fresh hits.
+     */
+    private final AtomicLong hits = new AtomicLong();
+
+    /**
+     * Number of stale hits served while revalidating.
+     */
+    private final AtomicLong staleHits = new AtomicLong();
+
+    /**
+     * Number of misses that required a synchronous load.
+     */
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Number of completed background refreshes.
+     */
+    private final AtomicLong refreshes = new AtomicLong();
+
+    /**
+     * Number of failed background refreshes.
+     */
+    private final AtomicLong refreshFailures = new AtomicLong();
+
+    /**
+     * Number of listener calls that threw.
+     */
+    private final AtomicLong listenerFailures = new AtomicLong();
+
+    /**
+     * Constructs a quote cache.
+     *
+     * @param ttl how long a quote is fresh
+     * @param maxStale how long after expiry a quote may be served stale
+     * @param maxEntriesValue maximum number of cached symbols
+     * @param refreshExecutorValue executor for background refreshes
+     */
+    public QuoteCache(
+            final Duration ttl,
+            final Duration maxStale,
+            final int maxEntriesValue,
+            final Executor refreshExecutorValue) {
+        if (ttl.isNegative() || maxStale.isNegative()) {
+            throw new IllegalArgumentException("Durations must not be negative.");
+        }
+        if (maxEntriesValue <= 0) {
+            throw new IllegalArgumentException("Max entries must be positive.");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.maxStaleNanos = maxStale.toNanos();
+        this.maxEntries = maxEntriesValue;
+        this.refreshExecutor = refreshExecutorValue;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CachedQuote> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cache shared by the whole process.
+     *
+     * @return the shared quote cache
+     */
+    public static QuoteCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the quote for the symbol, loading it at interactive priority
+     * if necessary.
+     *
+     * @param symbol the stock symbol
+     * @param loader loader used on a miss or for a background refresh
+     * @return the cached or freshly loaded quote
+     * @throws IOException if a synchronous load fails
+     */
+    public AlphaVantage.StockQuote get(
+            final String symbol,
+            final QuoteLoader loader) throws IOException {
+        return get(symbol, ApiRateLimiter.Priority.INTERACTIVE, loader);
+    }
+
+    /**
+     * Returns the quote for the symbol, loading it if necessary. A miss is
+     * loaded at the caller's priority; a background refresh always runs at
+     * background priority, since nobody waits for it.
+     *
+     * @param symbol the stock symbol
+     * @param priority the scheduling priority of a load on a miss
+     * @param loader loader used on a miss or for a background refresh
+     * @return the cached or freshly loaded quote
+     * @throws IOException if a synchronous load fails
+     */
+    public AlphaVantage.StockQuote get(
+            final String symbol,
+            final ApiRateLimiter.Priority priority,
+            final QuoteLoader loader) throws IOException {
+        final String key = normalize(symbol);
+        final long now = System.nanoTime();
+        boolean scheduleRefresh = false;
+        AlphaVantage.StockQuote cached = null;
+
+        synchronized (this) {
+            final CachedQuote entry = entries.get(key);
+            if (entry != null) {
+                final long age = now - entry.loadedAt;
+                if (age <= ttlNanos) {
+                    cached = entry.quote;
+                    hits.incrementAndGet();
+                }
+                else if (age <= ttlNanos + maxStaleNanos) {
+                    cached = entry.quote;
+                    staleHits.incrementAndGet();
+                    if (!entry.refreshing) {
+                        entry.refreshing = true;
+                        scheduleRefresh = true;
+                    }
+                }
+            }
+        }
+
+        if (cached != null) {
+            if (scheduleRefresh) {
+                refreshExecutor.execute(() -> refresh(key, loader));
+            }
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        final AlphaVantage.StockQuote loaded = loader.load(key, priority);
+        put(key, loaded);
+        return loaded;
+    }
+
+    /**
+     * Stores a quote, replacing any cached value for the symbol.
+     *
+     * @param symbol the stock symbol
+     * @param quote the quote to store
+     */
+    public void put(final String symbol, final AlphaVantage.StockQuote quote) {
+        final String key = normalize(symbol);
+        synchronized (this) {
+            entries.put(key, new CachedQuote(quote, System.nanoTime()));
+        }
+        for (QuoteListener listener : listeners) {
+            try {
+                listener.onQuote(key, quote);
+            }
+            catch (RuntimeException exception) {
+                listenerFailures.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Registers a listener for new quotes.
+     *
+     * @param listener the listener
+     */
+    public void addListener(final QuoteListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener.
+     *
+     * @param listener the listener
+     */
+    public void removeListener(final QuoteListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Removes the cached quote for the symbol.
+     *
+     * @param symbol the stock symbol
+     */
+    public synchronized void invalidate(final String symbol) {
+        entries.remove(normalize(symbol));
+    }
+
+    /**
+     * Removes every cached quote.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Gets the number of cached symbols.
+     *
+     * @return the cache size
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of fresh hits.
+     *
+     * @return the hit count
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Gets the number of stale hits served while revalidating.
+     *
+     * @return the stale hit count
+     */
+    public long getStaleHitCount() {
+        return staleHits.get();
+    }
+
+    /**
+     * Gets the number of misses that required a synchronous load.
+     *
+     * @return the miss count
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Gets the number of completed background refreshes.
+     *
+     * @return the refresh count
+     */
+    public long getRefreshCount() {
+        return refreshes.get();
+    }
+
+    /**
+     * Gets the number of failed background refreshes.
+     *
+     * @return the refresh failure count
+     */
+    public long getRefreshFailureCount() {
+        return refreshFailures.get();
+    }
+
+    /**
+     * Gets the number of listener calls that threw.
+     *
+     * @return the listener failure count
+     */
+    public long getListenerFailureCount() {
+        return listenerFailures.get();
+    }
+
+    /**
+     * Reloads a stale entry in the background.
+     *
+     * @param key the normalized symbol
+     * @param loader loader for the new quote
+     */
+    private void refresh(final String key, final QuoteLoader loader) {
+        try {
+            final AlphaVantage.StockQuote quote =
+                    loader.load(key, ApiRateLimiter.Priority.BACKGROUND);
+            put(key, quote);
+            refreshes.incrementAndGet();
+        }
+        catch (IOException | RuntimeException exception) {
+            refreshFailures.incrementAndGet();
+            synchronized (this) {
+                final CachedQuote entry = entries.get(key);
+                if (entry != null) {
+                    entry.refreshing = false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Normalizes a symbol into a cache key.
+     *
+     * @param symbol the stock symbol
+     * @return the upper-cased, trimmed symbol
+     */
+    private static String normalize(final String symbol) {
+        return symbol.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Creates the single daemon thread used for shared background refreshes.
+     *
+     * @return the refresh executor
+     */
+    private static ExecutorService newRefreshExecutor() {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "quote-cache-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * A cached quote and the time it was loaded.
+     */
+    private static final class CachedQuote {
+
+        /**
+         * The cached quote.
+         */
+        private final AlphaVantage.StockQuote quote;
+
+        /**
+         * {@link System#nanoTime()} when the quote was loaded.
+         */
+        private final long loadedAt;
+
+        /**
+         * Whether a background refresh is in flight.
+         */
+        private boolean refreshing;
+
+        /**
+         * Constructs an entry.
+         *
+         * @param quoteValue the cached quote
+         * @param loadedAtValue load timestamp in nanoseconds
+         */
+        private CachedQuote(final AlphaVantage.StockQuote quoteValue, final long loadedAtValue) {
+            this.quote = quoteValue;
+            this.loadedAt = loadedAtValue;
+        }
+    }
+}
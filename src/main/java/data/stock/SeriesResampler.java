@@ -0,0 +1,112 @@
+package data.stock;
+
+import entity.PriceSeries;
+
+/**
+ * Rolls daily bars up into weekly and monthly bars, so long chart ranges can
+ * be served from a complete daily history without downloading the coarser
+ * series as well.
+ */
+public final class SeriesResampler {
+
+    /**
+     * Days per week.
+     */
+    private static final int DAYS_PER_WEEK = 7;
+
+    /**
+     * Approximate trading days per month, used to size the monthly builder.
+     */
+    private static final int TRADING_DAYS_PER_MONTH = 20;
+
+    /**
+     * Shift that moves epoch day 0 (a Thursday) onto a Monday-based week index.
+     */
+    private static final int EPOCH_WEEK_SHIFT = 3;
+
+    /**
+     * Private constructor to prevent instantiation of utility class.
+     */
+    private SeriesResampler() {
+        // Utility class - no instantiation
+    }
+
+    /**
+     * Rolls daily bars up into weekly bars. Each weekly bar is dated on the
+     * last trading day of its week, like Alpha Vantage's weekly series.
+     *
+     * @param daily daily bars ordered by date
+     * @return weekly bars ordered by date
+     */
+    public static PriceSeries toWeekly(final PriceSeries daily) {
+        final PriceSeries.Builder weekly = new PriceSeries.Builder(daily.size() / DAYS_PER_WEEK + 1);
+        int start = 0;
+        for (int i = 1; i <= daily.size(); i++) {
+            if (i == daily.size() || weekOf(daily.epochDayAt(i)) != weekOf(daily.epochDayAt(start))) {
+                merge(daily, start, i, weekly);
+                start = i;
+            }
+        }
+        return weekly.build();
+    }
+
+    /**
+     * Rolls daily bars up into monthly bars. Each monthly bar is dated on the
+     * last trading day of its month, like Alpha Vantage's monthly series.
+     *
+     * @param daily daily bars ordered by date
+     * @return monthly bars ordered by date
+     */
+    public static PriceSeries toMonthly(final PriceSeries daily) {
+        final PriceSeries.Builder monthly = new PriceSeries.Builder(daily.size() / TRADING_DAYS_PER_MONTH + 1);
+        int start = 0;
+        long nextMonth = Long.MIN_VALUE;
+        for (int i = 0; i <= daily.size(); i++) {
+            if (i == daily.size() || daily.epochDayAt(i) >= nextMonth) {
+                if (i > start) {
+                    merge(daily, start, i, monthly);
+                    start = i;
+                }
+                if (i < daily.size()) {
+                    // One date computation per month rather than per bar.
+                    nextMonth = daily.dateAt(i).withDayOfMonth(1).plusMonths(1).toEpochDay();
+                }
+            }
+        }
+        return monthly.build();
+    }
+
+    /**
+     * Gets the Monday-based week index of an epoch day.
+     *
+     * @param epochDay the epoch day
+     * @return the week index
+     */
+    private static long weekOf(final int epochDay) {
+        return Math.floorDiv(epochDay + EPOCH_WEEK_SHIFT, DAYS_PER_WEEK);
+    }
+
+    /**
+     * Merges a run of daily bars into one bar.
+     *
+     * @param daily daily bars ordered by date
+     * @param from first index, inclusive
+     * @param to last index, exclusive
+     * @param out the builder receiving the merged bar
+     */
+    private static void merge(
+            final PriceSeries daily,
+            final int from,
+            final int to,
+            final PriceSeries.Builder out) {
+        double high = daily.highAt(from);
+        double low = daily.lowAt(from);
+        long volume = 0L;
+        for (int i = from; i < to; i++) {
+            high = Math.max(high, daily.highAt(i));
+            low = Math.min(low, daily.lowAt(i));
+            volume += daily.volumeAt(i);
+        }
+        out.add(daily.epochDayAt(to - 1), daily.openAt(from), high, low, daily.closeAt(to - 1), volume);
+    }
+}
@@ -0,0 +1,111 @@
+package data.stock;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Coalesces concurrent calls that share a key into a single execution.
+ * The first caller for a key runs the call; callers arriving while it is in
+ * flight wait for and share its result or failure. Once the call completes
+ * the key is released, so later callers start a new execution.
+ *
+ * @param <K> the key type
+ * @param <V> the result type
+ */
+public final class SingleFlight<K, V> {
+
+    /**
+     * A call that may fail with an IOException.
+     *
+     * @param <V> the result type
+     */
+    @FunctionalInterface
+    public interface Call<V> {
+
+        /**
+         * Performs the call.
+         *
+         * @return the call result
+         * @throws IOException if the call fails
+         */
+        V call() throws IOException;
+    }
+
+    /**
+     * Calls currently in flight, keyed by request.
+     */
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Runs the call for the key, or joins the call already in flight.
+     *
+     * @param key the request key
+     * @param call the call to run if none is in flight
+     * @return the shared result
+     * @throws IOException if the shared call fails
+     */
+    public V execute(final K key, final Call<V> call) throws IOException {
+        final CompletableFuture<V> created = new CompletableFuture<>();
+        final CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return await(existing);
+        }
+
+        try {
+            final V result = call.call();
+            created.complete(result);
+            return result;
+        }
+        catch (Throwable throwable) {
+            // Any failure, Errors included, must reach the waiters.
+            created.completeExceptionally(throwable);
+            throw throwable;
+        }
+        finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * Gets the number of keys currently in flight.
+     *
+     * @return the in-flight count
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Waits for a call started by another thread.
+     *
+     * @param future the in-flight call
+     * @return the shared result
+     * @throws IOException if the shared call failed or the wait was interrupted
+     */
+    private V await(final CompletableFuture<V> future) throws IOException {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for shared request", interrupted);
+        }
+        catch (ExecutionException executionException) {
+            final Throwable cause = executionException.getCause();
+            if (cause instanceof IOException) {
+                throw new IOException(cause.getMessage(), cause);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException("Shared request failed", cause);
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package data.stock;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import entity.PriceSeries;
+
+/**
+ * Streaming parser for Alpha Vantage time series responses.
+ * Bars are decoded token by token straight into primitive arrays, so no
+ * response string or JSON tree is built. Bars older than an optional cutoff
+ * are skipped while parsing. Alpha Vantage lists bars newest first, so the
+ * arrays are reversed at the end instead of sorted.
+ */
+public final class TimeSeriesParser {
+
+    /**
+     * Initial capacity of the bar arrays.
+     */
+    private static final int INITIAL_CAPACITY = 256;
+
+    /**
+     * JSON field name for API notes.
+     */
+    private static final String FIELD_NOTE = "Note";
+
+    /**
+     * JSON field name for informational messages.
+     */
+    private static final String FIELD_INFORMATION = "Information";
+
+    /**
+     * JSON field name for error messages.
+     */
+    private static final String FIELD_ERROR_MESSAGE = "Error Message";
+
+    /**
+     * Private constructor to prevent instantiation of utility class.
+     */
+    private TimeSeriesParser() {
+        // Utility class - no instantiation
+    }
+
+    /**
+     * Parses a time series response.
+     *
+     * @param reader the response body
+     * @param seriesKey the name of the object holding the bars
+     * @param minDate earliest date key to keep, or {@code null} to keep all
+     * @return the parsed series and any API message fields
+     * @throws IOException if the body is not a valid time series response
+     */
+    public static ParsedSeries parse(
+            final Reader reader,
+            final String seriesKey,
+            final String minDate) throws IOException {
+        final ParsedSeries result = new ParsedSeries();
+        try (JsonReader json = new JsonReader(reader)) {
+            json.beginObject();
+            while (json.hasNext()) {
+                final String name = json.nextName();
+                if (name.equals(seriesKey) && json.peek() == JsonToken.BEGIN_OBJECT) {
+                    result.seriesFound = true;
+                    readBars(json, minDate, result);
+                }
+                else if (FIELD_NOTE.equals(name)) {
+                    result.note = json.nextString();
+                }
+                else if (FIELD_INFORMATION.equals(name)) {
+                    result.information = json.nextString();
+                }
+                else if (FIELD_ERROR_MESSAGE.equals(name)) {
+                    result.errorMessage = json.nextString();
+                }
+                else {
+                    json.skipValue();
+                }
+            }
+            json.endObject();
+        }
+        catch (IllegalStateException | NumberFormatException malformed) {
+            throw new IOException("Malformed time series response", malformed);
+        }
+        result.putInDateOrder();
+        return result;
+    }
+
+    /**
+     * Reads the bar object, appending each bar on or after the cutoff.
+     *
+     * @param json the reader positioned at the bar object
+     * @param minDate earliest date key to keep, or {@code null}
+     * @param result the series to append to
+     * @throws IOException if the body cannot be read
+     */
+    private static void readBars(
+            final JsonReader json,
+            final String minDate,
+            final ParsedSeries result) throws IOException {
+        json.beginObject();
+        while (json.hasNext()) {
+            final String date = json.nextName();
+            if (minDate != null && date.compareTo(minDate) < 0) {
+                json.skipValue();
+                continue;
+            }
+
+            double open = 0;
+            double high = 0;
+            double low = 0;
+            double close = 0;
+            long volume = 0;
+            json.beginObject();
+            while (json.hasNext()) {
+                final String field = json.nextName();
+                // Field names look like "1. open"; the digit identifies the column.
+                switch (field.charAt(0)) {
+                    case '1':
+                        open = json.nextDouble();
+                        break;
+                    case '2':
+                        high = json.nextDouble();
+                        break;
+                    case '3':
+                        low = json.nextDouble();
+                        break;
+                    case '4':
+                        close = json.nextDouble();
+                        break;
+                    case '5':
+                        volume = json.nextLong();
+                        break;
+                    default:
+                        json.skipValue();
+                }
+            }
+            json.endObject();
+            result.append(date, open, high, low, close, volume);
+        }
+        json.endObject();
+    }
+
+    /**
+     * A parsed time series held in parallel primitive arrays, plus any API
+     * message fields found in the response.
+     */
+    public static final class ParsedSeries {
+
+        /**
+         * Bar date keys.
+         */
+        private String[] dates = new String[INITIAL_CAPACITY];
+
+        /**
+         * Opening prices.
+         */
+        private double[] open = new double[INITIAL_CAPACITY];
+
+        /**
+         * High prices.
+         */
+        private double[] high = new double[INITIAL_CAPACITY];
+
+        /**
+         * Low prices.
+         */
+        private double[] low = new double[INITIAL_CAPACITY];
+
+        /**
+         * Closing prices.
+         */
+        private double[] close = new double[INITIAL_CAPACITY];
+
+        /**
+         * Traded volumes.
+         */
+        private long[] volume = new long[INITIAL_CAPACITY];
+
+        /**
+         * Number of bars parsed.
+         */
+        private int size;
+
+        /**
+         * Whether the series object was present.
+         */
+        private boolean seriesFound;
+
+        /**
+         * Value of the "Note" field, if any.
+         */
+        private String note;
+
+        /**
+         * Value of the "Information" field, if any.
+         */
+        private String information;
+
+        /**
+         * Value of the "Error Message" field, if any.
+         */
+        private String errorMessage;
+
+        /**
+         * Gets the number of bars parsed.
+         *
+         * @return the bar count
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Checks whether the series object was present in the response.
+         *
+         * @return whether the series was found
+         */
+        public boolean isSeriesFound() {
+            return seriesFound;
+        }
+
+        /**
+         * Gets the "Note" field, usually a rate-limit message.
+         *
+         * @return the note, or {@code null}
+         */
+        public String getNote() {
+            return note;
+        }
+
+        /**
+         * Gets the "Information" field, usually a rate-limit message.
+         *
+         * @return the information, or {@code null}
+         */
+        public String getInformation() {
+            return information;
+        }
+
+        /**
+         * Gets the "Error Message" field.
+         *
+         * @return the error message, or {@code null}
+         */
+        public String getErrorMessage() {
+            return errorMessage;
+        }
+
+        /**
+         * Gets the date key of a bar.
+         *
+         * @param index the bar index
+         * @return the date key
+         */
+        public String getDate(final int index) {
+            return dates[index];
+        }
+
+        /**
+         * Gets the closing price of a bar.
+         *
+         * @param index the bar index
+         * @return the closing price
+         */
+        public double getClose(final int index) {
+            return close[index];
+        }
+
+        /**
+         * Converts the bars into price data objects.
+         *
+         * @return bars ordered by date (oldest to newest)
+         */
+        public List<AlphaVantage.StockPriceData> toPriceData() {
+            final List<AlphaVantage.StockPriceData> data = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                data.add(new AlphaVantage.StockPriceData(
+                        dates[i], open[i], high[i], low[i], close[i], volume[i]));
+            }
+            return data;
+        }
+
+        /**
+         * Converts daily bars into a columnar price series. Only the
+         * "yyyy-MM-dd" part of each date key is used, so this is meant for
+         * daily and coarser series rather than intraday ones.
+         *
+         * @return bars ordered by date (oldest to newest)
+         */
+        public PriceSeries toPriceSeries() {
+            final PriceSeries.Builder builder = new PriceSeries.Builder(size);
+            for (int i = 0; i < size; i++) {
+                builder.add(toEpochDay(dates[i]), open[i], high[i], low[i], close[i], volume[i]);
+            }
+            return builder.build();
+        }
+
+        /**
+         * Converts a "yyyy-MM-dd" date key to an epoch day without going
+         * through a formatter.
+         *
+         * @param date the date key
+         * @return the epoch day
+         */
+        private static long toEpochDay(final String date) {
+            final int year = Integer.parseInt(date, 0, 4, 10);
+            final int month = Integer.parseInt(date, 5, 7, 10);
+            final int day = Integer.parseInt(date, 8, 10, 10);
+            return LocalDate.of(year, month, day).toEpochDay();
+        }
+
+        /**
+         * Appends one bar, growing the arrays when full.
+         *
+         * @param date the date key
+         * @param openValue the opening price
+         * @param highValue the high price
+         * @param lowValue the low price
+         * @param closeValue the closing price
+         * @param volumeValue the traded volume
+         */
+        private void append(
+                final String date,
+                final double openValue,
+                final double highValue,
+                final double lowValue,
+                final double closeValue,
+                final long volumeValue) {
+            if (size == dates.length) {
+                final int capacity = size * 2;
+                dates = Arrays.copyOf(dates, capacity);
+                open = Arrays.copyOf(open, capacity);
+                high = Arrays.copyOf(high, capacity);
+                low = Arrays.copyOf(low, capacity);
+                close = Arrays.copyOf(close, capacity);
+                volume = Arrays.copyOf(volume, capacity);
+            }
+            dates[size] = date;
+            open[size] = openValue;
+            high[size] = highValue;
+            low[size] = lowValue;
+            close[size] = closeValue;
+            volume[size] = volumeValue;
+            size++;
+        }
+
+        /**
+         * Puts the bars in ascending date order. Newest-first input is
+         * reversed in place; anything else falls back to a sort.
+         */
+        private void putInDateOrder() {
+            boolean ascending = true;
+            boolean descending = true;
+            for (int i = 1; i < size && (ascending || descending); i++) {
+                final int cmp = dates[i - 1].compareTo(dates[i]);
+                ascending &= cmp < 0;
+                descending &= cmp > 0;
+            }
+            if (ascending) {
+                return;
+            }
+            if (descending) {
+                for (int i = 0, j = size - 1; i < j; i++, j--) {
+                    swap(i, j);
+                }
+                return;
+            }
+            final Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (first, second) -> dates[first].compareTo(dates[second]));
+            final String[] sortedDates = new String[size];
+            final double[] sortedOpen = new double[size];
+            final double[] sortedHigh = new double[size];
+            final double[] sortedLow = new double[size];
+            final double[] sortedClose = new double[size];
+            final long[] sortedVolume = new long[size];
+            for (int i = 0; i < size; i++) {
+                final int from = order[i];
+                sortedDates[i] = dates[from];
+                sortedOpen[i] = open[from];
+                sortedHigh[i] = high[from];
+                sortedLow[i] = low[from];
+                sortedClose[i] = close[from];
+                sortedVolume[i] = volume[from];
+            }
+            dates = sortedDates;
+            open = sortedOpen;
+            high = sortedHigh;
+            low = sortedLow;
+            close = sortedClose;
+            volume = sortedVolume;
+        }
+
+        /**
+         * Swaps two bars.
+         *
+         * @param i the first index
+         * @param j the second index
+         */
+        private void swap(final int i, final int j) {
+            final String date = dates[i];
+            dates[i] = dates[j];
+            dates[j] = date;
+            final double o = open[i];
+            open[i] = open[j];
+            open[j] = o;
+            final double h = high[i];
+            high[i] = high[j];
+            high[j] = h;
+            final double l = low[i];
+            low[i] = low[j];
+            low[j] = l;
+            final double c = close[i];
+            close[i] = close[j];
+            close[j] = c;
+            final long v = volume[i];
+            volume[i] = volume[j];
+            volume[j] = v;
+        }
+    }
+}
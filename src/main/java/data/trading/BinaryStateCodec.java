@@ -0,0 +1,297 @@
+package data.trading;
+
+import entity.Holding;
+import entity.OrderRecord;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.BufferUnderflowException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of the trading state.
+ *
+ * Usernames and symbols are written once into dictionaries and referenced
+ * by index; share counts, indexes and sequence numbers are varints; prices
+ * and cash stay raw 64-bit doubles so values round-trip exactly. Order
+ * times are epoch microseconds, with the sub-microsecond remainder written
+ * only when it is non-zero, so the encoding is lossless against JSON.
+ *
+ * Layout: magic, version, journal sequence, order log count and end
+ * (version 2 on), user dictionary, symbol dictionary, cash entries,
+ * holdings per user, orders.
+ */
+final class BinaryStateCodec {
+
+    private static final byte[] MAGIC = {'T', 'R', 'D', 'S'};
+    private static final int VERSION = 2;
+    private static final int VERSION_WITHOUT_ORDER_LOG = 1;
+
+    private static final int ACTION_BUY = 0;
+    private static final int ACTION_SELL = 1;
+    private static final int ACTION_OTHER = 2;     // followed by the action string
+
+    private static final long NANOS_PER_MICRO = 1_000L;
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+
+    private BinaryStateCodec() {
+    }
+
+    /**
+     * @return true if the bytes start with the binary state header
+     */
+    static boolean isBinary(byte[] bytes) {
+        if (bytes.length < MAGIC.length) return false;
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (bytes[i] != MAGIC[i]) return false;
+        }
+        return true;
+    }
+
+    static byte[] encode(PersistedState state) {
+        Dictionary users = new Dictionary();
+        Dictionary symbols = new Dictionary();
+        for (String user : state.userCash.keySet()) users.idOf(user);
+        for (Map.Entry<String, Map<String, Holding>> e : state.userHoldings.entrySet()) {
+            users.idOf(e.getKey());
+            for (Holding h : e.getValue().values()) symbols.idOf(h.getSymbol());
+        }
+        for (OrderRecord order : state.orderRecords) {
+            users.idOf(order.getUsername());
+            symbols.idOf(order.getSymbol());
+        }
+
+        Output out = new Output();
+        out.bytes.writeBytes(MAGIC);
+        out.varint(VERSION);
+        out.varint(state.journalSequence);
+        out.varint(state.orderLogCount);
+        out.varint(state.orderLogEnd);
+        users.writeTo(out);
+        symbols.writeTo(out);
+
+        out.varint(state.userCash.size());
+        for (Map.Entry<String, Double> e : state.userCash.entrySet()) {
+            out.varint(users.idOf(e.getKey()));
+            out.float64(e.getValue());
+        }
+
+        out.varint(state.userHoldings.size());
+        for (Map.Entry<String, Map<String, Holding>> e : state.userHoldings.entrySet()) {
+            out.varint(users.idOf(e.getKey()));
+            out.varint(e.getValue().size());
+            for (Holding h : e.getValue().values()) {
+                out.varint(symbols.idOf(h.getSymbol()));
+                out.varint(h.getShares());
+                out.float64(h.getAvgCost());
+            }
+        }
+
+        out.varint(state.orderRecords.size());
+        for (OrderRecord order : state.orderRecords) {
+            writeTimestamp(out, order.getTimestamp());
+            out.varint(users.idOf(order.getUsername()));
+            out.varint(symbols.idOf(order.getSymbol()));
+            writeAction(out, order.getAction());
+            out.varint(order.getShares());
+            out.float64(order.getPrice());
+            out.float64(order.getTotalAmount());
+        }
+        return out.bytes.toByteArray();
+    }
+
+    static PersistedState decode(byte[] bytes) throws IOException {
+        if (!isBinary(bytes)) {
+            throw new IOException("Not a binary trading state file");
+        }
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes, MAGIC.length, bytes.length - MAGIC.length);
+            int version = (int) readVarint(in);
+            if (version != VERSION && version != VERSION_WITHOUT_ORDER_LOG) {
+                throw new IOException("Unsupported trading state version " + version);
+            }
+            PersistedState state = new PersistedState();
+            state.journalSequence = readVarint(in);
+            if (version >= VERSION) {
+                state.orderLogCount = readVarint(in);
+                state.orderLogEnd = readVarint(in);
+            }
+            String[] users = readDictionary(in);
+            String[] symbols = readDictionary(in);
+
+            int cashCount = count(in);
+            for (int i = 0; i < cashCount; i++) {
+                state.userCash.put(users[count(in)], in.getDouble());
+            }
+
+            int userCount = count(in);
+            for (int i = 0; i < userCount; i++) {
+                String user = users[count(in)];
+                int holdingCount = count(in);
+                Map<String, Holding> holdings = new HashMap<>(holdingCount * 2);
+                for (int j = 0; j < holdingCount; j++) {
+                    String symbol = symbols[count(in)];
+                    holdings.put(symbol, new Holding(symbol, (int) readVarint(in), in.getDouble()));
+                }
+                state.userHoldings.put(user, holdings);
+            }
+
+            int orderCount = count(in);
+            state.orderRecords = new ArrayList<>(orderCount);
+            for (int i = 0; i < orderCount; i++) {
+                Instant timestamp = readTimestamp(in);
+                String user = users[count(in)];
+                String symbol = symbols[count(in)];
+                String action = readAction(in);
+                int shares = (int) readVarint(in);
+                double price = in.getDouble();
+                double total = in.getDouble();
+                state.orderRecords.add(new OrderRecord(timestamp, user, symbol, action, shares, price, total));
+            }
+            return state;
+        }
+        catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Malformed binary trading state", e);
+        }
+    }
+
+    /**
+     * Epoch micros, zigzag-encoded and shifted left by one; the low bit says
+     * whether a sub-microsecond remainder follows.
+     */
+    private static void writeTimestamp(Output out, Instant time) {
+        long micros = Math.addExact(Math.multiplyExact(time.getEpochSecond(), MICROS_PER_SECOND),
+                time.getNano() / NANOS_PER_MICRO);
+        int subMicros = (int) (time.getNano() % NANOS_PER_MICRO);
+        out.varint(zigzag(micros) << 1 | (subMicros != 0 ? 1 : 0));
+        if (subMicros != 0) out.varint(subMicros);
+    }
+
+    private static Instant readTimestamp(ByteBuffer in) {
+        long tagged = readVarint(in);
+        long micros = unzigzag(tagged >>> 1);
+        long subMicros = (tagged & 1) != 0 ? readVarint(in) : 0;
+        return Instant.ofEpochSecond(
+                Math.floorDiv(micros, MICROS_PER_SECOND),
+                Math.floorMod(micros, MICROS_PER_SECOND) * NANOS_PER_MICRO + subMicros);
+    }
+
+    private static void writeAction(Output out, String action) {
+        if ("BUY".equals(action)) {
+            out.varint(ACTION_BUY);
+        }
+        else if ("SELL".equals(action)) {
+            out.varint(ACTION_SELL);
+        }
+        else {
+            out.varint(ACTION_OTHER);
+            out.string(action);
+        }
+    }
+
+    private static String readAction(ByteBuffer in) {
+        int code = (int) readVarint(in);
+        switch (code) {
+            case ACTION_BUY: return "BUY";
+            case ACTION_SELL: return "SELL";
+            case ACTION_OTHER: return readString(in);
+            default: throw new IllegalArgumentException("Unknown order action code " + code);
+        }
+    }
+
+    private static String[] readDictionary(ByteBuffer in) {
+        String[] entries = new String[count(in)];
+        for (int i = 0; i < entries.length; i++) {
+            entries[i] = readString(in);
+        }
+        return entries;
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] utf8 = new byte[count(in)];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a varint used as a size or index, bounded by the remaining input.
+     */
+    private static int count(ByteBuffer in) {
+        long value = readVarint(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bad count " + value);
+        }
+        return (int) value;
+    }
+
+    private static long readVarint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Varint is too long");
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Assigns dense ids to strings in first-seen order.
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> ids = new LinkedHashMap<>();
+
+        int idOf(String value) {
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = ids.size();
+                ids.put(value, id);
+            }
+            return id;
+        }
+
+        void writeTo(Output out) {
+            out.varint(ids.size());
+            for (String value : ids.keySet()) {
+                out.string(value);
+            }
+        }
+    }
+
+    private static final class Output {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final byte[] scratch = new byte[Double.BYTES];
+
+        void varint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                bytes.write((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes.write((int) value);
+        }
+
+        void float64(double value) {
+            ByteBuffer.wrap(scratch).putDouble(value);
+            bytes.write(scratch, 0, scratch.length);
+        }
+
+        void string(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length);
+            bytes.write(utf8, 0, utf8.length);
+        }
+    }
+}
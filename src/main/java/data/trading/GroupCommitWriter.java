@@ -0,0 +1,226 @@
+package data.trading;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single writer thread that group-commits journal records.
+ *
+ * Callers enqueue records and get a future that completes once the
+ * records are on disk. The writer drains everything queued, optionally
+ * waiting up to a maximum batch latency for more, and writes the whole
+ * batch with one append and one fsync. Throughput therefore grows with
+ * the number of concurrent orders instead of being capped at one fsync
+ * per order.
+ *
+ * Checkpoints (e.g. writing a snapshot and truncating the journal) run on
+ * the same thread after every record queued before them is durable. A
+ * writer without a journal only runs checkpoints, e.g. state file writes in
+ * SNAPSHOT mode.
+ *
+ * A failed journal append stops the writer: the records it held already
+ * have sequence numbers, so writing anything after them would leave a gap
+ * that replay refuses to load. Every later request fails with the same
+ * error until the store is reopened.
+ */
+class GroupCommitWriter implements Closeable {
+
+    /**
+     * File work run on the writer thread.
+     */
+    @FunctionalInterface
+    interface IoTask {
+        void run() throws IOException;
+    }
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+    private static final int MAX_BATCH_RECORDS = 4096;
+
+    private final OrderJournal journal;
+    private final long maxBatchLatencyNanos;
+    private final BlockingQueue<Request> queue = new LinkedBlockingQueue<>();
+    private final Thread thread;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    /**
+     * @param journal         the journal to append to, or null if only
+     *                        checkpoints are queued
+     * @param maxBatchLatency how long the writer may wait for more records
+     *                        after the first one arrives; zero writes
+     *                        whatever is queued right away
+     */
+    GroupCommitWriter(OrderJournal journal, Duration maxBatchLatency) {
+        this.journal = journal;
+        this.maxBatchLatencyNanos = maxBatchLatency.toNanos();
+        this.thread = new Thread(this::run, "trading-writer-" + THREAD_COUNTER.incrementAndGet());
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queues records for the next group commit.
+     * @return completes when the records have been forced to disk
+     */
+    CompletableFuture<Void> submit(List<String> records) {
+        return enqueue(new Request(records, null));
+    }
+
+    /**
+     * Queues a task that runs once every earlier record is durable and
+     * before any later record is written.
+     */
+    CompletableFuture<Void> submitCheckpoint(IoTask task) {
+        return enqueue(new Request(null, task));
+    }
+
+    /**
+     * @return the error of the journal append that stopped the writer, or
+     *         null while it is healthy
+     */
+    IOException failure() {
+        return failure;
+    }
+
+    /**
+     * Writes everything still queued, then stops the writer thread.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        queue.add(Request.STOP);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private CompletableFuture<Void> enqueue(Request request) {
+        if (closed || failure != null) {
+            CompletableFuture<Void> failed = new CompletableFuture<>();
+            failed.completeExceptionally(failure != null
+                    ? failure : new IOException("Trading state writer is closed"));
+            return failed;
+        }
+        queue.add(request);
+        return request.done;
+    }
+
+    private void run() {
+        List<Request> batch = new ArrayList<>();
+        boolean stopping = false;
+        while (!stopping) {
+            batch.clear();
+            try {
+                batch.add(queue.take());
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                stopping = true;    // still write whatever was collected
+            }
+            int stopAt = batch.indexOf(Request.STOP);
+            if (stopAt >= 0) {
+                // Requests behind STOP could only come from racing submits; write them too.
+                batch.remove(stopAt);
+                queue.drainTo(batch);
+                batch.remove(Request.STOP);
+                stopping = true;
+            }
+            process(batch);
+        }
+    }
+
+    private void collectBatch(List<Request> batch) throws InterruptedException {
+        int records = batch.get(0).size();
+        long deadline = System.nanoTime() + maxBatchLatencyNanos;
+        while (records < MAX_BATCH_RECORDS) {
+            Request next = queue.poll();
+            if (next == null && maxBatchLatencyNanos > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) break;
+                next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            }
+            if (next == null) break;
+            batch.add(next);
+            if (next == Request.STOP) break;
+            records += next.size();
+        }
+    }
+
+    /**
+     * Writes runs of record requests with one fsync each, running
+     * checkpoints in queue order between them. Once an append has failed,
+     * nothing else is written.
+     */
+    private void process(List<Request> batch) {
+        List<Request> pending = new ArrayList<>();
+        List<String> lines = new ArrayList<>();
+        for (Request request : batch) {
+            if (request.task == null) {
+                pending.add(request);
+                lines.addAll(request.records);
+                continue;
+            }
+            flush(pending, lines);
+            if (failure != null) {
+                request.done.completeExceptionally(failure);
+                continue;
+            }
+            try {
+                request.task.run();
+                request.done.complete(null);
+            } catch (IOException | RuntimeException e) {
+                request.done.completeExceptionally(e);
+            }
+        }
+        flush(pending, lines);
+    }
+
+    private void flush(List<Request> pending, List<String> lines) {
+        if (pending.isEmpty()) return;
+        if (failure == null) {
+            try {
+                journal.append(lines);
+            } catch (IOException | RuntimeException e) {
+                failure = new IOException("Trading journal append failed; reopen the store", e);
+            }
+        }
+        for (Request r : pending) {
+            if (failure == null) {
+                r.done.complete(null);
+            } else {
+                r.done.completeExceptionally(failure);
+            }
+        }
+        pending.clear();
+        lines.clear();
+    }
+
+    private static final class Request {
+        static final Request STOP = new Request(List.of(), null);
+
+        final List<String> records;
+        final IoTask task;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Request(List<String> records, IoTask task) {
+            this.records = records;
+            this.task = task;
+        }
+
+        int size() {
+            return records == null ? 1 : records.size();
+        }
+    }
+}
@@ -13,6 +13,7 @@ public class InMemoryTradingDataAccess implements TradingDataAccessInterface{
     private final Map<String, Double> userCash;
     private final Map<String, Map<String, Holding>> userHoldings;
     private final Map<String, Map<String, Holding>> holdings = new HashMap<>();
+    private final AlphaVantage api = new AlphaVantage();
 
     public InMemoryTradingDataAccess() {
         this.userCash = new HashMap<>();
@@ -55,7 +56,6 @@ public class InMemoryTradingDataAccess implements TradingDataAccessInterface{
         /// returning fixed price just for testing (need to replace with API call)
         // return 100.0;
 
-        AlphaVantage api = new AlphaVantage();
         try {
             return api.getQuote(symbol).getPrice();
         } catch (IOException e) {
@@ -2,26 +2,103 @@ package data.trading;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.stream.JsonWriter;
 import data.stock.AlphaVantage;
 import entity.OrderRecord;
 import entity.Holding;
+import usecase.trading.OrderCursor;
+import usecase.trading.OrderExecution;
+import usecase.trading.OrderPage;
 import usecase.trading.TradingDataAccessInterface;
+import usecase.trading.TradingInputData;
 
 
+import java.io.Closeable;
 import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
-import java.nio.file.Files;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
-public class JsonTradingDataAccess implements TradingDataAccessInterface{
-    private final Map<String, Double> userCash = new HashMap<>();
-    private final Map<String, Map<String, Holding>> userHoldings = new HashMap<>();
-    private final List<OrderRecord> orderRecords = new ArrayList<>();
-    private final Path file;
-    private final Gson gson = new GsonBuilder()
+public class JsonTradingDataAccess implements TradingDataAccessInterface, Closeable {
+
+    /**
+     * How trading state reaches the disk.
+     */
+    public enum PersistenceMode {
+        /** Rewrite the whole state file on every order. */
+        SNAPSHOT,
+        /**
+         * Append one compact record per mutation to a journal next to the state
+         * file and fold the journal into a snapshot every few records.
+         */
+        JOURNAL
+    }
+
+    /**
+     * Encoding of a state file written by {@link #convertStateFile}. The store
+     * reads either format and always saves JSON.
+     */
+    public enum StateFormat {
+        /** Pretty-printed JSON, readable by hand. */
+        JSON,
+        /**
+         * Compact binary with varints, epoch-micro timestamps and interned
+         * user and symbol dictionaries.
+         */
+        BINARY
+    }
+
+    /** Journal records written between two snapshots in JOURNAL mode. */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 1000;
+
+    /** By default a group commit writes whatever is queued without waiting. */
+    public static final Duration DEFAULT_MAX_BATCH_LATENCY = Duration.ZERO;
+
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String RECORD_CASH = "cash";
+    private static final String RECORD_HOLDING = "holding";
+    private static final String RECORD_REMOVE_HOLDING = "removeHolding";
+    private static final String RECORD_ORDER = "order";
+
+    // Per-user entries are guarded by that user's stripe in userLocks.
+    private final Map<String, Double> userCash = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Holding>> userHoldings = new ConcurrentHashMap<>();
+    // Per-user, time-ordered view of the order history; built on the first
+    // history query so startup never touches the order log.
+    private volatile Map<String, UserOrderIndex> ordersByUser;
+    private final Object indexBuildLock = new Object();
+    // Mutations made since the user's last order; written together with the order.
+    private final Map<String, List<JournalRecord>> pendingRecords = new ConcurrentHashMap<>();
+    private final StripedLocks userLocks = new StripedLocks();
+    // Shared by per-user mutations, exclusive while the whole state is saved.
+    private final ReadWriteLock stateLock = new ReentrantReadWriteLock();
+    // Guards the unlogged orders, the logged count and the journal sequence.
+    private final Object sequenceLock = new Object();
+    // Orders not in the order log yet, in sequence order; a checkpoint
+    // appends them to the log and drops them from here.
+    private final List<OrderRecord> unloggedOrders = new ArrayList<>();
+    private long loggedOrders;            // orders in the order log
+    private final StateFile stateFile;
+    private final OrderLog orderLog;
+    private final PersistenceMode mode;
+    private final int snapshotInterval;
+    private final OrderJournal journal;
+    private final GroupCommitWriter writer;
+    private final Object saveLock = new Object();
+    private CompletableFuture<Void> nextSave;   // SNAPSHOT mode: queued write not started yet
+    private long lastSequence;            // sequence of the newest applied record
+    private int recordsSinceSnapshot;
+    private final AlphaVantage api = new AlphaVantage();
+    private static final Gson GSON = new GsonBuilder()
             .registerTypeAdapter(Instant.class, new com.google.gson.JsonSerializer<Instant>() {
                 public com.google.gson.JsonElement serialize(
                         Instant src,
@@ -40,48 +117,281 @@ public class JsonTradingDataAccess implements TradingDataAccessInterface{
             })
             .setPrettyPrinting()
             .create();
-    
+
     public JsonTradingDataAccess(Path file) {
-        this.file = file;
-        loadState();
+        this(file, PersistenceMode.SNAPSHOT);
     }
 
-    private static class PersistedState {
-        Map<String, Double> userCash = new HashMap<>();
-        Map<String, Map<String, Holding>> userHoldings = new HashMap<>();
-        List<OrderRecord> orderRecords = new ArrayList<>();
+    public JsonTradingDataAccess(Path file, PersistenceMode mode) {
+        this(file, mode, DEFAULT_SNAPSHOT_INTERVAL);
     }
 
-    private void loadState() {
-        if (!Files.exists(file)) return;
-        try (Reader reader = Files.newBufferedReader(file)) {
-            PersistedState state = gson.fromJson(reader, PersistedState.class);
-            if (state != null) {
-                userCash.clear();
-                userCash.putAll(state.userCash);
-                userHoldings.clear();
-                userHoldings.putAll(state.userHoldings);
-                orderRecords.clear();
-                orderRecords.addAll(state.orderRecords);
-            }
+    /**
+     * @param file             the state (snapshot) file
+     * @param mode             how state is persisted
+     * @param snapshotInterval in JOURNAL mode, records appended before the
+     *                         journal is compacted into a new snapshot
+     */
+    public JsonTradingDataAccess(Path file, PersistenceMode mode, int snapshotInterval) {
+        this(file, mode, snapshotInterval, DEFAULT_MAX_BATCH_LATENCY);
+    }
+
+    /**
+     * @param file             the state (snapshot) file
+     * @param mode             how state is persisted
+     * @param snapshotInterval in JOURNAL mode, records appended before the
+     *                         journal is compacted into a new snapshot
+     * @param maxBatchLatency  in JOURNAL mode, how long the writer may wait to
+     *                         gather more orders into one fsync
+     */
+    public JsonTradingDataAccess(Path file, PersistenceMode mode, int snapshotInterval,
+                                 Duration maxBatchLatency) {
+        this(file, mode, snapshotInterval, maxBatchLatency, OrderLog.DEFAULT_SEGMENT_BYTES);
+    }
+
+    /**
+     * @param file             the state (snapshot) file
+     * @param mode             how state is persisted
+     * @param snapshotInterval in JOURNAL mode, records appended before the
+     *                         journal is compacted into a new snapshot
+     * @param maxBatchLatency  in JOURNAL mode, how long the writer may wait to
+     *                         gather more orders into one fsync
+     * @param segmentBytes     maximum size of one order log segment file
+     */
+    public JsonTradingDataAccess(Path file, PersistenceMode mode, int snapshotInterval,
+                                 Duration maxBatchLatency, long segmentBytes) {
+        if (snapshotInterval <= 0) {
+            throw new IllegalArgumentException("Snapshot interval must be positive.");
+        }
+        this.stateFile = new StateFile(file);
+        this.orderLog = new OrderLog(file, segmentBytes);
+        this.mode = mode;
+        this.snapshotInterval = snapshotInterval;
+        this.journal = mode == PersistenceMode.JOURNAL
+                ? new OrderJournal(file.resolveSibling(file.getFileName() + JOURNAL_SUFFIX))
+                : null;
+        boolean pastDamagedState = loadState();
+        if (journal != null) {
+            replayJournal(pastDamagedState);
+            this.writer = new GroupCommitWriter(journal, maxBatchLatency);
+        } else {
+            this.writer = new GroupCommitWriter(null, Duration.ZERO);   // state file writes only
+        }
+    }
+
+    /**
+     * One journaled mutation. Cash and holdings are stored as absolute values,
+     * so replaying a record twice is harmless; orders are guarded by sequence.
+     */
+    private static class JournalRecord {
+        long seq;
+        String type;
+        String username;
+        Double cash;
+        Holding holding;
+        String symbol;
+        OrderRecord order;
+    }
+
+    /**
+     * Loads the newest state file generation that verifies and parses,
+     * falling back to the previous one if the latest is damaged.
+     * @return true if the previous generation was loaded although a current
+     *         file exists, i.e. the newest snapshot is damaged. A missing
+     *         current file is only a crash between renames and loses nothing.
+     */
+    private boolean loadState() {
+        List<StateFile.Generation> generations;
+        try {
+            generations = stateFile.readGenerations();
         } catch (IOException e) {
             throw new RuntimeException("Failed to load state from file", e);
         }
+        RuntimeException failure = null;
+        for (StateFile.Generation generation : generations) {
+            PersistedState state;
+            try {
+                state = decodeState(generation.body);
+            } catch (IOException | com.google.gson.JsonParseException e) {
+                // Unverified legacy content; try the older generation.
+                if (failure == null) failure = new RuntimeException("Failed to load state from file", e);
+                continue;
+            }
+            applyState(state);
+            return generation.backup && stateFile.hasCurrent();
+        }
+        if (failure != null) throw failure;
+        applyState(null);
+        return false;
     }
 
+    /**
+     * Decodes a state file body in whichever format it was written.
+     * @return the state, or null for an empty JSON file
+     */
+    private static PersistedState decodeState(byte[] body) throws IOException {
+        if (BinaryStateCodec.isBinary(body)) {
+            return BinaryStateCodec.decode(body);
+        }
+        return GSON.fromJson(new String(body, StandardCharsets.UTF_8), PersistedState.class);
+    }
 
-    private synchronized void saveStateToFile() {
-        PersistedState state = new PersistedState();
-        state.userCash = userCash;
-        state.userHoldings = userHoldings;
-        state.orderRecords = orderRecords;
-        try (Writer writer = Files.newBufferedWriter(file)) {
-            gson.toJson(state, writer);
+    private static byte[] encodeState(PersistedState state, StateFormat format) {
+        if (format == StateFormat.BINARY) {
+            return BinaryStateCodec.encode(state);
+        }
+        return GSON.toJson(state).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Rewrites a state file in the given format, losslessly. The source may
+     * be in either format; its journal, if any, is left alone since journal
+     * records do not depend on the state format. The order log is copied
+     * when the target is a different file.
+     * @param source the state file to read
+     * @param target where to write the converted state; may equal source
+     * @param format the format to write
+     * @throws IOException if the source cannot be read or decoded
+     */
+    public static void convertStateFile(Path source, Path target, StateFormat format) throws IOException {
+        List<StateFile.Generation> generations = new StateFile(source).readGenerations();
+        if (generations.isEmpty()) {
+            throw new IOException("No trading state in " + source);
+        }
+        PersistedState state = decodeState(generations.get(0).body);
+        if (state == null) {
+            state = new PersistedState();
+        }
+        if (state.orderLogCount > 0 && !source.toAbsolutePath().equals(target.toAbsolutePath())) {
+            OrderLog.copySegments(source, target, state.orderLogEnd);
+        }
+        new StateFile(target).write(encodeState(state, format));
+    }
+
+    /**
+     * Restores cash and holdings and opens the order log at the end the
+     * snapshot recorded. Logged orders stay on disk; orders still held in a
+     * legacy snapshot become unlogged orders and move to the log on the next
+     * save.
+     * @param state the loaded snapshot, or null if none was saved
+     */
+    private void applyState(PersistedState state) {
+        if (state == null) state = new PersistedState();
+        userCash.putAll(state.userCash);
+        for (Map.Entry<String, Map<String, Holding>> e : state.userHoldings.entrySet()) {
+            userHoldings.put(e.getKey(), new HashMap<>(e.getValue()));
+        }
+        try {
+            orderLog.open(state.orderLogEnd, state.orderLogCount);
         } catch (IOException e) {
-            throw new RuntimeException("Failed to save state to file", e);
+            throw new RuntimeException("Failed to open order log", e);
+        }
+        loggedOrders = state.orderLogCount;
+        if (state.orderRecords != null) {
+            for (OrderRecord record : state.orderRecords) {
+                addOrder(record);
+            }
+        }
+        lastSequence = state.journalSequence;
+    }
+
+
+    /**
+     * Applies journal records newer than the loaded snapshot. Fails rather
+     * than skip a gap: a checkpoint truncates the journal, so if its snapshot
+     * is unreadable the records between the older snapshot and that
+     * checkpoint exist nowhere else.
+     * @param pastDamagedState whether the loaded snapshot is the backup of a
+     *                         damaged one; the journal must then show that it
+     *                         continues from the backup
+     */
+    private void replayJournal(boolean pastDamagedState) {
+        long loadedSequence = lastSequence;
+        boolean continuous = !pastDamagedState;
+        try {
+            for (String line : journal.readAll()) {
+                JournalRecord record = GSON.fromJson(line, JournalRecord.class);
+                if (record.seq <= lastSequence) {
+                    continuous = true;   // not truncated since the snapshot
+                    continue;            // already in the snapshot
+                }
+                if (record.seq != lastSequence + 1) {
+                    throw new RuntimeException("Trading journal skips from sequence " + lastSequence
+                            + " to " + record.seq + "; records in between are lost");
+                }
+                continuous = true;
+                applyJournalRecord(record);
+                lastSequence = record.seq;
+                recordsSinceSnapshot++;
+            }
+        } catch (IOException | com.google.gson.JsonParseException e) {
+            throw new RuntimeException("Failed to replay trading journal", e);
+        }
+        if (!continuous) {
+            throw new RuntimeException("The latest trading snapshot is damaged and the journal does not"
+                    + " continue from the previous one (sequence " + loadedSequence + ");"
+                    + " refusing to load state that would silently lose changes");
         }
     }
 
+    private void applyJournalRecord(JournalRecord record) {
+        switch (record.type) {
+            case RECORD_CASH:
+                userCash.put(record.username, record.cash);
+                break;
+            case RECORD_HOLDING:
+                userHoldings.computeIfAbsent(record.username, k -> new HashMap<>())
+                            .put(record.holding.getSymbol(), record.holding);
+                break;
+            case RECORD_REMOVE_HOLDING:
+                Map<String, Holding> holdings = userHoldings.get(record.username);
+                if (holdings != null) holdings.remove(record.symbol);
+                break;
+            case RECORD_ORDER:
+                addOrder(record.order);
+                break;
+            default:
+                throw new IllegalStateException("Unknown journal record type: " + record.type);
+        }
+    }
+
+    /**
+     * Serializes a record on one line; a plain JsonWriter has no indent, so the
+     * pretty-printing used for snapshots does not apply.
+     */
+    private String toJournalLine(JournalRecord record) {
+        StringWriter out = new StringWriter();
+        GSON.toJson(record, JournalRecord.class, new JsonWriter(out));
+        return out.toString();
+    }
+
+    private void recordMutation(String username, JournalRecord record) {
+        if (journal != null) {
+            pendingRecords.computeIfAbsent(username, k -> new ArrayList<>()).add(record);
+        }
+    }
+
+    /**
+     * Locks one user's state for a mutation: the shared side of the state
+     * lock, so snapshots see no half-applied order, then the user's stripe.
+     * Refuses once a journal append has failed, since the change could not
+     * be persisted.
+     */
+    private void lockUser(String username) {
+        stateLock.readLock().lock();
+        userLocks.lockFor(username).lock();
+        IOException failure = writer.failure();
+        if (failure != null) {
+            unlockUser(username);
+            throw new RuntimeException("Trading state can no longer be persisted; reopen the store", failure);
+        }
+    }
+
+    private void unlockUser(String username) {
+        userLocks.lockFor(username).unlock();
+        stateLock.readLock().unlock();
+    }
+
 
     private void applyOrderRecord(OrderRecord record) {
         double price = record.getPrice();
@@ -116,54 +426,544 @@ public class JsonTradingDataAccess implements TradingDataAccessInterface{
         userCash.put(username, cash);
     }
 
-    //Trading Data Access Interface Methods
-    public synchronized double getCash(String username) {
-        return userCash.getOrDefault(username, 0.0);
+    /**
+     * Adds an order to the history and, in JOURNAL mode, hands it to the
+     * group-commit writer together with the user's pending mutations.
+     * Called with the user locked.
+     * @return completes when the records are durable
+     */
+    private CompletableFuture<Void> persistOrder(OrderRecord orderRecord) {
+        return persistOrders(orderRecord.getUsername(), List.of(orderRecord));
     }
-    public synchronized void updateCash(String username, double newCash) {
-        userCash.put(username, newCash);
+
+    /**
+     * Adds one user's orders to the history and queues them with the user's
+     * pending mutations as a single group commit. Called with the user locked.
+     * @return completes when the records are durable
+     */
+    private CompletableFuture<Void> persistOrders(String username, List<OrderRecord> orderRecords) {
+        List<JournalRecord> records = pendingRecords.remove(username);
+        synchronized (sequenceLock) {
+            for (OrderRecord orderRecord : orderRecords) {
+                addOrder(orderRecord);
+            }
+            if (journal == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            if (records == null) records = new ArrayList<>(orderRecords.size());
+            for (OrderRecord orderRecord : orderRecords) {
+                JournalRecord order = new JournalRecord();
+                order.type = RECORD_ORDER;
+                order.order = orderRecord;
+                records.add(order);
+            }
+            return appendToJournal(records);
+        }
     }
-    public synchronized Holding getHolding(String username, String symbol) {
-        Map<String, Holding> holdings = userHoldings.get(username);
-        return holdings == null ? null : holdings.get(symbol);
+
+    /**
+     * Queues one user's pending mutations as a group commit of their own,
+     * for changes made outside an order. Called with the user locked.
+     * Compaction is left to the next order.
+     * @return completes when the records are durable
+     */
+    private CompletableFuture<Void> persistMutations(String username) {
+        List<JournalRecord> records = pendingRecords.remove(username);
+        if (records == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        synchronized (sequenceLock) {
+            return appendToJournal(records);
+        }
+    }
+
+    /**
+     * Assigns sequence numbers and queues the records. Called with
+     * sequenceLock held, so records are queued in sequence order.
+     */
+    private CompletableFuture<Void> appendToJournal(List<JournalRecord> records) {
+        List<String> lines = new ArrayList<>(records.size());
+        long seq = lastSequence;
+        for (JournalRecord record : records) {
+            record.seq = ++seq;
+            lines.add(toJournalLine(record));
+        }
+        CompletableFuture<Void> durable = writer.submit(lines);
+        lastSequence = seq;
+        recordsSinceSnapshot += lines.size();
+        return durable;
+    }
+
+    /**
+     * Saves the whole state once an order is in: a shared state file write
+     * in SNAPSHOT mode, or a compaction checkpoint when enough journal
+     * records piled up. Must be called without the user locked.
+     * @return in SNAPSHOT mode, completes when the state file covers the order
+     */
+    private CompletableFuture<Void> afterOrder() {
+        if (journal == null) {
+            return requestSave();
+        }
+        synchronized (sequenceLock) {
+            if (recordsSinceSnapshot < snapshotInterval) return CompletableFuture.completedFuture(null);
+        }
+        stateLock.writeLock().lock();
+        try {
+            compactJournal();
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Queues a state file write on the writer thread. Every order placed
+     * before that write starts shares it, so concurrent orders cost one
+     * rewrite between them instead of one each.
+     * @return completes when a write captured after this call is on disk
+     */
+    private CompletableFuture<Void> requestSave() {
+        synchronized (saveLock) {
+            if (nextSave == null) {
+                nextSave = writer.submitCheckpoint(this::saveStateToFile);
+            }
+            return nextSave;
+        }
+    }
+
+    /**
+     * Queues a snapshot of the current state. Called with the state lock
+     * held exclusively; the writer stores it after every earlier record is
+     * durable and truncates the journal before later ones.
+     */
+    private void compactJournal() {
+        synchronized (sequenceLock) {
+            if (recordsSinceSnapshot < snapshotInterval) return;   // another order did it
+            PersistedState snapshot = captureState();
+            long orderCount = loggedOrders + unloggedOrders.size();
+            writer.submitCheckpoint(() -> {
+                checkpoint(snapshot, orderCount);
+                journal.reset();
+            }).whenComplete((ignored, error) -> {
+                if (error != null) {
+                    // The journal is only truncated after a successful snapshot.
+                    System.err.println("Failed to compact trading journal: " + error.getMessage());
+                }
+            });
+            recordsSinceSnapshot = 0;
+        }
+    }
+
+    /**
+     * Writes the state file in SNAPSHOT mode, on the writer thread. Only the
+     * capture holds the state lock; the file is written after releasing it.
+     */
+    private void saveStateToFile() throws IOException {
+        synchronized (saveLock) {
+            nextSave = null;   // orders from now on need a later write
+        }
+        PersistedState snapshot;
+        long orderCount;
+        stateLock.writeLock().lock();
+        try {
+            synchronized (sequenceLock) {
+                snapshot = captureState();
+                orderCount = loggedOrders + unloggedOrders.size();
+            }
+        } finally {
+            stateLock.writeLock().unlock();
+        }
+        checkpoint(snapshot, orderCount);
+    }
+
+    /**
+     * Copies cash, holdings and the journal sequence. Called with the state
+     * lock held exclusively, so no order is half-applied.
+     */
+    private PersistedState captureState() {
+        PersistedState state = new PersistedState();
+        state.userCash = new HashMap<>(userCash);
+        for (Map.Entry<String, Map<String, Holding>> e : userHoldings.entrySet()) {
+            state.userHoldings.put(e.getKey(), new HashMap<>(e.getValue()));
+        }
+        state.journalSequence = lastSequence;
+        return state;
+    }
+
+    /**
+     * Appends the orders the snapshot covers to the log, then writes the
+     * snapshot that records the new log end. If the snapshot cannot be
+     * written the log is cut back and the orders wait for the next save.
+     * Checkpoints run one at a time, in the order they were captured.
+     * @param orderCount orders placed when the snapshot was captured
+     */
+    private void checkpoint(PersistedState snapshot, long orderCount) throws IOException {
+        List<OrderRecord> orders;
+        synchronized (sequenceLock) {
+            orders = new ArrayList<>(unloggedOrders.subList(0, (int) (orderCount - loggedOrders)));
+        }
+        long end = orderLog.end();
+        long count = orderLog.count();
+        long[] positions;
+        try {
+            positions = orderLog.append(orders);
+            snapshot.orderLogCount = orderLog.count();
+            snapshot.orderLogEnd = orderLog.end();
+            writeStateFile(encodeState(snapshot, StateFormat.JSON));
+        } catch (IOException | RuntimeException e) {
+            orderLog.rollback(end, count);
+            throw e;
+        }
+        dropLoggedOrders(orders, positions);
+    }
+
+    /**
+     * Forgets orders a checkpoint has written, keeping only their log
+     * positions in the index. Holds the index build lock so a concurrent
+     * build sees each order either unlogged or in the log.
+     */
+    private void dropLoggedOrders(List<OrderRecord> orders, long[] positions) {
+        synchronized (indexBuildLock) {
+            long first;
+            Map<String, UserOrderIndex> index;
+            synchronized (sequenceLock) {
+                first = loggedOrders;
+                unloggedOrders.subList(0, orders.size()).clear();
+                loggedOrders += orders.size();
+                index = ordersByUser;
+            }
+            if (index == null) return;
+            for (int i = 0; i < orders.size(); i++) {
+                OrderRecord order = orders.get(i);
+                ReentrantLock lock = userLocks.lockFor(order.getUsername());
+                lock.lock();
+                try {
+                    index.get(order.getUsername())
+                         .markLogged(order.getTimestamp(), first + i, positions[i]);
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
     }
-    public synchronized void updateHolding(String username, Holding holding) {
+
+    private void writeStateFile(byte[] body) throws IOException {
+        stateFile.write(body);
+    }
+
+    /**
+     * Adds an order placed or replayed since the last checkpoint. Its
+     * sequence is its position in the whole history, which is the same on
+     * every load. Called with sequenceLock held, or from the constructor.
+     */
+    private void addOrder(OrderRecord record) {
+        long sequence = loggedOrders + unloggedOrders.size();
+        unloggedOrders.add(record);
+        Map<String, UserOrderIndex> index = ordersByUser;
+        if (index != null) {
+            index.computeIfAbsent(record.getUsername(), k -> new UserOrderIndex())
+                 .add(record, sequence);
+        }
+    }
+
+    /**
+     * Builds the per-user index on first use: one pass over the logged
+     * orders, reading only owner and time, then the unlogged ones. Later
+     * orders are added as they are placed.
+     */
+    private Map<String, UserOrderIndex> orderIndex() {
+        Map<String, UserOrderIndex> index = ordersByUser;
+        if (index != null) return index;
+        synchronized (indexBuildLock) {
+            if (ordersByUser != null) return ordersByUser;
+            Map<String, UserOrderIndex> built = new ConcurrentHashMap<>();
+            long logged;
+            synchronized (sequenceLock) {
+                logged = loggedOrders;   // fixed while we hold indexBuildLock
+            }
+            long[] sequence = {0};
+            try {
+                orderLog.scan(logged, (position, username, time) ->
+                        built.computeIfAbsent(username, k -> new UserOrderIndex())
+                             .addLogged(time, sequence[0]++, position));
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read order log", e);
+            }
+            synchronized (sequenceLock) {
+                for (int i = 0; i < unloggedOrders.size(); i++) {
+                    OrderRecord record = unloggedOrders.get(i);
+                    built.computeIfAbsent(record.getUsername(), k -> new UserOrderIndex())
+                         .add(record, logged + i);
+                }
+                ordersByUser = built;
+            }
+            return built;
+        }
+    }
+
+    private void putCash(String username, double newCash) {
+        userCash.put(username, newCash);
+        JournalRecord record = new JournalRecord();
+        record.type = RECORD_CASH;
+        record.username = username;
+        record.cash = newCash;
+        recordMutation(username, record);
+    }
+
+    private void putHolding(String username, Holding holding) {
         userHoldings.computeIfAbsent(username, k -> new HashMap<>())
                     .put(holding.getSymbol(), holding);
+        JournalRecord record = new JournalRecord();
+        record.type = RECORD_HOLDING;
+        record.username = username;
+        record.holding = holding;
+        recordMutation(username, record);
     }
 
-    public synchronized void removeHolding(String username, String symbol) {
+    private void deleteHolding(String username, String symbol) {
         Map<String, Holding> holdings = userHoldings.get(username);
         if (holdings != null) holdings.remove(symbol);
+        JournalRecord record = new JournalRecord();
+        record.type = RECORD_REMOVE_HOLDING;
+        record.username = username;
+        record.symbol = symbol;
+        recordMutation(username, record);
     }
-    public synchronized List<Holding> getUserHoldings(String username) {
-        Map<String, Holding> holdings = userHoldings.get(username);
-        return holdings == null ? new ArrayList<>() : new ArrayList<>(holdings.values());
+
+    private static void awaitDurable(CompletableFuture<Void> durable) {
+        try {
+            durable.join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Failed to persist trading state", e.getCause());
+        }
+    }
+
+    //Trading Data Access Interface Methods
+    public double getCash(String username) {
+        return userCash.getOrDefault(username, 0.0);
+    }
+    public void updateCash(String username, double newCash) {
+        CompletableFuture<Void> durable;
+        lockUser(username);
+        try {
+            putCash(username, newCash);
+            durable = persistMutations(username);
+        } finally {
+            unlockUser(username);
+        }
+        awaitDurable(durable);
+    }
+    public Holding getHolding(String username, String symbol) {
+        ReentrantLock lock = userLocks.lockFor(username);
+        lock.lock();
+        try {
+            Map<String, Holding> holdings = userHoldings.get(username);
+            return holdings == null ? null : holdings.get(symbol);
+        } finally {
+            lock.unlock();
+        }
+    }
+    public void updateHolding(String username, Holding holding) {
+        CompletableFuture<Void> durable;
+        lockUser(username);
+        try {
+            putHolding(username, holding);
+            durable = persistMutations(username);
+        } finally {
+            unlockUser(username);
+        }
+        awaitDurable(durable);
+    }
+
+    public void removeHolding(String username, String symbol) {
+        CompletableFuture<Void> durable;
+        lockUser(username);
+        try {
+            deleteHolding(username, symbol);
+            durable = persistMutations(username);
+        } finally {
+            unlockUser(username);
+        }
+        awaitDurable(durable);
+    }
+    public List<Holding> getUserHoldings(String username) {
+        ReentrantLock lock = userLocks.lockFor(username);
+        lock.lock();
+        try {
+            Map<String, Holding> holdings = userHoldings.get(username);
+            return holdings == null ? new ArrayList<>() : new ArrayList<>(holdings.values());
+        } finally {
+            lock.unlock();
+        }
     }
 
 //    public double getStockPrice(String symbol) { return 100.0; }
 
      public double getStockPrice(String symbol) {
          try {
-             return new AlphaVantage().getQuote(symbol).getPrice();
+             return api.getQuote(symbol).getPrice();
          } catch (IOException e) {
              throw new RuntimeException("Failed to fetch stock price for " + symbol, e);
          }
      }
-    
-    public synchronized void saveOrder(OrderRecord orderRecord) {
-        orderRecords.add(orderRecord);
-        saveStateToFile();
-    }
 
-    public synchronized List<OrderRecord> findOrdersByUser(String username) {
-        List<OrderRecord> result = new ArrayList<>();
-        for (OrderRecord record : orderRecords) {
-            if (record.getUsername().equals(username)) {
-                result.add(record);
+    /**
+     * Checks and applies an order while holding only this user's lock, so
+     * orders for different users run in parallel and two orders for the
+     * same user cannot both pass the cash or share check.
+     */
+    @Override
+    public OrderExecution executeOrder(String username, String symbol,
+                                       TradingInputData.Action side, int shares, double price) {
+        OrderExecution result;
+        CompletableFuture<Void> durable;
+        lockUser(username);
+        try {
+            result = OrderExecution.evaluate(username, symbol, side, shares, price,
+                    userCash.getOrDefault(username, 0.0), getHolding(username, symbol));
+            if (!result.isExecuted()) {
+                return result;
             }
+            putCash(username, result.getCashAfter());
+            if (result.getHoldingAfter() == null) {
+                deleteHolding(username, symbol);
+            } else {
+                putHolding(username, result.getHoldingAfter());
+            }
+            durable = persistOrder(result.getOrder());
+        } finally {
+            unlockUser(username);
         }
+        // Wait for durability outside the lock so the user's next order can queue.
+        awaitDurable(CompletableFuture.allOf(durable, afterOrder()));
         return result;
-    
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks and applies a batch of one user's orders under that user's lock
+     * and persists them together: one group commit in JOURNAL mode, one
+     * state file write in SNAPSHOT mode.
+     */
+    @Override
+    public List<OrderExecution> executeOrders(String username, List<TradingInputData> orders,
+                                              Map<String, Double> prices) {
+        List<OrderExecution> results;
+        CompletableFuture<Void> durable;
+        lockUser(username);
+        try {
+            Map<String, Holding> current = userHoldings.getOrDefault(username, Map.of());
+            Map<String, Holding> holdings = new HashMap<>();
+            for (TradingInputData order : orders) {
+                holdings.put(order.getSymbol(), current.get(order.getSymbol()));
+            }
+            Map<String, Holding> before = new HashMap<>(holdings);
+            results = OrderExecution.evaluateAll(username, orders, prices,
+                    userCash.getOrDefault(username, 0.0), holdings);
+            List<OrderRecord> executed = new ArrayList<>();
+            for (OrderExecution result : results) {
+                if (result.isExecuted()) executed.add(result.getOrder());
+            }
+            if (executed.isEmpty()) {
+                return results;
+            }
+            putCash(username, results.get(results.size() - 1).getCashAfter());
+            for (Map.Entry<String, Holding> e : holdings.entrySet()) {
+                if (e.getValue() == before.get(e.getKey())) continue;
+                if (e.getValue() == null) {
+                    deleteHolding(username, e.getKey());
+                } else {
+                    putHolding(username, e.getValue());
+                }
+            }
+            durable = persistOrders(username, executed);
+        } finally {
+            unlockUser(username);
+        }
+        awaitDurable(CompletableFuture.allOf(durable, afterOrder()));
+        return results;
+    }
+
+    public void saveOrder(OrderRecord orderRecord) {
+        // Wait for durability outside the lock so other traders can proceed.
+        awaitDurable(saveOrderAsync(orderRecord));
+    }
+
+    /**
+     * Records an order and returns once it is queued for persistence.
+     * In JOURNAL mode the future completes when the group commit holding the
+     * order has been forced to disk; in SNAPSHOT mode it completes when a
+     * state file write that includes the order is on disk.
+     */
+    public CompletableFuture<Void> saveOrderAsync(OrderRecord orderRecord) {
+        CompletableFuture<Void> durable;
+        lockUser(orderRecord.getUsername());
+        try {
+            durable = persistOrder(orderRecord);   // O(1) append in JOURNAL mode
+        } finally {
+            unlockUser(orderRecord.getUsername());
+        }
+        return CompletableFuture.allOf(durable, afterOrder());
+    }
+
+    /**
+     * Flushes queued journal records and state file writes, stops the writer
+     * thread and unmaps the order log.
+     */
+    @Override
+    public void close() throws IOException {
+        writer.close();
+        orderLog.close();
+    }
+
+    /**
+     * @return every user with cash, holdings or orders, e.g. for migrating
+     *         the state to another store
+     */
+    public Set<String> getUsernames() {
+        Set<String> usernames = new TreeSet<>(userCash.keySet());
+        usernames.addAll(userHoldings.keySet());
+        usernames.addAll(orderIndex().keySet());
+        return usernames;
+    }
+
+    /**
+     * Reads a user's orders, paging them in from the order log.
+     */
+    public List<OrderRecord> findOrdersByUser(String username) {
+        Map<String, UserOrderIndex> orders = orderIndex();
+        ReentrantLock lock = userLocks.lockFor(username);
+        lock.lock();
+        try {
+            UserOrderIndex index = orders.get(username);
+            return index == null ? new ArrayList<>() : index.all(orderLog);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read orders for " + username, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Pages through a user's orders using the per-user index.
+     */
+    @Override
+    public OrderPage findOrders(String username, Instant from, Instant to,
+                                int limit, OrderCursor before) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive.");
+        }
+        Map<String, UserOrderIndex> orders = orderIndex();
+        ReentrantLock lock = userLocks.lockFor(username);
+        lock.lock();
+        try {
+            UserOrderIndex index = orders.get(username);
+            return index == null
+                    ? new OrderPage(List.of(), null)
+                    : index.page(from, to, limit, before, orderLog);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read orders for " + username, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+}
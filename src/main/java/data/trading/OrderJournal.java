@@ -0,0 +1,117 @@
+package data.trading;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only journal file holding one record per line.
+ *
+ * Appends go to the end of the file and are forced to disk before
+ * returning, so a record is durable once append returns. A crash can
+ * leave at most one torn final line. Readers skip it because it has no
+ * terminating newline. A failed append is cut back off the file, so a
+ * batch is either fully written or not at all.
+ */
+class OrderJournal implements Closeable {
+
+    private static final byte NEWLINE = '\n';
+
+    private final Path path;
+    private FileChannel channel;
+
+    OrderJournal(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Appends records and forces them to disk with a single fsync.
+     */
+    synchronized void append(List<String> records) throws IOException {
+        if (records.isEmpty()) return;
+        StringBuilder batch = new StringBuilder();
+        for (String record : records) {
+            batch.append(record).append((char) NEWLINE);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(batch.toString().getBytes(StandardCharsets.UTF_8));
+        FileChannel ch = channel();
+        long start = ch.size();
+        try {
+            while (buffer.hasRemaining()) {
+                ch.write(buffer);
+            }
+            ch.force(false);
+        } catch (IOException e) {
+            try {
+                ch.truncate(start);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Reads every complete record. A torn final line is cut off the file so
+     * later appends start on a clean line.
+     */
+    synchronized List<String> readAll() throws IOException {
+        List<String> records = new ArrayList<>();
+        if (!Files.exists(path)) return records;
+
+        byte[] bytes = Files.readAllBytes(path);
+        int end = bytes.length;
+        while (end > 0 && bytes[end - 1] != NEWLINE) {
+            end--;          // drop a partially written last record
+        }
+        if (end < bytes.length) {
+            FileChannel ch = channel();
+            ch.truncate(end);
+            ch.force(true);
+        }
+        try (BufferedReader reader = new BufferedReader(new StringReader(
+                new String(bytes, 0, end, StandardCharsets.UTF_8)))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) records.add(line);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Discards all records, e.g. after they were folded into a snapshot.
+     */
+    synchronized void reset() throws IOException {
+        FileChannel ch = channel();
+        ch.truncate(0);
+        ch.force(true);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        return channel;
+    }
+}
@@ -0,0 +1,304 @@
+package data.trading;
+
+import entity.OrderRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only order history split into segment files next to the state file
+ * ({@code orders.json.orders.000000}, {@code .000001}, ...).
+ *
+ * Orders are appended in batches and forced to disk; reads go through
+ * read-only memory maps, so history is paged in by the OS only when it is
+ * scanned or an order is decoded. A position packs the segment number in
+ * the high 32 bits and the byte offset in the low 32 bits.
+ *
+ * The state snapshot records the log's order count and end position. On
+ * open the log is cut back to that end, dropping orders appended by a
+ * checkpoint that did not finish writing its snapshot; the journal still
+ * holds them.
+ *
+ * Record layout: int length, long epoch second, int nano, then username,
+ * symbol and action as int-length UTF-8, int shares, double price, double
+ * total amount.
+ */
+class OrderLog implements Closeable {
+
+    /** Default maximum segment size. */
+    static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    private static final String SEGMENT_SUFFIX = ".orders.";
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    /**
+     * Receives each scanned order's position, owner and time.
+     */
+    @FunctionalInterface
+    interface Visitor {
+        void accept(long position, String username, Instant timestamp);
+    }
+
+    private final Path stateFile;
+    private final long segmentBytes;
+    private final List<MappedByteBuffer> maps = new ArrayList<>();
+    private long end;           // position just past the last order
+    private long count;         // orders in the log
+    private FileChannel active; // channel of the segment appends go to
+
+    OrderLog(Path stateFile, long segmentBytes) {
+        if (segmentBytes <= HEADER_BYTES || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Segment size out of range: " + segmentBytes);
+        }
+        this.stateFile = stateFile;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * Opens the log at the end recorded in the snapshot, deleting anything
+     * written after it.
+     */
+    synchronized void open(long endPosition, long orderCount) throws IOException {
+        int lastSegment = segment(endPosition);
+        for (int s = lastSegment + 1; Files.exists(segmentPath(s)); s++) {
+            Files.delete(segmentPath(s));
+        }
+        Path last = segmentPath(lastSegment);
+        if (Files.exists(last) && Files.size(last) > offset(endPosition)) {
+            try (FileChannel ch = FileChannel.open(last, StandardOpenOption.WRITE)) {
+                ch.truncate(offset(endPosition));
+                ch.force(true);
+            }
+        }
+        else if (offset(endPosition) > 0 && !Files.exists(last)) {
+            throw new IOException("Order log segment missing: " + last);
+        }
+        this.end = endPosition;
+        this.count = orderCount;
+    }
+
+    synchronized long end() {
+        return end;
+    }
+
+    synchronized long count() {
+        return count;
+    }
+
+    /**
+     * Appends orders and forces them to disk.
+     * @return each order's position, for {@link #read}
+     */
+    synchronized long[] append(List<OrderRecord> orders) throws IOException {
+        long[] positions = new long[orders.size()];
+        if (orders.isEmpty()) return positions;
+        int segment = segment(end);
+        long offset = offset(end);
+        ByteBuffer batch = ByteBuffer.allocate((int) Math.min(segmentBytes, 1 << 16));
+        for (int i = 0; i < orders.size(); i++) {
+            byte[] record = encode(orders.get(i));
+            if (record.length > segmentBytes) {
+                throw new IOException("Order record larger than a segment");
+            }
+            if (offset + record.length > segmentBytes) {
+                writeBatch(segment, batch);
+                closeActive();
+                segment++;
+                offset = 0;
+            }
+            if (batch.remaining() < record.length) {
+                writeBatch(segment, batch);
+                if (batch.capacity() < record.length) batch = ByteBuffer.allocate(record.length);
+            }
+            positions[i] = position(segment, offset);
+            batch.put(record);
+            offset += record.length;
+        }
+        writeBatch(segment, batch);
+        active.force(false);
+        end = position(segment, offset);
+        count += orders.size();
+        return positions;
+    }
+
+    /**
+     * Cuts the log back to an earlier end, e.g. when the snapshot that
+     * should have recorded an append could not be written.
+     */
+    synchronized void rollback(long endPosition, long orderCount) throws IOException {
+        closeActive();
+        maps.clear();
+        open(endPosition, orderCount);
+    }
+
+    /**
+     * Visits the first {@code limit} orders in log order, decoding only the
+     * fields needed for indexing.
+     */
+    void scan(long limit, Visitor visitor) throws IOException {
+        long position = 0;
+        for (long i = 0; i < limit; i++) {
+            ByteBuffer map = mapFor(position);
+            int at = offset(position);
+            if (at >= map.limit()) {            // rest of this segment is unused
+                position = position(segment(position) + 1, 0);
+                map = mapFor(position);
+                at = 0;
+            }
+            int length = map.getInt(at);
+            Instant time = Instant.ofEpochSecond(map.getLong(at + Integer.BYTES),
+                    map.getInt(at + Integer.BYTES + Long.BYTES));
+            String username = readString(map, at + HEADER_BYTES);
+            visitor.accept(position, username, time);
+            position += length;
+        }
+    }
+
+    /**
+     * Decodes the order at a position returned by {@link #scan}.
+     */
+    OrderRecord read(long position) throws IOException {
+        ByteBuffer map = mapFor(position);
+        int at = offset(position);
+        Instant time = Instant.ofEpochSecond(map.getLong(at + Integer.BYTES),
+                map.getInt(at + Integer.BYTES + Long.BYTES));
+        at += HEADER_BYTES;
+        String username = readString(map, at);
+        at += Integer.BYTES + map.getInt(at);
+        String symbol = readString(map, at);
+        at += Integer.BYTES + map.getInt(at);
+        String action = readString(map, at);
+        at += Integer.BYTES + map.getInt(at);
+        int shares = map.getInt(at);
+        double price = map.getDouble(at + Integer.BYTES);
+        double total = map.getDouble(at + Integer.BYTES + Double.BYTES);
+        return new OrderRecord(time, username, symbol, action, shares, price, total);
+    }
+
+    /**
+     * Copies the segments up to an end position from one state file's log
+     * to another's.
+     */
+    static void copySegments(Path sourceStateFile, Path targetStateFile, long endPosition)
+            throws IOException {
+        OrderLog source = new OrderLog(sourceStateFile, DEFAULT_SEGMENT_BYTES);
+        OrderLog target = new OrderLog(targetStateFile, DEFAULT_SEGMENT_BYTES);
+        for (int s = 0; s <= segment(endPosition); s++) {
+            if (Files.exists(source.segmentPath(s))) {
+                Files.copy(source.segmentPath(s), target.segmentPath(s),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closeActive();
+        maps.clear();
+    }
+
+    private void writeBatch(int segment, ByteBuffer batch) throws IOException {
+        batch.flip();
+        if (batch.hasRemaining()) {
+            FileChannel ch = activeChannel(segment);
+            while (batch.hasRemaining()) {
+                ch.write(batch);
+            }
+        }
+        batch.clear();
+    }
+
+    private FileChannel activeChannel(int segment) throws IOException {
+        if (active == null) {
+            active = FileChannel.open(segmentPath(segment),
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+        return active;
+    }
+
+    private void closeActive() throws IOException {
+        if (active != null) {
+            active.force(false);
+            active.close();
+            active = null;
+        }
+    }
+
+    /**
+     * Maps the segment holding a position, remapping the last segment if it
+     * has grown since it was mapped.
+     */
+    private synchronized ByteBuffer mapFor(long position) throws IOException {
+        int segment = segment(position);
+        while (maps.size() <= segment) {
+            maps.add(null);
+        }
+        MappedByteBuffer map = maps.get(segment);
+        if (map == null || offset(position) >= map.limit()) {
+            Path path = segmentPath(segment);
+            if (!Files.exists(path)) {
+                throw new IOException("Order log segment missing: " + path);
+            }
+            try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+                map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            }
+            maps.set(segment, map);
+        }
+        return map;
+    }
+
+    private Path segmentPath(int segment) {
+        return stateFile.resolveSibling(stateFile.getFileName() + SEGMENT_SUFFIX
+                + String.format("%06d", segment));
+    }
+
+    private static byte[] encode(OrderRecord order) {
+        byte[] user = order.getUsername().getBytes(StandardCharsets.UTF_8);
+        byte[] symbol = order.getSymbol().getBytes(StandardCharsets.UTF_8);
+        byte[] action = order.getAction().getBytes(StandardCharsets.UTF_8);
+        int length = HEADER_BYTES + 3 * Integer.BYTES + user.length + symbol.length + action.length
+                + Integer.BYTES + 2 * Double.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        buffer.putInt(length);
+        buffer.putLong(order.getTimestamp().getEpochSecond());
+        buffer.putInt(order.getTimestamp().getNano());
+        buffer.putInt(user.length).put(user);
+        buffer.putInt(symbol.length).put(symbol);
+        buffer.putInt(action.length).put(action);
+        buffer.putInt(order.getShares());
+        buffer.putDouble(order.getPrice());
+        buffer.putDouble(order.getTotalAmount());
+        return buffer.array();
+    }
+
+    private static String readString(ByteBuffer map, int at) {
+        byte[] utf8 = new byte[map.getInt(at)];
+        map.get(at + Integer.BYTES, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static long position(int segment, long offset) {
+        return ((long) segment << 32) | offset;
+    }
+
+    private static int segment(long position) {
+        return (int) (position >>> 32);
+    }
+
+    private static int offset(long position) {
+        return (int) position;
+    }
+}
@@ -0,0 +1,25 @@
+package data.trading;
+
+import entity.Holding;
+import entity.OrderRecord;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything a trading state file holds, in either format.
+ *
+ * Order history lives in the {@link OrderLog}; orderRecords only holds
+ * orders from files written before the log existed, which move to the log
+ * on the next save.
+ */
+class PersistedState {
+    Map<String, Double> userCash = new HashMap<>();
+    Map<String, Map<String, Holding>> userHoldings = new HashMap<>();
+    List<OrderRecord> orderRecords = new ArrayList<>();
+    long journalSequence;   // last journal record folded into this snapshot
+    long orderLogCount;     // orders stored in the order log, not in orderRecords
+    long orderLogEnd;       // order log position just past the last of them
+}
@@ -0,0 +1,168 @@
+package data.trading;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * State file that is replaced atomically and verified on load.
+ *
+ * A new generation is written to a temp file with a footer holding the
+ * body's length and CRC32, forced to disk, and renamed over the state
+ * file. The generation it replaces is kept as a backup, so a crash at any
+ * point leaves either the new file or the previous one intact. Files
+ * written before footers existed are read without verification. The body
+ * may be text or binary; the footer is always ASCII.
+ */
+class StateFile {
+
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String PREVIOUS_SUFFIX = ".prev";
+    private static final String FOOTER_PREFIX = "\n#state length=";
+    private static final String FOOTER_CRC = " crc32=";
+    private static final int MAX_FOOTER_BYTES = 64;
+
+    private final Path path;
+    private final Path previous;
+    private final Path temp;
+
+    /**
+     * One verified generation and whether it came from the backup file.
+     */
+    static final class Generation {
+        final byte[] body;
+        final boolean backup;
+
+        Generation(byte[] body, boolean backup) {
+            this.body = body;
+            this.backup = backup;
+        }
+    }
+
+    StateFile(Path path) {
+        this.path = path;
+        this.previous = path.resolveSibling(path.getFileName() + PREVIOUS_SUFFIX);
+        this.temp = path.resolveSibling(path.getFileName() + TEMP_SUFFIX);
+    }
+
+    /**
+     * Writes a new generation. Once this returns the content survives a crash.
+     */
+    void write(byte[] body) throws IOException {
+        byte[] footer = footer(body).getBytes(StandardCharsets.UTF_8);
+        try (FileChannel ch = FileChannel.open(temp,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer[] buffers = {ByteBuffer.wrap(body), ByteBuffer.wrap(footer)};
+            while (buffers[1].hasRemaining()) {
+                ch.write(buffers);
+            }
+            ch.force(true);
+        }
+        if (Files.exists(path)) {
+            move(path, previous);
+        }
+        move(temp, path);
+        forceDirectory();
+    }
+
+    /**
+     * Reads generations newest first, skipping any that fail verification.
+     * A missing current file falls back to the backup, e.g. after a crash
+     * between the two renames.
+     * @return verified generations, newest first; empty if no state was saved
+     */
+    List<Generation> readGenerations() throws IOException {
+        List<Generation> bodies = new ArrayList<>(2);
+        IOException firstFailure = null;
+        for (Path candidate : new Path[] {path, previous}) {
+            if (!Files.exists(candidate)) continue;
+            try {
+                bodies.add(new Generation(readVerified(candidate), candidate == previous));
+            } catch (IOException e) {
+                System.err.println("Skipping damaged state file " + candidate + ": " + e.getMessage());
+                if (firstFailure == null) firstFailure = e;
+            }
+        }
+        if (bodies.isEmpty() && firstFailure != null) {
+            throw firstFailure;
+        }
+        return bodies;
+    }
+
+    /**
+     * @return true if the current file exists, whether or not it verifies
+     */
+    boolean hasCurrent() {
+        return Files.exists(path);
+    }
+
+    private static byte[] readVerified(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        int footerAt = findFooter(bytes, FOOTER_PREFIX.getBytes(StandardCharsets.UTF_8));
+        if (footerAt < 0) {
+            return bytes;   // written before checksums were added
+        }
+        byte[] body = Arrays.copyOf(bytes, footerAt);
+        byte[] expected = footer(body).getBytes(StandardCharsets.UTF_8);
+        if (!Arrays.equals(bytes, footerAt, bytes.length, expected, 0, expected.length)) {
+            throw new IOException("checksum or length mismatch");
+        }
+        return body;
+    }
+
+    /**
+     * Looks for the footer prefix near the end only, so a footerless file is
+     * not scanned in full.
+     */
+    private static int findFooter(byte[] bytes, byte[] pattern) {
+        int stop = Math.max(0, bytes.length - MAX_FOOTER_BYTES);
+        for (int i = bytes.length - pattern.length; i >= stop; i--) {
+            if (Arrays.equals(bytes, i, i + pattern.length, pattern, 0, pattern.length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String footer(byte[] body) {
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        return FOOTER_PREFIX + body.length + FOOTER_CRC + Long.toHexString(crc.getValue()) + "\n";
+    }
+
+    private static void move(Path from, Path to) throws IOException {
+        try {
+            Files.move(from, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        }
+        catch (AtomicMoveNotSupportedException e) {
+            Files.move(from, to, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Makes the renames durable. Not every platform can open a directory,
+     * in which case the rename is left to the file system.
+     */
+    private void forceDirectory() {
+        Path dir = path.toAbsolutePath().getParent();
+        if (dir == null) return;
+        try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+            ch.force(true);
+        }
+        catch (IOException e) {
+            // e.g. Windows; the renames are still atomic, just not yet synced
+        }
+    }
+}
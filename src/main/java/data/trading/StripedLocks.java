@@ -0,0 +1,48 @@
+package data.trading;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fixed set of locks that keys are hashed onto.
+ *
+ * Each user always maps to the same lock, so one user's operations are
+ * serialized while users on different stripes proceed in parallel,
+ * without keeping a lock object per user.
+ */
+public final class StripedLocks {
+
+    /** Default stripe count; a power of two. */
+    public static final int DEFAULT_STRIPES = 64;
+
+    private final ReentrantLock[] locks;
+    private final int mask;
+
+    public StripedLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param stripes number of locks, rounded up to a power of two
+     */
+    public StripedLocks(int stripes) {
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Stripe count must be positive.");
+        }
+        int size = Integer.highestOneBit(stripes - 1) << 1;
+        if (stripes == 1) size = 1;
+        this.locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * @return the lock guarding the given key
+     */
+    public ReentrantLock lockFor(String key) {
+        int h = key.hashCode();
+        h ^= h >>> 16;      // spread high bits, as HashMap does
+        return locks[h & mask];
+    }
+}
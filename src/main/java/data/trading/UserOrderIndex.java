@@ -0,0 +1,150 @@
+package data.trading;
+
+import entity.OrderRecord;
+import usecase.trading.OrderCursor;
+import usecase.trading.OrderPage;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * One user's orders kept sorted by (timestamp, sequence).
+ *
+ * Orders normally arrive in time order and are appended; an older order is
+ * inserted in place. Range queries binary-search the upper bound and walk
+ * backwards, so a page costs O(log n + page size).
+ *
+ * Orders in the {@link OrderLog} are kept as log positions and decoded only
+ * when a query returns them; orders not logged yet are held as objects until
+ * a checkpoint writes them and {@link #markLogged} swaps in their position.
+ */
+final class UserOrderIndex {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    private Instant[] times = new Instant[INITIAL_CAPACITY];
+    private long[] sequences = new long[INITIAL_CAPACITY];
+    private long[] positions = new long[INITIAL_CAPACITY];
+    private OrderRecord[] orders = new OrderRecord[INITIAL_CAPACITY];   // null if in the log
+    private int size;
+
+    /**
+     * @param order    the order to index
+     * @param sequence a store-wide number, increasing in insertion order
+     */
+    void add(OrderRecord order, long sequence) {
+        insert(order.getTimestamp(), sequence, -1, order);
+    }
+
+    /**
+     * Indexes an order stored in the log without decoding it.
+     */
+    void addLogged(Instant time, long sequence, long position) {
+        insert(time, sequence, position, null);
+    }
+
+    /**
+     * Drops the object of an order a checkpoint has written to the log,
+     * keeping only its position.
+     */
+    void markLogged(Instant time, long sequence, long position) {
+        int at = upperBound(time, sequence) - 1;
+        if (at >= 0 && sequences[at] == sequence) {
+            positions[at] = position;
+            orders[at] = null;
+        }
+    }
+
+    private void insert(Instant time, long sequence, long position, OrderRecord order) {
+        if (size == orders.length) {
+            int capacity = size * 2;
+            times = Arrays.copyOf(times, capacity);
+            sequences = Arrays.copyOf(sequences, capacity);
+            positions = Arrays.copyOf(positions, capacity);
+            orders = Arrays.copyOf(orders, capacity);
+        }
+        int at = size;
+        if (size > 0 && times[size - 1].isAfter(time)) {
+            at = upperBound(time, sequence);
+            System.arraycopy(times, at, times, at + 1, size - at);
+            System.arraycopy(sequences, at, sequences, at + 1, size - at);
+            System.arraycopy(positions, at, positions, at + 1, size - at);
+            System.arraycopy(orders, at, orders, at + 1, size - at);
+        }
+        times[at] = time;
+        sequences[at] = sequence;
+        positions[at] = position;
+        orders[at] = order;
+        size++;
+    }
+
+    /**
+     * @return every order, oldest first
+     */
+    List<OrderRecord> all(OrderLog log) throws IOException {
+        List<OrderRecord> all = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            all.add(order(i, log));
+        }
+        return all;
+    }
+
+    /**
+     * Returns orders with {@code from <= time < to} that come before the
+     * cursor, newest first.
+     */
+    OrderPage page(Instant from, Instant to, int limit, OrderCursor before, OrderLog log)
+            throws IOException {
+        int end = size;
+        if (to != null) {
+            end = Math.min(end, lowerBound(to));
+        }
+        if (before != null) {
+            end = Math.min(end, upperBound(before.getTimestamp(), before.getSequence() - 1));
+        }
+        List<OrderRecord> page = new ArrayList<>(Math.min(limit, end));
+        int i = end - 1;
+        while (i >= 0 && page.size() < limit && (from == null || !times[i].isBefore(from))) {
+            page.add(order(i--, log));
+        }
+        boolean more = i >= 0 && (from == null || !times[i].isBefore(from));
+        OrderCursor next = more ? new OrderCursor(times[i + 1], sequences[i + 1]) : null;
+        return new OrderPage(page, next);
+    }
+
+    private OrderRecord order(int i, OrderLog log) throws IOException {
+        return orders[i] != null ? orders[i] : log.read(positions[i]);
+    }
+
+    /**
+     * First index whose time is not before the given time.
+     */
+    private int lowerBound(Instant time) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (times[mid].isBefore(time)) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * First index whose (time, sequence) is after the given position.
+     */
+    private int upperBound(Instant time, long sequence) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = times[mid].compareTo(time);
+            if (cmp < 0 || (cmp == 0 && sequences[mid] <= sequence)) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
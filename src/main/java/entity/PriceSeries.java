@@ -0,0 +1,284 @@
+package entity;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable, columnar series of daily OHLCV bars ordered by date.
+ *
+ * Each column is a primitive array and dates are stored as epoch days, so a
+ * series costs a few arrays rather than one object per bar. Lookups by date
+ * are binary searches, and slices are views that share the parent's arrays.
+ */
+public final class PriceSeries {
+
+    private static final PriceSeries EMPTY = new PriceSeries(
+            new int[0], new double[0], new double[0], new double[0], new double[0], new long[0], 0, 0);
+
+    private final int[] epochDays;
+    private final double[] open;
+    private final double[] high;
+    private final double[] low;
+    private final double[] close;
+    private final long[] volume;
+    private final int offset;  // index of the first bar in the shared arrays
+    private final int length;  // number of bars in this view
+
+    private PriceSeries(int[] epochDays, double[] open, double[] high, double[] low,
+                        double[] close, long[] volume, int offset, int length) {
+        this.epochDays = epochDays;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * @return a series with no bars
+     */
+    public static PriceSeries empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Builds a close-only series from price points, sorted by date.
+     * Open, high and low default to the close price and volume to zero.
+     * If a date appears more than once, the last point wins.
+     */
+    public static PriceSeries fromPricePoints(List<PricePoint> points) {
+        if (points.isEmpty()) {
+            return EMPTY;
+        }
+        List<PricePoint> sorted = new ArrayList<>(points);
+        sorted.sort(Comparator.comparing(PricePoint::getDate));
+        Builder builder = new Builder(sorted.size());
+        for (PricePoint p : sorted) {
+            double price = p.getPrice();
+            builder.add(p.getDate().toEpochDay(), price, price, price, price, 0L);
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public int epochDayAt(int index) {
+        return epochDays[offset + checkIndex(index)];
+    }
+
+    public LocalDate dateAt(int index) {
+        return LocalDate.ofEpochDay(epochDayAt(index));
+    }
+
+    public double openAt(int index) {
+        return open[offset + checkIndex(index)];
+    }
+
+    public double highAt(int index) {
+        return high[offset + checkIndex(index)];
+    }
+
+    public double lowAt(int index) {
+        return low[offset + checkIndex(index)];
+    }
+
+    public double closeAt(int index) {
+        return close[offset + checkIndex(index)];
+    }
+
+    public long volumeAt(int index) {
+        return volume[offset + checkIndex(index)];
+    }
+
+    /**
+     * @return index of the bar on the given date, or {@code -(insertionPoint) - 1}
+     *         if there is none (same contract as {@link Arrays#binarySearch(int[], int)})
+     */
+    public int indexOf(LocalDate date) {
+        int found = Arrays.binarySearch(epochDays, offset, offset + length, (int) date.toEpochDay());
+        return found >= 0 ? found - offset : found + offset;
+    }
+
+    /**
+     * @return index of the latest bar dated on or before the given epoch day,
+     *         or -1 if every bar is later
+     */
+    public int indexOnOrBefore(int epochDay) {
+        return firstIndexAfter(epochDay) - 1;
+    }
+
+    /**
+     * @return index of the latest bar dated on or before the given date,
+     *         or -1 if every bar is later
+     */
+    public int indexOnOrBefore(LocalDate date) {
+        return indexOnOrBefore((int) date.toEpochDay());
+    }
+
+    /**
+     * @return index of the earliest bar dated on or after the given date,
+     *         or {@link #size()} if every bar is earlier
+     */
+    public int indexOnOrAfter(LocalDate date) {
+        return firstIndexAfter((int) date.toEpochDay() - 1);
+    }
+
+    /**
+     * Returns a view of bars {@code [from, to)} sharing this series' arrays.
+     */
+    public PriceSeries slice(int from, int to) {
+        if (from < 0 || to > length || from > to) {
+            throw new IndexOutOfBoundsException("Slice [" + from + ", " + to + ") of " + length);
+        }
+        if (from == 0 && to == length) {
+            return this;
+        }
+        return new PriceSeries(epochDays, open, high, low, close, volume, offset + from, to - from);
+    }
+
+    /**
+     * Returns a view of the bars dated on or after the cutoff.
+     * A null cutoff returns the whole series.
+     */
+    public PriceSeries sliceFrom(LocalDate cutoff) {
+        if (cutoff == null) {
+            return this;
+        }
+        return slice(indexOnOrAfter(cutoff), length);
+    }
+
+    /**
+     * @return a copy of the date column as epoch days
+     */
+    public int[] epochDays() {
+        return Arrays.copyOfRange(epochDays, offset, offset + length);
+    }
+
+    /**
+     * @return a copy of the close column
+     */
+    public double[] closes() {
+        return Arrays.copyOfRange(close, offset, offset + length);
+    }
+
+    /**
+     * @return the series as close-price points (oldest → newest)
+     */
+    public List<PricePoint> toPricePoints() {
+        List<PricePoint> points = new ArrayList<>(length);
+        for (int i = 0; i < length; i++) {
+            points.add(new PricePoint(dateAt(i), closeAt(i)));
+        }
+        return points;
+    }
+
+    private int firstIndexAfter(int epochDay) {
+        int lo = offset;
+        int hi = offset + length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (epochDays[mid] <= epochDay) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo - offset;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " of " + length);
+        }
+        return index;
+    }
+
+    /**
+     * Appends bars in ascending date order and builds the series without
+     * copying the columns again.
+     */
+    public static final class Builder {
+
+        private int[] epochDays;
+        private double[] open;
+        private double[] high;
+        private double[] low;
+        private double[] close;
+        private long[] volume;
+        private int size;
+
+        public Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 8);
+            epochDays = new int[capacity];
+            open = new double[capacity];
+            high = new double[capacity];
+            low = new double[capacity];
+            close = new double[capacity];
+            volume = new long[capacity];
+        }
+
+        /**
+         * Appends one bar. A bar on the same date as the previous one replaces it.
+         *
+         * @throws IllegalArgumentException if the date is before the previous bar
+         */
+        public Builder add(long epochDay, double openPrice, double highPrice,
+                           double lowPrice, double closePrice, long volumeValue) {
+            if (size > 0 && epochDay < epochDays[size - 1]) {
+                throw new IllegalArgumentException("Bars must be added in date order.");
+            }
+            if (size > 0 && epochDay == epochDays[size - 1]) {
+                size--;
+            }
+            if (size == epochDays.length) {
+                int capacity = size * 2;
+                epochDays = Arrays.copyOf(epochDays, capacity);
+                open = Arrays.copyOf(open, capacity);
+                high = Arrays.copyOf(high, capacity);
+                low = Arrays.copyOf(low, capacity);
+                close = Arrays.copyOf(close, capacity);
+                volume = Arrays.copyOf(volume, capacity);
+            }
+            epochDays[size] = Math.toIntExact(epochDay);
+            open[size] = openPrice;
+            high[size] = highPrice;
+            low[size] = lowPrice;
+            close[size] = closePrice;
+            volume[size] = volumeValue;
+            size++;
+            return this;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * Builds the series. The builder must not be used afterwards.
+         */
+        public PriceSeries build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            PriceSeries series = new PriceSeries(epochDays, open, high, low, close, volume, 0, size);
+            epochDays = null;
+            open = null;
+            high = null;
+            low = null;
+            close = null;
+            volume = null;
+            return series;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package interfaceadapters.portfolio;
 import ui.portfolio.PortfolioViewModel;
 import usecase.portfolio.PortfolioInputBoundary;
 import usecase.portfolio.PortfolioInputData;
+import usecase.portfolio.SnapshotFrequency;
 
 /**
  * Controller for the Portfolio Analysis use case (Use Case 5).
@@ -29,9 +30,19 @@ public class PortfolioController {
      * @return ViewModel containing holdings, snapshots, message, etc.
      */
     public PortfolioViewModel analyze(String username) {
+        return analyze(username, SnapshotFrequency.DAILY);
+    }
+
+    /**
+     * Trigger the portfolio analysis use case with snapshots at the given frequency.
+     * @param  username  the username of the logged-in user
+     * @param  frequency how often snapshots are emitted
+     * @return ViewModel containing holdings, snapshots, message, etc.
+     */
+    public PortfolioViewModel analyze(String username, SnapshotFrequency frequency) {
         viewModel.setUsername(username);
 
-        PortfolioInputData inputData = new PortfolioInputData(username);
+        PortfolioInputData inputData = new PortfolioInputData(username, frequency);
         interactor.execute(inputData);
 
         return viewModel;
@@ -1,8 +1,17 @@
 package interfaceadapters.tracker;
 
+import java.nio.file.Path;
+
+import data.expense.ExpenseCursor;
+import data.expense.ExpenseSortOrder;
 import usecase.add_expense.AddExpenseInputData;
 import usecase.add_expense.AddExpenseInteractor;
 import usecase.add_expense.AddExpenseOutputData;
+import usecase.import_expenses.ImportExpensesInputData;
+import usecase.import_expenses.ImportExpensesInteractor;
+import usecase.import_expenses.ImportExpensesOutputData;
+import usecase.import_expenses.ImportFormat;
+import usecase.import_expenses.ImportProgressListener;
 import usecase.list_expenses.ListExpensesInputData;
 import usecase.list_expenses.ListExpensesInteractor;
 import usecase.list_expenses.ListExpensesOutputData;
@@ -15,17 +24,21 @@ public class TrackerController {
 
     private final ListExpensesInteractor listInteractor;
     private final AddExpenseInteractor addInteractor;
+    private final ImportExpensesInteractor importInteractor;
 
     /**
      * Constructs a tracker controller with the required interactors.
      *
-     * @param listInteractor interactor responsible for listing user expenses
-     * @param addInteractor  interactor responsible for adding a new expense
+     * @param listInteractor   interactor responsible for listing user expenses
+     * @param addInteractor    interactor responsible for adding a new expense
+     * @param importInteractor interactor responsible for importing expense files
      */
     public TrackerController(ListExpensesInteractor listInteractor,
-                             AddExpenseInteractor addInteractor) {
+                             AddExpenseInteractor addInteractor,
+                             ImportExpensesInteractor importInteractor) {
         this.listInteractor = listInteractor;
         this.addInteractor = addInteractor;
+        this.importInteractor = importInteractor;
     }
 
     /**
@@ -39,6 +52,20 @@ public class TrackerController {
         return listInteractor.execute(input);
     }
 
+    /**
+     * Loads one page of a user's expenses, newest first, with the user's total.
+     *
+     * @param username the username whose expense history should be retrieved
+     * @param after    cursor from the previous page, or null for the first page
+     * @param pageSize maximum number of expenses on the page
+     * @return output data containing the page, the total and the next cursor
+     */
+    public ListExpensesOutputData loadExpensePage(String username, ExpenseCursor after, int pageSize) {
+        final ListExpensesInputData input =
+                new ListExpensesInputData(username, after, pageSize, ExpenseSortOrder.NEWEST_FIRST);
+        return listInteractor.execute(input);
+    }
+
     /**
      * Adds a new expense for a specific user.
      *
@@ -56,4 +83,20 @@ public class TrackerController {
                 new AddExpenseInputData(username, datetime, type, amountText);
         return addInteractor.execute(input);
     }
+
+    /**
+     * Imports expenses from a CSV or OFX file, chosen by the file extension.
+     * Rows without a type are recorded as "Other".
+     *
+     * @param username the user the expenses belong to
+     * @param file     the file to import
+     * @param listener told about progress after each committed chunk
+     * @return output data with imported and rejected counts
+     */
+    public ImportExpensesOutputData importExpenses(String username, Path file,
+                                                   ImportProgressListener listener) {
+        final ImportExpensesInputData input = new ImportExpensesInputData(username, file,
+                ImportFormat.fromFileName(file.getFileName().toString()), "Other");
+        return importInteractor.execute(input, listener);
+    }
 }
@@ -4,6 +4,8 @@ import usecase.trading.TradingInputBoundary;
 import usecase.trading.TradingInputData;
 import usecase.trading.TradingViewModel;
 
+import java.util.List;
+
 public class TradingController {
 
     private final TradingInputBoundary interactor;
@@ -20,6 +22,27 @@ public class TradingController {
         return viewModel;
     }
 
+    public TradingViewModel placeOrder(String username, String symbol, int shares, TradingInputData.Action action,
+                                       TradingInputData.OrderType orderType, double triggerPrice) {
+        interactor.placeOrder(new TradingInputData(username, symbol, action, shares, orderType, triggerPrice));
+        return viewModel;
+    }
+
+    public TradingViewModel placeOrders(List<TradingInputData> orders) {
+        interactor.placeOrders(orders);
+        return viewModel;
+    }
+
+    public TradingViewModel showOpenOrders(String username) {
+        interactor.showOpenOrders(username);
+        return viewModel;
+    }
+
+    public TradingViewModel cancelOrder(String username, long orderId) {
+        interactor.cancelOrder(username, orderId);
+        return viewModel;
+    }
+
     public TradingViewModel getViewModel() {
        return viewModel;
     }
@@ -1,9 +1,12 @@
 package interfaceadapters.trading;
 
+import usecase.trading.RestingOrder;
 import usecase.trading.TradingOutputBoundary;
 import usecase.trading.TradingOutputData;
 import usecase.trading.TradingViewModel;
 
+import java.util.List;
+
 public class TradingPresenter implements TradingOutputBoundary {
     private final TradingViewModel viewModel;
 
@@ -18,6 +21,30 @@ public class TradingPresenter implements TradingOutputBoundary {
         viewModel.setAverageCostAfterTrade(output.getAverageCostAfterTrade());
         viewModel.setTotalSharesAfterTrade(output.getTotalSharesAfterTrade());
         viewModel.setTotalHoldingValueAfterTrade(output.getTotalHoldingValueAfterTrade());
+        viewModel.setOrderResults(List.of(output));
+    }
+
+    @Override
+    public void presentTradeResults(List<TradingOutputData> outputs) {
+        if (outputs.isEmpty()) {
+            viewModel.setMessage("No orders submitted.");
+            viewModel.setOrderResults(List.of());
+            return;
+        }
+        long executed = outputs.stream().filter(TradingOutputData::isSuccess).count();
+        presentTradeResult(outputs.get(outputs.size() - 1));
+        viewModel.setMessage(executed + " of " + outputs.size() + " orders executed.");
+        viewModel.setOrderResults(List.copyOf(outputs));
+    }
+
+    @Override
+    public void presentFills(List<TradingOutputData> fills) {
+        viewModel.fireFills(List.copyOf(fills));
+    }
+
+    @Override
+    public void presentOpenOrders(List<RestingOrder> orders) {
+        viewModel.setOpenOrders(List.copyOf(orders));
     }
 
     //public TradingViewModel getViewModel() {
@@ -4,6 +4,7 @@ import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 
 import interfaceadapters.portfolio.PortfolioController;
+import usecase.portfolio.SnapshotFrequency;
 
 import java.awt.*;
 import java.util.List;
@@ -24,6 +25,17 @@ public class PortfolioView extends JFrame {
      */
     public PortfolioView(PortfolioController controller,
                          String username) {
+        this(controller, username, SnapshotFrequency.DAILY);
+    }
+
+    /**
+     * @param controller the controller that triggers the portfolio analysis use case
+     * @param username   the currently logged-in user whose portfolio is analyzed
+     * @param frequency  how often snapshots are shown
+     */
+    public PortfolioView(PortfolioController controller,
+                         String username,
+                         SnapshotFrequency frequency) {
 
         setTitle("Portfolio Analysis");
         setSize(800, 600);
@@ -31,7 +43,7 @@ public class PortfolioView extends JFrame {
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
         // Call the use case via controller
-        PortfolioViewModel vm = controller.analyze(username);
+        PortfolioViewModel vm = controller.analyze(username, frequency);
 
         // app.Main layout
         JPanel mainPanel = new JPanel(new BorderLayout(10, 10));
@@ -80,8 +92,23 @@ public class PortfolioView extends JFrame {
         JLabel messageLabel = new JLabel(vm.getMessage(), SwingConstants.LEFT);
         bottomPanel.add(messageLabel, BorderLayout.WEST);
 
+        // Changing the frequency reopens the view with a fresh analysis
+        JComboBox<SnapshotFrequency> frequencyCombo = new JComboBox<>(SnapshotFrequency.values());
+        frequencyCombo.setSelectedItem(frequency);
+        frequencyCombo.addActionListener(e -> {
+            SnapshotFrequency selected = (SnapshotFrequency) frequencyCombo.getSelectedItem();
+            if (selected != frequency) {
+                new PortfolioView(controller, username, selected).setVisible(true);
+                dispose();
+            }
+        });
+
         JButton backButton = new JButton("Back");
-        bottomPanel.add(backButton, BorderLayout.EAST);
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(new JLabel("Snapshots:"));
+        buttonPanel.add(frequencyCombo);
+        buttonPanel.add(backButton);
+        bottomPanel.add(buttonPanel, BorderLayout.EAST);
 
         mainPanel.add(bottomPanel, BorderLayout.SOUTH);
 
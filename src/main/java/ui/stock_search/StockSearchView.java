@@ -1093,13 +1093,13 @@ public class StockSearchView extends JFrame {
      * @param range  the time range
      * @return the SwingWorker instance
      */
-    private SwingWorker<List<AlphaVantage.StockPriceData>, Void> createSeriesWorker(
+    private SwingWorker<double[], Void> createSeriesWorker(
             final String symbol, final String range) {
-        return new SwingWorker<List<AlphaVantage.StockPriceData>, Void>() {
+        return new SwingWorker<double[], Void>() {
             @Override
-            protected List<AlphaVantage.StockPriceData> doInBackground() {
+            protected double[] doInBackground() {
                 try {
-                    return api.getTimeSeries(symbol, range);
+                    return loadClosePrices(symbol, range);
                 }
                 catch (IOException ioException) {
                     throw new RuntimeException("Failed to fetch time series: " + ioException.getMessage(), ioException);
@@ -1115,6 +1115,30 @@ public class StockSearchView extends JFrame {
         };
     }
 
+    /**
+     * Loads the closing prices to plot for a range. Daily-based ranges read
+     * the close column of the shared price series directly; only the
+     * intraday range goes through per-bar objects.
+     *
+     * @param symbol the stock symbol
+     * @param range  the time range
+     * @return closing prices ordered by time
+     * @throws IOException if the API call fails
+     */
+    private double[] loadClosePrices(final String symbol, final String range)
+            throws IOException {
+        if (!"1D".equals(range)) {
+            return api.getPriceSeries(symbol, range).closes();
+        }
+        final List<AlphaVantage.StockPriceData> intraday =
+                api.getTimeSeries(symbol, range);
+        final double[] closes = new double[intraday.size()];
+        for (int i = 0; i < closes.length; i++) {
+            closes[i] = intraday.get(i).getPrice();
+        }
+        return closes;
+    }
+
     /**
      * Handles the loaded time series data.
      *
@@ -1124,9 +1148,9 @@ public class StockSearchView extends JFrame {
     private void handleSeriesLoaded(final String symbol, final String range) {
         try {
             @SuppressWarnings("unchecked")
-            final SwingWorker<List<AlphaVantage.StockPriceData>, Void> worker =
-                    (SwingWorker<List<AlphaVantage.StockPriceData>, Void>) currentSeriesWorker;
-            final List<AlphaVantage.StockPriceData> seriesData = worker.get();
+            final SwingWorker<double[], Void> worker =
+                    (SwingWorker<double[], Void>) currentSeriesWorker;
+            final double[] seriesData = worker.get();
             chartPanel.setSeries(seriesData);
             chartPanel.repaint();
             statusLabel.setText(
@@ -1197,24 +1221,23 @@ public class StockSearchView extends JFrame {
      */
     private static final class ChartPanel extends JPanel {
         /**
-         * The price data series to display.
+         * The closing prices to display.
          */
-        private List<AlphaVantage.StockPriceData> series;
+        private double[] series;
 
         /**
-         * Sets the price data series to display.
+         * Sets the closing prices to display.
          *
-         * @param seriesData the price data series
+         * @param seriesData the closing prices, ordered by time
          */
-        public void setSeries(
-                final List<AlphaVantage.StockPriceData> seriesData) {
+        public void setSeries(final double[] seriesData) {
             this.series = seriesData;
         }
 
         @Override
         protected void paintComponent(final Graphics g) {
             super.paintComponent(g);
-            if (series == null || series.isEmpty()) {
+            if (series == null || series.length == 0) {
                 drawEmptyChartMessage(g);
             }
             else {
@@ -1266,8 +1289,7 @@ public class StockSearchView extends JFrame {
         private double[] calculatePriceRange() {
             double min = Double.MAX_VALUE;
             double max = Double.MIN_VALUE;
-            for (AlphaVantage.StockPriceData d : series) {
-                final double p = d.getPrice();
+            for (final double p : series) {
                 min = Math.min(min, p);
                 max = Math.max(max, p);
             }
@@ -1320,7 +1342,7 @@ public class StockSearchView extends JFrame {
                                    final int bottomPadding,
                                    final double min,
                                    final double max) {
-            final int n = series.size();
+            final int n = series.length;
             if (n > 1) {
                 final int x0 = padding;
                 final int y0 = height - bottomPadding;
@@ -1332,7 +1354,7 @@ public class StockSearchView extends JFrame {
                 int prevX = -1;
                 int prevY = -1;
                 for (int i = 0; i < n; i++) {
-                    final double price = series.get(i).getPrice();
+                    final double price = series[i];
                     final double normalized = (price - min) / (max - min);
                     final int x = (int) (x0 + i * stepX);
                     final int y = (int) (y0 - normalized * (y0 - y1));
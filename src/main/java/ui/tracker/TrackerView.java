@@ -4,21 +4,29 @@ import java.awt.BorderLayout;
 import java.awt.FlowLayout;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.JButton;
 import javax.swing.JComboBox;
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.BoundedRangeModel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.table.DefaultTableModel;
 
+import data.expense.ExpenseCursor;
 import entity.Expense;
 import interfaceadapters.tracker.TrackerController;
 import usecase.add_expense.AddExpenseOutputData;
+import usecase.import_expenses.ImportExpensesOutputData;
 import usecase.list_expenses.ListExpensesOutputData;
 
 /**
@@ -31,11 +39,20 @@ public class TrackerView extends JFrame {
     private static final int VIEW_PANEL_HEIGHT = 600;
     private static final String CENT_DECIMAL_COUNT = "%.2f";
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final int PAGE_SIZE = 100;
+    // Fetch the next page once the view is within this many rows of the end.
+    private static final int PREFETCH_ROWS = 20;
+    private static final int SHOWN_REJECTIONS = 10;
 
     private final String username;
     private final TrackerController trackerController;
 
     private final DefaultTableModel tableModel;
+    private final JTable table;
+    private final JScrollPane scrollPane;
+
+    // Cursor for the next page; null once every expense is shown.
+    private ExpenseCursor nextCursor;
 
     private final JLabel totalLabel = new JLabel("Total: $0.00");
 
@@ -44,6 +61,7 @@ public class TrackerView extends JFrame {
         "Food", "Technology", "Leisure", "Transport", "Other",
     });
     private final JTextField amountField = new JTextField(8);
+    private final JButton importButton = new JButton("Import...");
 
     public TrackerView(String username, TrackerController trackerController) {
         this.username = username;
@@ -61,8 +79,9 @@ public class TrackerView extends JFrame {
             }
         };
 
-        final JTable table = new JTable(tableModel);
-        final JScrollPane scrollPane = new JScrollPane(table);
+        table = new JTable(tableModel);
+        scrollPane = new JScrollPane(table);
+        scrollPane.getVerticalScrollBar().getModel().addChangeListener(event -> loadMoreIfNeeded());
 
         final JPanel bottomPanel = new JPanel();
         bottomPanel.setLayout(new FlowLayout());
@@ -79,6 +98,7 @@ public class TrackerView extends JFrame {
         formPanel.add(amountField);
         final JButton addButton = new JButton("Add");
         formPanel.add(addButton);
+        formPanel.add(importButton);
 
         bottomPanel.add(totalPanel, BorderLayout.NORTH);
         bottomPanel.add(formPanel, BorderLayout.SOUTH);
@@ -92,12 +112,38 @@ public class TrackerView extends JFrame {
         loadExpenses();
 
         addButton.addActionListener(event -> onAddExpense());
+        importButton.addActionListener(event -> onImport());
     }
 
+    /**
+     * Clears the table and loads the first page.
+     */
     private void loadExpenses() {
         tableModel.setRowCount(0);
+        nextCursor = null;
+        appendPage(trackerController.loadExpensePage(username, null, PAGE_SIZE));
+    }
+
+    /**
+     * Loads the next page when the user has scrolled near the last loaded
+     * row, or when the loaded rows do not fill the view yet.
+     */
+    private void loadMoreIfNeeded() {
+        if (nextCursor == null) {
+            return;
+        }
+        final BoundedRangeModel scroll = scrollPane.getVerticalScrollBar().getModel();
+        final int remaining = scroll.getMaximum() - scroll.getValue() - scroll.getExtent();
+        if (remaining <= PREFETCH_ROWS * table.getRowHeight()) {
+            final ExpenseCursor after = nextCursor;
+            // Cleared before fetching so a scroll event raised by the new rows
+            // does not request the same page again.
+            nextCursor = null;
+            appendPage(trackerController.loadExpensePage(username, after, PAGE_SIZE));
+        }
+    }
 
-        final ListExpensesOutputData output = trackerController.loadExpenses(username);
+    private void appendPage(ListExpensesOutputData output) {
         for (Expense expense : output.getExpenses()) {
             tableModel.addRow(new Object[] {
                     expense.getDatetime(),
@@ -107,6 +153,11 @@ public class TrackerView extends JFrame {
         }
 
         totalLabel.setText("Total: " + String.format(CENT_DECIMAL_COUNT, output.getTotal()));
+        nextCursor = output.getNextCursor();
+        if (nextCursor != null) {
+            // After layout, keep filling until the view scrolls.
+            SwingUtilities.invokeLater(this::loadMoreIfNeeded);
+        }
     }
 
     private void onAddExpense() {
@@ -118,15 +169,9 @@ public class TrackerView extends JFrame {
                 trackerController.addExpense(username, datetime, type, amountText);
 
         if (result.isSuccess()) {
-            final double amount = result.getAmount();
-            tableModel.insertRow(0, new Object[] {
-                    result.getDatetime(),
-                    result.getType(),
-                    String.format(CENT_DECIMAL_COUNT, amount),
-            });
-
-            final ListExpensesOutputData listOutput = trackerController.loadExpenses(username);
-            totalLabel.setText("Total: " + String.format(CENT_DECIMAL_COUNT, listOutput.getTotal()));
+            // Reload from the first page so the new expense lands in datetime
+            // order and the total is refreshed in the same query.
+            loadExpenses();
 
             // Reset fields
             datetimeField.setText(LocalDateTime.now().format(FORMATTER));
@@ -137,4 +182,65 @@ public class TrackerView extends JFrame {
                     "Validation", JOptionPane.WARNING_MESSAGE);
         }
     }
+
+    /**
+     * Imports a CSV or OFX file in the background, showing the row count
+     * in the total label as chunks are committed.
+     */
+    private void onImport() {
+        final JFileChooser chooser = new JFileChooser();
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        importButton.setEnabled(false);
+        totalLabel.setText("Importing...");
+
+        new SwingWorker<ImportExpensesOutputData, Long>() {
+            @Override
+            protected ImportExpensesOutputData doInBackground() {
+                return trackerController.importExpenses(username, chooser.getSelectedFile().toPath(),
+                        (rowsRead, rowsImported) -> publish(rowsImported));
+            }
+
+            @Override
+            protected void process(List<Long> imported) {
+                totalLabel.setText("Importing... " + imported.get(imported.size() - 1) + " expenses");
+            }
+
+            @Override
+            protected void done() {
+                importButton.setEnabled(true);
+                loadExpenses();
+                try {
+                    showImportResult(get());
+                }
+                catch (InterruptedException | ExecutionException exception) {
+                    JOptionPane.showMessageDialog(TrackerView.this, "Failed to import expenses!",
+                            "Import", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    private void showImportResult(ImportExpensesOutputData result) {
+        final StringBuilder message = new StringBuilder(result.getMessage());
+        if (!result.isSuccess()) {
+            message.append("\n").append(result.getImported()).append(" expenses were imported before the failure.");
+        }
+        final List<String> rejections = result.getRejections();
+        for (int i = 0; i < Math.min(SHOWN_REJECTIONS, rejections.size()); i++) {
+            message.append("\n").append(rejections.get(i));
+        }
+        if (result.getRejected() > SHOWN_REJECTIONS) {
+            message.append("\n...");
+        }
+        final int messageType;
+        if (result.isSuccess()) {
+            messageType = JOptionPane.INFORMATION_MESSAGE;
+        }
+        else {
+            messageType = JOptionPane.WARNING_MESSAGE;
+        }
+        JOptionPane.showMessageDialog(this, message.toString(), "Import", messageType);
+    }
 }
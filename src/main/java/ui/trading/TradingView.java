@@ -1,7 +1,9 @@
 package ui.trading;
 import interfaceadapters.trading.TradingController;
 import interfaceadapters.stocksearch.StockSearchController;
+import usecase.trading.RestingOrder;
 import usecase.trading.TradingInputData;
+import usecase.trading.TradingOutputData;
 import usecase.trading.TradingViewModel;
 import usecase.stocksearch.StockSearchOutputData;
 import data.stock.AlphaVantage;
@@ -12,6 +14,8 @@ import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
+import java.util.List;
+import java.util.function.Consumer;
 
 
 
@@ -27,11 +31,17 @@ public class TradingView extends JFrame {
     private final Timer searchTimer = new Timer(400, e -> runSearch());
     private final JSpinner sharesSpinner = new JSpinner(new SpinnerNumberModel(1, 1, Integer.MAX_VALUE, 1));
     private final JRadioButton buyRadioButton = new JRadioButton("Buy", true);
+    private final JComboBox<TradingInputData.OrderType> orderTypeBox =
+            new JComboBox<>(TradingInputData.OrderType.values());
+    private final JSpinner triggerPriceSpinner =
+            new JSpinner(new SpinnerNumberModel(0.0, 0.0, Double.MAX_VALUE, 0.01));
+    private final Consumer<List<TradingOutputData>> fillListener = this::onFills;
     private final JLabel cashLabel = new JLabel("Cash: $0.00");
     private final JLabel holdingLabel = new JLabel("Holdings: 0 shares at $0.00 average cost");
     private final JLabel valueLabel = new JLabel("Total Value: $0.00");
     private final JLabel messageLabel = new JLabel("");
     private final JLabel priceLabel = new JLabel("Price: $");
+    private final JList<RestingOrder> openOrders = new JList<>();
     private boolean suppressSearchRestart = false;
 
     public TradingView(TradingController controller, StockSearchController stockSearchController, String username) {
@@ -40,7 +50,7 @@ public class TradingView extends JFrame {
         this.username = username;
 
         setTitle("Trading");
-        setSize(700, 500);
+        setSize(700, 680);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         setLocationRelativeTo(null);
         searchTimer.setRepeats(false);
@@ -86,7 +96,7 @@ public class TradingView extends JFrame {
         symbolColumn.add(suggestionsScroll);
 
         JPanel form = new JPanel();
-        form.setLayout(new GridLayout(6, 2, 10, 14));
+        form.setLayout(new GridLayout(8, 2, 10, 14));
         form.setBorder(BorderFactory.createEmptyBorder(12, 12, 12, 12));
         form.add(new JLabel("Action:"));
         JPanel actionPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
@@ -95,6 +105,13 @@ public class TradingView extends JFrame {
         form.add(actionPanel);
         form.add(new JLabel("Shares:"));
         form.add(sharesSpinner);
+        form.add(new JLabel("Order Type:"));
+        form.add(orderTypeBox);
+        form.add(new JLabel("Limit / Stop Price:"));
+        form.add(triggerPriceSpinner);
+        triggerPriceSpinner.setEnabled(false);
+        orderTypeBox.addActionListener(e -> triggerPriceSpinner.setEnabled(
+                orderTypeBox.getSelectedItem() != TradingInputData.OrderType.MARKET));
         form.add(new JLabel("Current Price:"));
         form.add(priceLabel);
         form.add(cashLabel);
@@ -107,15 +124,37 @@ public class TradingView extends JFrame {
         outer.add(symbolColumn, BorderLayout.NORTH);
         outer.add(form, BorderLayout.CENTER);
 
+        openOrders.setVisibleRowCount(4);
+        openOrders.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        openOrders.setCellRenderer((list, value, index, isSelected, cellHasFocus) -> {
+            DefaultListCellRenderer base = new DefaultListCellRenderer();
+            JLabel lbl = (JLabel) base.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+            lbl.setText(String.format("#%d %s %s %d %s @ $%.2f", value.getId(), value.getSide(),
+                    value.getType(), value.getShares(), value.getSymbol(), value.getTriggerPrice()));
+            return lbl;
+        });
+        JButton cancelOrderButton = new JButton("Cancel Order");
+        JPanel ordersPanel = new JPanel(new BorderLayout(8, 0));
+        ordersPanel.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createEmptyBorder(0, 12, 0, 12),
+                BorderFactory.createTitledBorder("Open orders (expire when the app exits)")));
+        ordersPanel.add(new JScrollPane(openOrders), BorderLayout.CENTER);
+        ordersPanel.add(cancelOrderButton, BorderLayout.EAST);
+
         JPanel messagePanel = new JPanel(new BorderLayout());
         messagePanel.setBorder(BorderFactory.createEmptyBorder(0, 16, 12, 16));
         messageLabel.setHorizontalAlignment(SwingConstants.LEFT);
         messagePanel.add(messageLabel, BorderLayout.CENTER);
-        outer.add(messagePanel, BorderLayout.SOUTH);
+
+        JPanel southPanel = new JPanel(new BorderLayout(0, 8));
+        southPanel.add(ordersPanel, BorderLayout.CENTER);
+        southPanel.add(messagePanel, BorderLayout.SOUTH);
+        outer.add(southPanel, BorderLayout.SOUTH);
 
         setLayout(new BorderLayout());
         add(outer, BorderLayout.CENTER);
         placeOrderButton.addActionListener(e -> placeOrder());
+        cancelOrderButton.addActionListener(e -> cancelOrder());
 
         symbolField.addActionListener(e -> loadPrice(symbolField.getText().trim()));
         symbolField.addFocusListener(new java.awt.event.FocusAdapter() {
@@ -175,6 +214,28 @@ public class TradingView extends JFrame {
         });
 
         updateLabels(controller.getViewModel());
+        refreshOpenOrders();
+        controller.getViewModel().addFillListener(fillListener);
+    }
+
+    @Override
+    public void dispose() {
+        controller.getViewModel().removeFillListener(fillListener);
+        super.dispose();
+    }
+
+    /**
+     * Shows this user's resting orders that filled, called on the matching thread.
+     */
+    private void onFills(List<TradingOutputData> fills) {
+        for (TradingOutputData fill : fills) {
+            if (!username.equals(fill.getUsername())) continue;
+            SwingUtilities.invokeLater(() -> {
+                cashLabel.setText(String.format("Cash: $%.2f", fill.getCashAfterTrade()));
+                messageLabel.setText(fill.getMessage());
+                refreshOpenOrders();
+            });
+        }
     }
 
     private void runSearch() {
@@ -244,9 +305,34 @@ public class TradingView extends JFrame {
         TradingInputData.Action action = buyRadioButton.isSelected() ?
                 TradingInputData.Action.BUY : TradingInputData.Action.SELL;
 
-        TradingViewModel viewModel = controller.placeOrder(username, symbol, shares, action);
+        TradingInputData.OrderType orderType = (TradingInputData.OrderType) orderTypeBox.getSelectedItem();
+
+        TradingViewModel viewModel = orderType == TradingInputData.OrderType.MARKET
+                ? controller.placeOrder(username, symbol, shares, action)
+                : controller.placeOrder(username, symbol, shares, action, orderType,
+                        (double) triggerPriceSpinner.getValue());
         suggestionsScroll.setVisible(false);
         updateLabels(viewModel);
+        refreshOpenOrders();
+    }
+
+    private void cancelOrder() {
+        RestingOrder selected = openOrders.getSelectedValue();
+        if (selected == null) {
+            messageLabel.setText("Select an open order to cancel.");
+            return;
+        }
+        TradingViewModel viewModel = controller.cancelOrder(username, selected.getId());
+        updateLabels(viewModel);
+        showOpenOrders(viewModel);
+    }
+
+    private void refreshOpenOrders() {
+        showOpenOrders(controller.showOpenOrders(username));
+    }
+
+    private void showOpenOrders(TradingViewModel vm) {
+        openOrders.setListData(vm.getOpenOrders().toArray(new RestingOrder[0]));
     }
 
     private void updateLabels(TradingViewModel vm) {
@@ -0,0 +1,109 @@
+package usecase.add_expense;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Validation rules for a new expense, shared by single adds and imports.
+ * Holds either the normalized values or the message explaining why the
+ * input was rejected.
+ */
+public final class ExpenseValidation {
+
+    private static final DateTimeFormatter FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final String message;
+    private final String datetime;
+    private final String type;
+    private final Double amount;
+
+    private ExpenseValidation(String message, String datetime, String type, Double amount) {
+        this.message = message;
+        this.datetime = datetime;
+        this.type = type;
+        this.amount = amount;
+    }
+
+    /**
+     * Checks that all fields are present, the date/time is yyyy-MM-dd HH:mm
+     * and the amount is a number.
+     *
+     * @param username   the username
+     * @param datetime   the expense date/time as entered
+     * @param type       the expense type
+     * @param amountText the amount as entered
+     * @return the normalized values, or the reason the input is invalid
+     */
+    public static ExpenseValidation validate(String username, String datetime,
+                                             String type, String amountText) {
+        if (isBlank(username) || isBlank(datetime) || isBlank(type) || isBlank(amountText)) {
+            return invalid("Please fill up all fields!");
+        }
+        final LocalDateTime parsedDateTime = parseDateTime(datetime);
+        if (parsedDateTime == null) {
+            return invalid("Please enter date/time as yyyy-MM-dd HH:mm");
+        }
+        final Double parsedAmount = parseAmount(amountText);
+        if (parsedAmount == null) {
+            return invalid("Please enter a valid number!");
+        }
+        return new ExpenseValidation(null, parsedDateTime.format(FORMATTER), type, parsedAmount);
+    }
+
+    private static ExpenseValidation invalid(String message) {
+        return new ExpenseValidation(message, null, null, null);
+    }
+
+    public boolean isValid() {
+        return message == null;
+    }
+
+    /**
+     * Gets the reason the input was rejected.
+     *
+     * @return the message, or null if the input is valid
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    public String getDatetime() {
+        return datetime;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static LocalDateTime parseDateTime(String datetime) {
+        LocalDateTime result = null;
+        try {
+            result = LocalDateTime.parse(datetime, FORMATTER);
+        }
+        catch (DateTimeParseException event) {
+            // return null to signal invalid datetime
+        }
+        return result;
+    }
+
+    private static Double parseAmount(String amountText) {
+        Double result = null;
+        try {
+            result = Double.parseDouble(amountText);
+        }
+        catch (NumberFormatException event) {
+            // return null to signal invalid amount
+        }
+        return result;
+    }
+}
@@ -0,0 +1,123 @@
+package usecase.import_expenses;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads expenses from CSV, one line at a time.
+ *
+ * A first line naming an "amount" column is a header; its datetime (or
+ * date), type (or category) and amount columns are used, in any order.
+ * Without a header the columns are datetime, type, amount. Fields may be
+ * double-quoted, with "" for a literal quote. A missing type falls back to
+ * the import's default type.
+ */
+final class CsvExpenseReader implements ExpenseRowReader {
+
+    private final BufferedReader reader;
+    private final String defaultType;
+    private long lineNumber;
+    private boolean headerChecked;
+    private int datetimeColumn = 0;
+    private int typeColumn = 1;
+    private int amountColumn = 2;
+
+    CsvExpenseReader(BufferedReader reader, String defaultType) {
+        this.reader = reader;
+        this.defaultType = defaultType;
+    }
+
+    @Override
+    public ExpenseRow next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            final List<String> fields = split(line);
+            if (!headerChecked) {
+                headerChecked = true;
+                if (readHeader(fields)) {
+                    continue;
+                }
+            }
+            String type = field(fields, typeColumn);
+            if (type == null || type.isBlank()) {
+                type = defaultType;
+            }
+            return new ExpenseRow(lineNumber, field(fields, datetimeColumn), type,
+                    field(fields, amountColumn));
+        }
+        return null;
+    }
+
+    /**
+     * @return true if the fields are a header, in which case the column
+     *         positions are taken from it
+     */
+    private boolean readHeader(List<String> fields) {
+        final int amount = indexOf(fields, "amount");
+        if (amount < 0) {
+            return false;
+        }
+        amountColumn = amount;
+        datetimeColumn = indexOf(fields, "datetime", "date");
+        typeColumn = indexOf(fields, "type", "category");
+        return true;
+    }
+
+    private static int indexOf(List<String> fields, String... names) {
+        for (String name : names) {
+            for (int i = 0; i < fields.size(); i++) {
+                if (fields.get(i).trim().toLowerCase(Locale.ROOT).equals(name)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static String field(List<String> fields, int column) {
+        if (column < 0 || column >= fields.size()) {
+            return null;
+        }
+        return fields.get(column).trim();
+    }
+
+    static List<String> split(String line) {
+        final List<String> fields = new ArrayList<>();
+        final StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                }
+                else if (c == '"') {
+                    quoted = false;
+                }
+                else {
+                    field.append(c);
+                }
+            }
+            else if (c == '"') {
+                quoted = true;
+            }
+            else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            }
+            else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
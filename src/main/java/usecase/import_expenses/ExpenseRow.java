@@ -0,0 +1,34 @@
+package usecase.import_expenses;
+
+/**
+ * One expense as read from an import file, before validation.
+ */
+final class ExpenseRow {
+    private final long lineNumber;
+    private final String datetime;
+    private final String type;
+    private final String amountText;
+
+    ExpenseRow(long lineNumber, String datetime, String type, String amountText) {
+        this.lineNumber = lineNumber;
+        this.datetime = datetime;
+        this.type = type;
+        this.amountText = amountText;
+    }
+
+    long getLineNumber() {
+        return lineNumber;
+    }
+
+    String getDatetime() {
+        return datetime;
+    }
+
+    String getType() {
+        return type;
+    }
+
+    String getAmountText() {
+        return amountText;
+    }
+}
@@ -0,0 +1,18 @@
+package usecase.import_expenses;
+
+import java.io.IOException;
+
+/**
+ * Streams expense rows out of an import file one at a time, so the file
+ * never has to fit in memory.
+ */
+interface ExpenseRowReader {
+
+    /**
+     * Reads the next row.
+     *
+     * @return the row, or null at the end of the file
+     * @throws IOException if the file cannot be read
+     */
+    ExpenseRow next() throws IOException;
+}
@@ -0,0 +1,41 @@
+package usecase.import_expenses;
+
+import java.nio.file.Path;
+
+public class ImportExpensesInputData {
+    private final String username;
+    private final Path file;
+    private final ImportFormat format;
+    private final String defaultType;
+
+    /**
+     * Creates input for importing a file.
+     *
+     * @param username    the user the expenses belong to
+     * @param file        the CSV or OFX file
+     * @param format      the file's format
+     * @param defaultType type for rows that do not name one
+     */
+    public ImportExpensesInputData(String username, Path file, ImportFormat format, String defaultType) {
+        this.username = username;
+        this.file = file;
+        this.format = format;
+        this.defaultType = defaultType;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public ImportFormat getFormat() {
+        return format;
+    }
+
+    public String getDefaultType() {
+        return defaultType;
+    }
+}
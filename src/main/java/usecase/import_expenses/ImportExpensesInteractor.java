@@ -0,0 +1,112 @@
+package usecase.import_expenses;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import data.expense.ExpenseRepository;
+import entity.Expense;
+import usecase.add_expense.ExpenseValidation;
+
+/**
+ * Interactor for importing expenses from a CSV or OFX file.
+ *
+ * The file is streamed: rows are read one at a time, checked with the same
+ * rules as a single add, and saved through
+ * {@link ExpenseRepository#addAll} in chunks, so each chunk is one
+ * transaction and memory use does not grow with the file.
+ */
+public class ImportExpensesInteractor {
+
+    /** Rows saved per transaction unless configured otherwise. */
+    public static final int DEFAULT_CHUNK_SIZE = 5000;
+
+    /** Number of rejected rows whose reasons are reported. */
+    public static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private final ExpenseRepository expenseRepository;
+    private final int chunkSize;
+
+    public ImportExpensesInteractor(ExpenseRepository expenseRepository) {
+        this(expenseRepository, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ImportExpensesInteractor(ExpenseRepository expenseRepository, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+        this.expenseRepository = expenseRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports every valid row of the file.
+     *
+     * @param input    the file and the user to import for
+     * @param listener told about progress after each committed chunk
+     * @return counts of imported and rejected rows, and why rows were rejected
+     */
+    public ImportExpensesOutputData execute(ImportExpensesInputData input, ImportProgressListener listener) {
+        final String username = input.getUsername();
+        final List<Expense> chunk = new ArrayList<>(chunkSize);
+        final List<String> rejections = new ArrayList<>();
+        long read = 0;
+        long imported = 0;
+        long rejected = 0;
+
+        try (BufferedReader reader = Files.newBufferedReader(input.getFile(), StandardCharsets.UTF_8)) {
+            final ExpenseRowReader rows = open(reader, input);
+            ExpenseRow row;
+            while ((row = rows.next()) != null) {
+                read++;
+                final ExpenseValidation validation = ExpenseValidation.validate(
+                        username, row.getDatetime(), row.getType(), row.getAmountText());
+                if (!validation.isValid()) {
+                    rejected++;
+                    if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                        rejections.add("Line " + row.getLineNumber() + ": " + validation.getMessage());
+                    }
+                    continue;
+                }
+                chunk.add(new Expense(0, username, validation.getDatetime(),
+                        validation.getType(), validation.getAmount()));
+                if (chunk.size() == chunkSize) {
+                    imported += flush(chunk);
+                    listener.onProgress(read, imported);
+                }
+            }
+            imported += flush(chunk);
+            listener.onProgress(read, imported);
+        }
+        catch (IOException exception) {
+            return new ImportExpensesOutputData(false, "Failed to read file!", imported, rejected, rejections);
+        }
+        catch (RuntimeException exception) {
+            return new ImportExpensesOutputData(false, "Failed to import expenses!", imported, rejected,
+                    rejections);
+        }
+        return new ImportExpensesOutputData(true,
+                "Imported " + imported + " expenses, rejected " + rejected + ".",
+                imported, rejected, rejections);
+    }
+
+    private static ExpenseRowReader open(BufferedReader reader, ImportExpensesInputData input) {
+        if (input.getFormat() == ImportFormat.OFX) {
+            return new OfxExpenseReader(reader, input.getDefaultType());
+        }
+        return new CsvExpenseReader(reader, input.getDefaultType());
+    }
+
+    private int flush(List<Expense> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        expenseRepository.addAll(chunk);
+        final int saved = chunk.size();
+        chunk.clear();
+        return saved;
+    }
+}
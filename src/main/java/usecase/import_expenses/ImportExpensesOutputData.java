@@ -0,0 +1,57 @@
+package usecase.import_expenses;
+
+import java.util.List;
+
+public class ImportExpensesOutputData {
+    private final boolean success;
+    private final String message;
+    private final long imported;
+    private final long rejected;
+    private final List<String> rejections;
+
+    public ImportExpensesOutputData(boolean success, String message, long imported, long rejected,
+                                    List<String> rejections) {
+        this.success = success;
+        this.message = message;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.rejections = List.copyOf(rejections);
+    }
+
+    /**
+     * Tells whether the whole file was read. Rows rejected by validation do
+     * not make an import fail.
+     *
+     * @return true if the file was read to the end and every valid row saved
+     */
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * Gets the number of expenses saved. After a failure, these are the
+     * chunks committed before it.
+     *
+     * @return the number of expenses saved
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Gets the reasons for the first rejected rows, as "Line n: message".
+     *
+     * @return the rejection messages, at most {@link ImportExpensesInteractor#MAX_REPORTED_REJECTIONS}
+     */
+    public List<String> getRejections() {
+        return rejections;
+    }
+}
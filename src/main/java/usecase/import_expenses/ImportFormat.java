@@ -0,0 +1,28 @@
+package usecase.import_expenses;
+
+import java.util.Locale;
+
+/**
+ * File formats the expense importer reads.
+ */
+public enum ImportFormat {
+    /** Comma-separated values, one expense per line. */
+    CSV,
+    /** Open Financial Exchange bank statement; debits become expenses. */
+    OFX;
+
+    /**
+     * Picks the format from a file name: .ofx and .qfx are OFX, anything
+     * else is read as CSV.
+     *
+     * @param fileName the file name
+     * @return the format
+     */
+    public static ImportFormat fromFileName(String fileName) {
+        final String lower = fileName.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".ofx") || lower.endsWith(".qfx")) {
+            return OFX;
+        }
+        return CSV;
+    }
+}
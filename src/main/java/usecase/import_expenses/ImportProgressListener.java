@@ -0,0 +1,16 @@
+package usecase.import_expenses;
+
+/**
+ * Receives progress from a running import after each committed chunk.
+ */
+@FunctionalInterface
+public interface ImportProgressListener {
+
+    /**
+     * Called after a chunk of expenses is committed.
+     *
+     * @param rowsRead     rows read from the file so far
+     * @param rowsImported rows committed to the repository so far
+     */
+    void onProgress(long rowsRead, long rowsImported);
+}
@@ -0,0 +1,129 @@
+package usecase.import_expenses;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * Reads expenses from an OFX bank statement, one line at a time.
+ *
+ * Handles both the SGML form (unclosed value tags) and the XML form, with
+ * any number of tags per line. Each STMTTRN with a negative TRNAMT is a
+ * debit and becomes an expense of the negated amount, dated by DTPOSTED
+ * and typed with the import's default type. Credits are not expenses and
+ * are skipped.
+ */
+final class OfxExpenseReader implements ExpenseRowReader {
+
+    // yyyyMMddHHmm; DTPOSTED may stop after the date or run on to seconds and a zone.
+    private static final int DATE_DIGITS = 8;
+    private static final int DATETIME_DIGITS = 12;
+
+    private final BufferedReader reader;
+    private final String defaultType;
+    private long lineNumber;
+
+    private String[] pendingTags = new String[0];
+    private int nextTag;
+
+    OfxExpenseReader(BufferedReader reader, String defaultType) {
+        this.reader = reader;
+        this.defaultType = defaultType;
+    }
+
+    @Override
+    public ExpenseRow next() throws IOException {
+        long start = -1;
+        String posted = null;
+        String amount = null;
+        String tag;
+        while ((tag = nextTag()) != null) {
+            final int close = tag.indexOf('>');
+            if (close < 0) {
+                continue;
+            }
+            final String name = tag.substring(0, close).trim().toUpperCase(Locale.ROOT);
+            final String value = tag.substring(close + 1).trim();
+            if (name.equals("STMTTRN")) {
+                start = lineNumber;
+                posted = null;
+                amount = null;
+            }
+            else if (start >= 0 && name.equals("DTPOSTED")) {
+                posted = value;
+            }
+            else if (start >= 0 && name.equals("TRNAMT")) {
+                amount = value;
+            }
+            else if (start >= 0 && name.equals("/STMTTRN")) {
+                final String expenseAmount = debit(amount);
+                if (expenseAmount != null) {
+                    return new ExpenseRow(start, datetime(posted), defaultType, expenseAmount);
+                }
+                start = -1;
+            }
+        }
+        return null;
+    }
+
+    private String nextTag() throws IOException {
+        while (nextTag >= pendingTags.length) {
+            final String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+            pendingTags = line.split("<");
+            // Text before the first '<' is not a tag.
+            nextTag = 1;
+        }
+        return pendingTags[nextTag++];
+    }
+
+    /**
+     * @return the expense amount for a debit, the raw text if it is not a
+     *         number so validation rejects it, or null for a credit
+     */
+    private static String debit(String amount) {
+        if (amount == null) {
+            return "";
+        }
+        try {
+            final BigDecimal value = new BigDecimal(amount);
+            if (value.signum() >= 0) {
+                return null;
+            }
+            return value.negate().toPlainString();
+        }
+        catch (NumberFormatException exception) {
+            return amount;
+        }
+    }
+
+    /**
+     * Converts DTPOSTED to yyyy-MM-dd HH:mm, taking midnight when only the
+     * date is given. Anything else is passed through for validation to reject.
+     */
+    private static String datetime(String posted) {
+        if (posted == null) {
+            return "";
+        }
+        int digits = 0;
+        while (digits < posted.length() && Character.isDigit(posted.charAt(digits))) {
+            digits++;
+        }
+        if (digits < DATE_DIGITS) {
+            return posted;
+        }
+        final String time;
+        if (digits >= DATETIME_DIGITS) {
+            time = posted.substring(8, 10) + ":" + posted.substring(10, 12);
+        }
+        else {
+            time = "00:00";
+        }
+        return posted.substring(0, 4) + "-" + posted.substring(4, 6) + "-"
+                + posted.substring(6, 8) + " " + time;
+    }
+}
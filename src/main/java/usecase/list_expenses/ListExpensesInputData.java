@@ -1,15 +1,53 @@
 package usecase.list_expenses;
 
+import data.expense.ExpenseCursor;
+import data.expense.ExpenseSortOrder;
+
 public class ListExpensesInputData {
     private final String username;
+    private final ExpenseCursor after;
+    private final int pageSize;
+    private final ExpenseSortOrder order;
 
     public ListExpensesInputData(String username) {
 
+        this(username, null, 0, ExpenseSortOrder.NEWEST_FIRST);
+    }
+
+    /**
+     * Creates input for one page of expenses.
+     *
+     * @param username the username
+     * @param after    cursor from the previous page, or null for the first page
+     * @param pageSize maximum number of expenses on the page; 0 lists them all
+     * @param order    the sort order
+     */
+    public ListExpensesInputData(String username, ExpenseCursor after, int pageSize,
+                                 ExpenseSortOrder order) {
         this.username = username;
+        this.after = after;
+        this.pageSize = pageSize;
+        this.order = order;
     }
 
     public String getUsername() {
 
         return username;
     }
+
+    public ExpenseCursor getAfter() {
+        return after;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public ExpenseSortOrder getOrder() {
+        return order;
+    }
+
+    public boolean isPaged() {
+        return pageSize > 0;
+    }
 }
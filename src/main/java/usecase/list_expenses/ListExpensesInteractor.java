@@ -2,6 +2,7 @@ package usecase.list_expenses;
 
 import java.util.List;
 
+import data.expense.ExpensePage;
 import data.expense.ExpenseRepository;
 import entity.Expense;
 
@@ -16,7 +17,8 @@ public class ListExpensesInteractor {
         this.expenseRepository = expenseRepository;
     }
     /**
-     * Searches list of expense, calculates total.
+     * Searches list of expense, calculates total. Paged input fetches a single
+     * page and the total in one repository call.
      *
      * @param input the data needed to search for list of expenses.
      * @return the result of the operation, including the list of expenses and total amount.
@@ -24,6 +26,11 @@ public class ListExpensesInteractor {
 
     public ListExpensesOutputData execute(ListExpensesInputData input) {
         final String username = input.getUsername();
+        if (input.isPaged()) {
+            final ExpensePage page = expenseRepository.findPage(
+                    username, input.getAfter(), input.getPageSize(), input.getOrder());
+            return new ListExpensesOutputData(page.getExpenses(), page.getTotal(), page.getNextCursor());
+        }
         final List<Expense> expenses = expenseRepository.findByUsername(username);
         final double total = expenseRepository.getTotalForUser(username);
         return new ListExpensesOutputData(expenses, total);
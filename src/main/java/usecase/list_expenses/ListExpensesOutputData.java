@@ -2,15 +2,22 @@ package usecase.list_expenses;
 
 import java.util.List;
 
+import data.expense.ExpenseCursor;
 import entity.Expense;
 
 public class ListExpensesOutputData {
     private final List<Expense> expenses;
     private final double total;
+    private final ExpenseCursor nextCursor;
 
     public ListExpensesOutputData(List<Expense> expenses, double total) {
+        this(expenses, total, null);
+    }
+
+    public ListExpensesOutputData(List<Expense> expenses, double total, ExpenseCursor nextCursor) {
         this.expenses = expenses;
         this.total = total;
+        this.nextCursor = nextCursor;
     }
 
     public List<Expense> getExpenses() {
@@ -22,4 +29,17 @@ public class ListExpensesOutputData {
 
         return total;
     }
+
+    /**
+     * Gets the cursor for the next page.
+     *
+     * @return the cursor, or null if there are no more expenses
+     */
+    public ExpenseCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
 }
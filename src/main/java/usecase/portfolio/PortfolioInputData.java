@@ -8,12 +8,22 @@ package usecase.portfolio;
 public class PortfolioInputData {
 
     private final String username;
+    private final SnapshotFrequency frequency;
 
     /**
      * @param username the username of the logged-in user
      */
     public PortfolioInputData(String username) {
+        this(username, SnapshotFrequency.DAILY);
+    }
+
+    /**
+     * @param username  the username of the logged-in user
+     * @param frequency how often snapshots are emitted
+     */
+    public PortfolioInputData(String username, SnapshotFrequency frequency) {
         this.username = username;
+        this.frequency = frequency;
     }
 
     /**
@@ -22,5 +32,12 @@ public class PortfolioInputData {
     public String getUsername() {
         return username;
     }
+
+    /**
+     * @return how often snapshots are emitted
+     */
+    public SnapshotFrequency getFrequency() {
+        return frequency;
+    }
 }
 
@@ -2,9 +2,8 @@ package usecase.portfolio;
 
 import entity.Holding;
 import entity.PortfolioSnapshot;
-import entity.PricePoint;
+import entity.PriceSeries;
 
-import java.time.LocalDate;
 import java.util.*;
 
 /**
@@ -13,15 +12,16 @@ import java.util.*;
 public class PortfolioInteractor implements PortfolioInputBoundary {
 
     private final PortfolioRepository portfolioRepository;
-    private final PriceHistoryRepository priceHistoryRepository;
+    private final PriceHistoryPrefetcher priceHistoryPrefetcher;
     private final PortfolioOutputBoundary outputBoundary;
+    private final PortfolioValuationEngine valuationEngine = new PortfolioValuationEngine();
 
     public PortfolioInteractor(
             PortfolioRepository portfolioRepository,
             PriceHistoryRepository priceHistoryRepository,
             PortfolioOutputBoundary outputBoundary) {
         this.portfolioRepository = portfolioRepository;
-        this.priceHistoryRepository = priceHistoryRepository;
+        this.priceHistoryPrefetcher = new PriceHistoryPrefetcher(priceHistoryRepository);
         this.outputBoundary = outputBoundary;
     }
 
@@ -42,83 +42,56 @@ public class PortfolioInteractor implements PortfolioInputBoundary {
             return;
         }
 
-        //  Load all historical price data once (cache)
-        Map<String, List<PricePoint>> historyCache = new HashMap<>();
+        //  Load all historical price data once, fetching symbols concurrently
+        Set<String> symbols = new LinkedHashSet<>();
         for (Holding h : holdings) {
-            List<PricePoint> history = priceHistoryRepository.getPriceHistory(h.getSymbol());
+            symbols.add(h.getSymbol());
+        }
+        PriceHistoryPrefetcher.Result fetched = priceHistoryPrefetcher.fetchAll(symbols);
+        Map<String, PriceSeries> historyCache = fetched.getHistories();
+        Map<String, PriceHistoryStatus> statuses = fetched.getStatuses();
 
-            if (history.isEmpty()) {
-                outputBoundary.present(new PortfolioOutputData(
-                        Collections.emptyList(),
-                        holdings,
-                        false,
-                        "Missing historical prices for: " + h.getSymbol()
-                ));
-                return;
+        // Value what was loaded; symbols without prices are reported, not fatal
+        List<Holding> valued = new ArrayList<>();
+        List<String> unavailable = new ArrayList<>();
+        for (Holding h : holdings) {
+            if (historyCache.containsKey(h.getSymbol())) {
+                valued.add(h);
+            } else if (!unavailable.contains(h.getSymbol())) {
+                unavailable.add(h.getSymbol());
             }
-
-            // Ensure sorted ascending by date
-            history.sort(Comparator.comparing(PricePoint::getDate));
-            historyCache.put(h.getSymbol(), history);
         }
 
-        // Use the first holding as base timeline
-        String baseSymbol = holdings.get(0).getSymbol();
-        List<PricePoint> baseHistory = historyCache.get(baseSymbol);
-
-        List<PortfolioSnapshot> snapshots = new ArrayList<>();
-
-        // For each date, compute totalCost & totalValue
-        for (PricePoint basePoint : baseHistory) {
-            LocalDate date = basePoint.getDate();
-
-            double totalCost = 0.0;
-            double totalValue = 0.0;
-
-            for (Holding h : holdings) {
-                totalCost += h.getTotalCost();
+        if (valued.isEmpty()) {
+            outputBoundary.present(new PortfolioOutputData(
+                    Collections.emptyList(),
+                    holdings,
+                    false,
+                    "Missing historical prices for: " + String.join(", ", unavailable),
+                    statuses
+            ));
+            return;
+        }
 
-                List<PricePoint> history = historyCache.get(h.getSymbol());
-                double priceOnDate = findPriceOnOrBefore(history, date);
+        // Union of all bar dates, so the curve does not depend on holding order
+        TradingTimeline timeline = TradingTimeline.union(historyCache.values())
+                .resample(input.getFrequency());
 
-                totalValue += h.getShares() * priceOnDate;
-            }
+        // Forward-fill every holding onto the timeline and sum in one pass each
+        List<PortfolioSnapshot> snapshots =
+                valuationEngine.value(valued, historyCache, timeline);
 
-            PortfolioSnapshot snapshot =
-                    PortfolioSnapshot.fromCostAndValue(date, totalCost, totalValue);
-            snapshots.add(snapshot);
-        }
+        String message = unavailable.isEmpty()
+                ? "Portfolio analysis completed successfully."
+                : "Portfolio analysis completed without prices for: " + String.join(", ", unavailable);
 
         // Return result
         outputBoundary.present(new PortfolioOutputData(
                 snapshots,
                 holdings,
                 true,
-                "Portfolio analysis completed successfully."
+                message,
+                statuses
         ));
     }
-
-    /**
-     * Returns price at the latest date ≤ targetDate.
-     * If all dates are after targetDate, return the earliest available.
-     */
-    private double findPriceOnOrBefore(List<PricePoint> history, LocalDate targetDate) {
-        PricePoint lastBefore = null;
-
-        for (PricePoint p : history) {
-            if (!p.getDate().isAfter(targetDate)) {
-                lastBefore = p;
-            } else {
-                break;
-            }
-        }
-
-        // If we never saw a date ≤ targetDate, use the earliest
-        if (lastBefore == null) {
-            return history.get(0).getPrice();
-        }
-        return lastBefore.getPrice();
-    }
 }
-
-
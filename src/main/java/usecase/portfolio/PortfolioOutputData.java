@@ -3,7 +3,9 @@ package usecase.portfolio;
 import entity.Holding;
 import entity.PortfolioSnapshot;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Output data for the Portfolio Analysis use case.
@@ -15,6 +17,7 @@ public class PortfolioOutputData {
     private final List<Holding> holdings;
     private final boolean hasData;
     private final String message;
+    private final Map<String, PriceHistoryStatus> symbolStatuses;
 
     /**
      * @param snapshots time-series snapshots of the portfolio performance
@@ -26,10 +29,26 @@ public class PortfolioOutputData {
                                List<Holding> holdings,
                                boolean hasData,
                                String message) {
+        this(snapshots, holdings, hasData, message, Collections.emptyMap());
+    }
+
+    /**
+     * @param snapshots      time-series snapshots of the portfolio performance
+     * @param holdings       the current holdings of the user
+     * @param hasData        indicates whether there is meaningful data to display
+     * @param message        message for the user
+     * @param symbolStatuses price history outcome for each held symbol
+     */
+    public PortfolioOutputData(List<PortfolioSnapshot> snapshots,
+                               List<Holding> holdings,
+                               boolean hasData,
+                               String message,
+                               Map<String, PriceHistoryStatus> symbolStatuses) {
         this.snapshots = snapshots;
         this.holdings = holdings;
         this.hasData = hasData;
         this.message = message;
+        this.symbolStatuses = symbolStatuses;
     }
 
     public List<PortfolioSnapshot> getSnapshots() {
@@ -47,4 +66,12 @@ public class PortfolioOutputData {
     public String getMessage() {
         return message;
     }
+
+    /**
+     * @return price history outcome per symbol; symbols not LOADED were
+     *         left out of the snapshots
+     */
+    public Map<String, PriceHistoryStatus> getSymbolStatuses() {
+        return symbolStatuses;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package usecase.portfolio;
+
+import entity.Holding;
+import entity.PortfolioSnapshot;
+import entity.PriceSeries;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Values a set of holdings on every date of a timeline.
+ *
+ * Each holding's closes are forward-filled onto the timeline in one merge
+ * pass and added column-wise into a running value array, so the total work
+ * is O(dates × holdings + total bars) instead of rescanning every history
+ * for every date.
+ */
+public class PortfolioValuationEngine {
+
+    /**
+     * Computes one snapshot per timeline date.
+     *
+     * For each date, a holding is valued at its latest close on or before
+     * that date. If its history starts after the date, the earliest
+     * available close is used instead.
+     *
+     * @param holdings  the holdings to value
+     * @param histories non-empty price series keyed by symbol
+     * @param timeline  ascending epoch days to emit snapshots for
+     * @return snapshots in timeline order
+     * @throws IllegalArgumentException if the timeline is not ascending
+     */
+    public List<PortfolioSnapshot> value(List<Holding> holdings,
+                                         Map<String, PriceSeries> histories,
+                                         int[] timeline) {
+        return value(holdings, histories, TradingTimeline.of(timeline));
+    }
+
+    /**
+     * Computes one snapshot per timeline date.
+     *
+     * @param holdings  the holdings to value
+     * @param histories non-empty price series keyed by symbol
+     * @param timeline  the dates to emit snapshots for
+     * @return snapshots in timeline order
+     */
+    public List<PortfolioSnapshot> value(List<Holding> holdings,
+                                         Map<String, PriceSeries> histories,
+                                         TradingTimeline timeline) {
+        // Sum in symbol order so the result does not depend on holding order.
+        List<Holding> ordered = new ArrayList<>(holdings);
+        ordered.sort(Comparator.comparing(Holding::getSymbol));
+
+        // Cost basis does not depend on the date, so compute it once.
+        double totalCost = 0.0;
+        double[] totalValue = new double[timeline.size()];
+        for (Holding h : ordered) {
+            totalCost += h.getTotalCost();
+            double shares = h.getShares();
+            double[] closes = timeline.forwardFill(histories.get(h.getSymbol()));
+            for (int t = 0; t < closes.length; t++) {
+                totalValue[t] += shares * closes[t];
+            }
+        }
+
+        List<PortfolioSnapshot> snapshots = new ArrayList<>(timeline.size());
+        for (int t = 0; t < totalValue.length; t++) {
+            snapshots.add(PortfolioSnapshot.fromCostAndValue(
+                    timeline.dateAt(t), totalCost, totalValue[t]));
+        }
+        return snapshots;
+    }
+}
@@ -0,0 +1,139 @@
+package usecase.portfolio;
+
+import entity.PriceSeries;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fetches the price histories of several symbols concurrently.
+ *
+ * The number of fetches in flight is bounded by
+ * {@link PriceHistoryRepository#maxConcurrentRequests()}, so a rate-limited
+ * repository is never asked for more than its budget allows. Results are
+ * collected as each fetch completes, and a failed or empty symbol is
+ * recorded in the status map instead of aborting the others.
+ */
+public class PriceHistoryPrefetcher {
+
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final PriceHistoryRepository repository;
+
+    public PriceHistoryPrefetcher(PriceHistoryRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Fetches every symbol's history.
+     * @param symbols distinct symbols to fetch
+     * @return loaded series and a status for every symbol, both in input order
+     */
+    public Result fetchAll(Collection<String> symbols) {
+        List<String> ordered = new ArrayList<>(new LinkedHashSet<>(symbols));
+        PriceSeries[] series = new PriceSeries[ordered.size()];
+        PriceHistoryStatus[] statuses = new PriceHistoryStatus[ordered.size()];
+        boolean[] completed = new boolean[ordered.size()];
+
+        int parallelism = Math.min(Math.max(1, repository.maxConcurrentRequests()), ordered.size());
+        if (parallelism <= 1) {
+            for (int i = 0; i < ordered.size(); i++) {
+                fetchOne(ordered.get(i), i, series, statuses);
+                completed[i] = true;
+            }
+        } else {
+            fetchConcurrently(ordered, parallelism, series, statuses, completed);
+        }
+
+        Map<String, PriceSeries> histories = new LinkedHashMap<>();
+        Map<String, PriceHistoryStatus> statusBySymbol = new LinkedHashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            PriceHistoryStatus status = completed[i] ? statuses[i] : PriceHistoryStatus.FAILED;
+            statusBySymbol.put(ordered.get(i), status);
+            if (status == PriceHistoryStatus.LOADED) {
+                histories.put(ordered.get(i), series[i]);
+            }
+        }
+        return new Result(histories, statusBySymbol);
+    }
+
+    private void fetchConcurrently(List<String> symbols, int parallelism,
+                                   PriceSeries[] series, PriceHistoryStatus[] statuses,
+                                   boolean[] completed) {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable,
+                    "price-history-prefetch-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            CompletionService<Integer> completion = new ExecutorCompletionService<>(executor);
+            for (int i = 0; i < symbols.size(); i++) {
+                final int index = i;
+                completion.submit(() -> {
+                    fetchOne(symbols.get(index), index, series, statuses);
+                    return index;
+                });
+            }
+            // Each slot is written by exactly one task; get() on its future
+            // makes that write visible here.
+            for (int i = 0; i < symbols.size(); i++) {
+                try {
+                    completed[completion.take().get()] = true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;   // unfinished symbols are reported as FAILED
+                } catch (ExecutionException e) {
+                    // fetchOne catches runtime failures; only Errors end up here
+                    throw new IllegalStateException("Price history fetch failed", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void fetchOne(String symbol, int index,
+                          PriceSeries[] series, PriceHistoryStatus[] statuses) {
+        try {
+            PriceSeries history = repository.getPriceSeries(symbol);
+            if (history == null || history.isEmpty()) {
+                statuses[index] = PriceHistoryStatus.MISSING;
+            } else {
+                series[index] = history;
+                statuses[index] = PriceHistoryStatus.LOADED;
+            }
+        } catch (RuntimeException e) {
+            statuses[index] = PriceHistoryStatus.FAILED;
+        }
+    }
+
+    /**
+     * Loaded histories plus the outcome for every requested symbol.
+     */
+    public static class Result {
+
+        private final Map<String, PriceSeries> histories;
+        private final Map<String, PriceHistoryStatus> statuses;
+
+        Result(Map<String, PriceSeries> histories, Map<String, PriceHistoryStatus> statuses) {
+            this.histories = Collections.unmodifiableMap(histories);
+            this.statuses = Collections.unmodifiableMap(statuses);
+        }
+
+        /**
+         * @return non-empty series keyed by symbol, only for LOADED symbols
+         */
+        public Map<String, PriceSeries> getHistories() {
+            return histories;
+        }
+
+        /**
+         * @return status of every requested symbol
+         */
+        public Map<String, PriceHistoryStatus> getStatuses() {
+            return statuses;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package usecase.portfolio;
 
 import entity.PricePoint;
+import entity.PriceSeries;
 import java.util.List;
 
 /**
@@ -14,5 +15,26 @@ public interface PriceHistoryRepository {
      * @return list of price points ordered by date (oldest → newest).
      */
     List<PricePoint> getPriceHistory(String symbol);
+
+    /**
+     * Returns the historical price series for the given stock symbol in
+     * columnar form. Implementations backed by bar data should override this
+     * to avoid building one PricePoint per bar.
+     * @param symbol stock ticker symbol, e.g. "AAPL"
+     * @return series ordered by date (oldest → newest); empty if the symbol has no history.
+     * @throws RuntimeException if the history could not be fetched.
+     */
+    default PriceSeries getPriceSeries(String symbol) {
+        return PriceSeries.fromPricePoints(getPriceHistory(symbol));
+    }
+
+    /**
+     * Returns how many histories may be fetched at the same time.
+     * Implementations backed by a rate-limited API should follow its budget.
+     * @return maximum concurrent fetches, at least 1.
+     */
+    default int maxConcurrentRequests() {
+        return 1;
+    }
 }
 
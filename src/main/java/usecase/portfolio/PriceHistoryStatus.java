@@ -0,0 +1,13 @@
+package usecase.portfolio;
+
+/**
+ * Outcome of loading one symbol's price history for portfolio analysis.
+ */
+public enum PriceHistoryStatus {
+    /** History was loaded and used for valuation. */
+    LOADED,
+    /** The repository returned no prices for the symbol. */
+    MISSING,
+    /** Fetching the history failed with an error. */
+    FAILED
+}
@@ -0,0 +1,11 @@
+package usecase.portfolio;
+
+/**
+ * How often portfolio snapshots are emitted along the trading timeline.
+ * Weekly and monthly snapshots fall on the last trading day of each period.
+ */
+public enum SnapshotFrequency {
+    DAILY,
+    WEEKLY,
+    MONTHLY
+}
@@ -0,0 +1,135 @@
+package usecase.portfolio;
+
+import entity.PriceSeries;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Ascending set of trading days shared by all symbols in a portfolio.
+ *
+ * The timeline is the union of every series' bar dates, so it does not
+ * depend on which holding comes first and a day on which any symbol traded
+ * is included. Series are aligned to it with a single forward-fill pass.
+ */
+public final class TradingTimeline {
+
+    private static final int DAYS_PER_WEEK = 7;
+    private static final int EPOCH_WEEK_SHIFT = 3;   // epoch day 0 is a Thursday
+
+    private final int[] epochDays;
+
+    private TradingTimeline(int[] epochDays) {
+        this.epochDays = epochDays;
+    }
+
+    /**
+     * Wraps explicit dates as a timeline.
+     * @param epochDays strictly ascending epoch days
+     * @return the timeline
+     * @throws IllegalArgumentException if the days are not strictly ascending
+     */
+    public static TradingTimeline of(int[] epochDays) {
+        for (int i = 1; i < epochDays.length; i++) {
+            if (epochDays[i] <= epochDays[i - 1]) {
+                throw new IllegalArgumentException("Timeline must be in ascending date order.");
+            }
+        }
+        return new TradingTimeline(epochDays.clone());
+    }
+
+    /**
+     * Builds the union of all bar dates.
+     * @param series the price series to combine
+     * @return a daily timeline of every date that appears in any series
+     */
+    public static TradingTimeline union(Collection<PriceSeries> series) {
+        int total = 0;
+        for (PriceSeries s : series) {
+            total += s.size();
+        }
+        int[] all = new int[total];
+        int pos = 0;
+        for (PriceSeries s : series) {
+            for (int i = 0; i < s.size(); i++) {
+                all[pos++] = s.epochDayAt(i);
+            }
+        }
+        Arrays.sort(all);
+
+        int distinct = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (distinct == 0 || all[i] != all[distinct - 1]) {
+                all[distinct++] = all[i];
+            }
+        }
+        return new TradingTimeline(Arrays.copyOf(all, distinct));
+    }
+
+    /**
+     * Keeps one date per period: the last trading day of each week or month.
+     * @param frequency the snapshot frequency
+     * @return the resampled timeline (this timeline for DAILY)
+     */
+    public TradingTimeline resample(SnapshotFrequency frequency) {
+        if (frequency == SnapshotFrequency.DAILY || epochDays.length == 0) {
+            return this;
+        }
+        int[] kept = new int[epochDays.length];
+        int count = 0;
+        long periodEnd = Long.MIN_VALUE;   // first epoch day of the next period
+        for (int i = 0; i < epochDays.length; i++) {
+            int day = epochDays[i];
+            if (day >= periodEnd) {
+                periodEnd = nextPeriodStart(day, frequency);
+                count++;
+            }
+            kept[count - 1] = day;          // later days in the period overwrite
+        }
+        return new TradingTimeline(Arrays.copyOf(kept, count));
+    }
+
+    /**
+     * Aligns a series' closes to this timeline in one merge pass.
+     * Each date takes the latest close on or before it; dates before the
+     * series starts take its earliest close.
+     * @param series a non-empty series
+     * @return one close per timeline date
+     */
+    public double[] forwardFill(PriceSeries series) {
+        double[] aligned = new double[epochDays.length];
+        int c = 0;
+        int last = series.size() - 1;
+        for (int t = 0; t < epochDays.length; t++) {
+            while (c < last && series.epochDayAt(c + 1) <= epochDays[t]) {
+                c++;
+            }
+            aligned[t] = series.closeAt(c);
+        }
+        return aligned;
+    }
+
+    public int size() {
+        return epochDays.length;
+    }
+
+    public LocalDate dateAt(int index) {
+        return LocalDate.ofEpochDay(epochDays[index]);
+    }
+
+    /**
+     * @return a copy of the timeline as ascending epoch days
+     */
+    public int[] epochDays() {
+        return epochDays.clone();
+    }
+
+    private static long nextPeriodStart(int epochDay, SnapshotFrequency frequency) {
+        if (frequency == SnapshotFrequency.WEEKLY) {
+            long week = Math.floorDiv(epochDay + EPOCH_WEEK_SHIFT, DAYS_PER_WEEK);
+            return (week + 1) * DAYS_PER_WEEK - EPOCH_WEEK_SHIFT;
+        }
+        return LocalDate.ofEpochDay(epochDay).withDayOfMonth(1).plusMonths(1).toEpochDay();
+    }
+}
@@ -0,0 +1,211 @@
+package usecase.trading;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds resting limit and stop orders and fills them as quotes arrive.
+ *
+ * Each symbol has a book of two price heaps: orders that fill when the
+ * price falls to their trigger (buy limits, sell stops), highest trigger
+ * first, and orders that fill when it rises (sell limits, buy stops),
+ * lowest trigger first. A quote pops only the triggered orders, so a tick
+ * that fills nothing costs two heap peeks however many orders rest.
+ *
+ * Triggered orders execute at the quote price through
+ * {@link TradingDataAccessInterface#executeOrder}, the same path as market
+ * orders. An order that fails its cash or share check when triggered is
+ * dropped. Resting orders live in memory only, so they expire when the
+ * application exits.
+ */
+public final class MatchingEngine {
+
+    /**
+     * A triggered order and the outcome of executing it.
+     */
+    public static final class Fill {
+        private final RestingOrder order;
+        private final OrderExecution execution;
+        private final double price;
+
+        Fill(RestingOrder order, OrderExecution execution, double price) {
+            this.order = order;
+            this.execution = execution;
+            this.price = price;
+        }
+
+        public RestingOrder getOrder() {
+            return order;
+        }
+
+        public OrderExecution getExecution() {
+            return execution;
+        }
+
+        public double getPrice() {
+            return price;
+        }
+    }
+
+    private final TradingDataAccessInterface dataAccess;
+    private final Map<String, OrderBook> books = new ConcurrentHashMap<>();
+    // Orders still resting; an order leaves its heap under its book's monitor.
+    private final Map<Long, RestingOrder> open = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    public MatchingEngine(TradingDataAccessInterface dataAccess) {
+        this.dataAccess = dataAccess;
+    }
+
+    /**
+     * Rests a limit or stop order until a quote reaches its trigger price.
+     * @return the resting order, with its id for cancelling
+     */
+    public RestingOrder submit(String username, String symbol, TradingInputData.Action side,
+                               TradingInputData.OrderType type, int shares, double triggerPrice) {
+        if (type == TradingInputData.OrderType.MARKET) {
+            throw new IllegalArgumentException("Market orders do not rest.");
+        }
+        if (shares <= 0 || !(triggerPrice > 0)) {
+            throw new IllegalArgumentException("Shares and trigger price must be positive.");
+        }
+        String key = normalize(symbol);
+        RestingOrder order = new RestingOrder(nextId.getAndIncrement(), username, key,
+                side, type, shares, triggerPrice, Instant.now());
+        OrderBook book = books.computeIfAbsent(key, k -> new OrderBook());
+        synchronized (book) {
+            open.put(order.getId(), order);
+            book.add(order);
+        }
+        return order;
+    }
+
+    /**
+     * Cancels a resting order and takes it out of its book's heap.
+     * @return true if the order was still resting and is now cancelled
+     */
+    public boolean cancel(long orderId) {
+        RestingOrder order = open.get(orderId);
+        if (order == null) return false;
+        OrderBook book = books.get(order.getSymbol());
+        synchronized (book) {
+            if (open.remove(orderId) == null) return false;   // triggered meanwhile
+            book.remove(order);
+        }
+        return true;
+    }
+
+    /**
+     * @return the user's resting orders, oldest first
+     */
+    public List<RestingOrder> getOpenOrders(String username) {
+        List<RestingOrder> orders = new ArrayList<>();
+        for (RestingOrder order : open.values()) {
+            if (order.getUsername().equals(username)) orders.add(order);
+        }
+        orders.sort(Comparator.comparingLong(RestingOrder::getId));
+        return orders;
+    }
+
+    public int getOpenOrderCount() {
+        return open.size();
+    }
+
+    /**
+     * @return the symbols with resting orders, which need quotes to fill
+     */
+    public Set<String> getOpenSymbols() {
+        Set<String> symbols = new TreeSet<>();
+        for (RestingOrder order : open.values()) {
+            symbols.add(order.getSymbol());
+        }
+        return symbols;
+    }
+
+    /**
+     * @return how many orders the symbol's heaps hold, resting or not
+     */
+    int getBookSize(String symbol) {
+        OrderBook book = books.get(normalize(symbol));
+        if (book == null) return 0;
+        synchronized (book) {
+            return book.size();
+        }
+    }
+
+    /**
+     * Fills every resting order the new price triggers, in trigger order.
+     * @return the fills, including orders rejected for lack of cash or shares
+     */
+    public List<Fill> onQuote(String symbol, double price) {
+        OrderBook book = books.get(normalize(symbol));
+        if (book == null) return List.of();
+        List<RestingOrder> triggered;
+        synchronized (book) {
+            triggered = book.triggered(price);
+        }
+        if (triggered.isEmpty()) return List.of();
+        List<Fill> fills = new ArrayList<>(triggered.size());
+        for (RestingOrder order : triggered) {
+            OrderExecution execution = dataAccess.executeOrder(order.getUsername(), order.getSymbol(),
+                    order.getSide(), order.getShares(), price);
+            fills.add(new Fill(order, execution, price));
+        }
+        return fills;
+    }
+
+    private static String normalize(String symbol) {
+        return symbol.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * One symbol's resting orders. Guarded by its own monitor.
+     */
+    private final class OrderBook {
+        private final PriceHeap fallTriggers = new PriceHeap(true);
+        private final PriceHeap riseTriggers = new PriceHeap(false);
+
+        void add(RestingOrder order) {
+            heapFor(order).push(order.getTriggerPrice(), order.getId());
+        }
+
+        void remove(RestingOrder order) {
+            heapFor(order).remove(order.getId());
+        }
+
+        int size() {
+            return fallTriggers.size() + riseTriggers.size();
+        }
+
+        private PriceHeap heapFor(RestingOrder order) {
+            return order.triggersOnFall() ? fallTriggers : riseTriggers;
+        }
+
+        /**
+         * Pops the orders the price triggers and removes them from the open set.
+         */
+        List<RestingOrder> triggered(double price) {
+            List<RestingOrder> orders = new ArrayList<>();
+            while (!fallTriggers.isEmpty() && fallTriggers.peekPrice() >= price) {
+                take(fallTriggers.pop(), orders);
+            }
+            while (!riseTriggers.isEmpty() && riseTriggers.peekPrice() <= price) {
+                take(riseTriggers.pop(), orders);
+            }
+            return orders;
+        }
+
+        private void take(long id, List<RestingOrder> orders) {
+            RestingOrder order = open.remove(id);
+            if (order != null) orders.add(order);
+        }
+    }
+}
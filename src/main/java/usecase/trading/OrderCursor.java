@@ -0,0 +1,35 @@
+package usecase.trading;
+
+import java.time.Instant;
+
+/**
+ * Position in a user's order history, used to fetch the next page.
+ * Orders are ordered by timestamp, with the sequence breaking ties between
+ * orders placed at the same instant. The sequence is assigned by the data
+ * access and only meaningful to the store that produced the cursor.
+ */
+public final class OrderCursor {
+    private final Instant timestamp;
+    private final long sequence;
+
+    public OrderCursor(Instant timestamp, long sequence) {
+        this.timestamp = timestamp;
+        this.sequence = sequence;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return true if an order at the given position comes before this cursor
+     */
+    public boolean isAfter(Instant otherTimestamp, long otherSequence) {
+        int cmp = timestamp.compareTo(otherTimestamp);
+        return cmp > 0 || (cmp == 0 && sequence > otherSequence);
+    }
+}
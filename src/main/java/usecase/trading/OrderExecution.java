@@ -0,0 +1,130 @@
+package usecase.trading;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import entity.Holding;
+import entity.OrderRecord;
+
+/**
+ * Outcome of executing one order against a user's cash and holding.
+ *
+ * {@link #evaluate} holds the trading rules; data access implementations
+ * call it with the state they read and persist the result if the order
+ * was executed.
+ */
+public final class OrderExecution {
+
+    public enum Status {
+        EXECUTED,
+        INSUFFICIENT_CASH,
+        INSUFFICIENT_SHARES
+    }
+
+    private final Status status;
+    private final double cashAfter;
+    private final Holding holdingAfter;
+    private final OrderRecord order;
+
+    private OrderExecution(Status status, double cashAfter, Holding holdingAfter, OrderRecord order) {
+        this.status = status;
+        this.cashAfter = cashAfter;
+        this.holdingAfter = holdingAfter;
+        this.order = order;
+    }
+
+    /**
+     * Applies an order to the current cash and holding without storing anything.
+     * @param cash    the user's cash before the order
+     * @param holding the user's holding of the symbol before the order, or null
+     * @return the new state, or a rejection carrying the unchanged state
+     */
+    public static OrderExecution evaluate(String username, String symbol,
+                                          TradingInputData.Action side, int shares, double price,
+                                          double cash, Holding holding) {
+        final int oldShares = holding == null ? 0 : holding.getShares();
+        final double amount = price * shares;
+
+        if (side == TradingInputData.Action.BUY) {
+            if (cash < amount) {
+                return new OrderExecution(Status.INSUFFICIENT_CASH, cash, holding, null);
+            }
+            final double oldCost = holding == null ? 0.0 : holding.getTotalCost();
+            final int newShares = oldShares + shares;
+            final Holding bought = new Holding(symbol, newShares, (oldCost + amount) / newShares);
+            return new OrderExecution(Status.EXECUTED, cash - amount, bought,
+                    order(username, symbol, "BUY", shares, price));
+        }
+
+        if (holding == null || shares > oldShares) {
+            return new OrderExecution(Status.INSUFFICIENT_SHARES, cash, holding, null);
+        }
+        final Holding remaining = shares == oldShares
+                ? null
+                : new Holding(symbol, oldShares - shares, holding.getAvgCost());
+        return new OrderExecution(Status.EXECUTED, cash + amount, remaining,
+                order(username, symbol, "SELL", shares, price));
+    }
+
+    /**
+     * Applies orders one after another against a running balance, so each
+     * order is checked against the cash and shares left by the ones before
+     * it. A rejected order leaves the running state unchanged.
+     * @param prices   execution price per symbol
+     * @param cash     the user's cash before the batch
+     * @param holdings the user's holdings of the batch's symbols; updated in
+     *                 place to the holdings after the batch, with sold-out
+     *                 symbols mapped to null
+     * @return one result per order, in order
+     */
+    public static List<OrderExecution> evaluateAll(String username, List<TradingInputData> orders,
+                                                   Map<String, Double> prices, double cash,
+                                                   Map<String, Holding> holdings) {
+        List<OrderExecution> results = new ArrayList<>(orders.size());
+        double runningCash = cash;
+        for (TradingInputData order : orders) {
+            final String symbol = order.getSymbol();
+            final OrderExecution result = evaluate(username, symbol, order.getAction(),
+                    order.getShares(), prices.get(symbol), runningCash, holdings.get(symbol));
+            if (result.isExecuted()) {
+                runningCash = result.getCashAfter();
+                holdings.put(symbol, result.getHoldingAfter());
+            }
+            results.add(result);
+        }
+        return results;
+    }
+
+    private static OrderRecord order(String username, String symbol, String action,
+                                     int shares, double price) {
+        return new OrderRecord(Instant.now(), username, symbol, action, shares, price, shares * price);
+    }
+
+    public boolean isExecuted() {
+        return status == Status.EXECUTED;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public double getCashAfter() {
+        return cashAfter;
+    }
+
+    /**
+     * @return the holding after the order, or null if the user holds no shares
+     */
+    public Holding getHoldingAfter() {
+        return holdingAfter;
+    }
+
+    /**
+     * @return the recorded order, or null if the order was rejected
+     */
+    public OrderRecord getOrder() {
+        return order;
+    }
+}
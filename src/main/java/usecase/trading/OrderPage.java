@@ -0,0 +1,33 @@
+package usecase.trading;
+
+import entity.OrderRecord;
+
+import java.util.List;
+
+/**
+ * One page of a user's order history, newest first.
+ */
+public final class OrderPage {
+    private final List<OrderRecord> orders;
+    private final OrderCursor nextCursor;
+
+    public OrderPage(List<OrderRecord> orders, OrderCursor nextCursor) {
+        this.orders = List.copyOf(orders);
+        this.nextCursor = nextCursor;
+    }
+
+    public List<OrderRecord> getOrders() {
+        return orders;
+    }
+
+    /**
+     * @return the cursor for the next (older) page, or null if this is the last page
+     */
+    public OrderCursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasMore() {
+        return nextCursor != null;
+    }
+}
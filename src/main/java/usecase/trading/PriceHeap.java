@@ -0,0 +1,120 @@
+package usecase.trading;
+
+import java.util.Arrays;
+
+/**
+ * Binary heap of (price, order id) pairs kept in primitive arrays.
+ *
+ * A min-heap yields the lowest price first, a max-heap the highest; equal
+ * prices come out in id order, so orders at one price fill first-in,
+ * first-out. A max-heap stores negated prices and shares the min-heap code.
+ */
+final class PriceHeap {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final boolean max;
+    private double[] keys = new double[INITIAL_CAPACITY];
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * @param max true for highest price first, false for lowest
+     */
+    PriceHeap(boolean max) {
+        this.max = max;
+    }
+
+    void push(double price, long id) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        int i = size++;
+        keys[i] = max ? -price : price;
+        ids[i] = id;
+        siftUp(i);
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return the price at the top; undefined if the heap is empty
+     */
+    double peekPrice() {
+        return max ? -keys[0] : keys[0];
+    }
+
+    /**
+     * Removes an entry wherever it sits, e.g. a cancelled order. Linear in
+     * the heap size to find it, logarithmic to restore the heap.
+     * @return false if the id is not in the heap
+     */
+    boolean remove(long id) {
+        int i = 0;
+        while (i < size && ids[i] != id) i++;
+        if (i == size) return false;
+        size--;
+        if (i < size) {
+            keys[i] = keys[size];
+            ids[i] = ids[size];
+            siftDown(i);
+            siftUp(i);
+        }
+        return true;
+    }
+
+    /**
+     * Removes the top entry.
+     * @return its order id
+     */
+    long pop() {
+        long top = ids[0];
+        size--;
+        if (size > 0) {
+            keys[0] = keys[size];
+            ids[0] = ids[size];
+            siftDown(0);
+        }
+        return top;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(i, parent)) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) break;
+            int child = left + 1 < size && less(left + 1, left) ? left + 1 : left;
+            if (!less(child, i)) break;
+            swap(i, child);
+            i = child;
+        }
+    }
+
+    private boolean less(int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && ids[a] < ids[b]);
+    }
+
+    private void swap(int a, int b) {
+        double key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+    }
+}
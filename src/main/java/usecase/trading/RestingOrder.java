@@ -0,0 +1,76 @@
+package usecase.trading;
+
+import java.time.Instant;
+
+/**
+ * A limit or stop order waiting in the {@link MatchingEngine} for its
+ * trigger price.
+ *
+ * A buy limit fills once the price falls to the limit or below, a sell
+ * limit once it rises to the limit or above. A buy stop fills once the
+ * price rises to the stop, a sell stop once it falls to the stop.
+ */
+public final class RestingOrder {
+
+    private final long id;
+    private final String username;
+    private final String symbol;
+    private final TradingInputData.Action side;
+    private final TradingInputData.OrderType type;
+    private final int shares;
+    private final double triggerPrice;
+    private final Instant placedAt;
+
+    public RestingOrder(long id, String username, String symbol, TradingInputData.Action side,
+                        TradingInputData.OrderType type, int shares, double triggerPrice,
+                        Instant placedAt) {
+        this.id = id;
+        this.username = username;
+        this.symbol = symbol;
+        this.side = side;
+        this.type = type;
+        this.shares = shares;
+        this.triggerPrice = triggerPrice;
+        this.placedAt = placedAt;
+    }
+
+    /**
+     * @return true if the order fills when the price falls to the trigger,
+     *         false if it fills when the price rises to it
+     */
+    public boolean triggersOnFall() {
+        return (side == TradingInputData.Action.BUY) == (type == TradingInputData.OrderType.LIMIT);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public TradingInputData.Action getSide() {
+        return side;
+    }
+
+    public TradingInputData.OrderType getType() {
+        return type;
+    }
+
+    public int getShares() {
+        return shares;
+    }
+
+    public double getTriggerPrice() {
+        return triggerPrice;
+    }
+
+    public Instant getPlacedAt() {
+        return placedAt;
+    }
+}
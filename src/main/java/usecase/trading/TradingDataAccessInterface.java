@@ -2,7 +2,14 @@ package usecase.trading;
 
 import entity.Holding;
 import entity.OrderRecord;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data access interface for trading-related information.
@@ -57,6 +64,27 @@ public interface TradingDataAccessInterface {
      */
     double getStockPrice(String symbol);
 
+    /**
+     * Returns current prices for several symbols, fetching each distinct
+     * symbol once. A symbol whose quote cannot be fetched is left out, so
+     * one failed or rate-limited quote does not sink the others.
+     *
+     * @param symbols the stock symbols; duplicates are allowed
+     * @return price per distinct symbol that could be quoted
+     */
+    default Map<String, Double> getStockPrices(Collection<String> symbols) {
+        Map<String, Double> prices = new LinkedHashMap<>();
+        for (String symbol : symbols) {
+            if (prices.containsKey(symbol)) continue;
+            try {
+                prices.put(symbol, getStockPrice(symbol));
+            } catch (RuntimeException e) {
+                // left out; the caller rejects the orders that need it
+            }
+        }
+        return prices;
+    }
+
     /**
      * Returns all holdings for the given user.
      *
@@ -72,6 +100,83 @@ public interface TradingDataAccessInterface {
      */
     void saveOrder(OrderRecord orderRecord);
 
+    /**
+     * Executes an order: checks the user's cash or shares, updates cash and
+     * holding, and saves the order record.
+     *
+     * The default implementation chains the individual calls above and is
+     * not atomic; stores shared between threads should override it so that
+     * the read-check-write for one user cannot interleave with another
+     * order for the same user.
+     *
+     * @param username the user's username
+     * @param symbol   the stock symbol
+     * @param side     buy or sell
+     * @param shares   number of shares, positive
+     * @param price    execution price per share
+     * @return the result, including the state after the order
+     */
+    default OrderExecution executeOrder(String username, String symbol,
+                                        TradingInputData.Action side, int shares, double price) {
+        OrderExecution result = OrderExecution.evaluate(username, symbol, side, shares, price,
+                getCash(username), getHolding(username, symbol));
+        if (result.isExecuted()) {
+            updateCash(username, result.getCashAfter());
+            if (result.getHoldingAfter() == null) {
+                removeHolding(username, symbol);
+            }
+            else {
+                updateHolding(username, result.getHoldingAfter());
+            }
+            saveOrder(result.getOrder());
+        }
+        return result;
+    }
+
+    /**
+     * Executes a batch of one user's orders against a running balance and
+     * stores the outcome: cash and each touched holding once, plus every
+     * executed order. Rejected orders do not stop the rest of the batch.
+     *
+     * The default implementation uses the individual calls above and is not
+     * atomic; stores should override it to apply the whole batch under one
+     * lock and persist it in one commit.
+     *
+     * @param username the user's username
+     * @param orders   the orders, each with a valid symbol, action and share count
+     * @param prices   execution price for every symbol in the batch
+     * @return one result per order, in order
+     */
+    default List<OrderExecution> executeOrders(String username, List<TradingInputData> orders,
+                                               Map<String, Double> prices) {
+        Map<String, Holding> holdings = new HashMap<>();
+        for (TradingInputData order : orders) {
+            if (!holdings.containsKey(order.getSymbol())) {
+                holdings.put(order.getSymbol(), getHolding(username, order.getSymbol()));
+            }
+        }
+        Map<String, Holding> before = new HashMap<>(holdings);
+        List<OrderExecution> results = OrderExecution.evaluateAll(
+                username, orders, prices, getCash(username), holdings);
+        if (results.stream().noneMatch(OrderExecution::isExecuted)) {
+            return results;
+        }
+        updateCash(username, results.get(results.size() - 1).getCashAfter());
+        for (Map.Entry<String, Holding> e : holdings.entrySet()) {
+            if (e.getValue() == before.get(e.getKey())) continue;
+            if (e.getValue() == null) {
+                removeHolding(username, e.getKey());
+            }
+            else {
+                updateHolding(username, e.getValue());
+            }
+        }
+        for (OrderExecution result : results) {
+            if (result.isExecuted()) saveOrder(result.getOrder());
+        }
+        return results;
+    }
+
     /**
      * Returns all orders created by the given user.
      *
@@ -80,4 +185,46 @@ public interface TradingDataAccessInterface {
      */
     List<OrderRecord> findOrdersByUser(String username);
 
+    /**
+     * Returns one page of a user's orders in a time range, newest first.
+     *
+     * The default implementation filters {@link #findOrdersByUser} and uses
+     * each order's position in that list as its sequence; stores with an
+     * index should override it.
+     *
+     * @param username the user's username
+     * @param from     earliest order time, inclusive; {@code null} for no bound
+     * @param to       latest order time, exclusive; {@code null} for no bound
+     * @param limit    maximum number of orders to return
+     * @param before   cursor from the previous page, or {@code null} for the newest orders
+     * @return the page and a cursor for the next one
+     */
+    default OrderPage findOrders(String username, Instant from, Instant to,
+                                 int limit, OrderCursor before) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive.");
+        }
+        List<OrderRecord> all = findOrdersByUser(username);
+        List<OrderRecord> page = new ArrayList<>(Math.min(limit, all.size()));
+        int lastIndex = -1;
+        for (int i = all.size() - 1; i >= 0; i--) {
+            OrderRecord order = all.get(i);
+            Instant time = order.getTimestamp();
+            if ((to != null && !time.isBefore(to))
+                    || (before != null && !before.isAfter(time, i))) {
+                continue;
+            }
+            if (from != null && time.isBefore(from)) {
+                continue;
+            }
+            if (page.size() == limit) {
+                OrderRecord last = all.get(lastIndex);
+                return new OrderPage(page, new OrderCursor(last.getTimestamp(), lastIndex));
+            }
+            page.add(order);
+            lastIndex = i;
+        }
+        return new OrderPage(page, null);
+    }
+
 }
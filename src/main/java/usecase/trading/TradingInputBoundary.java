@@ -1,5 +1,29 @@
 package usecase.trading;
 
+import java.util.List;
+
 public interface TradingInputBoundary {
     void placeOrder(TradingInputData input);
+
+    /**
+     * Places several orders together; results are presented per order, in
+     * the order given.
+     */
+    void placeOrders(List<TradingInputData> inputs);
+
+    /**
+     * Presents the user's resting limit and stop orders.
+     */
+    void showOpenOrders(String username);
+
+    /**
+     * Cancels one of the user's resting orders, then presents the ones left.
+     */
+    void cancelOrder(String username, long orderId);
+
+    /**
+     * Fills the resting limit and stop orders a new quote triggers and
+     * presents the fills.
+     */
+    void fillRestingOrders(String symbol, double price);
 }
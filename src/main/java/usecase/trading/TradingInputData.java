@@ -6,17 +6,37 @@ public class TradingInputData {
         SELL
     }
 
+    public enum OrderType {
+        /** Execute now at the current price. */
+        MARKET,
+        /** Buy at or below, or sell at or above, the trigger price. */
+        LIMIT,
+        /** Buy once the price rises to, or sell once it falls to, the trigger price. */
+        STOP
+    }
+
     private final Action action;
     private final String symbol;
     private final int shares;
     private final String username;
+    private final OrderType orderType;
+    private final double triggerPrice;
 
     public TradingInputData(String username, String symbol, Action action, int shares) {
+        this(username, symbol, action, shares, OrderType.MARKET, 0.0);
+    }
+
+    /**
+     * @param triggerPrice the limit or stop price; ignored for market orders
+     */
+    public TradingInputData(String username, String symbol, Action action, int shares,
+                            OrderType orderType, double triggerPrice) {
         this.username = username;
         this.symbol = symbol;
         this.action = action;
         this.shares = shares;
-        
+        this.orderType = orderType;
+        this.triggerPrice = triggerPrice;
     }
 
     public Action getAction() {
@@ -31,6 +51,12 @@ public class TradingInputData {
     public String getUsername() {
         return username;
     }
+    public OrderType getOrderType() {
+        return orderType;
+    }
+    public double getTriggerPrice() {
+        return triggerPrice;
+    }
 
 
 }
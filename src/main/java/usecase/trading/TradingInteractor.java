@@ -1,19 +1,35 @@
 package usecase.trading;
 
-import java.time.Instant;
-
 import entity.Holding;
-import entity.OrderRecord;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class TradingInteractor implements TradingInputBoundary {
 
     private final TradingDataAccessInterface dataAccess;
     private final TradingOutputBoundary presenter;
+    private final MatchingEngine matchingEngine;
 
     public TradingInteractor(TradingDataAccessInterface dataAccess,
                              TradingOutputBoundary presenter) {
+        this(dataAccess, presenter, null);
+    }
+
+    /**
+     * @param matchingEngine where limit and stop orders rest; null to accept
+     *                       market orders only
+     */
+    public TradingInteractor(TradingDataAccessInterface dataAccess,
+                             TradingOutputBoundary presenter,
+                             MatchingEngine matchingEngine) {
         this.dataAccess = dataAccess;
         this.presenter = presenter;
+        this.matchingEngine = matchingEngine;
     }
 
     @Override
@@ -24,100 +40,224 @@ public class TradingInteractor implements TradingInputBoundary {
         final int shares = input.getShares();
 
         // validating input
-        if (symbol == null || symbol.isBlank() || shares <= 0 || action == null) {
-            presenter.presentTradeResult(new TradingOutputData(
-                    "Enter your symbol, action, and shares.",
-                    false,
-                    dataAccess.getCash(username),
-                    0,
-                    0,
-                    0
-            ));
+        if (!isValid(input)) {
+            presenter.presentTradeResult(invalidInput(username));
+            return;
+        }
+        if (input.getOrderType() != TradingInputData.OrderType.MARKET) {
+            presenter.presentTradeResult(rest(input));
             return;
         }
 
         final double stockPrice = dataAccess.getStockPrice(symbol);
-        final double cash = dataAccess.getCash(username);
-        final Holding holding = dataAccess.getHolding(username, symbol);
 
-        if (action == TradingInputData.Action.BUY) {
-            final double totalCost = stockPrice * shares;
-            if (cash < totalCost) {
-                presenter.presentTradeResult(new TradingOutputData(
-                        "Not enough cash.",
-                        false,
-                        cash,
-                        holding == null ? 0 : holding.getAvgCost(),
-                        holding == null ? 0 : holding.getShares(),
-                        holding == null ? 0 : holding.getTotalCost()
-                ));
-                return;
-            }
+        // check and apply atomically so concurrent orders cannot both pass the check
+        final OrderExecution result = dataAccess.executeOrder(username, symbol, action, shares, stockPrice);
+        presenter.presentTradeResult(toOutput(result, stockPrice));
+    }
 
-            // new shares and average total cost
-            final int oldShares = holding == null ? 0 : holding.getShares();
-            final double oldAverageCost = holding == null ? 0 : holding.getAvgCost();
-            final int newShares = oldShares + shares;
-            final double newAverageCost = ((oldAverageCost * oldShares) + totalCost) / newShares;
+    /**
+     * Places several orders at once, e.g. to rebalance a portfolio. Quotes
+     * for all symbols are fetched in one step, and each user's orders are
+     * checked against a running balance and applied together, so a later
+     * order sees the cash and shares left by the earlier ones. Orders for a
+     * symbol that could not be quoted are rejected on their own.
+     */
+    @Override
+    public void placeOrders(List<TradingInputData> inputs) {
+        final List<TradingOutputData> outputs = new ArrayList<>(inputs.size());
+        final Map<String, List<Integer>> positionsByUser = new LinkedHashMap<>();
+        final Set<String> symbols = new LinkedHashSet<>();
+        for (int i = 0; i < inputs.size(); i++) {
+            final TradingInputData input = inputs.get(i);
+            outputs.add(null);
+            if (!isValid(input)) {
+                outputs.set(i, invalidInput(input.getUsername()));
+                continue;
+            }
+            if (input.getOrderType() != TradingInputData.OrderType.MARKET) {
+                outputs.set(i, rest(input));
+                continue;
+            }
+            positionsByUser.computeIfAbsent(input.getUsername(), k -> new ArrayList<>()).add(i);
+            symbols.add(input.getSymbol());
+        }
 
-            final Holding newHolding = new Holding(symbol, newShares, newAverageCost);
-            dataAccess.updateCash(username, cash - totalCost);
-            dataAccess.updateHolding(username, newHolding);
+        final Map<String, Double> prices = symbols.isEmpty()
+                ? Map.of()
+                : dataAccess.getStockPrices(symbols);
 
-        }
-        else {
-            // selling
-            if (holding == null || shares > holding.getShares()) {
-                presenter.presentTradeResult(new TradingOutputData(
-                        "Not enough shares to sell.",
-                        false,
-                        cash,
-                        holding == null ? 0 : holding.getAvgCost(),
-                        holding == null ? 0 : holding.getShares(),
-                        holding == null ? 0 : holding.getTotalCost()
-                ));
-                return;
+        for (Map.Entry<String, List<Integer>> entry : positionsByUser.entrySet()) {
+            final List<Integer> positions = new ArrayList<>(entry.getValue().size());
+            final List<TradingInputData> orders = new ArrayList<>(entry.getValue().size());
+            for (int position : entry.getValue()) {
+                final TradingInputData order = inputs.get(position);
+                if (!prices.containsKey(order.getSymbol())) {
+                    outputs.set(position, priceUnavailable(entry.getKey(), order.getSymbol()));
+                    continue;
+                }
+                positions.add(position);
+                orders.add(order);
+            }
+            if (orders.isEmpty()) continue;
+            final List<OrderExecution> results = dataAccess.executeOrders(entry.getKey(), orders, prices);
+            for (int j = 0; j < results.size(); j++) {
+                final TradingInputData order = orders.get(j);
+                outputs.set(positions.get(j), toOutput(results.get(j), prices.get(order.getSymbol())));
             }
+        }
+        presenter.presentTradeResults(outputs);
+    }
 
-            final double proceeds = stockPrice * shares;
-            final int remaining = holding.getShares() - shares;
-            dataAccess.updateCash(username, cash + proceeds);
+    @Override
+    public void showOpenOrders(String username) {
+        presenter.presentOpenOrders(matchingEngine == null
+                ? List.of() : matchingEngine.getOpenOrders(username));
+    }
 
-            if (remaining == 0) {
-                dataAccess.removeHolding(username, symbol);
-            }
-            else {
-                final Holding updated = new Holding(symbol, remaining, holding.getAvgCost());
-                dataAccess.updateHolding(username, updated);
+    @Override
+    public void cancelOrder(String username, long orderId) {
+        RestingOrder order = null;
+        if (matchingEngine != null) {
+            for (RestingOrder open : matchingEngine.getOpenOrders(username)) {
+                if (open.getId() == orderId) order = open;
             }
         }
+        if (order == null || !matchingEngine.cancel(orderId)) {
+            presenter.presentTradeResult(new TradingOutputData(
+                    String.format("Order #%d is no longer open.", orderId), false,
+                    dataAccess.getCash(username), 0, 0, 0));
+        } else {
+            presenter.presentTradeResult(withPosition(username, order.getSymbol(),
+                    String.format("%s %s order #%d cancelled.", order.getType(), order.getSide(), orderId)));
+        }
+        showOpenOrders(username);
+    }
 
-        final double updatedCash = dataAccess.getCash(username);
-        final Holding updatedHolding = dataAccess.getHolding(username, symbol);
-        final int totalSharesAfterTrade = updatedHolding == null ? 0 : updatedHolding.getShares();
-        final double averageCostAfterTrade = updatedHolding == null ? 0 : updatedHolding.getAvgCost();
-        final double totalHoldingValueAfterTrade = totalSharesAfterTrade * stockPrice;
+    @Override
+    public void fillRestingOrders(String symbol, double price) {
+        if (matchingEngine == null) return;
+        final List<MatchingEngine.Fill> fills = matchingEngine.onQuote(symbol, price);
+        if (fills.isEmpty()) return;
+        final List<TradingOutputData> outputs = new ArrayList<>(fills.size());
+        for (MatchingEngine.Fill fill : fills) {
+            outputs.add(toFillOutput(fill));
+        }
+        presenter.presentFills(outputs);
+    }
+
+    private static boolean isValid(TradingInputData input) {
+        return input.getSymbol() != null && !input.getSymbol().isBlank()
+                && input.getShares() > 0 && input.getAction() != null
+                && input.getOrderType() != null
+                && (input.getOrderType() == TradingInputData.OrderType.MARKET || input.getTriggerPrice() > 0);
+    }
+
+    /**
+     * Hands a limit or stop order to the matching engine; it fills later,
+     * when a quote reaches its trigger price.
+     */
+    private TradingOutputData rest(TradingInputData input) {
+        final String username = input.getUsername();
+        if (matchingEngine == null) {
+            return new TradingOutputData("Limit and stop orders are not available.", false,
+                    dataAccess.getCash(username), 0, 0, 0);
+        }
+        final RestingOrder order = matchingEngine.submit(username, input.getSymbol(), input.getAction(),
+                input.getOrderType(), input.getShares(), input.getTriggerPrice());
+        return withPosition(username, order.getSymbol(),
+                String.format("%s %s order #%d placed at %.2f; open orders expire when the app exits.",
+                        order.getType(), order.getSide(), order.getId(), order.getTriggerPrice()));
+    }
+
+    /**
+     * A successful result that leaves the position unchanged, showing the
+     * user's cash and their holding in the order's symbol.
+     */
+    private TradingOutputData withPosition(String username, String symbol, String message) {
+        final Holding holding = dataAccess.getHolding(username, symbol);
+        return new TradingOutputData(
+                message,
+                true,
+                dataAccess.getCash(username),
+                holding == null ? 0 : holding.getAvgCost(),
+                holding == null ? 0 : holding.getShares(),
+                holding == null ? 0 : holding.getTotalCost()
+        );
+    }
 
-        // record the order
-        final double executedPrice = stockPrice;
-        final OrderRecord orderRecord = new OrderRecord(
-                Instant.now(),
-                username,
-                symbol,
-                action == TradingInputData.Action.BUY ? "BUY" : "SELL",
+    private static TradingOutputData toFillOutput(MatchingEngine.Fill fill) {
+        final RestingOrder order = fill.getOrder();
+        final OrderExecution result = fill.getExecution();
+        final Holding holding = result.getHoldingAfter();
+        final String message = result.isExecuted()
+                ? String.format("%s %s order #%d filled: %d %s at %.2f.", order.getType(), order.getSide(),
+                        order.getId(), order.getShares(), order.getSymbol(), fill.getPrice())
+                : String.format("%s %s order #%d dropped: %s", order.getType(), order.getSide(), order.getId(),
+                        result.getStatus() == OrderExecution.Status.INSUFFICIENT_CASH
+                                ? "not enough cash." : "not enough shares to sell.");
+        final int shares = holding == null ? 0 : holding.getShares();
+        return new TradingOutputData(
+                order.getUsername(),
+                message,
+                result.isExecuted(),
+                result.getCashAfter(),
+                holding == null ? 0 : holding.getAvgCost(),
                 shares,
-                executedPrice,
-                shares * executedPrice
+                shares * fill.getPrice()
         );
-        dataAccess.saveOrder(orderRecord);
+    }
+
+    private TradingOutputData priceUnavailable(String username, String symbol) {
+        return new TradingOutputData(
+                "Could not get a price for " + symbol + "; order not placed.",
+                false,
+                dataAccess.getCash(username),
+                0,
+                0,
+                0
+        );
+    }
+
+    private TradingOutputData invalidInput(String username) {
+        return new TradingOutputData(
+                "Enter your symbol, action, and shares.",
+                false,
+                dataAccess.getCash(username),
+                0,
+                0,
+                0
+        );
+    }
 
-        presenter.presentTradeResult(new TradingOutputData(
+    private static TradingOutputData toOutput(OrderExecution result, double stockPrice) {
+        final Holding holding = result.getHoldingAfter();
+
+        if (!result.isExecuted()) {
+            final String message = result.getStatus() == OrderExecution.Status.INSUFFICIENT_CASH
+                    ? "Not enough cash."
+                    : "Not enough shares to sell.";
+            return new TradingOutputData(
+                    message,
+                    false,
+                    result.getCashAfter(),
+                    holding == null ? 0 : holding.getAvgCost(),
+                    holding == null ? 0 : holding.getShares(),
+                    holding == null ? 0 : holding.getTotalCost()
+            );
+        }
+
+        final int totalSharesAfterTrade = holding == null ? 0 : holding.getShares();
+        final double averageCostAfterTrade = holding == null ? 0 : holding.getAvgCost();
+        final double totalHoldingValueAfterTrade = totalSharesAfterTrade * stockPrice;
+
+        return new TradingOutputData(
                 "Order executed.",
                 true,
-                updatedCash,
+                result.getCashAfter(),
                 averageCostAfterTrade,
                 totalSharesAfterTrade,
                 totalHoldingValueAfterTrade
-        ));
+        );
     }
 }
@@ -1,6 +1,31 @@
 package usecase.trading;
 
+import java.util.List;
+
 public interface TradingOutputBoundary {
     void presentTradeResult(TradingOutputData output);
 
+    /**
+     * Presents the results of a batch, one per submitted order. By default
+     * each result is presented in turn.
+     */
+    default void presentTradeResults(List<TradingOutputData> outputs) {
+        for (TradingOutputData output : outputs) {
+            presentTradeResult(output);
+        }
+    }
+
+    /**
+     * Presents resting orders that a quote triggered, one result per order,
+     * each carrying the order owner's username. Called on the thread that
+     * runs the matching, not the one that placed the orders.
+     */
+    default void presentFills(List<TradingOutputData> fills) {
+    }
+
+    /**
+     * Presents one user's resting orders, oldest first.
+     */
+    default void presentOpenOrders(List<RestingOrder> orders) {
+    }
 }
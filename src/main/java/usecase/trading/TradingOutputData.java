@@ -1,8 +1,9 @@
 package usecase.trading;
 
 public class TradingOutputData {
+    private final String username;
     private final String message;
-    //private final boolean success;
+    private final boolean success;
     private final double cashAfterTrade;
     private final double averageCostAfterTrade;
     private final int totalSharesAfterTrade;
@@ -12,20 +13,36 @@ public class TradingOutputData {
         double cashAfterTrade, double averageCostAfterTrade,
         int totalSharesAfterTrade, double totalHoldingValueAfterTrade) {
 
+        this(null, message, success, cashAfterTrade, averageCostAfterTrade,
+                totalSharesAfterTrade, totalHoldingValueAfterTrade);
+    }
+
+    /**
+     * @param username whose account the result is for, e.g. the owner of a
+     *                 resting order that filled; null when it is the caller's
+     */
+    public TradingOutputData(String username, String message, boolean success,
+        double cashAfterTrade, double averageCostAfterTrade,
+        int totalSharesAfterTrade, double totalHoldingValueAfterTrade) {
+
+        this.username = username;
         this.message = message;
-        //this.success = success;
+        this.success = success;
         this.cashAfterTrade = cashAfterTrade;
         this.averageCostAfterTrade = averageCostAfterTrade;
         this.totalSharesAfterTrade = totalSharesAfterTrade;
         this.totalHoldingValueAfterTrade = totalHoldingValueAfterTrade;
     }
 
+    public String getUsername() {
+        return username;
+    }
     public String getMessage() {
         return message;
     }
-    //public boolean isSuccess() {
-    //    return success;
-    //}
+    public boolean isSuccess() {
+        return success;
+    }
     public double getCashAfterTrade() {
         return cashAfterTrade;
     }
@@ -1,11 +1,18 @@
 package usecase.trading;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
 public class TradingViewModel {
     private String message = "";
     private double cashAfterTrade = 0.0;
     private double averageCostAfterTrade = 0.0;
     private int totalSharesAfterTrade = 0;
     private double totalHoldingValueAfterTrade = 0.0;
+    private List<TradingOutputData> orderResults = List.of();
+    private List<RestingOrder> openOrders = List.of();
+    private final List<Consumer<List<TradingOutputData>>> fillListeners = new CopyOnWriteArrayList<>();
     
     public String getMessage() {
         return message;
@@ -42,5 +49,35 @@ public class TradingViewModel {
     public void setTotalHoldingValueAfterTrade(double totalHoldingValueAfterTrade) {
         this.totalHoldingValueAfterTrade = totalHoldingValueAfterTrade;
     }
+    //
+    public List<TradingOutputData> getOrderResults() {
+        return orderResults;
+    }
+    public void setOrderResults(List<TradingOutputData> orderResults) {
+        this.orderResults = orderResults;
+    }
+    //
+    public List<RestingOrder> getOpenOrders() {
+        return openOrders;
+    }
+    public void setOpenOrders(List<RestingOrder> openOrders) {
+        this.openOrders = openOrders;
+    }
+    //
+    /**
+     * Registers a listener for resting orders that fill later. Listeners
+     * run on the matching thread, so views must hop to their own.
+     */
+    public void addFillListener(Consumer<List<TradingOutputData>> listener) {
+        fillListeners.add(listener);
+    }
+    public void removeFillListener(Consumer<List<TradingOutputData>> listener) {
+        fillListeners.remove(listener);
+    }
+    public void fireFills(List<TradingOutputData> fills) {
+        for (Consumer<List<TradingOutputData>> listener : fillListeners) {
+            listener.accept(fills);
+        }
+    }
 
 }
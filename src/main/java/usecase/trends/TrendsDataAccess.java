@@ -1,6 +1,11 @@
 package usecase.trends;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import entity.Expense;
 
@@ -15,4 +20,32 @@ public interface TrendsDataAccess {
      * @return A list of Expense objects belonging to the user
      */
     List<Expense> getExpenses(String username);
+
+    /**
+     * Sums a user's expenses per day and type within a date range.
+     *
+     * <p>The default implementation loads every expense through
+     * {@link #getExpenses} and buckets them in memory; stores that can
+     * aggregate in the query should override it.
+     *
+     * @param username  the username whose expenses should be summed
+     * @param startDate first day to include
+     * @param endDate   last day to include
+     * @return totals indexed by date, then type, both in ascending order
+     */
+    default Map<LocalDate, Map<String, Double>> getDailyTotals(
+            String username, LocalDate startDate, LocalDate endDate) {
+        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+        final Map<LocalDate, Map<String, Double>> totals = new TreeMap<>();
+        for (Expense expense : getExpenses(username)) {
+            final LocalDate date = LocalDateTime.parse(expense.getDatetime(), formatter).toLocalDate();
+            if (username.equals(expense.getUsername())
+                    && !date.isBefore(startDate)
+                    && !date.isAfter(endDate)) {
+                totals.computeIfAbsent(date, d -> new TreeMap<>())
+                        .merge(expense.getType(), expense.getAmount(), Double::sum);
+            }
+        }
+        return totals;
+    }
 }
@@ -1,9 +1,14 @@
 package usecase.fetch_news;
 
 import data.news.NewsApiDao;
+import data.stock.ApiRateLimiter;
 import entity.News;
 import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
 import okhttp3.MediaType;
@@ -15,6 +20,7 @@ import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -194,6 +200,34 @@ public class FetchNewsInteractorTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    public void daoOnlyDrainsLimiterOnRateLimitReply() {
+        // A premium or other notice must not stall the key's other traffic.
+        ApiRateLimiter limiter = new ApiRateLimiter(5, 25, Duration.ZERO,
+                Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC));
+        NewsApiDao noticeDao = new NewsApiDao(clientReturning(
+                "{\"Information\": \"Just some standard API info.\", \"feed\": []}"), limiter);
+        noticeDao.fetchNews("general");
+        assertTrue(limiter.tryAcquire(ApiRateLimiter.Priority.BACKGROUND));
+
+        NewsApiDao limitedDao = new NewsApiDao(clientReturning(
+                "{\"Information\": \"Our standard API rate limit is 25 requests per day.\"}"), limiter);
+        limitedDao.fetchNews("general");
+        assertFalse(limiter.tryAcquire(ApiRateLimiter.Priority.BACKGROUND));
+    }
+
+    private static OkHttpClient clientReturning(String json) {
+        return new OkHttpClient.Builder()
+                .addInterceptor(chain -> new Response.Builder()
+                        .code(200)
+                        .message("OK")
+                        .request(chain.request())
+                        .protocol(Protocol.HTTP_1_1)
+                        .body(ResponseBody.create(json, MediaType.get("application/json")))
+                        .build())
+                .build();
+    }
+
     @Test
     public void daoMissingFeedTest() {
         // Purpose：cover the branch that if (feed != null) == false
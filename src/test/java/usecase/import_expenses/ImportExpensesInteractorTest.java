@@ -0,0 +1,184 @@
+package usecase.import_expenses;
+
+import data.database.DataSourceFactory;
+import data.database.RegisteredExpenseRepository;
+import data.database.TableInitializer;
+import data.expense.ExpenseRepository;
+import entity.Expense;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportExpensesInteractorTest {
+
+    private Path dir;
+    private FakeExpenseRepository fakeRepo;
+    private final List<long[]> progress = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory("import");
+        fakeRepo = new FakeExpenseRepository();
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        try (var files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    private Path write(String name, String content) throws Exception {
+        Path file = dir.resolve(name);
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private ImportExpensesOutputData run(ExpenseRepository repo, int chunkSize, Path file) {
+        return new ImportExpensesInteractor(repo, chunkSize).execute(
+                new ImportExpensesInputData("alice", file,
+                        ImportFormat.fromFileName(file.getFileName().toString()), "Other"),
+                (read, imported) -> progress.add(new long[] {read, imported}));
+    }
+
+    @Test
+    void csvRowsAreValidatedAndSavedInChunks() throws Exception {
+        Path file = write("expenses.csv", "Amount,Category,Date\n"
+                + "12.50,Food,2025-01-02 08:30\n"
+                + "\n"
+                + "\"1,200\",Rent,2025-01-03 09:00\n"          // not a number
+                + "7,\"Leisure \"\"misc\"\"\",2025-01-04 10:00\n"
+                + "3,,2025-01-05 11:00\n"                      // falls back to the default type
+                + "4,Food,2025/01/06\n"                         // bad date
+                + "5,Transport,2025-01-07 12:00\n");
+
+        ImportExpensesOutputData output = run(fakeRepo, 2, file);
+
+        assertTrue(output.isSuccess());
+        assertEquals(4, output.getImported());
+        assertEquals(2, output.getRejected());
+        assertEquals(List.of("Line 4: Please enter a valid number!",
+                "Line 7: Please enter date/time as yyyy-MM-dd HH:mm"), output.getRejections());
+        assertEquals(List.of(2, 2), fakeRepo.chunkSizes);
+        assertEquals("Leisure \"misc\"", fakeRepo.saved.get(1).getType());
+        assertEquals("Other", fakeRepo.saved.get(2).getType());
+        assertEquals("2025-01-07 12:00", fakeRepo.saved.get(3).getDatetime());
+        assertArrayEquals(new long[] {3, 2}, progress.get(0));
+        assertArrayEquals(new long[] {6, 4}, progress.get(progress.size() - 1));
+    }
+
+    @Test
+    void ofxDebitsBecomeExpenses() throws Exception {
+        Path file = write("statement.ofx", "OFXHEADER:100\nDATA:OFXSGML\n\n"
+                + "<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>\n"
+                + "<STMTTRN>\n<TRNTYPE>DEBIT\n<DTPOSTED>20250103123000[-5:EST]\n<TRNAMT>-42.10\n"
+                + "<NAME>Grocer\n</STMTTRN>\n"
+                + "<STMTTRN><TRNTYPE>CREDIT<DTPOSTED>20250104<TRNAMT>1000.00</STMTTRN>\n"
+                + "<STMTTRN><TRNTYPE>POS<DTPOSTED>20250105<TRNAMT>-3.5</STMTTRN>\n"
+                + "<STMTTRN><DTPOSTED>2025<TRNAMT>-1</STMTTRN>\n"
+                + "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>\n");
+
+        ImportExpensesOutputData output = run(fakeRepo, 100, file);
+
+        assertEquals(2, output.getImported());
+        assertEquals(List.of("Line 13: Please enter date/time as yyyy-MM-dd HH:mm"), output.getRejections());
+        assertEquals("2025-01-03 12:30", fakeRepo.saved.get(0).getDatetime());
+        assertEquals(42.10, fakeRepo.saved.get(0).getAmount(), 1e-9);
+        assertEquals("Other", fakeRepo.saved.get(0).getType());
+        assertEquals("2025-01-05 00:00", fakeRepo.saved.get(1).getDatetime());
+        assertEquals(3.5, fakeRepo.saved.get(1).getAmount(), 1e-9);
+    }
+
+    @Test
+    void repositoryFailureKeepsEarlierChunks() throws Exception {
+        Path file = write("expenses.csv", "2025-01-01 00:00,Food,1\n2025-01-01 00:01,Food,2\n"
+                + "2025-01-01 00:02,Food,3\n");
+        fakeRepo.failOnChunk = 2;
+
+        ImportExpensesOutputData output = run(fakeRepo, 1, file);
+
+        assertFalse(output.isSuccess());
+        assertEquals("Failed to import expenses!", output.getMessage());
+        assertEquals(1, output.getImported());
+    }
+
+    @Test
+    void largeCsvIsBatchedIntoTheDatabase() throws Exception {
+        Path dbFile = dir.resolve("import.db");
+        DataSource dataSource = DataSourceFactory.sqlite(dbFile.toString());
+        try {
+            TableInitializer.ensureSchema(dataSource);
+            RegisteredExpenseRepository repo = new RegisteredExpenseRepository(dataSource);
+            Path file = dir.resolve("year.csv");
+            int rows = 20_000;
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write("datetime,type,amount\n");
+                for (int i = 0; i < rows; i++) {
+                    writer.write(String.format("2025-%02d-%02d %02d:%02d,%s,1.25%n",
+                            i % 12 + 1, i % 28 + 1, i % 24, i % 60, i % 2 == 0 ? "Food" : "Transport"));
+                }
+            }
+
+            ImportExpensesOutputData output = run(repo, ImportExpensesInteractor.DEFAULT_CHUNK_SIZE, file);
+
+            assertTrue(output.isSuccess(), output.getMessage());
+            assertEquals(rows, output.getImported());
+            assertEquals(rows / ImportExpensesInteractor.DEFAULT_CHUNK_SIZE, progress.size() - 1);
+            assertEquals(rows * 1.25, repo.getTotalForUser("alice"), 1e-6);
+            repo.rebuildRollups();
+            assertEquals(rows * 1.25, repo.getTotalForUser("alice"), 1e-6,
+                    "batched rollup updates match a full rebuild");
+        }
+        finally {
+            ((Closeable) dataSource).close();
+            Files.deleteIfExists(dbFile);
+        }
+    }
+
+    /**
+     * Records each chunk passed to addAll.
+     */
+    private static class FakeExpenseRepository implements ExpenseRepository {
+        final List<Expense> saved = new ArrayList<>();
+        final List<Integer> chunkSizes = new ArrayList<>();
+        int failOnChunk = -1;
+
+        @Override
+        public void addAll(List<Expense> expenses) {
+            if (chunkSizes.size() + 1 == failOnChunk) {
+                throw new RuntimeException("addAll expense failed!");
+            }
+            chunkSizes.add(expenses.size());
+            saved.addAll(expenses);
+        }
+
+        @Override
+        public List<Expense> findByUsername(String username) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void add(String username, String datetime, String type, double amount) {
+            throw new UnsupportedOperationException("imports go through addAll");
+        }
+
+        @Override
+        public double getTotalForUser(String username) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
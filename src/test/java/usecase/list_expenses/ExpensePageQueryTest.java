@@ -0,0 +1,96 @@
+package usecase.list_expenses;
+
+import data.database.DataSourceFactory;
+import data.database.RegisteredExpenseRepository;
+import data.database.TableInitializer;
+import data.expense.ExpenseCursor;
+import data.expense.ExpensePage;
+import data.expense.ExpenseSortOrder;
+import entity.Expense;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpensePageQueryTest {
+
+    private Path dbFile;
+    private DataSource dataSource;
+    private RegisteredExpenseRepository repo;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dbFile = Files.createTempFile("expense-pages", ".db");
+        dataSource = DataSourceFactory.sqlite(dbFile.toString());
+        TableInitializer.ensureSchema(dataSource);
+        repo = new RegisteredExpenseRepository(dataSource);
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        ((Closeable) dataSource).close();
+        Files.deleteIfExists(dbFile);
+    }
+
+    private List<String> walk(ExpenseSortOrder order, int pageSize) {
+        List<String> seen = new ArrayList<>();
+        ExpenseCursor cursor = null;
+        do {
+            ExpensePage page = repo.findPage("alice", cursor, pageSize, order);
+            assertEquals(55.0, page.getTotal(), 1e-9, "every page carries the total");
+            assertTrue(page.getExpenses().size() <= pageSize);
+            for (Expense expense : page.getExpenses()) {
+                seen.add(expense.getDatetime() + "/" + expense.getAmount());
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return seen;
+    }
+
+    @Test
+    void keysetPagesCoverEveryExpenseOnceInOrder() {
+        // Two expenses share each minute, so the id has to break ties.
+        for (int i = 1; i <= 10; i++) {
+            repo.add("alice", String.format("2025-01-%02d 12:00", (i + 1) / 2), "Food", i);
+        }
+        repo.add("bob", "2025-01-03 12:00", "Food", 1000.0);
+
+        List<String> newest = walk(ExpenseSortOrder.NEWEST_FIRST, 3);
+        assertEquals(10, newest.size());
+        assertEquals("2025-01-05 12:00/10.0", newest.get(0));
+        assertEquals("2025-01-05 12:00/9.0", newest.get(1));
+        assertEquals("2025-01-01 12:00/1.0", newest.get(9));
+
+        List<String> oldest = walk(ExpenseSortOrder.OLDEST_FIRST, 4);
+        List<String> reversed = new ArrayList<>(newest);
+        Collections.reverse(reversed);
+        assertEquals(reversed, oldest);
+    }
+
+    @Test
+    void emptyPageStillReturnsTheTotal() {
+        repo.add("alice", "2025-01-01 12:00", "Food", 55.0);
+
+        ExpensePage first = repo.findPage("alice", null, 1, ExpenseSortOrder.NEWEST_FIRST);
+        assertEquals(1, first.getExpenses().size());
+        assertFalse(first.hasMore());
+
+        ExpensePage past = repo.findPage("alice", ExpenseCursor.after(first.getExpenses().get(0)), 1,
+                ExpenseSortOrder.NEWEST_FIRST);
+        assertTrue(past.getExpenses().isEmpty());
+        assertEquals(55.0, past.getTotal(), 1e-9);
+
+        ExpensePage none = repo.findPage("carol", null, 10, ExpenseSortOrder.NEWEST_FIRST);
+        assertTrue(none.getExpenses().isEmpty());
+        assertEquals(0.0, none.getTotal(), 1e-9);
+    }
+}
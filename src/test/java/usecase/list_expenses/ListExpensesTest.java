@@ -1,6 +1,7 @@
 package usecase.list_expenses;
 
 import data.expense.ExpenseRepository;
+import data.expense.ExpenseSortOrder;
 import entity.Expense;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -105,6 +106,38 @@ class ListExpensesInteractorTest {
                 "Interactor should propagate repository exceptions");
     }
 
+    /**
+     * Paged input walks the expenses newest first with a cursor, breaking
+     * datetime ties by id, and carries the total on every page.
+     */
+    @Test
+    void testListExpensesPagedWithCursor() {
+        String username = "alice";
+        fakeRepo.expensesForUser = List.of(
+                new Expense(1, username, "2025-11-29 09:00", "Food", 1.0),
+                new Expense(2, username, "2025-11-30 14:30", "Food", 2.0),
+                new Expense(3, username, "2025-11-30 14:30", "Leisure", 3.0),
+                new Expense(4, username, "2025-12-01 08:00", "Other", 4.0),
+                new Expense(5, username, "2025-11-28 18:00", "Transport", 5.0));
+        fakeRepo.totalForUser = 15.0;
+
+        ListExpensesOutputData first = interactor.execute(
+                new ListExpensesInputData(username, null, 2, ExpenseSortOrder.NEWEST_FIRST));
+        assertEquals(List.of(4L, 3L), first.getExpenses().stream().map(Expense::getId).toList());
+        assertEquals(15.0, first.getTotal(), 1e-6);
+        assertTrue(first.hasMore());
+
+        ListExpensesOutputData second = interactor.execute(
+                new ListExpensesInputData(username, first.getNextCursor(), 2, ExpenseSortOrder.NEWEST_FIRST));
+        assertEquals(List.of(2L, 1L), second.getExpenses().stream().map(Expense::getId).toList());
+
+        ListExpensesOutputData last = interactor.execute(
+                new ListExpensesInputData(username, second.getNextCursor(), 2, ExpenseSortOrder.NEWEST_FIRST));
+        assertEquals(List.of(5L), last.getExpenses().stream().map(Expense::getId).toList());
+        assertFalse(last.hasMore());
+        assertEquals(15.0, last.getTotal(), 1e-6);
+    }
+
     /**
      * Simple fake in-memory repository for testing.
      */
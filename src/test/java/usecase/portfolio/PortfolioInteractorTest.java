@@ -172,14 +172,79 @@ class PortfolioInteractorTest {
 
         List<PortfolioSnapshot> snaps = presenter.received.getSnapshots();
 
-        // BASE timeline yields 2 dates (1/1 and 1/2)
-        assertEquals(2, snaps.size());
+        // Unified timeline is the union of both histories (1/1 .. 1/4)
+        assertEquals(4, snaps.size());
 
         // For 2024-01-01: AAPL price = earliest price = 300
         assertEquals(300 * 10, snaps.get(0).getTotalValue());
 
         // For 2024-01-02: still earliest = 300
         assertEquals(300 * 10, snaps.get(1).getTotalValue());
+
+        // From 2024-01-03 AAPL's own prices apply
+        assertEquals(LocalDate.of(2024, 1, 4), snaps.get(3).getDate());
+        assertEquals(400 * 10, snaps.get(3).getTotalValue());
     }
-}
 
+    @Test
+    void testTimelineDoesNotDependOnHoldingOrder() {
+        FakePriceHistoryRepository phr = new FakePriceHistoryRepository();
+        phr.setHistory("AAPL", new ArrayList<>(List.of(
+                new PricePoint(LocalDate.of(2024, 1, 1), 100),
+                new PricePoint(LocalDate.of(2024, 1, 3), 120)
+        )));
+        phr.setHistory("MSFT", new ArrayList<>(List.of(
+                new PricePoint(LocalDate.of(2024, 1, 2), 200),
+                new PricePoint(LocalDate.of(2024, 1, 4), 220)
+        )));
+        Holding aapl = new Holding("AAPL", 1, 90);
+        Holding msft = new Holding("MSFT", 2, 150);
+
+        List<PortfolioSnapshot> forward = run(phr, List.of(aapl, msft));
+        List<PortfolioSnapshot> reversed = run(phr, List.of(msft, aapl));
+
+        assertEquals(4, forward.size());
+        assertEquals(forward.size(), reversed.size());
+        for (int i = 0; i < forward.size(); i++) {
+            assertEquals(forward.get(i).getDate(), reversed.get(i).getDate());
+            assertEquals(forward.get(i).getTotalValue(), reversed.get(i).getTotalValue());
+        }
+        // 2024-01-03: AAPL 120 + MSFT forward-filled 200 * 2
+        assertEquals(520, forward.get(2).getTotalValue());
+    }
+
+    private static List<PortfolioSnapshot> run(FakePriceHistoryRepository phr, List<Holding> holdings) {
+        FakePortfolioRepository pr = new FakePortfolioRepository();
+        pr.setHoldings(holdings);
+        FakePresenter presenter = new FakePresenter();
+        new PortfolioInteractor(pr, phr, presenter).execute(new PortfolioInputData("userA"));
+        return presenter.received.getSnapshots();
+    }
+
+    @Test
+    void testPartialResultWhenSomeHistoryMissing() {
+        FakePortfolioRepository pr = new FakePortfolioRepository();
+        FakePriceHistoryRepository phr = new FakePriceHistoryRepository();
+        FakePresenter presenter = new FakePresenter();
+
+        Holding missing = new Holding("GONE", 3, 10);
+        Holding h = new Holding("AAPL", 10, 100);
+        pr.setHoldings(List.of(missing, h));
+
+        phr.setHistory("AAPL", new ArrayList<>(List.of(
+                new PricePoint(LocalDate.of(2024, 1, 1), 120),
+                new PricePoint(LocalDate.of(2024, 1, 2), 130)
+        )));
+
+        new PortfolioInteractor(pr, phr, presenter).execute(new PortfolioInputData("userA"));
+
+        PortfolioOutputData out = presenter.received;
+        assertTrue(out.hasData());
+        assertEquals("Portfolio analysis completed without prices for: GONE", out.getMessage());
+        assertEquals(PriceHistoryStatus.MISSING, out.getSymbolStatuses().get("GONE"));
+        assertEquals(PriceHistoryStatus.LOADED, out.getSymbolStatuses().get("AAPL"));
+        assertEquals(2, out.getSnapshots().size());
+        assertEquals(1000, out.getSnapshots().get(0).getTotalCost());
+        assertEquals(1300, out.getSnapshots().get(1).getTotalValue());
+    }
+}
@@ -0,0 +1,88 @@
+package usecase.portfolio;
+
+import entity.Holding;
+import entity.PortfolioSnapshot;
+import entity.PriceSeries;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioValuationEngineTest {
+
+    private final PortfolioValuationEngine engine = new PortfolioValuationEngine();
+
+    private static PriceSeries series(long firstDay, int step, double... closes) {
+        PriceSeries.Builder b = new PriceSeries.Builder(closes.length);
+        for (int i = 0; i < closes.length; i++) {
+            b.add(firstDay + (long) i * step, closes[i], closes[i], closes[i], closes[i], 0);
+        }
+        return b.build();
+    }
+
+    @Test
+    void valuesEachHoldingAtLatestCloseOnOrBefore() {
+        long d0 = LocalDate.of(2024, 1, 1).toEpochDay();
+        Map<String, PriceSeries> histories = new HashMap<>();
+        histories.put("AAA", series(d0, 1, 10, 11, 12, 13));
+        histories.put("BBB", series(d0 + 1, 2, 100, 200));   // d1, d3
+        List<Holding> holdings = List.of(new Holding("AAA", 2, 5), new Holding("BBB", 1, 50));
+
+        int[] timeline = {(int) d0, (int) d0 + 1, (int) d0 + 2, (int) d0 + 3};
+        List<PortfolioSnapshot> snaps = engine.value(holdings, histories, timeline);
+
+        assertEquals(4, snaps.size());
+        assertEquals(60.0, snaps.get(0).getTotalCost(), 1e-9);
+        // d0: BBB not started yet -> earliest close
+        assertEquals(2 * 10 + 100, snaps.get(0).getTotalValue(), 1e-9);
+        assertEquals(2 * 11 + 100, snaps.get(1).getTotalValue(), 1e-9);
+        assertEquals(2 * 12 + 100, snaps.get(2).getTotalValue(), 1e-9);
+        assertEquals(2 * 13 + 200, snaps.get(3).getTotalValue(), 1e-9);
+    }
+
+    @Test
+    void matchesBinarySearchForLargePortfolio() {
+        Random random = new Random(42);
+        long start = LocalDate.of(2019, 1, 1).toEpochDay();
+        int days = 5 * 365;
+        List<Holding> holdings = new ArrayList<>();
+        Map<String, PriceSeries> histories = new HashMap<>();
+        for (int j = 0; j < 200; j++) {
+            String symbol = "S" + j;
+            holdings.add(new Holding(symbol, 1 + random.nextInt(50), random.nextDouble() * 100));
+            PriceSeries.Builder b = new PriceSeries.Builder(days);
+            for (int d = random.nextInt(30); d < days; d += 1 + random.nextInt(3)) {
+                double p = 1 + random.nextDouble() * 500;
+                b.add(start + d, p, p, p, p, 0);
+            }
+            histories.put(symbol, b.build());
+        }
+        int[] timeline = new int[days];
+        for (int d = 0; d < days; d++) {
+            timeline[d] = (int) start + d;
+        }
+
+        List<PortfolioSnapshot> snaps = engine.value(holdings, histories, timeline);
+
+        assertEquals(days, snaps.size());
+        for (int d = 0; d < days; d += 97) {
+            double expected = 0.0;
+            for (Holding h : holdings) {
+                PriceSeries s = histories.get(h.getSymbol());
+                expected += h.getShares() * s.closeAt(Math.max(s.indexOnOrBefore(timeline[d]), 0));
+            }
+            assertEquals(expected, snaps.get(d).getTotalValue(), 1e-6);
+        }
+    }
+
+    @Test
+    void rejectsDescendingTimeline() {
+        Map<String, PriceSeries> histories = Map.of("AAA", series(0, 1, 1, 2));
+        List<Holding> holdings = List.of(new Holding("AAA", 1, 1));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> engine.value(holdings, histories, new int[]{1, 0}));
+    }
+}
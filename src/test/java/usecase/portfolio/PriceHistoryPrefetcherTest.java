@@ -0,0 +1,97 @@
+package usecase.portfolio;
+
+import entity.PricePoint;
+import entity.PriceSeries;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceHistoryPrefetcherTest {
+
+    /** Slow repository that records the peak number of concurrent fetches. */
+    static class SlowRepository implements PriceHistoryRepository {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger peak = new AtomicInteger();
+        final int limit;
+
+        SlowRepository(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public List<PricePoint> getPriceHistory(String symbol) {
+            int now = inFlight.incrementAndGet();
+            peak.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            if (symbol.startsWith("BAD")) {
+                throw new IllegalStateException("boom");
+            }
+            if (symbol.startsWith("NONE")) {
+                return Collections.emptyList();
+            }
+            return List.of(new PricePoint(LocalDate.of(2024, 1, 1), symbol.length()));
+        }
+
+        @Override
+        public int maxConcurrentRequests() {
+            return limit;
+        }
+    }
+
+    @Test
+    void fetchesConcurrentlyWithinLimit() {
+        SlowRepository repo = new SlowRepository(3);
+        List<String> symbols = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            symbols.add("S" + i);
+        }
+
+        long start = System.nanoTime();
+        PriceHistoryPrefetcher.Result result = new PriceHistoryPrefetcher(repo).fetchAll(symbols);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(9, result.getHistories().size());
+        assertTrue(repo.peak.get() <= 3);
+        assertTrue(repo.peak.get() > 1);
+        assertTrue(elapsedMillis < 9 * 50, "expected overlap, took " + elapsedMillis + " ms");
+        assertEquals(symbols, new ArrayList<>(result.getStatuses().keySet()));
+    }
+
+    @Test
+    void reportsPerSymbolStatusWithoutAborting() {
+        SlowRepository repo = new SlowRepository(4);
+
+        PriceHistoryPrefetcher.Result result = new PriceHistoryPrefetcher(repo)
+                .fetchAll(List.of("AAPL", "BAD1", "NONE1", "MSFT"));
+
+        Map<String, PriceHistoryStatus> statuses = result.getStatuses();
+        assertEquals(PriceHistoryStatus.LOADED, statuses.get("AAPL"));
+        assertEquals(PriceHistoryStatus.FAILED, statuses.get("BAD1"));
+        assertEquals(PriceHistoryStatus.MISSING, statuses.get("NONE1"));
+        assertEquals(PriceHistoryStatus.LOADED, statuses.get("MSFT"));
+        assertEquals(Set.of("AAPL", "MSFT"), result.getHistories().keySet());
+        PriceSeries msft = result.getHistories().get("MSFT");
+        assertEquals(4.0, msft.closeAt(0), 0.001);
+    }
+
+    @Test
+    void singleSlotRunsSequentially() {
+        SlowRepository repo = new SlowRepository(1);
+
+        PriceHistoryPrefetcher.Result result =
+                new PriceHistoryPrefetcher(repo).fetchAll(List.of("A", "B", "A"));
+
+        assertEquals(1, repo.peak.get());
+        assertEquals(2, result.getStatuses().size());
+    }
+}
@@ -0,0 +1,78 @@
+package usecase.portfolio;
+
+import entity.PricePoint;
+import entity.PriceSeries;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceSeriesTest {
+
+    private static final LocalDate D1 = LocalDate.of(2024, 1, 1);
+    private static final LocalDate D2 = LocalDate.of(2024, 1, 3);
+    private static final LocalDate D3 = LocalDate.of(2024, 1, 5);
+
+    private final PriceSeries series = PriceSeries.fromPricePoints(List.of(
+            new PricePoint(D3, 30),
+            new PricePoint(D1, 10),
+            new PricePoint(D2, 20)
+    ));
+
+    @Test
+    void fromPricePointsSortsByDate() {
+        assertEquals(3, series.size());
+        assertEquals(D1, series.dateAt(0));
+        assertEquals(30.0, series.closeAt(2), 0.001);
+        assertEquals(10.0, series.openAt(0), 0.001);
+    }
+
+    @Test
+    void binarySearchLookups() {
+        assertEquals(1, series.indexOf(D2));
+        assertTrue(series.indexOf(D2.plusDays(1)) < 0);
+        assertEquals(-1, series.indexOnOrBefore(D1.minusDays(1)));
+        assertEquals(1, series.indexOnOrBefore(D2.plusDays(1)));
+        assertEquals(2, series.indexOnOrBefore(D3.plusDays(10)));
+        assertEquals(2, series.indexOnOrAfter(D2.plusDays(1)));
+        assertEquals(3, series.indexOnOrAfter(D3.plusDays(1)));
+    }
+
+    @Test
+    void slicesAreViewsWithRebasedIndexes() {
+        PriceSeries tail = series.sliceFrom(D2);
+
+        assertEquals(2, tail.size());
+        assertEquals(D2, tail.dateAt(0));
+        assertEquals(0, tail.indexOf(D2));
+        assertEquals(-1, tail.indexOnOrBefore(D1));
+        assertArrayEquals(new double[]{20, 30}, tail.closes(), 0.001);
+        assertThrows(IndexOutOfBoundsException.class, () -> tail.closeAt(2));
+        assertSame(series, series.sliceFrom(null));
+    }
+
+    @Test
+    void builderReplacesSameDateAndRejectsOutOfOrder() {
+        PriceSeries.Builder builder = new PriceSeries.Builder(1);
+        builder.add(D1.toEpochDay(), 1, 1, 1, 1, 0);
+        builder.add(D1.toEpochDay(), 2, 2, 2, 2, 0);
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.add(D1.minusDays(1).toEpochDay(), 0, 0, 0, 0, 0));
+
+        PriceSeries built = builder.build();
+        assertEquals(1, built.size());
+        assertEquals(2.0, built.closeAt(0), 0.001);
+    }
+
+    @Test
+    void convertsBackToPricePoints() {
+        List<PricePoint> points = series.sliceFrom(D2).toPricePoints();
+
+        assertEquals(2, points.size());
+        assertEquals(D2, points.get(0).getDate());
+        assertEquals(30.0, points.get(1).getPrice(), 0.001);
+        assertTrue(PriceSeries.empty().toPricePoints().isEmpty());
+    }
+}
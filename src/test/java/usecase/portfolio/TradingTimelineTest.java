@@ -0,0 +1,76 @@
+package usecase.portfolio;
+
+import entity.PricePoint;
+import entity.PriceSeries;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradingTimelineTest {
+
+    private static PriceSeries closes(Object... dateAndPrice) {
+        PriceSeries.Builder b = new PriceSeries.Builder(dateAndPrice.length / 2);
+        for (int i = 0; i < dateAndPrice.length; i += 2) {
+            double p = ((Number) dateAndPrice[i + 1]).doubleValue();
+            b.add(LocalDate.parse((String) dateAndPrice[i]).toEpochDay(), p, p, p, p, 0);
+        }
+        return b.build();
+    }
+
+    @Test
+    void unionMergesAndDeduplicatesDates() {
+        TradingTimeline timeline = TradingTimeline.union(List.of(
+                closes("2024-01-02", 1, "2024-01-04", 2),
+                closes("2024-01-01", 5, "2024-01-02", 6, "2024-01-05", 7)));
+
+        assertEquals(4, timeline.size());
+        assertEquals(LocalDate.of(2024, 1, 1), timeline.dateAt(0));
+        assertEquals(LocalDate.of(2024, 1, 5), timeline.dateAt(3));
+    }
+
+    @Test
+    void forwardFillUsesLatestCloseAndBackfillsStart() {
+        TradingTimeline timeline = TradingTimeline.union(List.of(
+                closes("2024-01-01", 0, "2024-01-02", 0, "2024-01-03", 0, "2024-01-04", 0)));
+
+        double[] aligned = timeline.forwardFill(closes("2024-01-02", 10, "2024-01-04", 20));
+
+        assertArrayEquals(new double[]{10, 10, 10, 20}, aligned, 1e-9);
+    }
+
+    @Test
+    void weeklyAndMonthlyKeepLastTradingDayOfPeriod() {
+        // Thu 2024-01-25 .. Tue 2024-02-06
+        PriceSeries days = PriceSeries.fromPricePoints(List.of(
+                new PricePoint(LocalDate.of(2024, 1, 25), 1),
+                new PricePoint(LocalDate.of(2024, 1, 26), 1),
+                new PricePoint(LocalDate.of(2024, 1, 29), 1),
+                new PricePoint(LocalDate.of(2024, 1, 31), 1),
+                new PricePoint(LocalDate.of(2024, 2, 2), 1),
+                new PricePoint(LocalDate.of(2024, 2, 5), 1),
+                new PricePoint(LocalDate.of(2024, 2, 6), 1)));
+        TradingTimeline daily = TradingTimeline.union(List.of(days));
+
+        TradingTimeline weekly = daily.resample(SnapshotFrequency.WEEKLY);
+        assertEquals(3, weekly.size());
+        assertEquals(LocalDate.of(2024, 1, 26), weekly.dateAt(0));
+        assertEquals(LocalDate.of(2024, 2, 2), weekly.dateAt(1));
+        assertEquals(LocalDate.of(2024, 2, 6), weekly.dateAt(2));
+
+        TradingTimeline monthly = daily.resample(SnapshotFrequency.MONTHLY);
+        assertEquals(2, monthly.size());
+        assertEquals(LocalDate.of(2024, 1, 31), monthly.dateAt(0));
+        assertEquals(LocalDate.of(2024, 2, 6), monthly.dateAt(1));
+
+        assertSame(daily, daily.resample(SnapshotFrequency.DAILY));
+    }
+
+    @Test
+    void explicitTimelineMustAscend() {
+        assertThrows(IllegalArgumentException.class, () -> TradingTimeline.of(new int[]{3, 3}));
+        assertEquals(2, TradingTimeline.of(new int[]{1, 2}).size());
+    }
+}
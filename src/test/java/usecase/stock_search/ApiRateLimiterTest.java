@@ -0,0 +1,80 @@
+package usecase.stock_search;
+
+import data.stock.ApiRateLimiter;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiRateLimiterTest {
+
+    /**
+     * Clock that only moves when the test advances it.
+     */
+    private static class ManualClock extends Clock {
+        private Instant now = Instant.parse("2025-01-15T10:00:00Z");
+
+        void advance(Duration d) { now = now.plus(d); }
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+
+    @Test
+    void minuteBucketLimitsBurstAndRefills() {
+        ManualClock clock = new ManualClock();
+        ApiRateLimiter limiter = new ApiRateLimiter(5, 25, Duration.ZERO, clock);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(ApiRateLimiter.Priority.INTERACTIVE));
+        }
+        assertFalse(limiter.tryAcquire(ApiRateLimiter.Priority.INTERACTIVE));
+        assertEquals(Duration.ofSeconds(12), limiter.estimateWait(ApiRateLimiter.Priority.INTERACTIVE));
+
+        clock.advance(Duration.ofSeconds(12));
+        assertTrue(limiter.tryAcquire(ApiRateLimiter.Priority.BACKGROUND));
+    }
+
+    @Test
+    void exhaustedDailyBudgetReportsWaitUntilReset() {
+        ManualClock clock = new ManualClock();
+        ApiRateLimiter limiter = new ApiRateLimiter(100, 2, Duration.ofSeconds(30), clock);
+
+        assertTrue(limiter.tryAcquire(ApiRateLimiter.Priority.INTERACTIVE));
+        assertTrue(limiter.tryAcquire(ApiRateLimiter.Priority.INTERACTIVE));
+        assertEquals(0, limiter.remainingToday());
+
+        ApiRateLimiter.RateLimitExceededException ex = assertThrows(
+                ApiRateLimiter.RateLimitExceededException.class,
+                () -> limiter.acquire(ApiRateLimiter.Priority.INTERACTIVE));
+        assertEquals(Duration.ofHours(14), ex.getEstimatedWait());
+
+        clock.advance(Duration.ofHours(14));
+        assertEquals(2, limiter.remainingToday());
+    }
+
+    @Test
+    void reportedLimitDrainsMinuteBucket() {
+        ManualClock clock = new ManualClock();
+        ApiRateLimiter limiter = new ApiRateLimiter(5, 25, Duration.ZERO, clock);
+
+        limiter.onLimitReported();
+
+        assertFalse(limiter.tryAcquire(ApiRateLimiter.Priority.INTERACTIVE));
+    }
+
+    @Test
+    void acquireWithinBudgetDoesNotBlock() throws Exception {
+        ApiRateLimiter limiter = new ApiRateLimiter(5, 25, Duration.ZERO, new ManualClock());
+
+        limiter.acquire(ApiRateLimiter.Priority.BACKGROUND);
+
+        assertEquals(24, limiter.remainingToday());
+    }
+}
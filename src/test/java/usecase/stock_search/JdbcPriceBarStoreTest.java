@@ -0,0 +1,102 @@
+package usecase.stock_search;
+
+import data.database.DataSourceFactory;
+import data.database.JdbcPriceBarStore;
+import data.database.TableInitializer;
+import entity.PriceSeries;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcPriceBarStoreTest {
+
+    private Path dbFile;
+    private DataSource dataSource;
+    private JdbcPriceBarStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dbFile = Files.createTempFile("bars", ".db");
+        dataSource = DataSourceFactory.sqlite(dbFile.toString());
+        TableInitializer.ensureSchema(dataSource);
+        store = new JdbcPriceBarStore(dataSource);
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        ((Closeable) dataSource).close();
+        Files.deleteIfExists(dbFile);
+    }
+
+    private static PriceSeries bars(String firstDate, double... closes) {
+        PriceSeries.Builder builder = new PriceSeries.Builder(closes.length);
+        long day = LocalDate.parse(firstDate).toEpochDay();
+        for (int i = 0; i < closes.length; i++) {
+            double close = closes[i];
+            builder.add(day + 7L * i, close - 1, close + 1, close - 2, close, 1000L);
+        }
+        return builder.build();
+    }
+
+    @Test
+    void emptyStoreHasNoState() {
+        assertNull(store.findLatestDate("AAPL", "TIME_SERIES_DAILY"));
+        assertNull(store.findLastFetched("AAPL", "TIME_SERIES_DAILY"));
+        assertTrue(store.findBars("AAPL", "TIME_SERIES_DAILY", null).isEmpty());
+    }
+
+    @Test
+    void savedBarsAreReturnedInDateOrderFromCutoff() {
+        Instant fetched = Instant.ofEpochMilli(1_700_000_000_000L);
+        store.saveBars("AAPL", "TIME_SERIES_DAILY", bars("2024-01-15", 12), fetched);
+        store.saveBars("AAPL", "TIME_SERIES_DAILY", bars("2024-01-01", 10, 11), fetched);
+
+        PriceSeries all = store.findBars("AAPL", "TIME_SERIES_DAILY", null);
+        assertEquals(3, all.size());
+        assertEquals(LocalDate.of(2024, 1, 1), all.dateAt(0));
+        assertEquals(9.0, all.openAt(0), 0.001);
+        assertEquals(1000L, all.volumeAt(0));
+        assertEquals(LocalDate.of(2024, 1, 15), all.dateAt(2));
+
+        PriceSeries recent =
+                store.findBars("AAPL", "TIME_SERIES_DAILY", LocalDate.of(2024, 1, 8));
+        assertEquals(2, recent.size());
+
+        assertEquals("2024-01-15", store.findLatestDate("AAPL", "TIME_SERIES_DAILY"));
+        assertEquals(fetched, store.findLastFetched("AAPL", "TIME_SERIES_DAILY"));
+        assertTrue(store.findBars("AAPL", "TIME_SERIES_WEEKLY", null).isEmpty());
+    }
+
+    @Test
+    void topUpReplacesLatestBarAndAppendsNewer() {
+        store.saveBars("MSFT", "TIME_SERIES_WEEKLY",
+                bars("2024-01-05", 100, 101), Instant.EPOCH);
+        store.saveBars("MSFT", "TIME_SERIES_WEEKLY",
+                bars("2024-01-12", 105, 110), Instant.EPOCH.plusSeconds(60));
+
+        PriceSeries stored = store.findBars("MSFT", "TIME_SERIES_WEEKLY", null);
+        assertEquals(3, stored.size());
+        assertEquals(105.0, stored.closeAt(1), 0.001);
+        assertEquals(Instant.EPOCH.plusSeconds(60), store.findLastFetched("MSFT", "TIME_SERIES_WEEKLY"));
+    }
+
+    @Test
+    void refusalSurvivesReopeningTheStore() {
+        assertNull(store.findRefusal("DAILY_FULL"));
+        Instant refused = Instant.ofEpochMilli(1_700_000_000_000L);
+        store.saveRefusal("DAILY_FULL", refused);
+
+        JdbcPriceBarStore reopened = new JdbcPriceBarStore(dataSource);
+        assertEquals(refused, reopened.findRefusal("DAILY_FULL"));
+        assertNull(reopened.findLastFetched("AAPL", "DAILY_FULL"));
+    }
+}
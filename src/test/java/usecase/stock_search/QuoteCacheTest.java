@@ -0,0 +1,121 @@
+package usecase.stock_search;
+
+import data.stock.AlphaVantage;
+import data.stock.ApiRateLimiter;
+import data.stock.QuoteCache;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuoteCacheTest {
+
+    private static AlphaVantage.StockQuote quote(String symbol, double price) {
+        return new AlphaVantage.StockQuote(symbol, price, 0.0, 0.0);
+    }
+
+    @Test
+    void freshEntryIsServedWithoutReloading() throws IOException {
+        QuoteCache cache = new QuoteCache(Duration.ofMinutes(1), Duration.ZERO, 10, Runnable::run);
+        AtomicInteger calls = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            AlphaVantage.StockQuote q = cache.get("aapl", (s, p) -> quote(s, 100.0 + calls.incrementAndGet()));
+            assertEquals(101.0, q.getPrice(), 0.001);
+        }
+
+        assertEquals(1, calls.get());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(4, cache.getHitCount());
+    }
+
+    @Test
+    void staleEntryIsServedAndRefreshedInBackground() throws IOException {
+        QuoteCache cache = new QuoteCache(Duration.ZERO, Duration.ofMinutes(1), 10, Runnable::run);
+        cache.put("MSFT", quote("MSFT", 50.0));
+
+        AlphaVantage.StockQuote served = cache.get("MSFT", (s, p) -> quote(s, 60.0));
+
+        assertEquals(50.0, served.getPrice(), 0.001);
+        assertEquals(1, cache.getStaleHitCount());
+        assertEquals(1, cache.getRefreshCount());
+        assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    void refreshLoadsAtBackgroundPriority() throws IOException {
+        QuoteCache cache = new QuoteCache(Duration.ZERO, Duration.ofMinutes(1), 10, Runnable::run);
+        List<ApiRateLimiter.Priority> priorities = new ArrayList<>();
+        cache.put("MSFT", quote("MSFT", 50.0));
+
+        cache.get("MSFT", (s, p) -> {
+            priorities.add(p);
+            return quote(s, 60.0);
+        });
+        cache.get("AAPL", (s, p) -> {
+            priorities.add(p);
+            return quote(s, 100.0);
+        });
+
+        assertEquals(List.of(ApiRateLimiter.Priority.BACKGROUND, ApiRateLimiter.Priority.INTERACTIVE),
+                priorities);
+    }
+
+    @Test
+    void failedRefreshKeepsStaleQuote() throws IOException {
+        QuoteCache cache = new QuoteCache(Duration.ZERO, Duration.ofMinutes(1), 10, Runnable::run);
+        cache.put("TSLA", quote("TSLA", 200.0));
+
+        AlphaVantage.StockQuote served = cache.get("TSLA", (s, p) -> {
+            throw new IOException("limit");
+        });
+
+        assertEquals(200.0, served.getPrice(), 0.001);
+        assertEquals(1, cache.getRefreshFailureCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() throws IOException {
+        QuoteCache cache = new QuoteCache(Duration.ofMinutes(1), Duration.ZERO, 2, Runnable::run);
+        cache.put("A", quote("A", 1.0));
+        cache.put("B", quote("B", 2.0));
+        cache.get("A", (s, p) -> quote(s, -1.0));
+        cache.put("C", quote("C", 3.0));
+
+        assertEquals(2, cache.size());
+        assertEquals(1.0, cache.get("A", (s, p) -> quote(s, -1.0)).getPrice(), 0.001);
+        assertEquals(-1.0, cache.get("B", (s, p) -> quote(s, -1.0)).getPrice(), 0.001);
+    }
+
+    @Test
+    void loadFailureOnMissPropagates() {
+        QuoteCache cache = new QuoteCache(Duration.ofMinutes(1), Duration.ZERO, 10, Runnable::run);
+
+        assertThrows(IOException.class, () -> cache.get("X", (s, p) -> {
+            throw new IOException("down");
+        }));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void listenersSeeEveryStoredQuote() throws IOException {
+        QuoteCache cache = new QuoteCache(Duration.ZERO, Duration.ZERO, 10, Runnable::run);
+        List<String> seen = new ArrayList<>();
+        cache.addListener((symbol, q) -> seen.add(symbol + "=" + q.getPrice()));
+        cache.addListener((symbol, q) -> {
+            throw new IllegalStateException("broken listener");
+        });
+
+        cache.put("aapl", quote("AAPL", 100.0));
+        cache.get("msft", (s, p) -> quote(s, 50.0));
+
+        assertEquals(List.of("AAPL=100.0", "MSFT=50.0"), seen);
+        assertEquals(2, cache.getListenerFailureCount());
+    }
+}
@@ -0,0 +1,74 @@
+package usecase.stock_search;
+
+import data.stock.SeriesResampler;
+import entity.PriceSeries;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeriesResamplerTest {
+
+    private static long day(String date) {
+        return LocalDate.parse(date).toEpochDay();
+    }
+
+    // Mon 2024-01-29 .. Tue 2024-02-06, spanning two weeks and two months
+    private final PriceSeries daily = new PriceSeries.Builder(7)
+            .add(day("2024-01-29"), 10, 12, 9, 11, 100)
+            .add(day("2024-01-30"), 11, 15, 10, 14, 100)
+            .add(day("2024-01-31"), 14, 14, 8, 9, 100)
+            .add(day("2024-02-01"), 9, 10, 7, 8, 100)
+            .add(day("2024-02-02"), 8, 9, 6, 7, 100)
+            .add(day("2024-02-05"), 7, 20, 7, 19, 50)
+            .add(day("2024-02-06"), 19, 21, 18, 20, 50)
+            .build();
+
+    @Test
+    void weeklyBarsRollUpOhlcvAndUseLastTradingDay() {
+        PriceSeries weekly = SeriesResampler.toWeekly(daily);
+
+        assertEquals(2, weekly.size());
+        assertEquals(LocalDate.of(2024, 2, 2), weekly.dateAt(0));
+        assertEquals(10.0, weekly.openAt(0), 0.001);
+        assertEquals(15.0, weekly.highAt(0), 0.001);
+        assertEquals(6.0, weekly.lowAt(0), 0.001);
+        assertEquals(7.0, weekly.closeAt(0), 0.001);
+        assertEquals(500L, weekly.volumeAt(0));
+        assertEquals(LocalDate.of(2024, 2, 6), weekly.dateAt(1));
+    }
+
+    @Test
+    void weekBoundaryFallsOnMonday() {
+        PriceSeries weekend = new PriceSeries.Builder(3)
+                .add(day("2024-02-03"), 1, 1, 1, 1, 1)   // Saturday
+                .add(day("2024-02-04"), 2, 2, 2, 2, 1)   // Sunday
+                .add(day("2024-02-05"), 3, 3, 3, 3, 1)   // Monday
+                .build();
+
+        PriceSeries weekly = SeriesResampler.toWeekly(weekend);
+
+        assertEquals(2, weekly.size());
+        assertEquals(LocalDate.of(2024, 2, 4), weekly.dateAt(0));
+    }
+
+    @Test
+    void monthlyBarsSplitOnCalendarMonth() {
+        PriceSeries monthly = SeriesResampler.toMonthly(daily);
+
+        assertEquals(2, monthly.size());
+        assertEquals(LocalDate.of(2024, 1, 31), monthly.dateAt(0));
+        assertEquals(9.0, monthly.closeAt(0), 0.001);
+        assertEquals(LocalDate.of(2024, 2, 6), monthly.dateAt(1));
+        assertEquals(9.0, monthly.openAt(1), 0.001);
+        assertEquals(21.0, monthly.highAt(1), 0.001);
+        assertEquals(6.0, monthly.lowAt(1), 0.001);
+    }
+
+    @Test
+    void emptyInputGivesEmptyOutput() {
+        assertTrue(SeriesResampler.toWeekly(PriceSeries.empty()).isEmpty());
+        assertTrue(SeriesResampler.toMonthly(PriceSeries.empty()).isEmpty());
+    }
+}
@@ -0,0 +1,118 @@
+package usecase.stock_search;
+
+import data.stock.SingleFlight;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+
+        try {
+            Future<Integer> leader = pool.submit(() -> flight.execute("AAPL", () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                return 42;
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            List<Future<Integer>> followers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                followers.add(pool.submit(() -> flight.execute("AAPL", () -> {
+                    executions.incrementAndGet();
+                    return -1;
+                })));
+            }
+            // give followers time to join the in-flight call
+            Thread.sleep(100);
+            release.countDown();
+
+            assertEquals(42, leader.get(5, TimeUnit.SECONDS));
+            for (Future<Integer> f : followers) {
+                assertEquals(42, f.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, executions.get());
+            assertEquals(0, flight.inFlightCount());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void completedKeyStartsNewExecution() throws IOException {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        AtomicInteger executions = new AtomicInteger();
+
+        flight.execute("k", executions::incrementAndGet);
+        flight.execute("k", executions::incrementAndGet);
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void failureIsPropagatedAndKeyReleased() {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+
+        assertThrows(IOException.class, () -> flight.execute("k", () -> {
+            throw new IOException("boom");
+        }));
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    void errorInLeaderReachesWaiters() throws Exception {
+        SingleFlight<String, Integer> flight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<Integer> leader = pool.submit(() -> flight.execute("k", () -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                throw new AssertionError("leader died");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<Integer> follower = pool.submit(() -> flight.execute("k", () -> -1));
+            Thread.sleep(100);
+            release.countDown();
+
+            ExecutionException leaderFailure =
+                    assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AssertionError.class, leaderFailure.getCause());
+            ExecutionException followerFailure =
+                    assertThrows(ExecutionException.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AssertionError.class, followerFailure.getCause());
+            assertEquals(0, flight.inFlightCount());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package usecase.stock_search;
+
+import data.stock.AlphaVantage;
+import data.stock.TimeSeriesParser;
+import entity.PriceSeries;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeSeriesParserTest {
+
+    private static final String DAILY_KEY = "Time Series (Daily)";
+
+    private static final String DAILY_BODY = "{"
+            + "\"Meta Data\": {\"1. Information\": \"Daily Prices\", \"2. Symbol\": \"IBM\"},"
+            + "\"Time Series (Daily)\": {"
+            + "  \"2024-01-04\": {\"1. open\": \"13.0\", \"2. high\": \"14.5\", \"3. low\": \"12.5\", \"4. close\": \"14.0\", \"5. volume\": \"300\"},"
+            + "  \"2024-01-03\": {\"1. open\": \"12.0\", \"2. high\": \"13.5\", \"3. low\": \"11.5\", \"4. close\": \"13.0\", \"5. volume\": \"200\"},"
+            + "  \"2024-01-02\": {\"1. open\": \"11.0\", \"2. high\": \"12.5\", \"3. low\": \"10.5\", \"4. close\": \"12.0\", \"5. volume\": \"100\"}"
+            + "}}";
+
+    @Test
+    void parsesNewestFirstBarsIntoAscendingOrder() throws IOException {
+        TimeSeriesParser.ParsedSeries parsed =
+                TimeSeriesParser.parse(new StringReader(DAILY_BODY), DAILY_KEY, null);
+
+        assertTrue(parsed.isSeriesFound());
+        assertEquals(3, parsed.size());
+        List<AlphaVantage.StockPriceData> bars = parsed.toPriceData();
+        assertEquals("2024-01-02", bars.get(0).getDate());
+        assertEquals(11.0, bars.get(0).getOpen(), 0.001);
+        assertEquals(12.5, bars.get(0).getHigh(), 0.001);
+        assertEquals(10.5, bars.get(0).getLow(), 0.001);
+        assertEquals(12.0, bars.get(0).getClose(), 0.001);
+        assertEquals(100L, bars.get(0).getVolume());
+        assertEquals("2024-01-04", bars.get(2).getDate());
+    }
+
+    @Test
+    void skipsBarsBeforeCutoffWhileParsing() throws IOException {
+        TimeSeriesParser.ParsedSeries parsed =
+                TimeSeriesParser.parse(new StringReader(DAILY_BODY), DAILY_KEY, "2024-01-03");
+
+        assertEquals(2, parsed.size());
+        assertEquals("2024-01-03", parsed.getDate(0));
+        assertEquals(14.0, parsed.getClose(1), 0.001);
+    }
+
+    @Test
+    void reportsRateLimitMessageWithoutSeries() throws IOException {
+        String body = "{\"Information\": \"Thank you for using Alpha Vantage! Our standard API rate limit is 25 requests per day.\"}";
+
+        TimeSeriesParser.ParsedSeries parsed =
+                TimeSeriesParser.parse(new StringReader(body), DAILY_KEY, null);
+
+        assertFalse(parsed.isSeriesFound());
+        assertNotNull(parsed.getInformation());
+        assertNull(parsed.getNote());
+        assertEquals(0, parsed.size());
+    }
+
+    @Test
+    void growsBeyondInitialCapacity() throws IOException {
+        StringBuilder body = new StringBuilder("{\"Time Series (Daily)\": {");
+        for (int i = 999; i >= 0; i--) {
+            body.append(String.format("\"2000-%04d\": {\"4. close\": \"%d\"}", i, i));
+            body.append(i > 0 ? "," : "");
+        }
+        body.append("}}");
+
+        TimeSeriesParser.ParsedSeries parsed =
+                TimeSeriesParser.parse(new StringReader(body.toString()), DAILY_KEY, null);
+
+        assertEquals(1000, parsed.size());
+        assertEquals(0.0, parsed.getClose(0), 0.001);
+        assertEquals(999.0, parsed.getClose(999), 0.001);
+    }
+
+    @Test
+    void convertsDailyBarsToPriceSeries() throws IOException {
+        String body = "{\"Time Series (Daily)\": {"
+                + "\"2024-01-03\": {\"1. open\": \"13\", \"2. high\": \"15\", \"3. low\": \"12\", \"4. close\": \"14\", \"5. volume\": \"300\"},"
+                + "\"2024-01-02\": {\"1. open\": \"11\", \"2. high\": \"13\", \"3. low\": \"10\", \"4. close\": \"12\", \"5. volume\": \"200\"}"
+                + "}}";
+
+        PriceSeries series = TimeSeriesParser.parse(new StringReader(body), DAILY_KEY, null)
+                .toPriceSeries();
+
+        assertEquals(2, series.size());
+        assertEquals(LocalDate.of(2024, 1, 2), series.dateAt(0));
+        assertEquals(11.0, series.openAt(0), 0.001);
+        assertEquals(14.0, series.closeAt(1), 0.001);
+        assertEquals(300L, series.volumeAt(1));
+    }
+
+    @Test
+    void malformedBodyFails() {
+        assertThrows(IOException.class, () ->
+                TimeSeriesParser.parse(new StringReader("[1, 2]"), DAILY_KEY, null));
+    }
+}
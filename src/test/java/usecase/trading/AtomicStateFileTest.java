@@ -0,0 +1,91 @@
+package usecase.trading;
+
+import data.trading.JsonTradingDataAccess;
+import entity.OrderRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomicStateFileTest {
+
+    private Path dir;
+    private Path stateFile;
+    private Path previousFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory("state-file");
+        stateFile = dir.resolve("orders.json");
+        previousFile = dir.resolve("orders.json.prev");
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        try (var files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    private void saveTwoGenerations() {
+        TradingDataAccessInterface dao = new JsonTradingDataAccess(stateFile);
+        dao.updateCash("u", 900.0);
+        dao.saveOrder(new OrderRecord(Instant.now(), "u", "AAPL", "BUY", 1, 100.0, 100.0));
+        dao.updateCash("u", 800.0);
+        dao.saveOrder(new OrderRecord(Instant.now(), "u", "AAPL", "BUY", 1, 100.0, 100.0));
+    }
+
+    @Test
+    void writeLeavesNoTempFileAndKeepsPreviousGeneration() throws Exception {
+        saveTwoGenerations();
+
+        assertFalse(Files.exists(dir.resolve("orders.json.tmp")));
+        assertTrue(Files.exists(previousFile));
+        assertEquals(800.0, new JsonTradingDataAccess(stateFile).getCash("u"), 0.001);
+    }
+
+    @Test
+    void truncatedStateFileFallsBackToPreviousGeneration() throws Exception {
+        saveTwoGenerations();
+        byte[] bytes = Files.readAllBytes(stateFile);
+        Files.write(stateFile, java.util.Arrays.copyOf(bytes, bytes.length / 2));
+
+        TradingDataAccessInterface recovered = new JsonTradingDataAccess(stateFile);
+
+        assertEquals(900.0, recovered.getCash("u"), 0.001);
+        assertEquals(1, recovered.findOrdersByUser("u").size());
+    }
+
+    @Test
+    void flippedByteFailsChecksum() throws Exception {
+        saveTwoGenerations();
+        String text = new String(Files.readAllBytes(stateFile), StandardCharsets.UTF_8);
+        Files.write(stateFile, text.replace("800.0", "805.0").getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(900.0, new JsonTradingDataAccess(stateFile).getCash("u"), 0.001);
+    }
+
+    @Test
+    void missingStateFileAfterCrashBetweenRenamesUsesPrevious() throws Exception {
+        saveTwoGenerations();
+        Files.delete(stateFile);
+
+        assertEquals(900.0, new JsonTradingDataAccess(stateFile).getCash("u"), 0.001);
+    }
+
+    @Test
+    void noGoodGenerationIsRefused() throws Exception {
+        Files.write(stateFile, "{\"userCash\":".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(RuntimeException.class, () -> new JsonTradingDataAccess(stateFile));
+    }
+}
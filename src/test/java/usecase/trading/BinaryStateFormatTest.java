@@ -0,0 +1,128 @@
+package usecase.trading;
+
+import data.trading.JsonTradingDataAccess;
+import data.trading.JsonTradingDataAccess.StateFormat;
+import entity.Holding;
+import entity.OrderRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryStateFormatTest {
+
+    private Path dir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory("binary-state");
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        try (var files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    private static final Instant T0 = Instant.parse("2024-05-01T13:30:00.123456789Z");
+
+    private static void fill(TradingDataAccessInterface dao) {
+        dao.updateCash("alice", 1234.5678);
+        dao.updateCash("bob", 0.1 + 0.2);
+        dao.updateHolding("alice", new Holding("AAPL", 3, 187.25));
+        dao.updateHolding("alice", new Holding("MSFT", 1, 410.0));
+        dao.updateHolding("bob", new Holding("AAPL", 70000, 1.0 / 3));
+        for (int i = 0; i < 20; i++) {
+            String user = i % 2 == 0 ? "alice" : "bob";
+            dao.saveOrder(new OrderRecord(T0.plusNanos(i * 1_001L).minusSeconds(86_400L * i),
+                    user, i % 3 == 0 ? "MSFT" : "AAPL", i % 4 == 0 ? "SELL" : "BUY",
+                    i + 1, 100.0 + i / 7.0, (i + 1) * (100.0 + i / 7.0)));
+        }
+    }
+
+    private static void assertSameState(TradingDataAccessInterface expected, TradingDataAccessInterface actual) {
+        for (String user : List.of("alice", "bob")) {
+            assertEquals(expected.getCash(user), actual.getCash(user));
+            List<Holding> holdings = expected.getUserHoldings(user);
+            assertEquals(holdings.size(), actual.getUserHoldings(user).size());
+            for (Holding h : holdings) {
+                Holding other = actual.getHolding(user, h.getSymbol());
+                assertEquals(h.getShares(), other.getShares());
+                assertEquals(h.getAvgCost(), other.getAvgCost());
+            }
+            List<OrderRecord> orders = expected.findOrdersByUser(user);
+            List<OrderRecord> others = actual.findOrdersByUser(user);
+            assertEquals(orders.size(), others.size());
+            for (int i = 0; i < orders.size(); i++) {
+                OrderRecord a = orders.get(i);
+                OrderRecord b = others.get(i);
+                assertEquals(a.getTimestamp(), b.getTimestamp());
+                assertEquals(a.getSymbol(), b.getSymbol());
+                assertEquals(a.getAction(), b.getAction());
+                assertEquals(a.getShares(), b.getShares());
+                assertEquals(a.getPrice(), b.getPrice());
+                assertEquals(a.getTotalAmount(), b.getTotalAmount());
+            }
+        }
+    }
+
+    @Test
+    void binaryStateIsSmallerThanJson() throws Exception {
+        Path jsonFile = dir.resolve("orders.json");
+        Path binaryFile = dir.resolve("orders.bin");
+        TradingDataAccessInterface json = new JsonTradingDataAccess(jsonFile);
+        fill(json);
+        JsonTradingDataAccess.convertStateFile(jsonFile, binaryFile, StateFormat.BINARY);
+
+        byte[] bytes = Files.readAllBytes(binaryFile);
+        assertEquals("TRDS", new String(bytes, 0, 4, StandardCharsets.US_ASCII));
+        assertTrue(bytes.length * 3 < Files.size(jsonFile),
+                "binary " + bytes.length + " vs json " + Files.size(jsonFile));
+
+        assertSameState(json, new JsonTradingDataAccess(binaryFile));
+    }
+
+    @Test
+    void convertsJsonToBinaryAndBackLosslessly() throws Exception {
+        Path jsonFile = dir.resolve("orders.json");
+        Path binaryFile = dir.resolve("orders.bin");
+        Path backFile = dir.resolve("back.json");
+        TradingDataAccessInterface original = new JsonTradingDataAccess(jsonFile);
+        fill(original);
+
+        JsonTradingDataAccess.convertStateFile(jsonFile, binaryFile, StateFormat.BINARY);
+        JsonTradingDataAccess.convertStateFile(binaryFile, backFile, StateFormat.JSON);
+
+        assertSameState(original, new JsonTradingDataAccess(binaryFile));
+        assertSameState(original, new JsonTradingDataAccess(backFile));
+        assertEquals(Files.readString(jsonFile), Files.readString(backFile));
+    }
+
+    @Test
+    void binaryFileIsReadAndSavedBackAsJson() throws Exception {
+        Path file = dir.resolve("orders.json");
+        fill(new JsonTradingDataAccess(file));
+        JsonTradingDataAccess.convertStateFile(file, file, StateFormat.BINARY);
+        assertEquals('T', Files.readAllBytes(file)[0]);
+
+        TradingDataAccessInterface dao = new JsonTradingDataAccess(file);
+        assertEquals(10, dao.findOrdersByUser("alice").size());
+        dao.saveOrder(new OrderRecord(T0, "carol", "NVDA", "BUY", 1, 900.0, 900.0));
+
+        assertEquals('{', Files.readAllBytes(file)[0]);
+        TradingDataAccessInterface reloaded = new JsonTradingDataAccess(file);
+        assertEquals(10, reloaded.findOrdersByUser("alice").size());
+        assertEquals(1, reloaded.findOrdersByUser("carol").size());
+    }
+}
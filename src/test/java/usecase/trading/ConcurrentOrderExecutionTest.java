@@ -0,0 +1,157 @@
+package usecase.trading;
+
+import data.database.DataSourceFactory;
+import data.database.JdbcTradingDataAccess;
+import data.database.TableInitializer;
+import data.trading.JsonTradingDataAccess;
+import data.trading.JsonTradingDataAccess.PersistenceMode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentOrderExecutionTest {
+
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 10;
+
+    private Path dir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory("concurrent-orders");
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        try (var files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    /**
+     * Every thread buys for the same user; the cash covers only half of the
+     * orders, so exactly that many may pass the check.
+     */
+    private static void assertSameUserOrdersAreLinearizable(TradingDataAccessInterface dao) throws Exception {
+        int affordable = THREADS * ORDERS_PER_THREAD / 2;
+        dao.updateCash("u", affordable * 10.0);
+
+        int executed = 0;
+        for (Future<Integer> f : runConcurrently(() -> {
+            int mine = 0;
+            for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                if (dao.executeOrder("u", "AAPL", TradingInputData.Action.BUY, 1, 10.0).isExecuted()) {
+                    mine++;
+                }
+            }
+            return mine;
+        })) {
+            executed += f.get(30, TimeUnit.SECONDS);
+        }
+
+        assertEquals(affordable, executed);
+        assertEquals(0.0, dao.getCash("u"), 0.001);
+        assertEquals(affordable, dao.getHolding("u", "AAPL").getShares());
+        assertEquals(affordable, dao.findOrdersByUser("u").size());
+    }
+
+    private static List<Future<Integer>> runConcurrently(Callable<Integer> task) throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        return results;
+    }
+
+    @Test
+    void jsonSnapshotModeDoesNotOverspend() throws Exception {
+        assertSameUserOrdersAreLinearizable(new JsonTradingDataAccess(dir.resolve("orders.json")));
+    }
+
+    @Test
+    void jsonJournalModeDoesNotOverspendAndReloads() throws Exception {
+        Path stateFile = dir.resolve("orders.json");
+        try (JsonTradingDataAccess dao = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL, 25)) {
+            assertSameUserOrdersAreLinearizable(dao);
+        }
+        try (JsonTradingDataAccess reloaded = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL)) {
+            assertEquals(0.0, reloaded.getCash("u"), 0.001);
+            assertEquals(THREADS * ORDERS_PER_THREAD / 2, reloaded.findOrdersByUser("u").size());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(PersistenceMode.class)
+    void jsonUsersTradeIndependently(PersistenceMode mode) throws Exception {
+        Path file = dir.resolve("orders.json");
+        try (JsonTradingDataAccess dao = new JsonTradingDataAccess(file, mode)) {
+            for (int t = 0; t < THREADS; t++) {
+                dao.updateCash("user" + t, ORDERS_PER_THREAD * 10.0);
+            }
+            AtomicInteger next = new AtomicInteger();
+            List<Future<Integer>> done = runConcurrently(() -> {
+                String user = "user" + next.getAndIncrement();
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    assertTrue(dao.executeOrder(user, "MSFT", TradingInputData.Action.BUY, 1, 10.0).isExecuted());
+                }
+                return 0;
+            });
+            for (Future<Integer> f : done) {
+                f.get(30, TimeUnit.SECONDS);
+            }
+            for (int t = 0; t < THREADS; t++) {
+                assertEquals(0.0, dao.getCash("user" + t), 0.001);
+                assertEquals(ORDERS_PER_THREAD, dao.getHolding("user" + t, "MSFT").getShares());
+            }
+        }
+        try (JsonTradingDataAccess reloaded = new JsonTradingDataAccess(file, mode)) {
+            for (int t = 0; t < THREADS; t++) {
+                assertEquals(0.0, reloaded.getCash("user" + t), 0.001);
+                assertEquals(ORDERS_PER_THREAD, reloaded.getHolding("user" + t, "MSFT").getShares());
+                assertEquals(ORDERS_PER_THREAD, reloaded.findOrdersByUser("user" + t).size());
+            }
+        }
+    }
+
+    @Test
+    void jdbcDoesNotOverspend() throws Exception {
+        Path dbFile = dir.resolve("trading.db");
+        DataSource dataSource = DataSourceFactory.sqlite(dbFile.toString());
+        try {
+            TableInitializer.ensureSchema(dataSource);
+            assertSameUserOrdersAreLinearizable(new JdbcTradingDataAccess(dataSource));
+        }
+        finally {
+            ((Closeable) dataSource).close();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package usecase.trading;
+
+import data.trading.JsonTradingDataAccess;
+import data.trading.JsonTradingDataAccess.PersistenceMode;
+import entity.Holding;
+import entity.OrderRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroupCommitTradingDataAccessTest {
+
+    private Path dir;
+    private Path stateFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory("group-commit");
+        stateFile = dir.resolve("orders.json");
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        try (var files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    private static OrderRecord order(String user, int n) {
+        return new OrderRecord(Instant.now(), user, "AAPL", "BUY", 1, n, n);
+    }
+
+    @Test
+    void asyncOrdersCompleteOnceDurable() throws Exception {
+        try (JsonTradingDataAccess dao = new JsonTradingDataAccess(
+                stateFile, PersistenceMode.JOURNAL, 1000, Duration.ofMillis(20))) {
+            List<CompletableFuture<Void>> acks = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                dao.updateCash("u", 1000 - i);
+                acks.add(dao.saveOrderAsync(order("u", i)));
+            }
+            CompletableFuture.allOf(acks.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+
+            // Everything acknowledged must be readable by a fresh instance.
+            try (JsonTradingDataAccess reloaded = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL)) {
+                assertEquals(50, reloaded.findOrdersByUser("u").size());
+                assertEquals(951.0, reloaded.getCash("u"), 0.001);
+            }
+        }
+    }
+
+    @Test
+    void concurrentTradersAreAllPersistedInSequence() throws Exception {
+        int traders = 8;
+        int ordersEach = 25;
+        ExecutorService pool = Executors.newFixedThreadPool(traders);
+        try (JsonTradingDataAccess dao = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL, 60)) {
+            List<Future<?>> done = new ArrayList<>();
+            for (int t = 0; t < traders; t++) {
+                String user = "trader" + t;
+                done.add(pool.submit(() -> {
+                    for (int i = 1; i <= ordersEach; i++) {
+                        dao.updateHolding(user, new Holding("AAPL", i, 1.0));
+                        dao.saveOrder(order(user, i));
+                    }
+                }));
+            }
+            for (Future<?> f : done) {
+                f.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        try (JsonTradingDataAccess reloaded = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL, 60)) {
+            for (int t = 0; t < traders; t++) {
+                assertEquals(ordersEach, reloaded.findOrdersByUser("trader" + t).size());
+                assertEquals(ordersEach, reloaded.getHolding("trader" + t, "AAPL").getShares());
+            }
+        }
+    }
+
+    @Test
+    void closedWriterRejectsNewOrders() throws Exception {
+        JsonTradingDataAccess dao = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL);
+        dao.close();
+
+        assertThrows(RuntimeException.class, () -> dao.saveOrder(order("u", 1)));
+    }
+}
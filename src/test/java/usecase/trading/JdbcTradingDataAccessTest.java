@@ -0,0 +1,213 @@
+package usecase.trading;
+
+import data.database.DataSourceFactory;
+import data.database.JdbcTradingDataAccess;
+import data.database.TableInitializer;
+import data.stock.AlphaVantage;
+import data.stock.ApiRateLimiter;
+import data.stock.QuoteCache;
+import data.trading.JsonTradingDataAccess;
+import entity.Holding;
+import entity.OrderRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcTradingDataAccessTest {
+
+    private Path dbFile;
+    private DataSource dataSource;
+    private JdbcTradingDataAccess dao;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dbFile = Files.createTempFile("trading", ".db");
+        dataSource = DataSourceFactory.sqlite(dbFile.toString());
+        TableInitializer.ensureSchema(dataSource);
+        dao = new JdbcTradingDataAccess(dataSource);
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        ((Closeable) dataSource).close();
+        Files.deleteIfExists(dbFile);
+    }
+
+    @Test
+    void cashAndHoldingsRoundTrip() {
+        assertEquals(0.0, dao.getCash("u"), 0.001);
+        assertNull(dao.getHolding("u", "AAPL"));
+
+        dao.updateCash("u", 500.0);
+        dao.updateHolding("u", new Holding("MSFT", 2, 50.0));
+        dao.updateHolding("u", new Holding("AAPL", 3, 10.0));
+        dao.updateHolding("u", new Holding("AAPL", 4, 12.0));
+
+        assertEquals(500.0, dao.getCash("u"), 0.001);
+        assertEquals(4, dao.getHolding("u", "AAPL").getShares());
+        assertEquals(List.of("AAPL", "MSFT"),
+                dao.getUserHoldings("u").stream().map(Holding::getSymbol).toList());
+
+        dao.removeHolding("u", "AAPL");
+        assertNull(dao.getHolding("u", "AAPL"));
+        assertTrue(dao.getUserHoldings("other").isEmpty());
+    }
+
+    @Test
+    void ordersAreReturnedPerUserInTimeOrder() {
+        Instant t0 = Instant.parse("2024-03-01T10:15:30.123456789Z");
+        dao.saveOrder(new OrderRecord(t0.plusSeconds(60), "u", "AAPL", "SELL", 1, 11.0, 11.0));
+        dao.saveOrder(new OrderRecord(t0, "u", "AAPL", "BUY", 2, 10.0, 20.0));
+        dao.saveOrder(new OrderRecord(t0, "v", "MSFT", "BUY", 1, 5.0, 5.0));
+
+        List<OrderRecord> orders = dao.findOrdersByUser("u");
+
+        assertEquals(2, orders.size());
+        assertEquals(t0, orders.get(0).getTimestamp());
+        assertEquals("BUY", orders.get(0).getAction());
+        assertEquals(20.0, orders.get(0).getTotalAmount(), 0.001);
+        assertEquals("SELL", orders.get(1).getAction());
+    }
+
+    @Test
+    void executeOrderUpdatesEverythingOrNothing() {
+        dao.updateCash("u", 100.0);
+
+        assertTrue(dao.executeOrder("u", "AAPL", TradingInputData.Action.BUY, 4, 20.0).isExecuted());
+        assertEquals(20.0, dao.getCash("u"), 0.001);
+        assertEquals(4, dao.getHolding("u", "AAPL").getShares());
+
+        // Not enough cash: nothing changes.
+        OrderExecution rejected = dao.executeOrder("u", "AAPL", TradingInputData.Action.BUY, 2, 20.0);
+        assertEquals(OrderExecution.Status.INSUFFICIENT_CASH, rejected.getStatus());
+        assertEquals(20.0, dao.getCash("u"), 0.001);
+        assertEquals(1, dao.findOrdersByUser("u").size());
+
+        OrderExecution sold = dao.executeOrder("u", "AAPL", TradingInputData.Action.SELL, 4, 25.0);
+        assertTrue(sold.isExecuted());
+        assertNull(sold.getHoldingAfter());
+        assertEquals(120.0, dao.getCash("u"), 0.001);
+        assertNull(dao.getHolding("u", "AAPL"));
+        assertEquals(OrderExecution.Status.INSUFFICIENT_SHARES,
+                dao.executeOrder("u", "AAPL", TradingInputData.Action.SELL, 1, 25.0).getStatus());
+        assertEquals(2, dao.findOrdersByUser("u").size());
+    }
+
+    @Test
+    void executeOrdersCommitsBatchAgainstRunningBalance() {
+        dao.updateCash("u", 100.0);
+        dao.updateHolding("u", new Holding("MSFT", 1, 20.0));
+
+        List<OrderExecution> results = dao.executeOrders("u", List.of(
+                new TradingInputData("u", "AAPL", TradingInputData.Action.BUY, 8),
+                new TradingInputData("u", "AAPL", TradingInputData.Action.BUY, 3),
+                new TradingInputData("u", "MSFT", TradingInputData.Action.SELL, 1),
+                new TradingInputData("u", "AAPL", TradingInputData.Action.BUY, 3)),
+                Map.of("AAPL", 10.0, "MSFT", 25.0));
+
+        assertEquals(List.of(OrderExecution.Status.EXECUTED, OrderExecution.Status.INSUFFICIENT_CASH,
+                        OrderExecution.Status.EXECUTED, OrderExecution.Status.EXECUTED),
+                results.stream().map(OrderExecution::getStatus).toList());
+        assertEquals(15.0, dao.getCash("u"), 0.001);
+        assertEquals(11, dao.getHolding("u", "AAPL").getShares());
+        assertNull(dao.getHolding("u", "MSFT"));
+        assertEquals(3, dao.findOrdersByUser("u").size());
+    }
+
+    @Test
+    void importsExistingJsonStateOnce() throws Exception {
+        Path jsonFile = Files.createTempFile("orders", ".json");
+        try {
+            JsonTradingDataAccess json = new JsonTradingDataAccess(jsonFile);
+            json.updateCash("u", 800.0);
+            json.updateHolding("u", new Holding("AAPL", 2, 100.0));
+            json.saveOrder(new OrderRecord(Instant.now(), "u", "AAPL", "BUY", 2, 100.0, 200.0));
+            json.saveOrder(new OrderRecord(Instant.now(), "v", "MSFT", "BUY", 1, 50.0, 50.0));
+
+            assertFalse(dao.hasTradingData());
+            assertEquals(2, dao.importFrom(json));
+            assertTrue(dao.hasTradingData());
+            assertEquals(0, dao.importFrom(json), "second import is a no-op");
+
+            assertEquals(800.0, dao.getCash("u"), 0.001);
+            assertEquals(2, dao.getHolding("u", "AAPL").getShares());
+            assertEquals(1, dao.findOrdersByUser("u").size());
+            assertEquals(1, dao.findOrdersByUser("v").size());
+        }
+        finally {
+            Files.deleteIfExists(jsonFile);
+            Files.deleteIfExists(jsonFile.resolveSibling(jsonFile.getFileName() + ".prev"));
+            Files.deleteIfExists(jsonFile.resolveSibling(jsonFile.getFileName() + ".orders.000000"));
+        }
+    }
+
+    @Test
+    void ordersArePagedNewestFirstWithinRange() {
+        Instant t0 = Instant.parse("2024-01-01T00:00:00Z");
+        for (int i = 0; i < 5; i++) {
+            dao.saveOrder(new OrderRecord(t0.plusSeconds(60L * i), "u", "AAPL", "BUY", i + 1, 10.0, 10.0));
+        }
+        // Same instant as the newest order: the cursor must still separate them.
+        dao.saveOrder(new OrderRecord(t0.plusSeconds(240), "u", "MSFT", "BUY", 9, 10.0, 10.0));
+        dao.saveOrder(new OrderRecord(t0.plusSeconds(120), "other", "AAPL", "BUY", 1, 10.0, 10.0));
+
+        OrderPage first = dao.findOrders("u", null, null, 2, null);
+        assertEquals(List.of(9, 5), first.getOrders().stream().map(OrderRecord::getShares).toList());
+        assertTrue(first.hasMore());
+
+        OrderPage second = dao.findOrders("u", null, null, 2, first.getNextCursor());
+        assertEquals(List.of(4, 3), second.getOrders().stream().map(OrderRecord::getShares).toList());
+
+        OrderPage last = dao.findOrders("u", null, null, 2, second.getNextCursor());
+        assertEquals(List.of(2, 1), last.getOrders().stream().map(OrderRecord::getShares).toList());
+        assertFalse(last.hasMore());
+
+        // [t0 + 1 min, t0 + 4 min) holds orders 2, 3 and 4
+        OrderPage range = dao.findOrders("u", t0.plusSeconds(60), t0.plusSeconds(240), 10, null);
+        assertEquals(List.of(4, 3, 2), range.getOrders().stream().map(OrderRecord::getShares).toList());
+        assertFalse(range.hasMore());
+
+        assertTrue(dao.findOrders("nobody", null, null, 5, null).getOrders().isEmpty());
+    }
+
+    @Test
+    void batchRejectsOnlyOrdersWhoseQuoteIsRateLimited() {
+        QuoteCache quotes = new QuoteCache(Duration.ofMinutes(5), Duration.ZERO, 16, Runnable::run);
+        quotes.put("AAPL", new AlphaVantage.StockQuote("AAPL", 10.0, 0, 0));
+        quotes.put("MSFT", new AlphaVantage.StockQuote("MSFT", 20.0, 0, 0));
+        ApiRateLimiter limiter = new ApiRateLimiter(5, 1, Duration.ZERO, Clock.systemUTC());
+        assertTrue(limiter.tryAcquire(ApiRateLimiter.Priority.INTERACTIVE));   // spends the day's budget
+        JdbcTradingDataAccess quoted = new JdbcTradingDataAccess(dataSource,
+                new AlphaVantage(quotes, limiter, null));
+
+        assertEquals(Map.of("AAPL", 10.0, "MSFT", 20.0),
+                quoted.getStockPrices(List.of("AAPL", "TSLA", "MSFT", "AAPL")));
+
+        quoted.updateCash("u", 100.0);
+        TradingInteractorTest.SpyPresenter presenter = new TradingInteractorTest.SpyPresenter();
+        new TradingInteractor(quoted, presenter).placeOrders(List.of(
+                new TradingInputData("u", "AAPL", TradingInputData.Action.BUY, 2),
+                new TradingInputData("u", "TSLA", TradingInputData.Action.BUY, 1),
+                new TradingInputData("u", "MSFT", TradingInputData.Action.BUY, 1)));
+
+        List<TradingOutputData> results = presenter.batch;
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("Could not get a price for TSLA; order not placed.", results.get(1).getMessage());
+        assertTrue(results.get(2).isSuccess());
+        assertEquals(60.0, quoted.getCash("u"), 0.001);
+        assertEquals(2, quoted.findOrdersByUser("u").size());
+    }
+}
@@ -0,0 +1,205 @@
+package usecase.trading;
+
+import data.trading.JsonTradingDataAccess;
+import data.trading.JsonTradingDataAccess.PersistenceMode;
+import entity.Holding;
+import entity.OrderRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournaledTradingDataAccessTest {
+
+    private Path dir;
+    private Path stateFile;
+    private Path journalFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory("trading");
+        stateFile = dir.resolve("orders.json");
+        journalFile = dir.resolve("orders.json.journal");
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        try (var files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    private static void buy(TradingDataAccessInterface dao, String user, String symbol,
+                            int shares, double price, double cashAfter, int sharesAfter) {
+        dao.updateCash(user, cashAfter);
+        dao.updateHolding(user, new Holding(symbol, sharesAfter, price));
+        dao.saveOrder(new OrderRecord(Instant.now(), user, symbol, "BUY", shares, price, shares * price));
+    }
+
+    @Test
+    void ordersAreAppendedWithoutRewritingState() throws Exception {
+        TradingDataAccessInterface dao = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL);
+
+        buy(dao, "u", "AAPL", 2, 100.0, 800.0, 2);
+        buy(dao, "u", "AAPL", 1, 100.0, 700.0, 3);
+
+        assertFalse(Files.exists(stateFile), "no snapshot before the interval");
+        assertEquals(6, Files.readAllLines(journalFile).size());
+
+        TradingDataAccessInterface reloaded = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL);
+        assertEquals(700.0, reloaded.getCash("u"), 0.001);
+        assertEquals(3, reloaded.getHolding("u", "AAPL").getShares());
+        assertEquals(2, reloaded.findOrdersByUser("u").size());
+    }
+
+    @Test
+    void snapshotCompactsJournalAndReplaysTail() throws Exception {
+        try (JsonTradingDataAccess first = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL, 5)) {
+            buy(first, "u", "MSFT", 1, 10.0, 90.0, 1);   // 3 records
+            buy(first, "u", "MSFT", 1, 10.0, 80.0, 2);   // 6 records -> snapshot
+        }
+        // close() drains the writer, including the snapshot checkpoint
+        assertTrue(Files.exists(stateFile));
+        assertEquals(0, Files.size(journalFile));
+
+        try (JsonTradingDataAccess dao = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL, 5)) {
+            buy(dao, "u", "MSFT", 1, 10.0, 70.0, 3);   // tail in the journal
+            dao.removeHolding("u", "MSFT");
+            dao.updateCash("u", 100.0);
+            dao.saveOrder(new OrderRecord(Instant.now(), "u", "MSFT", "SELL", 3, 10.0, 30.0));
+        }
+
+        TradingDataAccessInterface reloaded = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL, 5);
+        assertEquals(100.0, reloaded.getCash("u"), 0.001);
+        assertNull(reloaded.getHolding("u", "MSFT"));
+        List<OrderRecord> orders = reloaded.findOrdersByUser("u");
+        assertEquals(4, orders.size());
+        assertEquals("SELL", orders.get(3).getAction());
+    }
+
+    @Test
+    void tornTailIsIgnoredAndLaterAppendsStayReadable() throws Exception {
+        TradingDataAccessInterface dao = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL);
+        buy(dao, "u", "TSLA", 2, 50.0, 900.0, 2);
+
+        // Simulate a crash in the middle of the next append.
+        Files.write(journalFile, "{\"seq\":4,\"type\":\"ca".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        TradingDataAccessInterface recovered = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL);
+        assertEquals(900.0, recovered.getCash("u"), 0.001);
+        buy(recovered, "u", "TSLA", 1, 50.0, 850.0, 3);
+
+        TradingDataAccessInterface reloaded = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL);
+        assertEquals(850.0, reloaded.getCash("u"), 0.001);
+        assertEquals(3, reloaded.getHolding("u", "TSLA").getShares());
+        assertEquals(2, reloaded.findOrdersByUser("u").size());
+    }
+
+    @Test
+    void standaloneMutationsAreDurableWithoutAnOrder() throws Exception {
+        TradingDataAccessInterface dao = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL);
+        dao.updateCash("u", 250.0);
+        dao.updateHolding("u", new Holding("AAPL", 4, 10.0));
+        dao.updateHolding("u", new Holding("MSFT", 1, 20.0));
+        dao.removeHolding("u", "MSFT");
+
+        // no order, no close: every change is already in the journal
+        assertEquals(4, Files.readAllLines(journalFile).size());
+
+        TradingDataAccessInterface reloaded = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL);
+        assertEquals(250.0, reloaded.getCash("u"), 0.001);
+        assertEquals(4, reloaded.getHolding("u", "AAPL").getShares());
+        assertNull(reloaded.getHolding("u", "MSFT"));
+    }
+
+    @Test
+    void damagedSnapshotIsRefusedWhenJournalWasTruncatedPastTheBackup() throws Exception {
+        try (JsonTradingDataAccess dao = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL, 3)) {
+            buy(dao, "u", "MSFT", 1, 10.0, 90.0, 1);   // snapshot at seq 3
+            buy(dao, "u", "MSFT", 1, 10.0, 80.0, 2);   // snapshot at seq 6, journal truncated
+            buy(dao, "u", "MSFT", 1, 10.0, 70.0, 3);   // snapshot at seq 9, journal truncated
+        }
+        byte[] bytes = Files.readAllBytes(stateFile);
+        Files.write(stateFile, java.util.Arrays.copyOf(bytes, bytes.length / 2));
+
+        // The backup stops at seq 6 and the records up to 9 are gone from the journal.
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL, 3));
+        assertTrue(e.getMessage().contains("damaged"), e.getMessage());
+    }
+
+    @Test
+    void existingSnapshotFileIsReadInJournalMode() {
+        TradingDataAccessInterface legacy = new JsonTradingDataAccess(stateFile);
+        buy(legacy, "u", "AAPL", 1, 100.0, 900.0, 1);
+
+        TradingDataAccessInterface journaled = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL);
+        assertEquals(900.0, journaled.getCash("u"), 0.001);
+        buy(journaled, "u", "AAPL", 1, 100.0, 800.0, 2);
+
+        TradingDataAccessInterface reloaded = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL);
+        assertEquals(800.0, reloaded.getCash("u"), 0.001);
+        assertEquals(2, reloaded.findOrdersByUser("u").size());
+    }
+
+    @Test
+    void orderBatchIsJournaledTogether() throws Exception {
+        try (JsonTradingDataAccess dao = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL)) {
+            dao.updateCash("u", 100.0);
+            List<OrderExecution> results = dao.executeOrders("u", List.of(
+                    new TradingInputData("u", "AAPL", TradingInputData.Action.BUY, 5),
+                    new TradingInputData("u", "AAPL", TradingInputData.Action.BUY, 6),
+                    new TradingInputData("u", "AAPL", TradingInputData.Action.SELL, 2)),
+                    Map.of("AAPL", 10.0));
+            assertFalse(results.get(1).isExecuted());
+        }
+        // cash and holding written once each, then the two executed orders
+        assertEquals(5, Files.readAllLines(journalFile).size());
+
+        TradingDataAccessInterface reloaded = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL);
+        assertEquals(70.0, reloaded.getCash("u"), 0.001);
+        assertEquals(3, reloaded.getHolding("u", "AAPL").getShares());
+        assertEquals(2, reloaded.findOrdersByUser("u").size());
+    }
+
+    @Test
+    void failedJournalAppendStopsWritesUntilReopened() throws Exception {
+        try (JsonTradingDataAccess dao = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL)) {
+            dao.updateCash("u", 100.0);
+        }
+        Path saved = dir.resolve("saved.journal");
+        try (JsonTradingDataAccess dao = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL)) {
+            // A directory where the journal should be makes the next append fail.
+            Files.move(journalFile, saved);
+            Files.createDirectory(journalFile);
+            assertThrows(RuntimeException.class, () -> dao.updateCash("u", 50.0));
+
+            Files.delete(journalFile);
+            Files.move(saved, journalFile);
+            assertThrows(RuntimeException.class, () -> dao.updateCash("u", 25.0));
+            assertThrows(RuntimeException.class, () ->
+                    dao.executeOrder("u", "AAPL", TradingInputData.Action.BUY, 1, 10.0));
+        }
+
+        try (JsonTradingDataAccess reloaded = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL)) {
+            assertEquals(100.0, reloaded.getCash("u"), 0.001);
+            reloaded.updateCash("u", 75.0);
+        }
+        try (JsonTradingDataAccess reloaded = new JsonTradingDataAccess(stateFile, PersistenceMode.JOURNAL)) {
+            assertEquals(75.0, reloaded.getCash("u"), 0.001);
+        }
+    }
+}
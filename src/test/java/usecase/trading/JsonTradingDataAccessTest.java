@@ -25,8 +25,10 @@ class JsonTradingDataAccessTest {
 
     @AfterEach
     void cleanup() throws Exception {
-        if (tempFile != null && Files.exists(tempFile)) {
+        if (tempFile != null) {
             Files.deleteIfExists(tempFile);
+            Files.deleteIfExists(tempFile.resolveSibling(tempFile.getFileName() + ".prev"));
+            Files.deleteIfExists(tempFile.resolveSibling(tempFile.getFileName() + ".orders.000000"));
         }
     }
 
@@ -139,4 +141,49 @@ class JsonTradingDataAccessTest {
         assertEquals(2, tsla.getShares());
         assertEquals(900.0, dao2.getCash("u"), 0.001);
     }
+
+    @Test
+    void ordersArePagedNewestFirstWithinRange() {
+        TradingDataAccessInterface dao = new JsonTradingDataAccess(tempFile);
+        Instant t0 = Instant.parse("2024-01-01T00:00:00Z");
+        for (int i = 0; i < 5; i++) {
+            dao.saveOrder(new OrderRecord(t0.plusSeconds(60L * i), "u", "AAPL", "BUY", i + 1, 10.0, 10.0));
+        }
+        // Same instant as the newest order: the cursor must still separate them.
+        dao.saveOrder(new OrderRecord(t0.plusSeconds(240), "u", "MSFT", "BUY", 9, 10.0, 10.0));
+        dao.saveOrder(new OrderRecord(t0.plusSeconds(120), "other", "AAPL", "BUY", 1, 10.0, 10.0));
+
+        OrderPage first = dao.findOrders("u", null, null, 2, null);
+        assertEquals(List.of(9, 5), first.getOrders().stream().map(OrderRecord::getShares).toList());
+        assertTrue(first.hasMore());
+
+        OrderPage second = dao.findOrders("u", null, null, 2, first.getNextCursor());
+        assertEquals(List.of(4, 3), second.getOrders().stream().map(OrderRecord::getShares).toList());
+
+        OrderPage last = dao.findOrders("u", null, null, 2, second.getNextCursor());
+        assertEquals(List.of(2, 1), last.getOrders().stream().map(OrderRecord::getShares).toList());
+        assertFalse(last.hasMore());
+
+        // [t0 + 1 min, t0 + 4 min) holds orders 2, 3 and 4
+        OrderPage range = dao.findOrders("u", t0.plusSeconds(60), t0.plusSeconds(240), 10, null);
+        assertEquals(List.of(4, 3, 2), range.getOrders().stream().map(OrderRecord::getShares).toList());
+        assertFalse(range.hasMore());
+
+        assertTrue(dao.findOrders("nobody", null, null, 5, null).getOrders().isEmpty());
+    }
+
+    @Test
+    void lateOrderIsIndexedInTimeOrder() {
+        TradingDataAccessInterface dao = new JsonTradingDataAccess(tempFile);
+        Instant t0 = Instant.parse("2024-01-01T00:00:00Z");
+        dao.saveOrder(new OrderRecord(t0.plusSeconds(20), "u", "AAPL", "BUY", 3, 10.0, 10.0));
+        dao.saveOrder(new OrderRecord(t0, "u", "AAPL", "BUY", 1, 10.0, 10.0));
+        dao.saveOrder(new OrderRecord(t0.plusSeconds(10), "u", "AAPL", "BUY", 2, 10.0, 10.0));
+
+        assertEquals(List.of(1, 2, 3),
+                dao.findOrdersByUser("u").stream().map(OrderRecord::getShares).toList());
+        assertEquals(List.of(3, 2, 1),
+                new JsonTradingDataAccess(tempFile).findOrders("u", null, null, 5, null)
+                        .getOrders().stream().map(OrderRecord::getShares).toList());
+    }
 }
@@ -0,0 +1,124 @@
+package usecase.trading;
+
+import data.trading.InMemoryTradingDataAccess;
+import entity.Holding;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MatchingEngineTest {
+
+    private InMemoryTradingDataAccess dao;
+    private MatchingEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        dao = new InMemoryTradingDataAccess();
+        engine = new MatchingEngine(dao);
+    }
+
+    private static List<Long> filledIds(List<MatchingEngine.Fill> fills) {
+        return fills.stream().map(f -> f.getOrder().getId()).toList();
+    }
+
+    @Test
+    void buyLimitFillsOnceThePriceFallsToIt() {
+        dao.updateCash("u", 1000.0);
+        RestingOrder order = engine.submit("u", "aapl", TradingInputData.Action.BUY,
+                TradingInputData.OrderType.LIMIT, 5, 100.0);
+
+        assertTrue(engine.onQuote("AAPL", 101.0).isEmpty());
+        List<MatchingEngine.Fill> fills = engine.onQuote("AAPL", 99.5);
+
+        assertEquals(List.of(order.getId()), filledIds(fills));
+        assertTrue(fills.get(0).getExecution().isExecuted());
+        assertEquals(1000.0 - 5 * 99.5, dao.getCash("u"), 0.001);
+        assertEquals(5, dao.getHolding("u", "AAPL").getShares());
+        assertEquals(0, engine.getOpenOrderCount());
+        assertTrue(engine.onQuote("AAPL", 90.0).isEmpty(), "a filled order does not fill twice");
+    }
+
+    @Test
+    void sellStopsAndLimitsTriggerInPriceThenTimeOrder() {
+        dao.updateHolding("u", new Holding("MSFT", 10, 50.0));
+        long stopHigh = engine.submit("u", "MSFT", TradingInputData.Action.SELL,
+                TradingInputData.OrderType.STOP, 1, 45.0).getId();
+        long stopLow = engine.submit("u", "MSFT", TradingInputData.Action.SELL,
+                TradingInputData.OrderType.STOP, 1, 40.0).getId();
+        long stopHighLater = engine.submit("u", "MSFT", TradingInputData.Action.SELL,
+                TradingInputData.OrderType.STOP, 1, 45.0).getId();
+        long limit = engine.submit("u", "MSFT", TradingInputData.Action.SELL,
+                TradingInputData.OrderType.LIMIT, 2, 60.0).getId();
+
+        assertEquals(List.of(stopHigh, stopHighLater), filledIds(engine.onQuote("MSFT", 44.0)));
+        assertEquals(List.of(stopLow), filledIds(engine.onQuote("MSFT", 39.0)));
+        assertEquals(List.of(limit), filledIds(engine.onQuote("MSFT", 61.0)));
+        assertEquals(5, dao.getHolding("u", "MSFT").getShares());
+    }
+
+    @Test
+    void buyStopWaitsForARiseAndCancelledOrdersNeverFill() {
+        dao.updateCash("u", 1000.0);
+        long cancelled = engine.submit("u", "TSLA", TradingInputData.Action.BUY,
+                TradingInputData.OrderType.STOP, 1, 200.0).getId();
+        long kept = engine.submit("u", "TSLA", TradingInputData.Action.BUY,
+                TradingInputData.OrderType.STOP, 1, 210.0).getId();
+
+        assertTrue(engine.cancel(cancelled));
+        assertFalse(engine.cancel(cancelled));
+        assertEquals(List.of(kept), engine.getOpenOrders("u").stream().map(RestingOrder::getId).toList());
+        assertEquals(1, engine.getBookSize("TSLA"));
+
+        assertTrue(engine.onQuote("TSLA", 190.0).isEmpty());
+        assertEquals(List.of(kept), filledIds(engine.onQuote("TSLA", 215.0)));
+    }
+
+    @Test
+    void cancelledOrdersLeaveTheHeapAndTheRestKeepTheirOrder() {
+        dao.updateCash("u", 10_000.0);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            ids.add(engine.submit("u", "MSFT", TradingInputData.Action.BUY,
+                    TradingInputData.OrderType.LIMIT, 1, 100.0 - i).getId());
+        }
+        for (int i = 0; i < 50; i += 2) {
+            assertTrue(engine.cancel(ids.get(i)));
+        }
+        assertEquals(25, engine.getBookSize("MSFT"));
+        assertEquals(Set.of("MSFT"), engine.getOpenSymbols());
+
+        assertEquals(List.of(ids.get(1), ids.get(3), ids.get(5), ids.get(7), ids.get(9)),
+                filledIds(engine.onQuote("MSFT", 90.5)));
+        assertEquals(20, engine.getBookSize("MSFT"));
+    }
+
+    @Test
+    void triggeredOrderWithoutCashIsRejectedAndDropped() {
+        dao.updateCash("u", 50.0);
+        engine.submit("u", "AAPL", TradingInputData.Action.BUY, TradingInputData.OrderType.LIMIT, 1, 100.0);
+
+        List<MatchingEngine.Fill> fills = engine.onQuote("AAPL", 90.0);
+
+        assertEquals(OrderExecution.Status.INSUFFICIENT_CASH, fills.get(0).getExecution().getStatus());
+        assertEquals(50.0, dao.getCash("u"), 0.001);
+        assertEquals(0, engine.getOpenOrderCount());
+    }
+
+    @Test
+    void manyRestingOrdersOnlyTriggeredOnesArePopped() {
+        dao.updateCash("u", 1_000_000.0);
+        for (int i = 0; i < 5000; i++) {
+            engine.submit("u", "AAPL", TradingInputData.Action.BUY,
+                    TradingInputData.OrderType.LIMIT, 1, 100.0 - i * 0.01);
+        }
+
+        assertTrue(engine.onQuote("AAPL", 150.0).isEmpty());
+        assertEquals(11, engine.onQuote("AAPL", 99.9).size());   // limits 100.00 .. 99.90
+        assertEquals(4989, engine.getOpenOrderCount());
+    }
+}
@@ -0,0 +1,159 @@
+package usecase.trading;
+
+import data.trading.JsonTradingDataAccess;
+import data.trading.JsonTradingDataAccess.PersistenceMode;
+import entity.OrderRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderLogTradingDataAccessTest {
+
+    private static final Instant T0 = Instant.parse("2024-03-01T09:30:00.000000001Z");
+    private static final long SMALL_SEGMENT = 256;
+
+    private Path dir;
+    private Path stateFile;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dir = Files.createTempDirectory("order-log");
+        stateFile = dir.resolve("orders.json");
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        try (var files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    private JsonTradingDataAccess open(PersistenceMode mode, int snapshotInterval) {
+        return new JsonTradingDataAccess(stateFile, mode, snapshotInterval,
+                Duration.ZERO, SMALL_SEGMENT);
+    }
+
+    private static OrderRecord order(int i, String user) {
+        return new OrderRecord(T0.plusSeconds(60L * i), user, "AAPL", "BUY", i + 1, 10.0 + i, (i + 1) * (10.0 + i));
+    }
+
+    private long segmentCount() throws Exception {
+        try (var files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().startsWith("orders.json.orders.")).count();
+        }
+    }
+
+    @Test
+    void historyGoesToSegmentsAndSnapshotKeepsOnlyBalances() throws Exception {
+        try (JsonTradingDataAccess dao = open(PersistenceMode.SNAPSHOT, 1)) {
+            dao.updateCash("alice", 500.0);
+            for (int i = 0; i < 20; i++) {
+                dao.saveOrder(order(i, i % 2 == 0 ? "alice" : "bob"));
+            }
+        }
+
+        String state = new String(Files.readAllBytes(stateFile), StandardCharsets.UTF_8);
+        assertTrue(state.contains("\"orderRecords\": []"), "orders live in the log, not the snapshot");
+        assertTrue(segmentCount() > 1, "a small segment size rolls over to new segment files");
+
+        try (JsonTradingDataAccess reloaded = open(PersistenceMode.SNAPSHOT, 1)) {
+            assertEquals(500.0, reloaded.getCash("alice"), 0.001);
+            List<OrderRecord> alice = reloaded.findOrdersByUser("alice");
+            assertEquals(10, alice.size());
+            assertEquals(T0, alice.get(0).getTimestamp());
+            assertEquals(19, alice.get(9).getShares());
+            assertEquals(28.0, alice.get(9).getPrice());
+
+            OrderPage page = reloaded.findOrders("bob", null, null, 3, null);
+            assertEquals(List.of(20, 18, 16),
+                    page.getOrders().stream().map(OrderRecord::getShares).toList());
+            page = reloaded.findOrders("bob", null, null, 3, page.getNextCursor());
+            assertEquals(List.of(14, 12, 10),
+                    page.getOrders().stream().map(OrderRecord::getShares).toList());
+
+            reloaded.saveOrder(order(20, "bob"));
+            assertEquals(11, reloaded.findOrdersByUser("bob").size());
+        }
+    }
+
+    @Test
+    void indexedOrdersAreReadFromTheLogOnceCheckpointed() throws Exception {
+        try (JsonTradingDataAccess dao = open(PersistenceMode.JOURNAL, 2)) {
+            assertTrue(dao.findOrdersByUser("alice").isEmpty());   // index built before any order
+            for (int i = 0; i < 20; i++) {
+                dao.saveOrder(order(i, i % 2 == 0 ? "alice" : "bob"));
+            }
+            // Queued behind the last checkpoint, so every order has been swapped for its position.
+            dao.updateCash("alice", 1.0);
+
+            assertTrue(segmentCount() > 1);
+            List<OrderRecord> alice = dao.findOrdersByUser("alice");
+            assertEquals(10, alice.size());
+            for (int i = 0; i < 10; i++) {
+                assertEquals(order(2 * i, "alice").getShares(), alice.get(i).getShares());
+                assertEquals(order(2 * i, "alice").getTimestamp(), alice.get(i).getTimestamp());
+            }
+            OrderPage page = dao.findOrders("bob", null, null, 2, null);
+            assertEquals(List.of(20, 18),
+                    page.getOrders().stream().map(OrderRecord::getShares).toList());
+        }
+    }
+
+    @Test
+    void legacySnapshotOrdersMoveIntoTheLog() throws Exception {
+        String legacy = "{\n"
+                + "  \"userCash\": {\"u\": 900.0},\n"
+                + "  \"userHoldings\": {},\n"
+                + "  \"orderRecords\": [{\"timestamp\": \"2024-01-02T00:00:00Z\", \"username\": \"u\","
+                + " \"symbol\": \"AAPL\", \"action\": \"BUY\", \"shares\": 1, \"price\": 100.0,"
+                + " \"totalAmount\": 100.0}]\n"
+                + "}";
+        Files.write(stateFile, legacy.getBytes(StandardCharsets.UTF_8));
+
+        try (JsonTradingDataAccess dao = open(PersistenceMode.SNAPSHOT, 1)) {
+            assertEquals(1, dao.findOrdersByUser("u").size());
+            dao.saveOrder(order(0, "u"));
+        }
+        assertEquals(1, segmentCount());
+
+        try (JsonTradingDataAccess reloaded = open(PersistenceMode.SNAPSHOT, 1)) {
+            List<OrderRecord> orders = reloaded.findOrdersByUser("u");
+            assertEquals(2, orders.size());
+            assertEquals(Instant.parse("2024-01-02T00:00:00Z"), orders.get(0).getTimestamp());
+        }
+    }
+
+    @Test
+    void logTailPastTheSnapshotIsCutBack() throws Exception {
+        try (JsonTradingDataAccess dao = open(PersistenceMode.JOURNAL, 1)) {
+            dao.saveOrder(order(0, "u"));
+            dao.saveOrder(order(1, "u"));
+        }
+        // A checkpoint that appended to the log but crashed before its snapshot.
+        Path segment = dir.resolve("orders.json.orders.000000");
+        Files.write(segment, new byte[] {0, 0, 0, 99, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        try (JsonTradingDataAccess dao = open(PersistenceMode.JOURNAL, 1)) {
+            assertEquals(2, dao.findOrdersByUser("u").size());
+            dao.saveOrder(order(2, "u"));
+        }
+        try (JsonTradingDataAccess reloaded = open(PersistenceMode.JOURNAL, 1)) {
+            List<OrderRecord> orders = reloaded.findOrdersByUser("u");
+            assertEquals(3, orders.size());
+            assertEquals(3, orders.get(2).getShares());
+        }
+    }
+}
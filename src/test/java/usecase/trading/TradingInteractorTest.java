@@ -33,6 +33,7 @@ class TradingInteractorTest {
         List<OrderRecord> savedOrders = new ArrayList<>();
         double stubPrice = 100.0;
         boolean throwOnQuote = false;
+        int quoteCalls = 0;
 
         @Override public double getCash(String username) { return cash; }
         @Override public void updateCash(String username, double newCash) { cash = newCash; }
@@ -50,6 +51,7 @@ class TradingInteractorTest {
 
         @Override public double getStockPrice(String symbol) {
             if (throwOnQuote) throw new RuntimeException("quote fail");
+            quoteCalls++;
             return stubPrice;
         }
         @Override public List<Holding> getUserHoldings(String username) {
@@ -62,11 +64,29 @@ class TradingInteractorTest {
 
     static class SpyPresenter implements TradingOutputBoundary {
         TradingOutputData last;
+        List<TradingOutputData> batch;
+        List<TradingOutputData> fills;
+        List<RestingOrder> openOrders;
 
         @Override
         public void presentTradeResult(TradingOutputData output) {
             last = output;
         }
+
+        @Override
+        public void presentTradeResults(List<TradingOutputData> outputs) {
+            batch = outputs;
+        }
+
+        @Override
+        public void presentFills(List<TradingOutputData> outputs) {
+            fills = outputs;
+        }
+
+        @Override
+        public void presentOpenOrders(List<RestingOrder> orders) {
+            openOrders = orders;
+        }
     }
 
     @Test
@@ -228,4 +248,81 @@ class TradingInteractorTest {
         assertEquals(7.5, out.getTotalHoldingValueAfterTrade());
     }
 
+    @Test
+    void placeOrders_checksEachOrderAgainstRunningBalance() {
+        dao.cash = 1000.0;
+        dao.updateHolding("u", new Holding("MSFT", 2, 50.0));
+
+        interactor.placeOrders(List.of(
+                new TradingInputData("u", "AAPL", TradingInputData.Action.BUY, 6),   // 600
+                new TradingInputData("u", "AAPL", TradingInputData.Action.BUY, 5),   // 500 > 400 left
+                new TradingInputData("u", "MSFT", TradingInputData.Action.SELL, 2),  // +200
+                new TradingInputData("u", "AAPL", TradingInputData.Action.SELL, 6),
+                new TradingInputData("u", "AAPL", TradingInputData.Action.SELL, 1),  // none left
+                new TradingInputData("u", "", TradingInputData.Action.BUY, 1)));
+
+        List<TradingOutputData> results = presenter.batch;
+        assertEquals(6, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals("Not enough cash.", results.get(1).getMessage());
+        assertTrue(results.get(2).isSuccess());
+        assertEquals(600.0, results.get(2).getCashAfterTrade(), 0.001);
+        assertTrue(results.get(3).isSuccess());
+        assertEquals("Not enough shares to sell.", results.get(4).getMessage());
+        assertFalse(results.get(5).isSuccess());
+
+        assertEquals(1200.0, dao.getCash("u"), 0.001);
+        assertNull(dao.getHolding("u", "AAPL"));
+        assertNull(dao.getHolding("u", "MSFT"));
+        assertEquals(3, dao.savedOrders.size());
+        assertEquals(2, dao.quoteCalls, "one quote per distinct symbol");
+    }
+
+    @Test
+    void fillRestingOrders_presentsFillsToTheirOwners() {
+        dao.cash = 1000.0;
+        TradingInteractor withEngine = new TradingInteractor(dao, presenter, new MatchingEngine(dao));
+        withEngine.placeOrder(new TradingInputData("u", "AAPL", TradingInputData.Action.BUY, 2,
+                TradingInputData.OrderType.LIMIT, 90.0));
+
+        withEngine.fillRestingOrders("AAPL", 95.0);
+        assertNull(presenter.fills, "nothing triggered above the limit");
+
+        withEngine.fillRestingOrders("AAPL", 90.0);
+        assertEquals(1, presenter.fills.size());
+        TradingOutputData fill = presenter.fills.get(0);
+        assertTrue(fill.isSuccess());
+        assertEquals("u", fill.getUsername());
+        assertEquals(820.0, fill.getCashAfterTrade(), 0.001);
+        assertEquals(2, fill.getTotalSharesAfterTrade());
+    }
+
+    @Test
+    void cancelOrder_onlyCancelsTheUsersOwnOpenOrders() {
+        dao.cash = 1000.0;
+        MatchingEngine engine = new MatchingEngine(dao);
+        TradingInteractor withEngine = new TradingInteractor(dao, presenter, engine);
+        withEngine.placeOrder(new TradingInputData("u", "AAPL", TradingInputData.Action.BUY, 2,
+                TradingInputData.OrderType.LIMIT, 90.0));
+        withEngine.placeOrder(new TradingInputData("other", "AAPL", TradingInputData.Action.BUY, 1,
+                TradingInputData.OrderType.LIMIT, 80.0));
+        long mine = engine.getOpenOrders("u").get(0).getId();
+        long theirs = engine.getOpenOrders("other").get(0).getId();
+
+        withEngine.showOpenOrders("u");
+        assertEquals(List.of(mine), presenter.openOrders.stream().map(RestingOrder::getId).toList());
+
+        withEngine.cancelOrder("u", theirs);
+        assertFalse(presenter.last.isSuccess());
+        assertEquals(1, engine.getOpenOrders("other").size());
+
+        withEngine.cancelOrder("u", mine);
+        assertTrue(presenter.last.isSuccess());
+        assertTrue(presenter.openOrders.isEmpty());
+        assertEquals(1, engine.getBookSize("AAPL"));
+
+        withEngine.fillRestingOrders("AAPL", 50.0);
+        assertEquals(1, presenter.fills.size());
+        assertEquals("other", presenter.fills.get(0).getUsername());
+    }
 }
@@ -0,0 +1,114 @@
+package usecase.trends;
+
+import data.database.DataSourceFactory;
+import data.database.RegisteredExpenseRepository;
+import data.database.TableInitializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpenseRollupTest {
+
+    private Path dbFile;
+    private DataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dbFile = Files.createTempFile("rollups", ".db");
+        dataSource = DataSourceFactory.sqlite(dbFile.toString());
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        ((Closeable) dataSource).close();
+        Files.deleteIfExists(dbFile);
+    }
+
+    private void execute(String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate(sql);
+        }
+    }
+
+    private List<String> rollups() throws Exception {
+        List<String> rows = new ArrayList<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT username, granularity, period, type, total,"
+                     + " expense_count FROM expense_rollups ORDER BY username, granularity, period, type")) {
+            while (rs.next()) {
+                rows.add(rs.getString(1) + " " + rs.getString(2) + " " + rs.getString(3) + " "
+                        + rs.getString(4) + " " + rs.getDouble(5) + " x" + rs.getInt(6));
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    void addsMaintainDailyAndMonthlyRollups() throws Exception {
+        TableInitializer.ensureSchema(dataSource);
+        RegisteredExpenseRepository repo = new RegisteredExpenseRepository(dataSource);
+        repo.add("alice", "2025-01-01 08:00", "Food", 10.0);
+        repo.add("alice", "2025-01-01 19:00", "Food", 5.0);
+        repo.add("alice", "2025-01-20 12:00", "Food", 2.5);
+        repo.add("alice", "2025-02-03 12:00", "Rent", 700.0);
+        repo.add("bob", "2025-01-01 12:00", "Food", 1.0);
+
+        assertEquals(List.of(
+                "alice DAY 2025-01-01 Food 15.0 x2",
+                "alice DAY 2025-01-20 Food 2.5 x1",
+                "alice DAY 2025-02-03 Rent 700.0 x1",
+                "alice MONTH 2025-01 Food 17.5 x3",
+                "alice MONTH 2025-02 Rent 700.0 x1",
+                "bob DAY 2025-01-01 Food 1.0 x1",
+                "bob MONTH 2025-01 Food 1.0 x1"), rollups());
+        assertEquals(717.5, repo.getTotalForUser("alice"), 1e-9);
+        assertEquals(0.0, repo.getTotalForUser("carol"), 1e-9);
+        assertEquals(Map.of(LocalDate.of(2025, 1, 1), Map.of("Food", 15.0)),
+                repo.sumByDayAndType("alice", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 19)));
+    }
+
+    @Test
+    void existingExpensesAreRolledUpOnFirstStartAndOnRebuild() throws Exception {
+        execute("CREATE TABLE expenses (id INTEGER PRIMARY KEY AUTOINCREMENT, username TEXT NOT NULL,"
+                + " datetime TEXT NOT NULL, type TEXT NOT NULL, amount REAL NOT NULL)");
+        execute("INSERT INTO expenses (username, datetime, type, amount) VALUES"
+                + " ('alice', '2025-03-01 10:00', 'Food', 4.0),"
+                + " ('alice', '2025-03-01 11:00', 'Food', 6.0)");
+
+        TableInitializer.ensureSchema(dataSource);
+        RegisteredExpenseRepository repo = new RegisteredExpenseRepository(dataSource);
+        assertEquals(10.0, repo.getTotalForUser("alice"), 1e-9);
+
+        // Written behind the repository's back, so the rollups miss it until rebuilt.
+        execute("INSERT INTO expenses (username, datetime, type, amount)"
+                + " VALUES ('alice', '2025-04-02 09:00', 'Leisure', 20.0)");
+        assertEquals(10.0, repo.getTotalForUser("alice"), 1e-9);
+
+        repo.rebuildRollups();
+        assertEquals(List.of(
+                "alice DAY 2025-03-01 Food 10.0 x2",
+                "alice DAY 2025-04-02 Leisure 20.0 x1",
+                "alice MONTH 2025-03 Food 10.0 x2",
+                "alice MONTH 2025-04 Leisure 20.0 x1"), rollups());
+        assertEquals(30.0, repo.getTotalForUser("alice"), 1e-9);
+
+        TableInitializer.ensureSchema(dataSource);   // does not rebuild again
+        assertEquals(4, rollups().size());
+    }
+}
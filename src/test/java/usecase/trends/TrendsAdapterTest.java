@@ -0,0 +1,74 @@
+package usecase.trends;
+
+import data.database.DataSourceFactory;
+import data.database.RegisteredExpenseRepository;
+import data.database.TableInitializer;
+import data.expense.TrendsAdapter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendsAdapterTest {
+
+    private Path dbFile;
+    private DataSource dataSource;
+    private RegisteredExpenseRepository repo;
+    private TrendsAdapter adapter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dbFile = Files.createTempFile("trends", ".db");
+        dataSource = DataSourceFactory.sqlite(dbFile.toString());
+        TableInitializer.ensureSchema(dataSource);
+        repo = new RegisteredExpenseRepository(dataSource);
+        adapter = new TrendsAdapter(repo);
+    }
+
+    @AfterEach
+    void cleanup() throws Exception {
+        ((Closeable) dataSource).close();
+        Files.deleteIfExists(dbFile);
+    }
+
+    @Test
+    void dailyTotalsAreGroupedInTheQuery() {
+        repo.add("alice", "2024-12-31 23:59", "Food", 100.0);     // before range
+        repo.add("alice", "2025-01-01 00:00", "Food", 10.0);
+        repo.add("alice", "2025-01-01 18:30", "Food", 5.0);
+        repo.add("alice", "2025-01-01 09:00", "Rent", 700.0);
+        repo.add("alice", "2025-01-31 23:59", "Transport", 7.5);  // last day included
+        repo.add("alice", "2025-02-01 00:00", "Food", 100.0);     // after range
+        repo.add("bob", "2025-01-01 12:00", "Food", 100.0);
+
+        Map<LocalDate, Map<String, Double>> totals = adapter.getDailyTotals(
+                "alice", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31));
+
+        assertEquals(List.of(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)),
+                List.copyOf(totals.keySet()));
+        assertEquals(Map.of("Food", 15.0, "Rent", 700.0), totals.get(LocalDate.of(2025, 1, 1)));
+        assertEquals(7.5, totals.get(LocalDate.of(2025, 1, 31)).get("Transport"), 1e-9);
+    }
+
+    @Test
+    void interactorPresentsDatabaseTotals() {
+        repo.add("alice", "2025-03-02 08:00", "Food", 4.0);
+        repo.add("alice", "2025-03-02 20:00", "Food", 6.0);
+        TrendsOutputData[] output = new TrendsOutputData[1];
+
+        new TrendsInteractor(adapter, out -> output[0] = out).execute(
+                new TrendsInputData("alice", LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 31)));
+
+        assertEquals(Map.of(LocalDate.of(2025, 3, 2), Map.of("Food", 10.0)),
+                output[0].getTotalExpenses());
+    }
+}